@@ -0,0 +1,44 @@
+package org.jd.gui.util.nexus;
+
+/**
+ * Connect and read timeouts derived from the latency observed per endpoint.
+ *
+ * Until an endpoint has {@link #MIN_SAMPLES} requests we use the caller's
+ * defaults. Then the read timeout is three times the observed p99 plus a
+ * margin, so a hung request is abandoned long before a fixed worst-case
+ * timeout while a slow but healthy server is not cut off. A retry after a
+ * timeout doubles the timeout of the attempt before it.
+ */
+final class AdaptiveTimeouts {
+
+    static final int MIN_SAMPLES = 20;
+
+    private static final int MIN_CONNECT_MILLIS = 1_000;
+    private static final int MIN_READ_MILLIS = 2_000;
+    private static final int MAX_READ_MILLIS = 120_000;
+
+    private final NexusMetrics metrics;
+
+    AdaptiveTimeouts(NexusMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    int connectTimeout(String endpoint, int defaultMillis) {
+        NexusMetrics.Endpoint e = metrics.endpoint(endpoint);
+        if (e.connect.count() < MIN_SAMPLES) {
+            return defaultMillis;
+        }
+        long p99 = e.connect.percentile(0.99) / 1000;
+        return (int) Math.max(MIN_CONNECT_MILLIS, Math.min(defaultMillis, 3 * p99 + 500));
+    }
+
+    int readTimeout(String endpoint, int defaultMillis, int attempt) {
+        NexusMetrics.Endpoint e = metrics.endpoint(endpoint);
+        long base = defaultMillis;
+        if (e.total.count() >= MIN_SAMPLES) {
+            long p99 = e.total.percentile(0.99) / 1000;
+            base = Math.max(MIN_READ_MILLIS, 3 * p99 + 1_000);
+        }
+        return (int) Math.min(MAX_READ_MILLIS, base << Math.min(4, attempt));
+    }
+}
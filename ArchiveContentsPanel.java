@@ -0,0 +1,324 @@
+package org.jd.gui.util.maven.central.helper;
+
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
+import org.fife.ui.rtextarea.RTextScrollPane;
+import org.jd.gui.api.API;
+import org.jd.gui.util.ThemeUtil;
+import org.jd.gui.util.nexus.NexusConfig;
+import org.jd.gui.util.nexus.RemoteZip;
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.jdesktop.swingx.JXTable;
+
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSplitPane;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+import java.awt.BorderLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * We list the entries of a remote archive without downloading it (see
+ * RemoteZip), and show the content of the selected entry when it is small.
+ *
+ * The panel is only loaded when shown: the search panel passes the
+ * selected artifact while the Contents tab is visible. Opened archives are
+ * kept in a small LRU cache, so going back to an artifact costs no request.
+ */
+final class ArchiveContentsPanel extends JPanel {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int CACHE_SIZE = 16;
+    private static final Set<String> ARCHIVES = Set.of("jar", "war", "ear", "aar", "zip", "rar", "hpi", "jpi", "nar");
+
+    private final transient NexusConfig config;
+    private final JLabel status = new JLabel(" ");
+    private final EntryTableModel entryModel = new EntryTableModel();
+    private final JXTable entryTable = new JXTable(entryModel);
+    private final RSyntaxTextArea contentArea = new RSyntaxTextArea();
+
+    private final transient Map<String, RemoteZip> archives = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RemoteZip> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private transient NexusArtifact artifact;
+    private transient RemoteZip archive;
+    private transient SwingWorker<?, ?> worker;
+
+    ArchiveContentsPanel(API api, NexusConfig config) {
+        super(new BorderLayout());
+        this.config = config;
+
+        status.setBorder(BorderFactory.createEmptyBorder(2, 4, 2, 4));
+        entryTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        entryTable.setColumnControlVisible(true);
+        entryTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                showSelectedEntry();
+            }
+        });
+        contentArea.setEditable(false);
+        contentArea.setCodeFoldingEnabled(false);
+        ThemeUtil.applyTheme(api, contentArea);
+
+        JSplitPane split = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT,
+                new JScrollPane(entryTable), new RTextScrollPane(contentArea));
+        split.setResizeWeight(0.5);
+        add(status, BorderLayout.NORTH);
+        add(split, BorderLayout.CENTER);
+    }
+
+    /**
+     * We show the archive of the artifact, opening it in the background
+     * unless it is cached.
+     */
+    void setArtifact(NexusArtifact newArtifact) {
+        if (newArtifact == artifact) {
+            return;
+        }
+        artifact = newArtifact;
+        cancelWorker();
+        archive = null;
+        entryModel.setEntries(List.of());
+        contentArea.setText("");
+
+        String link = newArtifact == null ? null : newArtifact.artifactLink();
+        if (link == null || link.isBlank()) {
+            status.setText(newArtifact == null ? " " : "No download link for this artifact.");
+            return;
+        }
+        if (!isArchive(newArtifact)) {
+            status.setText("Not an archive: " + newArtifact.extension());
+            return;
+        }
+        RemoteZip cached = archives.get(link);
+        if (cached != null) {
+            showArchive(cached);
+            return;
+        }
+
+        status.setText("Reading the central directory...");
+        SwingWorker<RemoteZip, Void> open = new SwingWorker<>() {
+            @Override
+            protected RemoteZip doInBackground() throws Exception {
+                return RemoteZip.open(link, config);
+            }
+
+            @Override
+            protected void done() {
+                if (worker != this) {
+                    return;
+                }
+                worker = null;
+                try {
+                    RemoteZip zip = get();
+                    archives.put(link, zip);
+                    showArchive(zip);
+                } catch (CancellationException | InterruptedException ignored) {
+                    // Another artifact was selected
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    status.setText("Cannot read the archive: " + cause.getMessage());
+                }
+            }
+        };
+        worker = open;
+        open.execute();
+    }
+
+    private void showArchive(RemoteZip zip) {
+        archive = zip;
+        entryModel.setEntries(zip.entries());
+        updateStatus();
+    }
+
+    private void updateStatus() {
+        if (archive != null) {
+            status.setText(String.format(Locale.ROOT, "%d entries, %s transferred of %s",
+                    archive.entries().size(), size(archive.bytesTransferred()), size(archive.length())));
+        }
+    }
+
+    private void showSelectedEntry() {
+        int viewRow = entryTable.getSelectedRow();
+        RemoteZip zip = archive;
+        if (viewRow < 0 || zip == null) {
+            return;
+        }
+        RemoteZip.Entry entry = entryModel.entries.get(entryTable.convertRowIndexToModel(viewRow));
+        if (entry.isDirectory()) {
+            contentArea.setText("");
+            return;
+        }
+        if (entry.size() > RemoteZip.MAX_ENTRY_SIZE) {
+            contentArea.setText("Entry too large to show (" + size(entry.size()) + ").");
+            return;
+        }
+        cancelWorker();
+        SwingWorker<byte[], Void> read = new SwingWorker<>() {
+            @Override
+            protected byte[] doInBackground() throws Exception {
+                return zip.read(entry);
+            }
+
+            @Override
+            protected void done() {
+                if (worker != this) {
+                    return;
+                }
+                worker = null;
+                try {
+                    byte[] content = get();
+                    contentArea.setSyntaxEditingStyle(syntaxStyle(entry.name()));
+                    contentArea.setText(describe(entry.name(), content));
+                    contentArea.setCaretPosition(0);
+                    updateStatus();
+                } catch (CancellationException | InterruptedException ignored) {
+                    // Another entry was selected
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    contentArea.setText("Cannot read " + entry.name() + ": " + cause.getMessage());
+                }
+            }
+        };
+        worker = read;
+        read.execute();
+    }
+
+    /**
+     * We cancel the read in progress and forget the cached archives.
+     */
+    void close() {
+        cancelWorker();
+        archive = null;
+        archives.clear();
+    }
+
+    private void cancelWorker() {
+        if (worker != null) {
+            worker.cancel(true);
+            worker = null;
+        }
+    }
+
+    private static boolean isArchive(NexusArtifact artifact) {
+        String extension = artifact.extension();
+        if (extension == null || extension.isBlank()) {
+            String link = artifact.artifactLink();
+            int dot = link.lastIndexOf('.');
+            extension = dot < 0 ? "" : link.substring(dot + 1);
+        }
+        return ARCHIVES.contains(extension.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * We show text entries as they are, class files as their header and
+     * other binary entries as their size.
+     */
+    static String describe(String name, byte[] content) {
+        if (name.endsWith(".class")) {
+            if (content.length >= 8 && (content[0] & 0xFF) == 0xCA && (content[1] & 0xFF) == 0xFE
+                    && (content[2] & 0xFF) == 0xBA && (content[3] & 0xFF) == 0xBE) {
+                int major = ((content[6] & 0xFF) << 8) | (content[7] & 0xFF);
+                String java = major >= 49 ? Integer.toString(major - 44) : "1." + (major - 44);
+                return "Class file, " + size(content.length) + ", class file version " + major + " (Java " + java + ")\n";
+            }
+            return "Invalid class file, " + size(content.length) + "\n";
+        }
+        int probe = Math.min(content.length, 8000);
+        for (int i = 0; i < probe; i++) {
+            if (content[i] == 0) {
+                return "Binary entry, " + size(content.length) + "\n";
+            }
+        }
+        return new String(content, StandardCharsets.UTF_8);
+    }
+
+    private static String syntaxStyle(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".xml") || lower.endsWith(".pom")) {
+            return SyntaxConstants.SYNTAX_STYLE_XML;
+        }
+        if (lower.endsWith(".properties")) {
+            return SyntaxConstants.SYNTAX_STYLE_PROPERTIES_FILE;
+        }
+        if (lower.endsWith(".json")) {
+            return SyntaxConstants.SYNTAX_STYLE_JSON;
+        }
+        if (lower.endsWith(".java")) {
+            return SyntaxConstants.SYNTAX_STYLE_JAVA;
+        }
+        return SyntaxConstants.SYNTAX_STYLE_NONE;
+    }
+
+    private static String size(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        }
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static final class EntryTableModel extends AbstractTableModel {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final String[] COLUMN_NAMES = {"Name", "Size", "Packed", "Modified"};
+
+        private transient List<RemoteZip.Entry> entries = List.of();
+
+        void setEntries(List<RemoteZip.Entry> newEntries) {
+            entries = newEntries;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return entries.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMN_NAMES.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMN_NAMES[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            return columnIndex == 1 || columnIndex == 2 ? Long.class : String.class;
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            RemoteZip.Entry entry = entries.get(rowIndex);
+            return switch (columnIndex) {
+                case 0 -> entry.name();
+                case 1 -> entry.size();
+                case 2 -> entry.compressedSize();
+                case 3 -> entry.modified() != null ? entry.modified().toString().replace('T', ' ') : "";
+                default -> null;
+            };
+        }
+    }
+}
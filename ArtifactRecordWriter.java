@@ -0,0 +1,191 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streaming writer of artifacts as CSV or JSON Lines, one record per artifact.
+ *
+ * Records hold the caller's extra columns followed by the artifact columns
+ * (see {@link #ARTIFACT_COLUMNS}); a null artifact leaves the artifact
+ * columns empty (CSV) or out (JSON Lines). We write straight to the
+ * underlying writer and never buffer records, so the caller decides the
+ * buffering and when to flush.
+ */
+public final class ArtifactRecordWriter implements Closeable, Flushable {
+
+    public static final List<String> ARTIFACT_COLUMNS = List.of(
+            "groupId", "artifactId", "version", "versionDate", "classifier", "extension", "repository", "artifactLink");
+
+    public enum Format {
+        CSV, JSONL;
+
+        /**
+         * We accept "csv", "jsonl", "json" and "ndjson", case insensitive.
+         */
+        public static Format parse(String s) {
+            return switch (s == null ? "" : s.trim().toLowerCase(Locale.ROOT)) {
+                case "csv" -> CSV;
+                case "jsonl", "json", "ndjson" -> JSONL;
+                default -> throw new IllegalArgumentException("Unknown format: " + s);
+            };
+        }
+
+        public String fileExtension() {
+            return this == CSV ? "csv" : "jsonl";
+        }
+    }
+
+    private final Writer out;
+    private final Format format;
+    private final List<String> extraColumns;
+    private final StringBuilder line = new StringBuilder(256);
+
+    public ArtifactRecordWriter(Writer out, Format format, List<String> extraColumns) {
+        this.out = out;
+        this.format = format;
+        this.extraColumns = List.copyOf(extraColumns);
+    }
+
+    public ArtifactRecordWriter(Writer out, Format format) {
+        this(out, format, List.of());
+    }
+
+    public Format format() {
+        return format;
+    }
+
+    /**
+     * We write the CSV header line; JSON Lines has none.
+     */
+    public void writeHeader() throws IOException {
+        if (format != Format.CSV) {
+            return;
+        }
+        line.setLength(0);
+        boolean first = true;
+        for (String column : extraColumns) {
+            first = csv(first, column);
+        }
+        for (String column : ARTIFACT_COLUMNS) {
+            first = csv(first, column);
+        }
+        out.append(line).append('\n');
+    }
+
+    /**
+     * We write one record; extras are the values of the extra columns, in order.
+     */
+    public void write(NexusArtifact artifact, String... extras) throws IOException {
+        if (extras.length != extraColumns.size()) {
+            throw new IllegalArgumentException("Expected " + extraColumns.size() + " extra values, got " + extras.length);
+        }
+        line.setLength(0);
+        if (format == Format.CSV) {
+            boolean first = true;
+            for (String extra : extras) {
+                first = csv(first, extra);
+            }
+            String[] values = artifact == null ? new String[ARTIFACT_COLUMNS.size()] : values(artifact);
+            for (String value : values) {
+                first = csv(first, value);
+            }
+        } else {
+            line.append('{');
+            boolean first = true;
+            for (int i = 0; i < extras.length; i++) {
+                first = json(first, extraColumns.get(i), extras[i]);
+            }
+            if (artifact != null) {
+                String[] values = values(artifact);
+                for (int i = 0; i < values.length; i++) {
+                    first = json(first, ARTIFACT_COLUMNS.get(i), values[i]);
+                }
+            }
+            line.append('}');
+        }
+        out.append(line).append('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private static String[] values(NexusArtifact a) {
+        LocalDate date = a.versionDate();
+        return new String[] {
+                a.groupId(), a.artifactId(), a.version(), date == null ? null : date.toString(),
+                a.classifier(), a.extension(), a.repository(), a.artifactLink()
+        };
+    }
+
+    private boolean csv(boolean first, String value) {
+        if (!first) {
+            line.append(',');
+        }
+        if (value != null) {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (quote) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * We skip null values, keeping lines short for sparse artifacts.
+     */
+    private boolean json(boolean first, String name, String value) {
+        if (value == null) {
+            return first;
+        }
+        if (!first) {
+            line.append(',');
+        }
+        jsonString(name);
+        line.append(':');
+        jsonString(value);
+        return false;
+    }
+
+    private void jsonString(String s) {
+        line.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+}
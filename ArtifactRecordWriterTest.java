@@ -0,0 +1,58 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ArtifactRecordWriter.
+ */
+class ArtifactRecordWriterTest {
+
+    private static final NexusArtifact ARTIFACT = new NexusArtifact("org.example", "demo", "1.0",
+            LocalDate.of(2024, 5, 1), null, "jar", "releases", "https://nexus/demo-1.0.jar");
+
+    @Test
+    void csvQuotesOnlyWhenNeeded() throws IOException {
+        StringWriter sw = new StringWriter();
+        ArtifactRecordWriter writer = new ArtifactRecordWriter(sw, ArtifactRecordWriter.Format.CSV, List.of("query"));
+        writer.writeHeader();
+        writer.write(ARTIFACT, "demo, \"quoted\"");
+        writer.write(null, "missing");
+        assertEquals("query,groupId,artifactId,version,versionDate,classifier,extension,repository,artifactLink\n"
+                + "\"demo, \"\"quoted\"\"\",org.example,demo,1.0,2024-05-01,,jar,releases,https://nexus/demo-1.0.jar\n"
+                + "missing,,,,,,,,\n", sw.toString());
+    }
+
+    @Test
+    void jsonLinesSkipNullsAndEscape() throws IOException {
+        StringWriter sw = new StringWriter();
+        ArtifactRecordWriter writer = new ArtifactRecordWriter(sw, ArtifactRecordWriter.Format.JSONL, List.of("query", "error"));
+        writer.writeHeader();
+        writer.write(ARTIFACT, "a\"b\\c", null);
+        writer.write(null, "x", "line\nbreak");
+        assertEquals("{\"query\":\"a\\\"b\\\\c\",\"groupId\":\"org.example\",\"artifactId\":\"demo\",\"version\":\"1.0\","
+                + "\"versionDate\":\"2024-05-01\",\"extension\":\"jar\",\"repository\":\"releases\","
+                + "\"artifactLink\":\"https://nexus/demo-1.0.jar\"}\n"
+                + "{\"query\":\"x\",\"error\":\"line\\nbreak\"}\n", sw.toString());
+    }
+
+    @Test
+    void extraValuesMustMatchColumns() {
+        ArtifactRecordWriter writer = new ArtifactRecordWriter(new StringWriter(), ArtifactRecordWriter.Format.CSV, List.of("query"));
+        assertThrows(IllegalArgumentException.class, () -> writer.write(ARTIFACT));
+    }
+
+    @Test
+    void parseFormat() {
+        assertEquals(ArtifactRecordWriter.Format.JSONL, ArtifactRecordWriter.Format.parse("NDJSON"));
+        assertEquals(ArtifactRecordWriter.Format.CSV, ArtifactRecordWriter.Format.parse("csv"));
+        assertThrows(IllegalArgumentException.class, () -> ArtifactRecordWriter.Format.parse("xml"));
+    }
+}
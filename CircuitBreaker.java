@@ -0,0 +1,92 @@
+package org.jd.gui.util.nexus;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Circuit breaker shared by every client of one Nexus base URL.
+ *
+ * After {@link #FAILURE_THRESHOLD} consecutive failures (network errors, 5xx
+ * or 429) we open the circuit and refuse requests without contacting the
+ * server for {@link #OPEN_MILLIS}, or longer when the server asked for it
+ * with Retry-After. Then a single trial request is let through: success
+ * closes the circuit, failure opens it again. A call that ends without
+ * telling whether the server is up (e.g. a bad URL) releases its
+ * permission, so the next request becomes the trial.
+ */
+final class CircuitBreaker {
+
+    static final int FAILURE_THRESHOLD = 5;
+    static final long OPEN_MILLIS = 30_000;
+
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String baseUrl;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long retryAt;
+    private boolean trialInFlight;
+
+    CircuitBreaker(String baseUrl, int failureThreshold, long openMillis) {
+        this.baseUrl = baseUrl;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    static CircuitBreaker forBaseUrl(String baseUrl) {
+        return BREAKERS.computeIfAbsent(AbstractNexusClient.trimTrailingSlash(baseUrl),
+                url -> new CircuitBreaker(url, FAILURE_THRESHOLD, OPEN_MILLIS));
+    }
+
+    /**
+     * We let the request through or throw when the circuit is open.
+     */
+    synchronized void acquirePermission() throws NexusCircuitOpenException {
+        long now = System.currentTimeMillis();
+        if (state == State.OPEN && now >= retryAt) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.OPEN || (state == State.HALF_OPEN && trialInFlight)) {
+            throw new NexusCircuitOpenException(baseUrl, retryAt);
+        }
+        if (state == State.HALF_OPEN) {
+            trialInFlight = true;
+        }
+    }
+
+    /**
+     * We release a permission whose call ended with neither a success nor a
+     * server failure; the state is unchanged.
+     */
+    synchronized void releasePermission() {
+        trialInFlight = false;
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    /**
+     * We count a failure; retryAfterMillis is the delay asked by the server, or -1.
+     */
+    synchronized void onFailure(long retryAfterMillis) {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            retryAt = System.currentTimeMillis() + Math.max(openMillis, retryAfterMillis);
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,273 @@
+package org.jd.gui.util.nexus.index;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Read-only, memory-mapped index of class names per artifact.
+ *
+ * The file is produced by {@link ClassIndexWriter}. We keep it mapped and
+ * answer queries with binary searches directly on the mapped bytes, so
+ * opening an index costs almost nothing and lookups never materialize the
+ * whole content on the heap.
+ *
+ * Layout (all integers big endian):
+ *
+ *   header     int MAGIC, int VERSION, int gavCount, int classCount, int postingCount,
+ *              long gavPos, long classPos, long simplePos, long postingPos, long poolPos
+ *   gavs       long[gavCount]       offset of the GAV key in the pool, sorted by GAV key
+ *   classes    (long nameOffset, int postingStart, int postingCount)[classCount],
+ *              sorted by fully qualified name
+ *   simple     int[classCount]      class numbers sorted by lower-case simple name
+ *   postings   int[postingCount]    GAV numbers
+ *   pool       (unsigned short length, UTF-8 bytes)*
+ *
+ * Offsets and positions are longs and the file is mapped in segments (see
+ * {@link MappedFile}), so an index may exceed 2 GB. Instances are safe for
+ * concurrent readers.
+ *
+ * A mapped file cannot be replaced on every platform (Windows refuses), so
+ * the writer never replaces one: each write creates the next generation,
+ * "classes.idx.<n>" next to the requested "classes.idx", and we open the
+ * newest generation (see {@link IndexFiles}).
+ */
+public final class ClassIndex {
+
+    static final int MAGIC = 0x4E584349; // "NXCI"
+    static final int VERSION = 3;
+    static final int HEADER_SIZE = 5 * Integer.BYTES + 5 * Long.BYTES;
+    static final int CLASS_RECORD_SIZE = Long.BYTES + 2 * Integer.BYTES;
+
+    private final Path path;
+    private final MappedFile mapped;
+    private final int gavCount;
+    private final int classCount;
+    private final long gavPos;
+    private final long classPos;
+    private final long simplePos;
+    private final long postingPos;
+    private final long poolPos;
+
+    private ClassIndex(Path path, MappedFile mapped) throws IOException {
+        this.path = path;
+        this.mapped = mapped;
+        if (mapped.size() < HEADER_SIZE || mapped.getInt(0) != MAGIC) {
+            throw new IOException("Not a class index: " + path);
+        }
+        if (mapped.getInt(4) != VERSION) {
+            throw new IOException("Unsupported class index version " + mapped.getInt(4) + ": " + path);
+        }
+        this.gavCount = mapped.getInt(8);
+        this.classCount = mapped.getInt(12);
+        this.gavPos = mapped.getLong(20);
+        this.classPos = mapped.getLong(28);
+        this.simplePos = mapped.getLong(36);
+        this.postingPos = mapped.getLong(44);
+        this.poolPos = mapped.getLong(52);
+    }
+
+    /**
+     * We map the newest generation of the given index read-only. The mapping
+     * stays valid after the channel is closed.
+     */
+    public static ClassIndex open(Path path) throws IOException {
+        return open(path, MappedFile.DEFAULT_SEGMENT_SHIFT);
+    }
+
+    static ClassIndex open(Path path, int segmentShift) throws IOException {
+        Path latest = latestGeneration(path);
+        Path file = latest != null ? latest : path;
+        return new ClassIndex(file, MappedFile.map(file, segmentShift));
+    }
+
+    /**
+     * We return null instead of failing when there is no usable index at the given location.
+     */
+    public static ClassIndex openIfPresent(Path path) {
+        if (path == null || latestGeneration(path) == null) {
+            return null;
+        }
+        try {
+            return open(path);
+        } catch (IOException ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * We return the newest file of the index, or null when there is none.
+     */
+    public static Path latestGeneration(Path path) {
+        return IndexFiles.latestGeneration(path);
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public int gavCount() {
+        return gavCount;
+    }
+
+    public int classCount() {
+        return classCount;
+    }
+
+    /**
+     * We look up a class name.
+     *
+     * A fully qualified query matches the binary name exactly (nested classes
+     * may be written with '$' or '.'), a simple query matches the simple name
+     * case-insensitively. Hits are ordered by class name, then by GAV key,
+     * and paged with offset/limit.
+     */
+    public List<Hit> find(String query, boolean fullyQualified, int offset, int limit) {
+        List<Hit> hits = new ArrayList<>();
+        if (query == null || query.isBlank() || limit <= 0) {
+            return hits;
+        }
+        String q = query.trim();
+        int skipped = 0;
+
+        if (fullyQualified) {
+            int classNo = findFullyQualified(q);
+            if (classNo < 0 && q.indexOf('$') < 0) {
+                classNo = findNested(q);
+            }
+            if (classNo >= 0) {
+                collectPostings(classNo, offset, limit, hits, skipped);
+            }
+            return hits;
+        }
+
+        String key = q.toLowerCase(Locale.ROOT);
+        int lo = lowerBoundSimple(key);
+        for (int i = lo; i < classCount && hits.size() < limit; i++) {
+            int classNo = mapped.getInt(simplePos + (long) i * Integer.BYTES);
+            String name = className(classNo);
+            if (!simpleKey(name).equals(key)) {
+                break;
+            }
+            skipped = collectPostings(classNo, offset, limit, hits, skipped);
+        }
+        return hits;
+    }
+
+    /**
+     * We return whether the GAV key is recorded, even without classes.
+     */
+    public boolean containsArtifact(String gavKey) {
+        int lo = 0;
+        int hi = gavCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = gavKey(mid).compareTo(gavKey);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // --- Sections, read by the writer when it merges changes into an index
+
+    int postingStart(int classNo) {
+        return mapped.getInt(classPos + (long) classNo * CLASS_RECORD_SIZE + 8);
+    }
+
+    int postingCount(int classNo) {
+        return mapped.getInt(classPos + (long) classNo * CLASS_RECORD_SIZE + 12);
+    }
+
+    int posting(int postingNo) {
+        return mapped.getInt(postingPos + (long) postingNo * Integer.BYTES);
+    }
+
+    public record Hit(String className, IndexedGav gav) {
+    }
+
+    private int collectPostings(int classNo, int offset, int limit, List<Hit> hits, int skipped) {
+        int start = postingStart(classNo);
+        int count = postingCount(classNo);
+        String name = null;
+        for (int i = 0; i < count && hits.size() < limit; i++) {
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            if (name == null) {
+                name = className(classNo);
+            }
+            int gavNo = posting(start + i);
+            hits.add(new Hit(name, IndexedGav.fromKey(gavKey(gavNo))));
+        }
+        return skipped;
+    }
+
+    private int findFullyQualified(String name) {
+        int lo = 0;
+        int hi = classCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = className(mid).compareTo(name);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // "a.b.Outer.Inner" may denote "a.b.Outer$Inner": we try replacing dots from the right.
+    private int findNested(String name) {
+        char[] chars = name.toCharArray();
+        for (int i = chars.length - 1; i > 0; i--) {
+            if (chars[i] == '.') {
+                chars[i] = '$';
+                int classNo = findFullyQualified(new String(chars));
+                if (classNo >= 0) {
+                    return classNo;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int lowerBoundSimple(String key) {
+        int lo = 0;
+        int hi = classCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int classNo = mapped.getInt(simplePos + (long) mid * Integer.BYTES);
+            if (simpleKey(className(classNo)).compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    static String simpleKey(String className) {
+        int cut = Math.max(className.lastIndexOf('.'), className.lastIndexOf('$'));
+        return className.substring(cut + 1).toLowerCase(Locale.ROOT);
+    }
+
+    String className(int classNo) {
+        return mapped.string(poolPos + mapped.getLong(classPos + (long) classNo * CLASS_RECORD_SIZE));
+    }
+
+    String gavKey(int gavNo) {
+        return mapped.string(poolPos + mapped.getLong(gavPos + (long) gavNo * Long.BYTES));
+    }
+}
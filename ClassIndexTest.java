@@ -0,0 +1,186 @@
+package org.jd.gui.util.nexus.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ClassIndexWriter and ClassIndex.
+ *
+ * These tests verify:
+ *   - simple name queries are case-insensitive and return every GAV containing the class
+ *   - fully qualified queries accept nested classes written with a dot
+ *   - incremental rebuilds keep existing entries
+ *   - rewrites create a new generation and leave mapped ones readable
+ *   - changes spilled to sorted runs are merged with the base index
+ *   - lookups are the same when the file is mapped in small segments
+ *   - entry name filtering and GAV derivation from the Maven layout
+ */
+class ClassIndexTest {
+
+    private static final IndexedGav LANG3_318 =
+            new IndexedGav("org.apache.commons", "commons-lang3", "3.18.0", null, "jar", "maven-central");
+    private static final IndexedGav LANG3_319 =
+            new IndexedGav("org.apache.commons", "commons-lang3", "3.19.0", null, "jar", "maven-central");
+    private static final IndexedGav GUAVA =
+            new IndexedGav("com.google.guava", "guava", "33.0.0-jre", null, "jar", null);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void simpleNameQuery_isCaseInsensitiveAndReturnsAllGavs() throws Exception {
+        Path file = tempDir.resolve("classes.idx");
+        ClassIndexWriter writer = new ClassIndexWriter();
+        writer.addArtifact(LANG3_318, List.of("org.apache.commons.lang3.StringUtils"));
+        writer.addArtifact(LANG3_319, List.of("org.apache.commons.lang3.StringUtils", "org.apache.commons.lang3.ArrayUtils"));
+        writer.addArtifact(GUAVA, List.of("com.google.common.base.Strings"));
+        writer.write(file);
+
+        ClassIndex index = ClassIndex.open(file);
+        assertEquals(3, index.gavCount());
+        assertEquals(3, index.classCount());
+
+        List<ClassIndex.Hit> hits = index.find("stringutils", false, 0, 10);
+        assertEquals(2, hits.size());
+        assertEquals(LANG3_318, hits.get(0).gav());
+        assertEquals(LANG3_319, hits.get(1).gav());
+
+        List<ClassIndex.Hit> paged = index.find("StringUtils", false, 1, 10);
+        assertEquals(List.of(LANG3_319), paged.stream().map(ClassIndex.Hit::gav).toList());
+
+        assertTrue(index.find("String", false, 0, 10).isEmpty(), "Simple name queries match whole names only");
+    }
+
+    @Test
+    void fullyQualifiedQuery_matchesNestedClassesWrittenWithDots() throws Exception {
+        Path file = tempDir.resolve("classes.idx");
+        ClassIndexWriter writer = new ClassIndexWriter();
+        writer.addArtifact(GUAVA, List.of("com.google.common.collect.ImmutableList$Builder"));
+        writer.write(file);
+
+        ClassIndex index = ClassIndex.open(file);
+        assertEquals(1, index.find("com.google.common.collect.ImmutableList$Builder", true, 0, 10).size());
+        assertEquals(1, index.find("com.google.common.collect.ImmutableList.Builder", true, 0, 10).size());
+        assertEquals(1, index.find("Builder", false, 0, 10).size());
+        assertTrue(index.find("com.google.common.collect.ImmutableList", true, 0, 10).isEmpty());
+    }
+
+    @Test
+    void incrementalRebuild_keepsExistingEntries() throws Exception {
+        Path file = tempDir.resolve("classes.idx");
+        ClassIndexWriter first = new ClassIndexWriter();
+        first.addArtifact(LANG3_318, List.of("org.apache.commons.lang3.StringUtils"));
+        first.write(file);
+
+        ClassIndexWriter second = new ClassIndexWriter(ClassIndex.open(file));
+        assertTrue(second.containsArtifact(LANG3_318.toKey()));
+        second.addArtifact(GUAVA, List.of("com.google.common.base.Strings"));
+        second.write(file);
+
+        ClassIndex index = ClassIndex.open(file);
+        assertEquals(1, index.find("org.apache.commons.lang3.StringUtils", true, 0, 10).size());
+        assertEquals(GUAVA, index.find("Strings", false, 0, 10).get(0).gav());
+    }
+
+    @Test
+    void rewrite_createsNewGenerationWithoutReplacingMappedFile() throws Exception {
+        Path file = tempDir.resolve("classes.idx");
+        ClassIndexWriter first = new ClassIndexWriter();
+        first.addArtifact(LANG3_318, List.of("org.apache.commons.lang3.StringUtils"));
+        Path firstFile = first.write(file);
+        ClassIndex mapped = ClassIndex.open(file);
+        assertEquals(firstFile, mapped.path());
+
+        ClassIndexWriter second = new ClassIndexWriter();
+        second.addArtifact(GUAVA, List.of("com.google.common.base.Strings"));
+        Path secondFile = second.write(file);
+        assertNotEquals(firstFile, secondFile);
+        assertEquals(List.of(secondFile), IndexFiles.generations(file));
+
+        assertEquals(LANG3_318, mapped.find("StringUtils", false, 0, 10).get(0).gav());
+        ClassIndex reopened = ClassIndex.open(file);
+        assertEquals(secondFile, reopened.path());
+        assertEquals(GUAVA, reopened.find("Strings", false, 0, 10).get(0).gav());
+    }
+
+    @Test
+    void spilledChanges_areMergedWithTheBaseIndex() throws Exception {
+        Path file = tempDir.resolve("classes.idx");
+        ClassIndexWriter first = new ClassIndexWriter();
+        first.addArtifact(LANG3_318, List.of("org.apache.commons.lang3.StringUtils"));
+        first.addArtifact(LANG3_319, List.of("org.apache.commons.lang3.StringUtils", "org.apache.commons.lang3.ArrayUtils"));
+        first.write(file);
+
+        IndexedGav lang3317 = new IndexedGav("org.apache.commons", "commons-lang3", "3.17.0", null, "jar", "maven-central");
+        try (ClassIndexWriter second = new ClassIndexWriter(ClassIndex.open(file), 2, 2)) {
+            for (int i = 0; i < 10; i++) {
+                second.addArtifact(new IndexedGav("org.example", "demo", "1." + i, null, "jar", null),
+                        List.of("org.example.Demo", "org.example.Demo" + i));
+            }
+            second.removeArtifact(LANG3_318.toKey());
+            second.addArtifact(LANG3_319, List.of("org.apache.commons.lang3.ArrayUtils"));
+            second.addArtifact(lang3317, List.of("org.apache.commons.lang3.StringUtils"));
+            second.addArtifact(GUAVA, List.of("com.google.common.base.Strings"));
+            assertFalse(second.containsArtifact(LANG3_318.toKey()));
+            assertTrue(second.containsArtifact("org.example|demo|1.3||jar|"));
+            second.write(file);
+        }
+
+        ClassIndex index = ClassIndex.open(file);
+        assertEquals(13, index.gavCount());
+        assertEquals(List.of(lang3317), index.find("StringUtils", false, 0, 10).stream().map(ClassIndex.Hit::gav).toList());
+        assertEquals(List.of(LANG3_319), index.find("ArrayUtils", false, 0, 10).stream().map(ClassIndex.Hit::gav).toList());
+        assertEquals(10, index.find("org.example.Demo", true, 0, 100).size());
+        assertEquals("1.7", index.find("demo7", false, 0, 10).get(0).gav().version());
+        assertEquals(GUAVA, index.find("Strings", false, 0, 10).get(0).gav());
+        assertTrue(index.containsArtifact(GUAVA.toKey()));
+        assertFalse(index.containsArtifact(LANG3_318.toKey()));
+    }
+
+    @Test
+    void smallSegments_answerLookupsAcrossSegmentBoundaries() throws Exception {
+        Path file = tempDir.resolve("classes.idx");
+        ClassIndexWriter writer = new ClassIndexWriter();
+        for (int i = 0; i < 40; i++) {
+            writer.addArtifact(new IndexedGav("org.example", "demo-" + i, "1.0", null, "jar", null),
+                    List.of("org.example.demo" + i + ".Demo", "org.example.Shared"));
+        }
+        writer.write(file);
+
+        // 64-byte segments: records and pool strings straddle segment boundaries
+        ClassIndex segmented = ClassIndex.open(file, 6);
+        ClassIndex whole = ClassIndex.open(file);
+        assertEquals(whole.gavCount(), segmented.gavCount());
+        assertEquals(whole.classCount(), segmented.classCount());
+        for (int i = 0; i < 40; i++) {
+            List<ClassIndex.Hit> hits = segmented.find("org.example.demo" + i + ".Demo", true, 0, 10);
+            assertEquals(1, hits.size());
+            assertEquals("demo-" + i, hits.get(0).gav().artifactId());
+        }
+        assertEquals(whole.find("Shared", false, 0, 100).stream().map(ClassIndex.Hit::gav).toList(),
+                segmented.find("Shared", false, 0, 100).stream().map(ClassIndex.Hit::gav).toList());
+        assertEquals(40, segmented.find("shared", false, 0, 100).size());
+    }
+
+    @Test
+    void entryNamesAndPathsAreMapped() {
+        assertEquals("a.b.C", ClassIndexer.toClassName("a/b/C.class"));
+        assertEquals("a.b.C$D", ClassIndexer.toClassName("a/b/C$D.class"));
+        assertEquals("a.b.C", ClassIndexer.toClassName("META-INF/versions/11/a/b/C.class"));
+        assertNull(ClassIndexer.toClassName("a/b/C$1.class"));
+        assertNull(ClassIndexer.toClassName("module-info.class"));
+        assertNull(ClassIndexer.toClassName("a/b/package-info.class"));
+        assertNull(ClassIndexer.toClassName("META-INF/MANIFEST.MF"));
+
+        Path root = Path.of("repo");
+        IndexedGav gav = ClassIndexer.gavFromPath(root,
+                root.resolve("org/apache/commons/commons-lang3/3.19.0/commons-lang3-3.19.0-tests.jar"));
+        assertEquals(new IndexedGav("org.apache.commons", "commons-lang3", "3.19.0", "tests", "jar", null), gav);
+        assertNull(ClassIndexer.gavFromPath(root, root.resolve("org/foo/1.0/other-1.0.jar")));
+    }
+}
@@ -0,0 +1,335 @@
+package org.jd.gui.util.nexus.index;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * We collect class names per GAV and write them as a {@link ClassIndex} file.
+ *
+ * Class names and GAV keys are stored once in a shared string pool, so the
+ * thousands of versions of the same library only cost one posting entry per
+ * class. Incremental updates start from the existing index, which stays
+ * mapped: we only record the GAVs that changed, and write the new file as a
+ * merge of the index with those changes.
+ *
+ * Changes, postings and the simple name table go through {@link SortedRuns},
+ * and sections are streamed to temporary files, so the heap does not grow
+ * with the size of the index.
+ *
+ * This class is not thread-safe; parallel indexers synchronize on it.
+ */
+public final class ClassIndexWriter implements AutoCloseable {
+
+    private static final int MAX_POOL_STRING = 0xFFFF;
+    private static final int RUN_SIZE = 1 << 12;
+    private static final int TABLE_RUN_SIZE = 1 << 17;
+
+    // Recorded for a removal, compared by identity
+    private static final List<String> REMOVED = List.of();
+
+    private static final SortedRuns.Codec<List<String>> CODEC = new SortedRuns.Codec<>() {
+        @Override
+        public void write(DataOutputStream out, List<String> names) throws IOException {
+            out.writeInt(names == REMOVED ? -1 : names.size());
+            for (String name : names) {
+                SortedRuns.writeString(out, name);
+            }
+        }
+
+        @Override
+        public List<String> read(DataInputStream in) throws IOException {
+            int count = in.readInt();
+            if (count < 0) {
+                return REMOVED;
+            }
+            List<String> names = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                names.add(SortedRuns.readString(in));
+            }
+            return names;
+        }
+    };
+
+    private final ClassIndex base;
+    private final int tableRunSize;
+    private final SortedRuns<List<String>> changes;
+
+    public ClassIndexWriter() {
+        this(null);
+    }
+
+    /**
+     * We start from the GAVs of base, or from nothing when it is null.
+     */
+    public ClassIndexWriter(ClassIndex base) {
+        this(base, RUN_SIZE, TABLE_RUN_SIZE);
+    }
+
+    ClassIndexWriter(ClassIndex base, int runSize, int tableRunSize) {
+        this.base = base;
+        this.tableRunSize = tableRunSize;
+        this.changes = new SortedRuns<>(CODEC, runSize);
+    }
+
+    public void addArtifact(IndexedGav gav, Collection<String> classNames) {
+        addArtifact(gav.toKey(), classNames);
+    }
+
+    /**
+     * We replace whatever was recorded for the GAV with the given class names.
+     */
+    public void addArtifact(String gavKey, Collection<String> classNames) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : classNames) {
+            if (name != null && !name.isEmpty() && IndexFiles.utf8Length(name) <= MAX_POOL_STRING) {
+                names.add(name);
+            }
+        }
+        changes.put(gavKey, new ArrayList<>(names));
+    }
+
+    public void removeArtifact(String gavKey) {
+        changes.put(gavKey, REMOVED);
+    }
+
+    /**
+     * We drop every GAV not in the given keys and return whether any was dropped.
+     */
+    public boolean retainArtifacts(Set<String> gavKeys) {
+        List<String> dropped = new ArrayList<>();
+        try {
+            changes.forEach((key, names) -> {
+                if (names != REMOVED && !gavKeys.contains(key)) {
+                    dropped.add(key);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (int gavNo = 0; base != null && gavNo < base.gavCount(); gavNo++) {
+            String key = base.gavKey(gavNo);
+            if (!gavKeys.contains(key) && changes.get(key) == null) {
+                dropped.add(key);
+            }
+        }
+        dropped.forEach(this::removeArtifact);
+        return !dropped.isEmpty();
+    }
+
+    public boolean containsArtifact(String gavKey) {
+        List<String> names = changes.get(gavKey);
+        if (names != null) {
+            return names != REMOVED;
+        }
+        return base != null && base.containsArtifact(gavKey);
+    }
+
+    /**
+     * We write the next generation of the index at target (see
+     * {@link IndexFiles}) and return its file.
+     */
+    public Path write(Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path dir = parent != null ? parent : Path.of(".");
+        Path gavs = Files.createTempFile(dir, "gavs", ".tmp");
+        Path classes = Files.createTempFile(dir, "classes", ".tmp");
+        Path postings = Files.createTempFile(dir, "postings", ".tmp");
+        Path pool = Files.createTempFile(dir, "pool", ".tmp");
+        Path remap = Files.createTempFile(dir, "remap", ".tmp");
+        Path tmp = Files.createTempFile(dir, "classes", ".tmp");
+        try (SortedRuns<Integer> changedPostings = new SortedRuns<>(SortedRuns.INTEGER, tableRunSize);
+             SortedRuns<Integer> simple = new SortedRuns<>(SortedRuns.INTEGER, tableRunSize)) {
+            Merge merge;
+            try (DataOutputStream gavOut = IndexFiles.newSection(gavs);
+                 DataOutputStream classOut = IndexFiles.newSection(classes);
+                 DataOutputStream postingOut = IndexFiles.newSection(postings);
+                 IndexFiles.Pool poolOut = new IndexFiles.Pool(pool);
+                 FileChannel remapChannel = FileChannel.open(remap, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                int baseCount = base == null ? 0 : base.gavCount();
+                merge = new Merge(gavOut, classOut, postingOut, poolOut,
+                        remapChannel.map(FileChannel.MapMode.READ_WRITE, 0, (long) baseCount * Integer.BYTES),
+                        changedPostings, simple);
+                // GAVs first, numbered in key order, then the class names and their postings
+                changes.forEach(merge::change);
+                merge.baseGavsUntil(null);
+                changedPostings.forEach((key, gavNo) -> merge.posting(SortedRuns.keyOf(key), gavNo));
+                merge.basePostingsUntil(null, 0);
+                merge.endClass();
+            }
+
+            long gavPos = ClassIndex.HEADER_SIZE;
+            long classPos = gavPos + (long) merge.gavCount * Long.BYTES;
+            long simplePos = classPos + (long) merge.classCount * ClassIndex.CLASS_RECORD_SIZE;
+            long postingPos = simplePos + (long) merge.classCount * Integer.BYTES;
+            long poolPos = postingPos + (long) merge.postingCount * Integer.BYTES;
+            try (DataOutputStream out = IndexFiles.newSection(tmp)) {
+                out.writeInt(ClassIndex.MAGIC);
+                out.writeInt(ClassIndex.VERSION);
+                out.writeInt(merge.gavCount);
+                out.writeInt(merge.classCount);
+                out.writeInt(merge.postingCount);
+                out.writeLong(gavPos);
+                out.writeLong(classPos);
+                out.writeLong(simplePos);
+                out.writeLong(postingPos);
+                out.writeLong(poolPos);
+                Files.copy(gavs, out);
+                Files.copy(classes, out);
+                simple.forEach((key, classNo) -> out.writeInt(classNo));
+                Files.copy(postings, out);
+                Files.copy(pool, out);
+            }
+            return IndexFiles.publish(tmp, target);
+        } finally {
+            for (Path file : new Path[] {gavs, classes, postings, pool, remap, tmp}) {
+                IndexFiles.deleteQuietly(file);
+            }
+        }
+    }
+
+    /**
+     * We delete the changes spilled to disk.
+     */
+    @Override
+    public void close() {
+        changes.close();
+    }
+
+    /**
+     * GAVs, then postings, of the base and changes merged in order. Each base
+     * GAV gets its new number, or -1, in remap; new numbers keep the order of
+     * the base, so its postings stay sorted once renumbered.
+     */
+    private final class Merge {
+        private final DataOutputStream gavOut;
+        private final DataOutputStream classOut;
+        private final DataOutputStream postingOut;
+        private final IndexFiles.Pool pool;
+        private final MappedByteBuffer remap;
+        private final SortedRuns<Integer> changedPostings;
+        private final SortedRuns<Integer> simple;
+        private int gavCount;
+        private int classCount;
+        private int postingCount;
+        private int baseGavNo;
+        private int baseClassNo;
+        private int basePostingNo;
+        private String baseClassName;
+        private String className;
+        private int classPostingStart;
+
+        Merge(DataOutputStream gavOut, DataOutputStream classOut, DataOutputStream postingOut, IndexFiles.Pool pool,
+              MappedByteBuffer remap, SortedRuns<Integer> changedPostings, SortedRuns<Integer> simple) {
+            this.gavOut = gavOut;
+            this.classOut = classOut;
+            this.postingOut = postingOut;
+            this.pool = pool;
+            this.remap = remap;
+            this.changedPostings = changedPostings;
+            this.simple = simple;
+        }
+
+        void change(String key, List<String> names) throws IOException {
+            baseGavsUntil(key);
+            if (base != null && baseGavNo < base.gavCount() && base.gavKey(baseGavNo).equals(key)) {
+                // Replaced or removed
+                remap.putInt(baseGavNo++ * Integer.BYTES, -1);
+            }
+            if (names != REMOVED && IndexFiles.utf8Length(key) <= MAX_POOL_STRING) {
+                int gavNo = gav(key);
+                for (String name : names) {
+                    changedPostings.put(SortedRuns.withNumber(name, gavNo), gavNo);
+                }
+            }
+        }
+
+        /**
+         * We copy the base GAVs with keys before the given one, or all the
+         * remaining ones when it is null.
+         */
+        void baseGavsUntil(String key) throws IOException {
+            while (base != null && baseGavNo < base.gavCount()) {
+                String baseKey = base.gavKey(baseGavNo);
+                if (key != null && baseKey.compareTo(key) >= 0) {
+                    return;
+                }
+                remap.putInt(baseGavNo++ * Integer.BYTES, gav(baseKey));
+            }
+        }
+
+        private int gav(String key) throws IOException {
+            gavOut.writeLong(pool.add(key));
+            return gavCount++;
+        }
+
+        void posting(String name, int gavNo) throws IOException {
+            basePostingsUntil(name, gavNo);
+            add(name, gavNo);
+        }
+
+        /**
+         * We copy the base postings, renumbered, that sort before the given
+         * class name and GAV number, or all the remaining ones when the name
+         * is null.
+         */
+        void basePostingsUntil(String name, int gavNo) throws IOException {
+            while (base != null && baseClassNo < base.classCount()) {
+                if (basePostingNo >= base.postingCount(baseClassNo)) {
+                    baseClassNo++;
+                    basePostingNo = 0;
+                    baseClassName = null;
+                    continue;
+                }
+                if (baseClassName == null) {
+                    baseClassName = base.className(baseClassNo);
+                }
+                int baseGav = remap.getInt(base.posting(base.postingStart(baseClassNo) + basePostingNo) * Integer.BYTES);
+                if (baseGav >= 0) {
+                    int cmp = name == null ? -1 : baseClassName.compareTo(name);
+                    if (cmp > 0 || cmp == 0 && baseGav > gavNo) {
+                        return;
+                    }
+                    add(baseClassName, baseGav);
+                }
+                basePostingNo++;
+            }
+        }
+
+        private void add(String name, int gavNo) throws IOException {
+            if (!name.equals(className)) {
+                endClass();
+                className = name;
+                classPostingStart = postingCount;
+            }
+            postingOut.writeInt(gavNo);
+            postingCount++;
+        }
+
+        void endClass() throws IOException {
+            if (className == null) {
+                return;
+            }
+            int classNo = classCount++;
+            classOut.writeLong(pool.add(className));
+            classOut.writeInt(classPostingStart);
+            classOut.writeInt(postingCount - classPostingStart);
+            simple.put(SortedRuns.withNumber(ClassIndex.simpleKey(className), classNo), classNo);
+            className = null;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package org.jd.gui.util.nexus.index;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * We populate a {@link ClassIndexWriter} from artifact content.
+ *
+ * Two sources are supported:
+ *
+ *   - a directory using the Maven repository layout (typically ~/.m2/repository),
+ *     walked in parallel; GAVs are derived from the file path
+ *   - a list of remote artifacts (for example search results from the configured
+ *     server), streamed through their artifactLink without touching the disk
+ *
+ * Only entry names are read, never class bytes. Sources and javadoc jars,
+ * package-info, module-info and anonymous classes are skipped.
+ */
+public final class ClassIndexer {
+
+    /**
+     * We open the content of a remote artifact link. Implementations apply
+     * authentication and timeouts.
+     */
+    @FunctionalInterface
+    public interface StreamOpener {
+        InputStream open(String url) throws IOException;
+    }
+
+    // Jars are read here rather than on the common pool, which the build would starve
+    private static final ForkJoinPool POOL = new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()), pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("class-indexer-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }, null, false);
+
+    private final ClassIndexWriter writer;
+
+    public ClassIndexer(ClassIndexWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * The local Maven repository, honouring -Dmaven.repo.local.
+     */
+    public static Path defaultMavenRepository() {
+        String local = System.getProperty("maven.repo.local");
+        if (local != null && !local.isBlank()) {
+            return Path.of(local.trim());
+        }
+        return Path.of(System.getProperty("user.home"), ".m2", "repository");
+    }
+
+    /**
+     * We index every jar below the given Maven repository root and return the
+     * number of artifacts recorded. Jars already present in the writer are
+     * skipped, which makes repeated runs over a growing repository cheap.
+     */
+    public int indexMavenRepository(Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        List<Path> jars;
+        try (Stream<Path> files = Files.walk(root)) {
+            jars = files.filter(p -> p.getFileName().toString().endsWith(".jar"))
+                    .filter(Files::isRegularFile)
+                    .toList();
+        }
+        return indexJars(root, jars);
+    }
+
+    /**
+     * We index the given jars of the Maven repository below root, in
+     * parallel on our own pool, and return the number of artifacts recorded.
+     * Jars already present in the writer are skipped.
+     */
+    public int indexJars(Path root, Collection<Path> jars) {
+        // A parallel stream started from a pool task runs on that pool
+        return POOL.invoke(ForkJoinTask.adapt(() -> (int) jars.parallelStream()
+                .filter(jar -> indexJar(root, jar))
+                .count()));
+    }
+
+    /**
+     * We stream each remote jar once and record its class names. Artifacts that
+     * cannot be read are skipped; the count of indexed artifacts is returned.
+     */
+    public int indexRemoteArtifacts(Iterable<NexusArtifact> artifacts, StreamOpener opener) {
+        int count = 0;
+        for (NexusArtifact artifact : artifacts) {
+            if (!isClassBearing(artifact.extension(), artifact.classifier())
+                    || artifact.artifactLink() == null || artifact.artifactLink().isBlank()) {
+                continue;
+            }
+            IndexedGav gav = new IndexedGav(artifact.groupId(), artifact.artifactId(), artifact.version(),
+                    artifact.classifier(), artifact.extension(), artifact.repository());
+            String key = gav.toKey();
+            synchronized (writer) {
+                if (writer.containsArtifact(key)) {
+                    continue;
+                }
+            }
+            List<String> names = new ArrayList<>();
+            try (InputStream in = opener.open(artifact.artifactLink());
+                 ZipInputStream zip = new ZipInputStream(in)) {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    String name = toClassName(entry.getName());
+                    if (name != null) {
+                        names.add(name);
+                    }
+                }
+            } catch (IOException ignored) {
+                continue;
+            }
+            synchronized (writer) {
+                writer.addArtifact(key, names);
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private boolean indexJar(Path root, Path jar) {
+        IndexedGav gav = gavFromPath(root, jar);
+        if (gav == null || !isClassBearing(gav.extension(), gav.classifier())) {
+            return false;
+        }
+        String key = gav.toKey();
+        synchronized (writer) {
+            if (writer.containsArtifact(key)) {
+                return false;
+            }
+        }
+        List<String> names = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                String name = toClassName(entries.nextElement().getName());
+                if (name != null) {
+                    names.add(name);
+                }
+            }
+        } catch (IOException ignored) {
+            // Truncated downloads are common in local repositories
+            return false;
+        }
+        synchronized (writer) {
+            writer.addArtifact(key, names);
+        }
+        return true;
+    }
+
+    /**
+     * We derive coordinates from root/group/path/artifactId/version/artifactId-version[-classifier].jar.
+     */
+    public static IndexedGav gavFromPath(Path root, Path file) {
+        Path rel = root.relativize(file);
+        int n = rel.getNameCount();
+        if (n < 4) {
+            return null;
+        }
+        String fileName = rel.getName(n - 1).toString();
+        String version = rel.getName(n - 2).toString();
+        String artifactId = rel.getName(n - 3).toString();
+        StringBuilder group = new StringBuilder();
+        for (int i = 0; i < n - 3; i++) {
+            if (i > 0) {
+                group.append('.');
+            }
+            group.append(rel.getName(i));
+        }
+
+        String prefix = artifactId + "-" + version;
+        int dot = fileName.lastIndexOf('.');
+        if (!fileName.startsWith(prefix) || dot < prefix.length()) {
+            return null;
+        }
+        String extension = fileName.substring(dot + 1);
+        String rest = fileName.substring(prefix.length(), dot);
+        String classifier = null;
+        if (rest.startsWith("-")) {
+            classifier = rest.substring(1);
+        } else if (!rest.isEmpty()) {
+            return null;
+        }
+        return new IndexedGav(group.toString(), artifactId, version, classifier, extension, null);
+    }
+
+    public static boolean isClassBearing(String extension, String classifier) {
+        if (extension != null && !"jar".equalsIgnoreCase(extension)) {
+            return false;
+        }
+        return classifier == null || classifier.isBlank()
+                || !(classifier.equals("sources") || classifier.equals("javadoc") || classifier.endsWith("-sources"));
+    }
+
+    /**
+     * We map a zip entry name to a binary class name, or null when the entry
+     * should not be indexed.
+     */
+    static String toClassName(String entryName) {
+        if (!entryName.endsWith(".class")) {
+            return null;
+        }
+        String name = entryName;
+        if (name.startsWith("META-INF/versions/")) {
+            int slash = name.indexOf('/', "META-INF/versions/".length());
+            if (slash < 0) {
+                return null;
+            }
+            name = name.substring(slash + 1);
+        }
+        name = name.substring(0, name.length() - ".class".length());
+        if (name.endsWith("module-info") || name.endsWith("package-info")) {
+            return null;
+        }
+        int dollar = name.lastIndexOf('$');
+        if (dollar >= 0 && dollar + 1 < name.length() && Character.isDigit(name.charAt(dollar + 1))) {
+            return null;
+        }
+        return name.replace('/', '.');
+    }
+}
@@ -0,0 +1,149 @@
+package org.jd.gui.util.nexus;
+
+import java.util.List;
+
+/**
+ * One node of a resolved dependency tree.
+ *
+ * Coordinates and status are fixed when the node is created; children and
+ * error are set once, when the resolver expands the node. Nodes omitted by
+ * mediation are never expanded.
+ */
+public final class DependencyNode {
+
+    public enum Status {
+        /** Chosen by mediation; its own dependencies are resolved below it. */
+        INCLUDED,
+        /** The same version is already included nearer the root. */
+        OMITTED_DUPLICATE,
+        /** Another version is already included nearer the root. */
+        OMITTED_CONFLICT
+    }
+
+    private final String groupId;
+    private final String artifactId;
+    private final String version;
+    private final String type;
+    private final String classifier;
+    private final String scope;
+    private final boolean optional;
+    private final int depth;
+    private final Status status;
+    private final String winnerVersion;
+    private volatile List<DependencyNode> children = List.of();
+    private volatile String error;
+
+    DependencyNode(String groupId, String artifactId, String version, String type, String classifier,
+                   String scope, boolean optional, int depth, Status status, String winnerVersion) {
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+        this.type = type == null ? "jar" : type;
+        this.classifier = classifier;
+        this.scope = scope;
+        this.optional = optional;
+        this.depth = depth;
+        this.status = status;
+        this.winnerVersion = winnerVersion;
+    }
+
+    public String groupId() {
+        return groupId;
+    }
+
+    public String artifactId() {
+        return artifactId;
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public String type() {
+        return type;
+    }
+
+    public String classifier() {
+        return classifier;
+    }
+
+    /**
+     * The mediated scope; null for the root.
+     */
+    public String scope() {
+        return scope;
+    }
+
+    public boolean optional() {
+        return optional;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    /**
+     * For {@link Status#OMITTED_CONFLICT}, the version that won.
+     */
+    public String winnerVersion() {
+        return winnerVersion;
+    }
+
+    public List<DependencyNode> children() {
+        return children;
+    }
+
+    /**
+     * Why the POM of this node could not be read, or null.
+     */
+    public String error() {
+        return error;
+    }
+
+    /**
+     * The key Maven mediates on: same group, artifact, type and classifier.
+     */
+    String conflictKey() {
+        return groupId + ":" + artifactId + ":" + type + ":" + (classifier == null ? "" : classifier);
+    }
+
+    void setChildren(List<DependencyNode> children) {
+        this.children = List.copyOf(children);
+    }
+
+    void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(groupId).append(':').append(artifactId);
+        if (!"jar".equals(type) || classifier != null) {
+            sb.append(':').append(type);
+        }
+        if (classifier != null) {
+            sb.append(':').append(classifier);
+        }
+        sb.append(':').append(version);
+        if (scope != null) {
+            sb.append(':').append(scope);
+        }
+        if (optional) {
+            sb.append(" (optional)");
+        }
+        switch (status) {
+            case OMITTED_DUPLICATE -> sb.append(" (omitted for duplicate)");
+            case OMITTED_CONFLICT -> sb.append(" (omitted for conflict with ").append(winnerVersion).append(')');
+            default -> {
+            }
+        }
+        if (error != null) {
+            sb.append(" [").append(error).append(']');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,487 @@
+package org.jd.gui.util.nexus;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * We resolve the transitive dependencies of an artifact the way Maven does.
+ *
+ * POMs come from a {@link PomSource}. For each artifact we build the
+ * effective model: parents are merged first (child properties, managed
+ * dependencies and dependencies win), then properties are interpolated, then
+ * "import" scoped BOMs add the managed dependencies the model does not
+ * declare itself. Missing versions and scopes come from the managed ones.
+ *
+ * The tree is walked breadth first. All models of a level are fetched at
+ * once on a bounded pool, including their parent and BOM chains, and the
+ * level is then mediated in declaration order: the first node of a
+ * group/artifact/type/classifier wins (nearest wins), later ones are kept in
+ * the tree as omitted duplicates or conflicts and not expanded. As for Maven,
+ * the root dependency management overrides transitive versions and scopes,
+ * optional, test and provided dependencies are not transitive, exclusions
+ * accumulate along the path and scopes are combined with the usual table.
+ * Version ranges resolve to their lower bound when it is inclusive. Profiles
+ * are not evaluated.
+ *
+ * Raw POMs and effective models are memoized across resolutions, so a second
+ * tree sharing a parent or a BOM costs no request for it. Failed lookups are
+ * retried by the next resolution.
+ */
+public final class DependencyResolver implements AutoCloseable {
+
+    private static final int MAX_DEPTH = 64;
+    private static final int MAX_PARENTS = 16;
+    private static final int MAX_CACHED = 4096;
+    private static final int INTERPOLATION_ROUNDS = 10;
+    private static final Pattern PROPERTY = Pattern.compile("\\$\\{([^}]+)}");
+
+    /**
+     * Progress of a resolution. Called on a pool thread each time a node gets
+     * its children or its error, parents before children.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void expanded(DependencyNode node);
+    }
+
+    // Inherited raw model: parents merged, nothing interpolated yet
+    private record Inherited(String groupId, String artifactId, String version, MavenPom.Parent parent,
+                             Map<String, String> properties, Map<String, MavenPom.Dependency> managed,
+                             Map<String, MavenPom.Dependency> dependencies) {
+    }
+
+    private record Model(Map<String, MavenPom.Dependency> managed, List<MavenPom.Dependency> dependencies) {
+    }
+
+    private final PomSource source;
+    private final ExecutorService executor;
+    private final Map<String, CompletableFuture<MavenPom>> poms = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Inherited>> inherited = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Model>> models = new ConcurrentHashMap<>();
+
+    public DependencyResolver(PomSource source, int parallelism) {
+        this.source = source;
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread t = new Thread(r, "nexus-dependency-resolver-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * We resolve the tree below the given artifact. The future completes with
+     * the root once every level is expanded; cancelling it stops the walk
+     * after the current level.
+     */
+    public CompletableFuture<DependencyNode> resolve(String groupId, String artifactId, String version, Listener listener) {
+        evictFailures();
+        DependencyNode root = new DependencyNode(groupId, artifactId, version, null, null, null, false, 0,
+                DependencyNode.Status.INCLUDED, null);
+        Resolution resolution = new Resolution(root, listener);
+        resolution.level(List.of(new Pending(root, Set.of())));
+        return resolution.done;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void evictFailures() {
+        poms.values().removeIf(CompletableFuture::isCompletedExceptionally);
+        inherited.values().removeIf(CompletableFuture::isCompletedExceptionally);
+        models.values().removeIf(CompletableFuture::isCompletedExceptionally);
+        if (poms.size() > MAX_CACHED) {
+            poms.clear();
+            inherited.clear();
+            models.clear();
+        }
+    }
+
+    // --- Tree walk ------------------------------------------------------------------------------
+
+    private record Pending(DependencyNode node, Set<String> exclusions) {
+    }
+
+    private record Outcome(Pending pending, Model model, Throwable error) {
+    }
+
+    private final class Resolution {
+        final CompletableFuture<DependencyNode> done = new CompletableFuture<>();
+        final DependencyNode root;
+        final Listener listener;
+        // Only touched while mediating a level, which happens on one thread at a time
+        final Map<String, DependencyNode> winners = new HashMap<>();
+        Map<String, MavenPom.Dependency> rootManaged = Map.of();
+
+        Resolution(DependencyNode root, Listener listener) {
+            this.root = root;
+            this.listener = listener;
+            winners.put(root.conflictKey(), root);
+        }
+
+        void level(List<Pending> level) {
+            List<CompletableFuture<Outcome>> outcomes = new ArrayList<>(level.size());
+            for (Pending pending : level) {
+                DependencyNode node = pending.node();
+                outcomes.add(model(node.groupId(), node.artifactId(), node.version(), List.of())
+                        .handle((model, error) -> new Outcome(pending, model, error)));
+            }
+            CompletableFuture.allOf(outcomes.toArray(new CompletableFuture<?>[0])).thenRunAsync(() -> {
+                if (done.isDone()) {
+                    return;
+                }
+                List<Pending> next = new ArrayList<>();
+                for (CompletableFuture<Outcome> outcome : outcomes) {
+                    mediate(outcome.join(), next);
+                }
+                if (next.isEmpty() || next.get(0).node().depth() > MAX_DEPTH) {
+                    done.complete(root);
+                } else {
+                    level(next);
+                }
+            }, executor).exceptionally(e -> {
+                done.completeExceptionally(e);
+                return null;
+            });
+        }
+
+        void mediate(Outcome outcome, List<Pending> next) {
+            DependencyNode parent = outcome.pending().node();
+            if (outcome.error() != null) {
+                parent.setError(message(outcome.error()));
+                listener.expanded(parent);
+                return;
+            }
+            boolean isRoot = parent == root;
+            if (isRoot) {
+                rootManaged = outcome.model().managed();
+            }
+
+            List<DependencyNode> children = new ArrayList<>();
+            for (MavenPom.Dependency dependency : outcome.model().dependencies()) {
+                String scope = dependency.scope() == null ? "compile" : dependency.scope();
+                if (!isRoot && (dependency.optional() || !isTransitive(scope))) {
+                    continue;
+                }
+                if (isExcluded(outcome.pending().exclusions(), dependency)) {
+                    continue;
+                }
+                String version = dependency.version();
+                if (!isRoot) {
+                    MavenPom.Dependency managed = rootManaged.get(dependency.managementKey());
+                    if (managed != null) {
+                        version = managed.version() != null ? managed.version() : version;
+                        scope = managed.scope() != null ? managed.scope() : scope;
+                    }
+                    scope = combineScopes(parent.scope(), scope);
+                }
+                String resolved = lowerBound(version);
+
+                DependencyNode probe = new DependencyNode(dependency.groupId(), dependency.artifactId(),
+                        resolved, dependency.type(), dependency.classifier(), scope, dependency.optional(),
+                        parent.depth() + 1, DependencyNode.Status.INCLUDED, null);
+                DependencyNode winner = winners.get(probe.conflictKey());
+                DependencyNode child;
+                if (winner == null) {
+                    child = probe;
+                    winners.put(child.conflictKey(), child);
+                    if (resolved != null) {
+                        Set<String> exclusions = new LinkedHashSet<>(outcome.pending().exclusions());
+                        exclusions.addAll(dependency.exclusions());
+                        next.add(new Pending(child, exclusions));
+                    } else {
+                        child.setError(version == null ? "No version" : "Unresolvable version range " + version);
+                    }
+                } else {
+                    boolean same = winner.version() != null && winner.version().equals(resolved);
+                    child = new DependencyNode(dependency.groupId(), dependency.artifactId(), resolved,
+                            dependency.type(), dependency.classifier(), scope, dependency.optional(),
+                            parent.depth() + 1,
+                            same ? DependencyNode.Status.OMITTED_DUPLICATE : DependencyNode.Status.OMITTED_CONFLICT,
+                            same ? null : winner.version());
+                }
+                children.add(child);
+            }
+            parent.setChildren(children);
+            listener.expanded(parent);
+        }
+    }
+
+    static boolean isTransitive(String scope) {
+        return "compile".equals(scope) || "runtime".equals(scope);
+    }
+
+    /**
+     * Maven's scope table for a transitive compile or runtime dependency.
+     */
+    static String combineScopes(String parentScope, String scope) {
+        if (parentScope == null || "compile".equals(parentScope)) {
+            return scope;
+        }
+        if ("runtime".equals(parentScope)) {
+            return "runtime";
+        }
+        return parentScope;
+    }
+
+    static boolean isExcluded(Set<String> exclusions, MavenPom.Dependency dependency) {
+        for (String exclusion : exclusions) {
+            int colon = exclusion.indexOf(':');
+            String groupId = exclusion.substring(0, colon);
+            String artifactId = exclusion.substring(colon + 1);
+            if (("*".equals(groupId) || groupId.equals(dependency.groupId()))
+                    && ("*".equals(artifactId) || artifactId.equals(dependency.artifactId()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * We pick a version in a range without reading repository metadata: the
+     * lower bound when inclusive, else an inclusive upper bound, else null.
+     */
+    static String lowerBound(String version) {
+        if (version == null || version.isBlank()) {
+            return null;
+        }
+        String v = version.trim();
+        if (v.charAt(0) != '[' && v.charAt(0) != '(') {
+            return v;
+        }
+        int end = 1;
+        while (end < v.length() && v.charAt(end) != ']' && v.charAt(end) != ')') {
+            end++;
+        }
+        if (end == v.length()) {
+            return null;
+        }
+        String[] bounds = v.substring(1, end).split(",", -1);
+        String lower = bounds[0].trim();
+        if (bounds.length == 1) {
+            return lower.isEmpty() ? null : lower;
+        }
+        if (v.charAt(0) == '[' && !lower.isEmpty()) {
+            return lower;
+        }
+        String upper = bounds[1].trim();
+        return v.charAt(end) == ']' && !upper.isEmpty() ? upper : null;
+    }
+
+    private static String message(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    // --- Models ---------------------------------------------------------------------------------
+
+    private static String key(String groupId, String artifactId, String version) {
+        return groupId + ":" + artifactId + ":" + version;
+    }
+
+    private CompletableFuture<MavenPom> pom(String groupId, String artifactId, String version) {
+        String key = key(groupId, artifactId, version);
+        return cached(poms, key, () -> CompletableFuture.supplyAsync(() -> {
+            try {
+                byte[] content = source.fetch(groupId, artifactId, version);
+                if (content == null) {
+                    throw new FileNotFoundException("No POM for " + key);
+                }
+                return MavenPom.parse(content);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor));
+    }
+
+    private CompletableFuture<Inherited> inherited(String groupId, String artifactId, String version, List<String> chain) {
+        String key = key(groupId, artifactId, version);
+        if (chain.contains(key) || chain.size() > MAX_PARENTS) {
+            return CompletableFuture.failedFuture(new IOException("Parent cycle at " + key));
+        }
+        return cached(inherited, key, () -> pom(groupId, artifactId, version).thenCompose(pom -> {
+            MavenPom.Parent parent = pom.parent;
+            if (parent == null) {
+                return CompletableFuture.completedFuture(inherit(null, pom, groupId, artifactId, version));
+            }
+            if (parent.groupId() == null || parent.artifactId() == null || parent.version() == null) {
+                return CompletableFuture.failedFuture(new IOException("Incomplete parent in " + key));
+            }
+            List<String> parentChain = new ArrayList<>(chain);
+            parentChain.add(key);
+            return inherited(parent.groupId(), parent.artifactId(), parent.version(), parentChain)
+                    .thenApply(p -> inherit(p, pom, groupId, artifactId, version));
+        }));
+    }
+
+    private static Inherited inherit(Inherited parent, MavenPom pom, String groupId, String artifactId, String version) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        Map<String, MavenPom.Dependency> managed = new LinkedHashMap<>();
+        Map<String, MavenPom.Dependency> dependencies = new LinkedHashMap<>();
+        if (parent != null) {
+            properties.putAll(parent.properties());
+            managed.putAll(parent.managed());
+            dependencies.putAll(parent.dependencies());
+        }
+        properties.putAll(pom.properties);
+        pom.dependencyManagement.forEach(d -> managed.put(d.managementKey(), d));
+        pom.dependencies.forEach(d -> dependencies.put(d.managementKey(), d));
+
+        String g = pom.groupId != null ? pom.groupId : pom.parent != null ? pom.parent.groupId() : groupId;
+        String v = pom.version != null ? pom.version : pom.parent != null ? pom.parent.version() : version;
+        String a = pom.artifactId != null ? pom.artifactId : artifactId;
+        return new Inherited(g, a, v, pom.parent, properties, managed, dependencies);
+    }
+
+    /**
+     * The effective model; chain holds the BOMs being imported, which a BOM
+     * importing one of them again must skip.
+     */
+    private CompletableFuture<Model> model(String groupId, String artifactId, String version, List<String> chain) {
+        String key = key(groupId, artifactId, version);
+        return cached(models, key, () -> inherited(groupId, artifactId, version, List.of()).thenCompose(in -> {
+            Map<String, String> properties = new HashMap<>(in.properties());
+            for (String prefix : new String[] {"project.", "pom.", ""}) {
+                properties.put(prefix + "groupId", in.groupId());
+                properties.put(prefix + "artifactId", in.artifactId());
+                properties.put(prefix + "version", in.version());
+            }
+            if (in.parent() != null) {
+                properties.put("project.parent.groupId", in.parent().groupId());
+                properties.put("project.parent.artifactId", in.parent().artifactId());
+                properties.put("project.parent.version", in.parent().version());
+            }
+            // Properties may refer to each other
+            properties.replaceAll((name, value) -> interpolate(value, properties));
+
+            Map<String, MavenPom.Dependency> managed = new LinkedHashMap<>();
+            List<MavenPom.Dependency> imports = new ArrayList<>();
+            for (MavenPom.Dependency d : in.managed().values()) {
+                MavenPom.Dependency dependency = interpolate(d, properties);
+                if ("import".equals(dependency.scope()) && "pom".equals(dependency.type())) {
+                    imports.add(dependency);
+                } else {
+                    managed.putIfAbsent(dependency.managementKey(), dependency);
+                }
+            }
+
+            List<String> importChain = new ArrayList<>(chain);
+            importChain.add(key);
+            List<CompletableFuture<Model>> boms = new ArrayList<>();
+            for (MavenPom.Dependency bom : imports) {
+                String bomKey = key(bom.groupId(), bom.artifactId(), bom.version());
+                if (bom.version() != null && !importChain.contains(bomKey)) {
+                    boms.add(model(bom.groupId(), bom.artifactId(), bom.version(), importChain));
+                }
+            }
+            return CompletableFuture.allOf(boms.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+                // The first BOM declaring a dependency wins
+                for (CompletableFuture<Model> bom : boms) {
+                    bom.join().managed().forEach(managed::putIfAbsent);
+                }
+                List<MavenPom.Dependency> dependencies = new ArrayList<>();
+                for (MavenPom.Dependency d : in.dependencies().values()) {
+                    dependencies.add(withManagement(interpolate(d, properties), managed));
+                }
+                return new Model(managed, dependencies);
+            });
+        }));
+    }
+
+    private static MavenPom.Dependency withManagement(MavenPom.Dependency d, Map<String, MavenPom.Dependency> managed) {
+        MavenPom.Dependency m = managed.get(d.managementKey());
+        if (m == null || d.version() != null && d.scope() != null && !d.exclusions().isEmpty()) {
+            return d;
+        }
+        return new MavenPom.Dependency(d.groupId(), d.artifactId(),
+                d.version() != null ? d.version() : m.version(),
+                d.type(), d.classifier(),
+                d.scope() != null ? d.scope() : m.scope(),
+                d.optional(),
+                d.exclusions().isEmpty() ? m.exclusions() : d.exclusions());
+    }
+
+    private static MavenPom.Dependency interpolate(MavenPom.Dependency d, Map<String, String> properties) {
+        List<String> exclusions = new ArrayList<>(d.exclusions().size());
+        d.exclusions().forEach(e -> exclusions.add(interpolate(e, properties)));
+        return new MavenPom.Dependency(
+                interpolate(d.groupId(), properties),
+                interpolate(d.artifactId(), properties),
+                interpolate(d.version(), properties),
+                interpolate(d.type(), properties),
+                interpolate(d.classifier(), properties),
+                interpolate(d.scope(), properties),
+                d.optional(),
+                exclusions);
+    }
+
+    static String interpolate(String value, Map<String, String> properties) {
+        if (value == null) {
+            return null;
+        }
+        for (int round = 0; round < INTERPOLATION_ROUNDS && value.contains("${"); round++) {
+            Matcher matcher = PROPERTY.matcher(value);
+            StringBuilder sb = new StringBuilder();
+            boolean changed = false;
+            while (matcher.find()) {
+                String replacement = properties.get(matcher.group(1));
+                if (replacement != null) {
+                    changed = true;
+                }
+                matcher.appendReplacement(sb, Matcher.quoteReplacement(replacement != null ? replacement : matcher.group()));
+            }
+            matcher.appendTail(sb);
+            value = sb.toString();
+            if (!changed) {
+                break;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * We share one future per key; the loader runs only for the first caller.
+     */
+    private static <T> CompletableFuture<T> cached(Map<String, CompletableFuture<T>> cache, String key,
+                                                   Supplier<CompletableFuture<T>> loader) {
+        CompletableFuture<T> existing = cache.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<T> created = new CompletableFuture<>();
+        existing = cache.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            loader.get().whenComplete((value, error) -> {
+                if (error != null) {
+                    created.completeExceptionally(error);
+                } else {
+                    created.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+}
@@ -0,0 +1,154 @@
+package org.jd.gui.util.nexus;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DependencyResolver, over POMs held in memory.
+ */
+class DependencyResolverTest {
+
+    private final Map<String, String> poms = new ConcurrentHashMap<>();
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private final PomSource source = (groupId, artifactId, version) -> {
+        fetches.incrementAndGet();
+        String pom = poms.get(groupId + ":" + artifactId + ":" + version);
+        return pom == null ? null : pom.getBytes(StandardCharsets.UTF_8);
+    };
+
+    private void pom(String gav, String body) {
+        String[] c = gav.split(":");
+        poms.put(gav, "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
+                + "<groupId>" + c[0] + "</groupId><artifactId>" + c[1] + "</artifactId><version>" + c[2] + "</version>"
+                + body + "</project>");
+    }
+
+    private static String dependency(String gav, String extra) {
+        String[] c = gav.split(":");
+        return "<dependency><groupId>" + c[0] + "</groupId><artifactId>" + c[1] + "</artifactId>"
+                + (c.length > 2 ? "<version>" + c[2] + "</version>" : "") + extra + "</dependency>";
+    }
+
+    private static String dependencies(String... dependencies) {
+        return "<dependencies>" + String.join("", dependencies) + "</dependencies>";
+    }
+
+    private static DependencyNode resolve(DependencyResolver resolver, String gav) throws Exception {
+        String[] c = gav.split(":");
+        return resolver.resolve(c[0], c[1], c[2], node -> { }).get(10, TimeUnit.SECONDS);
+    }
+
+    private static Map<String, DependencyNode> flatten(DependencyNode root) {
+        Map<String, DependencyNode> nodes = new ConcurrentHashMap<>();
+        List<DependencyNode> queue = new ArrayList<>(root.children());
+        while (!queue.isEmpty()) {
+            DependencyNode node = queue.remove(0);
+            if (node.status() == DependencyNode.Status.INCLUDED) {
+                nodes.put(node.artifactId(), node);
+            }
+            queue.addAll(node.children());
+        }
+        return nodes;
+    }
+
+    @Test
+    void nearestWins() throws Exception {
+        pom("g:app:1", dependencies(dependency("g:a:1", ""), dependency("g:b:1", "")));
+        pom("g:a:1", dependencies(dependency("g:c:1", "")));
+        pom("g:b:1", dependencies(dependency("g:d:1", "")));
+        pom("g:d:1", dependencies(dependency("g:c:2", "")));
+        pom("g:c:1", "");
+        try (DependencyResolver resolver = new DependencyResolver(source, 4)) {
+            DependencyNode root = resolve(resolver, "g:app:1");
+            assertEquals("1", flatten(root).get("c").version());
+            DependencyNode omitted = root.children().get(1).children().get(0).children().get(0);
+            assertEquals(DependencyNode.Status.OMITTED_CONFLICT, omitted.status());
+            assertEquals("1", omitted.winnerVersion());
+            assertTrue(omitted.children().isEmpty());
+        }
+    }
+
+    @Test
+    void inheritsParentsAndImportsBoms() throws Exception {
+        pom("g:parent:1", "<properties><lib.version>3</lib.version></properties>"
+                + "<dependencyManagement><dependencies>"
+                + dependency("g:bom:1", "<type>pom</type><scope>import</scope>")
+                + "</dependencies></dependencyManagement>"
+                + dependencies(dependency("g:common:${project.version}", "")));
+        pom("g:bom:1", "<dependencyManagement><dependencies>"
+                + dependency("g:managed:7", "<scope>runtime</scope>")
+                + "</dependencies></dependencyManagement>");
+        poms.put("g:app:2", "<project><parent><groupId>g</groupId><artifactId>parent</artifactId><version>1</version></parent>"
+                + "<artifactId>app</artifactId><version>2</version>"
+                + dependencies(dependency("g:lib:${lib.version}", ""), dependency("g:managed", "")) + "</project>");
+        pom("g:common:2", "");
+        pom("g:lib:3", "");
+        pom("g:managed:7", "");
+        try (DependencyResolver resolver = new DependencyResolver(source, 4)) {
+            Map<String, DependencyNode> nodes = flatten(resolve(resolver, "g:app:2"));
+            assertEquals("2", nodes.get("common").version());
+            assertEquals("3", nodes.get("lib").version());
+            assertEquals("7", nodes.get("managed").version());
+            assertEquals("runtime", nodes.get("managed").scope());
+            nodes.values().forEach(node -> assertNull(node.error(), node.toString()));
+        }
+    }
+
+    @Test
+    void appliesScopesExclusionsAndOptional() throws Exception {
+        pom("g:app:1", dependencies(
+                dependency("g:a:1", "<exclusions><exclusion><groupId>g</groupId><artifactId>x</artifactId></exclusion></exclusions>"),
+                dependency("g:t:1", "<scope>test</scope>")));
+        pom("g:a:1", dependencies(
+                dependency("g:x:1", ""),
+                dependency("g:opt:1", "<optional>true</optional>"),
+                dependency("g:prov:1", "<scope>provided</scope>"),
+                dependency("g:rt:1", "<scope>runtime</scope>")));
+        pom("g:t:1", dependencies(dependency("g:tc:1", "")));
+        pom("g:rt:1", "");
+        pom("g:tc:1", "");
+        try (DependencyResolver resolver = new DependencyResolver(source, 4)) {
+            Map<String, DependencyNode> nodes = flatten(resolve(resolver, "g:app:1"));
+            assertEquals(Map.of("a", "compile", "t", "test", "rt", "runtime", "tc", "test"),
+                    nodes.values().stream().collect(Collectors.toMap(DependencyNode::artifactId, DependencyNode::scope)));
+        }
+    }
+
+    @Test
+    void memoizesPomsAcrossResolutions() throws Exception {
+        pom("g:parent:1", "");
+        poms.put("g:a:1", "<project><parent><groupId>g</groupId><artifactId>parent</artifactId><version>1</version></parent>"
+                + "<artifactId>a</artifactId>" + dependencies(dependency("g:b:[1.0,2.0)", "")) + "</project>");
+        pom("g:b:1.0", "");
+        try (DependencyResolver resolver = new DependencyResolver(source, 4)) {
+            DependencyNode root = resolve(resolver, "g:a:1");
+            assertEquals("1.0", root.children().get(0).version());
+            assertEquals(3, fetches.get());
+            resolve(resolver, "g:a:1");
+            assertEquals(3, fetches.get());
+
+            DependencyNode missing = resolve(resolver, "g:missing:1");
+            assertNotNull(missing.error());
+        }
+    }
+
+    @Test
+    void picksVersionsInRanges() {
+        assertEquals("1.0", DependencyResolver.lowerBound("[1.0,2.0)"));
+        assertEquals("1.5", DependencyResolver.lowerBound("[1.5]"));
+        assertEquals("2.0", DependencyResolver.lowerBound("(,2.0]"));
+        assertNull(DependencyResolver.lowerBound("(1.0,)"));
+        assertEquals("1.2", DependencyResolver.lowerBound("1.2"));
+    }
+}
@@ -0,0 +1,153 @@
+package org.jd.gui.util.maven.central.helper;
+
+import org.jd.gui.util.nexus.DependencyNode;
+import org.jd.gui.util.nexus.DependencyResolver;
+import org.jd.gui.util.nexus.PomSource;
+import org.jd.gui.util.nexus.model.NexusArtifact;
+
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTree;
+import javax.swing.SwingUtilities;
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreePath;
+import java.awt.BorderLayout;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * We show the transitive dependencies of an artifact (see DependencyResolver).
+ *
+ * Like the Contents tab, the panel is only loaded when shown. The tree
+ * grows as levels are resolved: each expanded node is added on the event
+ * thread, and the first two levels are expanded as they arrive.
+ */
+final class DependencyTreePanel extends JPanel {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int PARALLELISM = 32;
+    private static final int EXPANDED_LEVELS = 2;
+
+    private final transient DependencyResolver resolver;
+    private final JLabel status = new JLabel(" ");
+    private final DefaultTreeModel treeModel = new DefaultTreeModel(new DefaultMutableTreeNode());
+    private final JTree tree = new JTree(treeModel);
+
+    private transient NexusArtifact artifact;
+    private transient CompletableFuture<DependencyNode> resolution;
+    private transient Map<DependencyNode, DefaultMutableTreeNode> treeNodes = new IdentityHashMap<>();
+    private int nodeCount;
+
+    DependencyTreePanel(PomSource pomSource) {
+        super(new BorderLayout());
+        this.resolver = new DependencyResolver(pomSource, PARALLELISM);
+
+        status.setBorder(BorderFactory.createEmptyBorder(2, 4, 2, 4));
+        tree.setRootVisible(true);
+        tree.setShowsRootHandles(true);
+        add(status, BorderLayout.NORTH);
+        add(new JScrollPane(tree), BorderLayout.CENTER);
+    }
+
+    /**
+     * We resolve the tree of the artifact, cancelling the previous resolution.
+     */
+    void setArtifact(NexusArtifact newArtifact) {
+        if (newArtifact == artifact) {
+            return;
+        }
+        artifact = newArtifact;
+        if (resolution != null) {
+            resolution.cancel(false);
+            resolution = null;
+        }
+        treeNodes = new IdentityHashMap<>();
+        nodeCount = 0;
+        treeModel.setRoot(new DefaultMutableTreeNode());
+        tree.setRootVisible(false);
+
+        if (newArtifact == null) {
+            status.setText(" ");
+            return;
+        }
+        if (newArtifact.groupId() == null || newArtifact.artifactId() == null || newArtifact.version() == null) {
+            status.setText("Incomplete coordinates.");
+            return;
+        }
+
+        long start = System.nanoTime();
+        Map<DependencyNode, DefaultMutableTreeNode> nodes = treeNodes;
+        status.setText("Resolving...");
+        CompletableFuture<DependencyNode> future = resolver.resolve(
+                newArtifact.groupId(), newArtifact.artifactId(), newArtifact.version(),
+                node -> SwingUtilities.invokeLater(() -> {
+                    if (nodes == treeNodes) {
+                        addChildren(node);
+                        status.setText(String.format(Locale.ROOT, "Resolving... %d dependencies", nodeCount));
+                    }
+                }));
+        resolution = future;
+        future.whenComplete((root, error) -> SwingUtilities.invokeLater(() -> {
+            if (resolution != future) {
+                return;
+            }
+            resolution = null;
+            if (error == null) {
+                status.setText(String.format(Locale.ROOT, "%d dependencies, resolved in %d ms",
+                        nodeCount, (System.nanoTime() - start) / 1_000_000));
+            } else if (!(error instanceof CancellationException)) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                status.setText("Cannot resolve the dependencies: " + cause.getMessage());
+            }
+        }));
+    }
+
+    /**
+     * We cancel the resolution in progress and stop the resolver threads.
+     */
+    void close() {
+        if (resolution != null) {
+            resolution.cancel(false);
+            resolution = null;
+        }
+        resolver.close();
+    }
+
+    private void addChildren(DependencyNode node) {
+        DefaultMutableTreeNode parent = treeNodes.get(node);
+        if (parent == null) {
+            // The root is the first node expanded
+            parent = new DefaultMutableTreeNode(node);
+            treeNodes.put(node, parent);
+            treeModel.setRoot(parent);
+            tree.setRootVisible(true);
+        } else {
+            treeModel.nodeChanged(parent);
+        }
+        List<DependencyNode> children = node.children();
+        if (children.isEmpty()) {
+            return;
+        }
+        int[] indices = new int[children.size()];
+        for (int i = 0; i < indices.length; i++) {
+            DefaultMutableTreeNode child = new DefaultMutableTreeNode(children.get(i));
+            treeNodes.put(children.get(i), child);
+            indices[i] = parent.getChildCount();
+            parent.add(child);
+        }
+        nodeCount += indices.length;
+        treeModel.nodesWereInserted(parent, indices);
+        if (node.depth() < EXPANDED_LEVELS) {
+            tree.expandPath(new TreePath(parent.getPath()));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.jd.gui.util.nexus;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Progress of an export of result rows, which can be cancelled.
+ */
+public interface ExportProgress {
+
+    void update(int done, int total);
+
+    boolean isCancelled();
+
+    /**
+     * We report every step items, and stop the export with a
+     * CancellationException once the progress is cancelled or the thread
+     * interrupted. progress may be null.
+     */
+    static void step(ExportProgress progress, int done, int total, int step, String export) {
+        if (progress != null && done % step == 0) {
+            if (progress.isCancelled() || Thread.currentThread().isInterrupted()) {
+                throw new CancellationException(export + " cancelled");
+            }
+            progress.update(done, total);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.jd.gui.util.nexus.index;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * File handling shared by the index writers and readers.
+ *
+ * A mapped file cannot be replaced on every platform (Windows refuses), so
+ * the writers never replace one: each write creates the next generation,
+ * "name.<n>" next to the requested "name", and readers open the newest
+ * generation. Older generations are deleted once nothing maps them.
+ */
+final class IndexFiles {
+
+    private IndexFiles() {
+        // Utility class: no instances
+    }
+
+    /**
+     * We return the newest file of the index: the generation with the
+     * highest number, or the file itself as written by older versions.
+     */
+    static Path latestGeneration(Path path) {
+        List<Path> generations = generations(path);
+        if (!generations.isEmpty()) {
+            return generations.get(generations.size() - 1);
+        }
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    /**
+     * We return the numbered generations of the index, oldest first.
+     */
+    static List<Path> generations(Path path) {
+        Path dir = path.toAbsolutePath().getParent();
+        String prefix = path.getFileName() + ".";
+        List<Path> generations = new ArrayList<>();
+        if (dir == null || !Files.isDirectory(dir)) {
+            return generations;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, prefix + "*")) {
+            for (Path file : files) {
+                if (generation(file, prefix) >= 0) {
+                    generations.add(file);
+                }
+            }
+        } catch (IOException ignored) {
+            // Unreadable directory: no generations
+        }
+        generations.sort(Comparator.comparingLong(file -> generation(file, prefix)));
+        return generations;
+    }
+
+    private static long generation(Path file, String prefix) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(prefix) || name.length() == prefix.length()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * We move a complete temporary file to the next generation of target,
+     * delete the older generations where the platform allows it, and return
+     * the new file. Concurrent writers of one target may publish the same
+     * generation; the last one wins, both files being complete.
+     */
+    static Path publish(Path tmp, Path target) throws IOException {
+        String prefix = target.getFileName() + ".";
+        Path written;
+        while (true) {
+            List<Path> generations = generations(target);
+            long next = generations.isEmpty() ? 1 : generation(generations.get(generations.size() - 1), prefix) + 1;
+            try {
+                written = Files.move(tmp, target.resolveSibling(prefix + next), StandardCopyOption.ATOMIC_MOVE);
+                break;
+            } catch (FileAlreadyExistsException e) {
+                // Another writer took this generation
+            }
+        }
+        // Generations published meanwhile by another writer are newer: we keep them
+        long number = generation(written, prefix);
+        for (Path file : generations(target)) {
+            if (generation(file, prefix) < number) {
+                deleteQuietly(file);
+            }
+        }
+        deleteQuietly(target);
+        return written;
+    }
+
+    /**
+     * We delete a file, or leave it for a later attempt while it is still
+     * mapped (Windows).
+     */
+    static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            file.toFile().deleteOnExit();
+        }
+    }
+
+    static int utf8Length(String s) {
+        return s.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * String pool of an index file, (unsigned short length, UTF-8 bytes)*,
+     * streamed to a temporary file rather than kept on the heap.
+     */
+    static final class Pool implements AutoCloseable {
+        private final DataOutputStream out;
+        private long size;
+
+        Pool(Path file) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        }
+
+        /**
+         * We append the string and return its offset in the pool.
+         */
+        long add(String s) throws IOException {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            long offset = size;
+            out.writeShort(bytes.length);
+            out.write(bytes);
+            size += Short.BYTES + bytes.length;
+            return offset;
+        }
+
+        long size() {
+            return size;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * We open a buffered stream to write a section of an index file.
+     */
+    static DataOutputStream newSection(Path file) throws IOException {
+        OutputStream os = Files.newOutputStream(file);
+        return new DataOutputStream(new BufferedOutputStream(os, 1 << 16));
+    }
+}
@@ -0,0 +1,53 @@
+package org.jd.gui.util.nexus.index;
+
+/**
+ * We identify one indexed artifact file by its Maven coordinates and the
+ * repository it was found in.
+ *
+ * The key form "groupId|artifactId|version|classifier|extension|repository"
+ * is what we store in index files. Missing values are stored as empty
+ * strings and read back as null.
+ */
+public record IndexedGav(
+        String groupId,
+        String artifactId,
+        String version,
+        String classifier,
+        String extension,
+        String repository) {
+
+    private static final char SEPARATOR = '|';
+
+    public String toKey() {
+        StringBuilder sb = new StringBuilder(64);
+        sb.append(nullToEmpty(groupId)).append(SEPARATOR)
+                .append(nullToEmpty(artifactId)).append(SEPARATOR)
+                .append(nullToEmpty(version)).append(SEPARATOR)
+                .append(nullToEmpty(classifier)).append(SEPARATOR)
+                .append(nullToEmpty(extension)).append(SEPARATOR)
+                .append(nullToEmpty(repository));
+        return sb.toString();
+    }
+
+    public static IndexedGav fromKey(String key) {
+        String[] parts = new String[6];
+        int start = 0;
+        for (int i = 0; i < parts.length; i++) {
+            int end = i == parts.length - 1 ? key.length() : key.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = key.length();
+            }
+            parts[i] = start <= end ? emptyToNull(key.substring(start, end)) : null;
+            start = Math.min(end + 1, key.length());
+        }
+        return new IndexedGav(parts[0], parts[1], parts[2], parts[3], parts[4], parts[5]);
+    }
+
+    private static String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+
+    private static String emptyToNull(String s) {
+        return s == null || s.isEmpty() ? null : s;
+    }
+}
@@ -0,0 +1,193 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.jd.gui.util.nexus.model.NexusSearchResult;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * We resolve the newest version of group/artifact pairs.
+ *
+ * When the backend implements {@link NexusVersionSearch} we ask for one
+ * POM per version, sorted by version descending, and stop at the first page
+ * that contains an eligible version; otherwise we fall back to the first page
+ * of a plain GAV search. In both cases the newest version is chosen locally
+ * with {@link MavenVersion} ordering, because server-side sorting does not
+ * follow Maven rules for qualifiers.
+ *
+ * Results are cached per GA for a fixed time; expired entries are purged
+ * at most once per that time, so the cache only holds the GAs resolved
+ * recently. Concurrent requests for the same GA share one lookup, and
+ * batches run on a bounded pool so a large batch cannot flood the server.
+ */
+public final class LatestVersionResolver implements AutoCloseable {
+
+    private static final int MAX_PAGES = 3;
+
+    private final NexusSearch search;
+    private final long ttlMillis;
+    private final boolean includeSnapshots;
+    private final ExecutorService executor;
+    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final AtomicLong nextPurge = new AtomicLong();
+
+    public LatestVersionResolver(NexusSearch search, Duration ttl, int parallelism, boolean includeSnapshots) {
+        this.search = search;
+        this.ttlMillis = ttl.toMillis();
+        this.includeSnapshots = includeSnapshots;
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread t = new Thread(r, "nexus-latest-version-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * We return the newest version of the GA, or null when none is found.
+     */
+    public NexusArtifact resolve(String groupId, String artifactId) throws Exception {
+        try {
+            return resolveAsync(groupId, artifactId).get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    public CompletableFuture<NexusArtifact> resolveAsync(String groupId, String artifactId) {
+        String key = key(groupId, artifactId);
+        long now = System.currentTimeMillis();
+        purgeExpired(now);
+        CacheEntry entry = cache.compute(key, (k, existing) -> {
+            // A failed lookup is replaced even before its removal below has run
+            if (existing != null && !existing.future.isCompletedExceptionally()
+                    && (existing.expiresAt > now || !existing.future.isDone())) {
+                return existing;
+            }
+            CompletableFuture<NexusArtifact> future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return resolveUncached(groupId.trim(), artifactId.trim());
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+            return new CacheEntry(future, now + ttlMillis);
+        });
+        // Failures are not cached
+        entry.future.whenComplete((r, t) -> {
+            if (t != null) {
+                cache.remove(key, entry);
+            }
+        });
+        return entry.future;
+    }
+
+    /**
+     * We resolve many "groupId:artifactId" coordinates concurrently. The
+     * returned map keeps the input order; coordinates without any eligible
+     * version or whose lookup failed map to null.
+     */
+    public Map<String, NexusArtifact> resolveAll(Collection<String> coordinates) {
+        Map<String, CompletableFuture<NexusArtifact>> futures = new LinkedHashMap<>();
+        for (String coordinate : coordinates) {
+            String[] ga = coordinate.trim().split(":");
+            if (ga.length < 2 || ga[0].isBlank() || ga[1].isBlank()) {
+                futures.put(coordinate, CompletableFuture.completedFuture(null));
+                continue;
+            }
+            futures.put(coordinate, resolveAsync(ga[0], ga[1]).exceptionally(t -> null));
+        }
+        Map<String, NexusArtifact> result = new LinkedHashMap<>();
+        futures.forEach((coordinate, future) -> result.put(coordinate, future.join()));
+        return result;
+    }
+
+    private void purgeExpired(long now) {
+        long purgeAt = nextPurge.get();
+        if (now >= purgeAt && nextPurge.compareAndSet(purgeAt, now + ttlMillis)) {
+            cache.values().removeIf(entry -> entry.expiresAt <= now && entry.future.isDone());
+        }
+    }
+
+    int cacheSize() {
+        return cache.size();
+    }
+
+    public void invalidate(String groupId, String artifactId) {
+        cache.remove(key(groupId, artifactId));
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private NexusArtifact resolveUncached(String groupId, String artifactId) throws Exception {
+        if (search instanceof NexusVersionSearch versionSearch) {
+            for (int page = 0; page < MAX_PAGES; page++) {
+                List<NexusArtifact> versions = versionSearch.searchVersions(groupId, artifactId, page);
+                if (versions == null || versions.isEmpty()) {
+                    return null;
+                }
+                NexusArtifact newest = newest(groupId, artifactId, versions);
+                if (newest != null) {
+                    return newest;
+                }
+            }
+            return null;
+        }
+
+        NexusSearchResult result = search.searchByGav(groupId, artifactId, null, 0);
+        return result == null || result.artifacts() == null ? null : newest(groupId, artifactId, result.artifacts());
+    }
+
+    private NexusArtifact newest(String groupId, String artifactId, List<NexusArtifact> candidates) {
+        NexusArtifact best = null;
+        MavenVersion bestVersion = null;
+        for (NexusArtifact candidate : candidates) {
+            if (!groupId.equals(candidate.groupId()) || !artifactId.equals(candidate.artifactId())
+                    || candidate.version() == null) {
+                continue;
+            }
+            MavenVersion version = MavenVersion.parse(candidate.version());
+            if (!includeSnapshots && version.isSnapshot()) {
+                continue;
+            }
+            if (bestVersion == null || version.compareTo(bestVersion) > 0) {
+                best = candidate;
+                bestVersion = version;
+            }
+        }
+        return best;
+    }
+
+    private static String key(String groupId, String artifactId) {
+        return groupId.trim() + ':' + artifactId.trim();
+    }
+
+    private static Exception unwrap(Throwable t) {
+        if (t instanceof CompletionException && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t instanceof Exception e ? e : new Exception(t);
+    }
+
+    private record CacheEntry(CompletableFuture<NexusArtifact> future, long expiresAt) {
+    }
+}
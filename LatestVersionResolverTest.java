@@ -0,0 +1,164 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.jd.gui.util.nexus.model.NexusSearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LatestVersionResolver, over an in-memory version search.
+ */
+class LatestVersionResolverTest {
+
+    /** Versions per "group:artifact", counting the lookups of each. */
+    private static final class VersionsSearch implements NexusSearch, NexusVersionSearch {
+
+        private final Map<String, List<String>> versions;
+        private final Map<String, AtomicInteger> lookups = new ConcurrentHashMap<>();
+        private final Set<String> failing = ConcurrentHashMap.newKeySet();
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        VersionsSearch(Map<String, List<String>> versions) {
+            this.versions = versions;
+        }
+
+        int lookups(String ga) {
+            AtomicInteger count = lookups.get(ga);
+            return count == null ? 0 : count.get();
+        }
+
+        @Override
+        public List<NexusArtifact> searchVersions(String groupId, String artifactId, int pageNo) throws Exception {
+            String ga = groupId + ":" + artifactId;
+            lookups.computeIfAbsent(ga, k -> new AtomicInteger()).incrementAndGet();
+            gate.await(10, TimeUnit.SECONDS);
+            if (failing.contains(ga)) {
+                throw new IOException("Server unavailable");
+            }
+            List<NexusArtifact> page = new ArrayList<>();
+            if (pageNo == 0) {
+                for (String version : versions.getOrDefault(ga, List.of())) {
+                    page.add(new NexusArtifact(groupId, artifactId, version, null, null, "pom", "releases", null));
+                }
+            }
+            return page;
+        }
+
+        @Override
+        public NexusSearchResult searchByKeyword(String keyword, int pageNo) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public NexusSearchResult searchBySha1(String sha1, int pageNo) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public NexusSearchResult searchByGav(String g, String a, String v, int pageNo) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public NexusSearchResult searchByClassName(String c, boolean fq, int pageNo) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean supportsVersionDate() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsClassSearch() {
+            return false;
+        }
+    }
+
+    @Test
+    void resolvesTheNewestReleaseSkippingSnapshots() throws Exception {
+        VersionsSearch search = new VersionsSearch(Map.of(
+                "g:a", List.of("1.2-SNAPSHOT", "1.3-20240101.123456-1", "1.10", "1.9")));
+        try (LatestVersionResolver resolver = new LatestVersionResolver(search, Duration.ofMinutes(1), 2, false)) {
+            assertEquals("1.10", resolver.resolve("g", "a").version());
+            assertNull(resolver.resolve("g", "unknown"));
+        }
+        try (LatestVersionResolver resolver = new LatestVersionResolver(search, Duration.ofMinutes(1), 2, true)) {
+            assertEquals("1.10", resolver.resolve("g", "a").version());
+        }
+    }
+
+    @Test
+    void batchesKeepTheirOrderAndShareLookups() throws Exception {
+        VersionsSearch search = new VersionsSearch(Map.of(
+                "g:a", List.of("1.0", "2.0"),
+                "g:b", List.of("3.0")));
+        search.gate = new CountDownLatch(1);
+        try (LatestVersionResolver resolver = new LatestVersionResolver(search, Duration.ofMinutes(1), 4, false)) {
+            // A concurrent request for the same GA joins the lookup in flight
+            CompletableFuture<NexusArtifact> pending = resolver.resolveAsync("g", "a");
+            CompletableFuture<Map<String, NexusArtifact>> batch = CompletableFuture.supplyAsync(() ->
+                    resolver.resolveAll(List.of("g:b", "g:a", "invalid", " g : a ")));
+            Thread.sleep(100);
+            search.gate.countDown();
+
+            Map<String, NexusArtifact> latest = batch.get(10, TimeUnit.SECONDS);
+            assertEquals(List.of("g:b", "g:a", "invalid", " g : a "), new ArrayList<>(latest.keySet()));
+            assertEquals("3.0", latest.get("g:b").version());
+            assertEquals("2.0", latest.get("g:a").version());
+            assertNull(latest.get("invalid"));
+            assertEquals("2.0", latest.get(" g : a ").version());
+            assertEquals("2.0", pending.get(10, TimeUnit.SECONDS).version());
+            assertEquals(1, search.lookups("g:a"));
+            assertEquals(1, search.lookups("g:b"));
+        }
+    }
+
+    @Test
+    void cachesResultsForTheTtlAndPurgesExpiredOnes() throws Exception {
+        VersionsSearch search = new VersionsSearch(Map.of("g:a", List.of("1.0"), "g:b", List.of("2.0")));
+        try (LatestVersionResolver resolver = new LatestVersionResolver(search, Duration.ofMillis(200), 2, false)) {
+            resolver.resolve("g", "a");
+            resolver.resolve("g", "a");
+            assertEquals(1, search.lookups("g:a"));
+
+            Thread.sleep(300);
+            resolver.resolve("g", "b");
+            // g:a expired: purged, and looked up again when asked for
+            assertEquals(1, resolver.cacheSize());
+            resolver.resolve("g", "a");
+            assertEquals(2, search.lookups("g:a"));
+
+            resolver.invalidate("g", "a");
+            resolver.resolve("g", "a");
+            assertEquals(3, search.lookups("g:a"));
+        }
+    }
+
+    @Test
+    void failuresAreNotCached() throws Exception {
+        VersionsSearch search = new VersionsSearch(Map.of("g:a", List.of("1.0")));
+        search.failing.add("g:a");
+        try (LatestVersionResolver resolver = new LatestVersionResolver(search, Duration.ofMinutes(1), 2, false)) {
+            assertThrows(IOException.class, () -> resolver.resolve("g", "a"));
+            assertNull(resolver.resolveAll(List.of("g:a")).get("g:a"));
+
+            search.failing.clear();
+            assertEquals("1.0", resolver.resolve("g", "a").version());
+            assertEquals(3, search.lookups("g:a"));
+        }
+    }
+}
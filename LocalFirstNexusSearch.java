@@ -0,0 +1,160 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.jd.gui.util.nexus.model.NexusSearchResult;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NexusSearch answering exact lookups from the local Maven repository when
+ * it has a match, from the server otherwise.
+ *
+ * Only SHA-1 searches and GAV searches giving group, artifact and version
+ * are exact: a local hit is then the very artifact asked for. Keyword,
+ * partial GAV and class searches always go to the server, since a local hit
+ * would hide every other match the server has; class searches only use the
+ * local repository when the server cannot answer them.
+ *
+ * For exact lookups the choice is made on the first page and remembered
+ * for the later pages of the query, so every page of one query comes from
+ * the same side even when the local repository changes in between. Until
+ * the first scan of the local repository completes we go straight to the
+ * server. Version listings always come from the server: the local
+ * repository only holds the versions already downloaded, so its newest
+ * version may well be stale.
+ */
+final class LocalFirstNexusSearch implements NexusSearch, NexusFilteredSearch, NexusVersionSearch {
+
+    @FunctionalInterface
+    private interface Query {
+        NexusSearchResult page(NexusSearch search, int pageNo) throws Exception;
+    }
+
+    private static final int DECISION_QUERIES = 64;
+
+    private final LocalMavenRepositorySearch local;
+    private final NexusSearch remote;
+
+    // Whether each query was answered locally, least recently used first
+    private final Map<String, Boolean> decisions = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > DECISION_QUERIES;
+        }
+    };
+
+    LocalFirstNexusSearch(LocalMavenRepositorySearch local, NexusSearch remote) {
+        this.local = local;
+        this.remote = remote;
+    }
+
+    /**
+     * We answer a page of the query identified by key from the side chosen
+     * on its first page. A later page of a query we no longer remember
+     * decides again, as its first page would.
+     */
+    private NexusSearchResult firstOf(String key, Query query, int pageNo) throws Exception {
+        Boolean fromLocal = null;
+        if (pageNo > 0) {
+            synchronized (decisions) {
+                fromLocal = decisions.get(key);
+            }
+        }
+        NexusSearchResult first = null;
+        if (fromLocal == null) {
+            if (local.isReady()) {
+                first = query.page(local, 0);
+            }
+            fromLocal = first != null && first.artifacts() != null && !first.artifacts().isEmpty();
+            synchronized (decisions) {
+                decisions.put(key, fromLocal);
+            }
+        }
+        if (!fromLocal) {
+            return query.page(remote, pageNo);
+        }
+        return pageNo == 0 ? first : query.page(local, pageNo);
+    }
+
+    private static String key(Object... parts) {
+        return Arrays.toString(parts);
+    }
+
+    private static boolean isExact(String groupId, String artifactId, String version) {
+        return groupId != null && !groupId.isBlank() && artifactId != null && !artifactId.isBlank()
+                && version != null && !version.isBlank();
+    }
+
+    @Override
+    public NexusSearchResult searchByKeyword(String keyword, int pageNo) throws Exception {
+        return remote.searchByKeyword(keyword, pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchBySha1(String sha1, int pageNo) throws Exception {
+        return firstOf(key("sha1", sha1), (s, p) -> s.searchBySha1(sha1, p), pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchByGav(String groupId, String artifactId, String version, int pageNo) throws Exception {
+        if (!isExact(groupId, artifactId, version)) {
+            return remote.searchByGav(groupId, artifactId, version, pageNo);
+        }
+        return firstOf(key("gav", groupId, artifactId, version),
+                (s, p) -> s.searchByGav(groupId, artifactId, version, p), pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchByClassName(String className, boolean fullyQualified, int pageNo) throws Exception {
+        NexusSearch search = remote.supportsClassSearch() ? remote : local;
+        return search.searchByClassName(className, fullyQualified, pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchByKeyword(String keyword, NexusSearchFilter filter, int pageNo) throws Exception {
+        return remote instanceof NexusFilteredSearch filtered
+                ? filtered.searchByKeyword(keyword, filter, pageNo)
+                : filter.apply(remote.searchByKeyword(keyword, pageNo));
+    }
+
+    @Override
+    public NexusSearchResult searchBySha1(String sha1, NexusSearchFilter filter, int pageNo) throws Exception {
+        return firstOf(key("sha1", sha1, filter), (s, p) -> s instanceof NexusFilteredSearch filtered
+                ? filtered.searchBySha1(sha1, filter, p)
+                : filter.apply(s.searchBySha1(sha1, p)), pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchByGav(String groupId, String artifactId, String version,
+                                         NexusSearchFilter filter, int pageNo) throws Exception {
+        if (!isExact(groupId, artifactId, version)) {
+            return remote instanceof NexusFilteredSearch filtered
+                    ? filtered.searchByGav(groupId, artifactId, version, filter, pageNo)
+                    : filter.apply(remote.searchByGav(groupId, artifactId, version, pageNo));
+        }
+        return firstOf(key("gav", groupId, artifactId, version, filter), (s, p) -> s instanceof NexusFilteredSearch filtered
+                ? filtered.searchByGav(groupId, artifactId, version, filter, p)
+                : filter.apply(s.searchByGav(groupId, artifactId, version, p)), pageNo);
+    }
+
+    @Override
+    public List<NexusArtifact> searchVersions(String groupId, String artifactId, int pageNo) throws Exception {
+        if (remote instanceof NexusVersionSearch versionSearch) {
+            return versionSearch.searchVersions(groupId, artifactId, pageNo);
+        }
+        return pageNo == 0 ? remote.searchByGav(groupId, artifactId, null, 0).artifacts() : List.of();
+    }
+
+    @Override
+    public boolean supportsVersionDate() {
+        return remote.supportsVersionDate();
+    }
+
+    @Override
+    public boolean supportsClassSearch() {
+        return true;
+    }
+}
@@ -0,0 +1,725 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.index.ClassIndex;
+import org.jd.gui.util.nexus.index.ClassIndexWriter;
+import org.jd.gui.util.nexus.index.ClassIndexer;
+import org.jd.gui.util.nexus.index.IndexedGav;
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.jd.gui.util.nexus.model.NexusSearchResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * NexusSearch over the local Maven repository (~/.m2/repository by default).
+ *
+ * We scan the repository once, in parallel (one fork/join task per
+ * directory), into an in-memory map keyed by the path of each file relative
+ * to the root, so a GAV search is a range of that sorted map. SHA-1 searches
+ * use the ".sha1" files Maven downloads next to every artifact; we never hash
+ * the artifacts ourselves. Class searches use a {@link ClassIndex} kept under
+ * ~/.jd-gui/nexus/local, updated in the background for the jars changed since
+ * it was written; Nexus 3 clients share it for their class searches.
+ *
+ * After the first scan, a WatchService keeps the map up to date as Maven
+ * downloads or deletes files. When the platform cannot watch the whole tree
+ * (e.g. the inotify limit is reached), we rescan at most every five minutes,
+ * on the next query.
+ *
+ * Preferences:
+ *   - NEXUS_LOCAL_REPOSITORY        "off" (default), "first" (exact lookups before the server) or "only"
+ *   - NEXUS_LOCAL_REPOSITORY_PATH   repository root (default: maven.repo.local or ~/.m2/repository)
+ */
+public final class LocalMavenRepositorySearch implements NexusSearch, NexusFilteredSearch, NexusVersionSearch {
+
+    public static final String NEXUS_LOCAL_REPOSITORY = "JdGuiPreferences.nexusLocalRepository";
+    public static final String NEXUS_LOCAL_REPOSITORY_PATH = "JdGuiPreferences.nexusLocalRepositoryPath";
+
+    /** Repository name of the artifacts we return. */
+    public static final String REPOSITORY = "local";
+
+    static final int PAGE_SIZE = 100;
+    static final long RESCAN_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    static final long CLASS_INDEX_DELAY_MILLIS = 5_000;
+
+    private static final Comparator<String> NULLS = Comparator.nullsFirst(Comparator.naturalOrder());
+    private static final Map<Path, LocalMavenRepositorySearch> REPOSITORIES = new ConcurrentHashMap<>();
+
+    /** One file of the repository; sha1 is null when there is no sidecar. */
+    record LocalArtifact(String groupId, String artifactId, String version, String classifier, String extension,
+                         long lastModified, String sha1) {
+
+        IndexedGav gav() {
+            return new IndexedGav(groupId, artifactId, version, classifier, extension, null);
+        }
+    }
+
+    private final Path root;
+    private final Path classIndexPath;
+    private final ConcurrentSkipListMap<String, LocalArtifact> artifacts = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> pathsBySha1 = new ConcurrentHashMap<>();
+    private final Map<String, String> pathsByGavKey = new ConcurrentHashMap<>();
+    private final CompletableFuture<Void> firstScan = new CompletableFuture<>();
+    private final AtomicBoolean classIndexScheduled = new AtomicBoolean();
+    // One update at a time: a concurrent one would delete the generation we open
+    private final Object classIndexLock = new Object();
+    private final AtomicBoolean rescanScheduled = new AtomicBoolean();
+    private final ForkJoinPool scanPool;
+    private final ScheduledExecutorService background;
+
+    private volatile WatchService watchService;
+    private volatile boolean watching;
+    private volatile long scannedAt;
+    private volatile ClassIndex classIndex;
+    private volatile long classIndexedAt;
+
+    private LocalMavenRepositorySearch(Path root, Path classIndexPath) {
+        this.root = root;
+        this.classIndexPath = classIndexPath;
+        this.scanPool = new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("local-maven-scan-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "local-maven-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.background = executor;
+    }
+
+    /**
+     * We return the search of the repository below root, scanning it in the
+     * background the first time it is asked for.
+     */
+    public static LocalMavenRepositorySearch forRoot(Path root) {
+        return REPOSITORIES.computeIfAbsent(root.toAbsolutePath().normalize(), r -> open(r,
+                Path.of(System.getProperty("user.home"), ".jd-gui", "nexus", "local",
+                        r.toString().replaceAll("[^a-zA-Z0-9._-]", "_"), "classes.idx")));
+    }
+
+    /**
+     * We start a search of the repository below root, not shared, with its
+     * class index at the given location.
+     */
+    static LocalMavenRepositorySearch open(Path root, Path classIndexPath) {
+        LocalMavenRepositorySearch search = new LocalMavenRepositorySearch(root.toAbsolutePath().normalize(), classIndexPath);
+        search.start();
+        return search;
+    }
+
+    /**
+     * We return the remote search unchanged unless the local repository is
+     * enabled in the preferences: then the local search alone ("only", or
+     * when there is no remote search) or local first for exact GAV and SHA-1
+     * lookups, remote when the local repository has no match ("first").
+     * Other queries then go to the server (see {@link LocalFirstNexusSearch}).
+     */
+    public static NexusSearch wrap(NexusSearch remote, Map<String, String> prefs) {
+        String mode = prefs == null ? null : prefs.get(NEXUS_LOCAL_REPOSITORY);
+        mode = mode == null ? "off" : mode.trim().toLowerCase(Locale.ROOT);
+        if (!mode.equals("first") && !mode.equals("only")) {
+            return remote;
+        }
+        LocalMavenRepositorySearch local = forRoot(configuredRoot(prefs));
+        if (mode.equals("only") || remote == null) {
+            return local;
+        }
+        return new LocalFirstNexusSearch(local, remote);
+    }
+
+    /**
+     * We return the repository root set in the preferences, or the default one.
+     */
+    public static Path configuredRoot(Map<String, String> prefs) {
+        String path = prefs == null ? null : prefs.get(NEXUS_LOCAL_REPOSITORY_PATH);
+        return path == null || path.isBlank() ? ClassIndexer.defaultMavenRepository() : Path.of(path.trim());
+    }
+
+    /**
+     * We return the searches opened so far. Server clients answer class
+     * searches from their indexes, never opening (and scanning) a repository
+     * themselves.
+     */
+    static Collection<LocalMavenRepositorySearch> opened() {
+        return REPOSITORIES.values();
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    /** Whether the first scan of the repository has completed. */
+    public boolean isReady() {
+        return firstScan.isDone();
+    }
+
+    /** Whether the repository is watched for changes, rather than rescanned. */
+    public boolean isWatching() {
+        return watching;
+    }
+
+    int size() {
+        return artifacts.size();
+    }
+
+    // --- Scanning and watching
+
+    private void start() {
+        Thread thread = new Thread(() -> {
+            try {
+                openWatchService();
+                scanPool.invoke(new ScanTask(root, null));
+                scannedAt = System.currentTimeMillis();
+            } finally {
+                firstScan.complete(null);
+            }
+            background.execute(this::updateClassIndex);
+            if (watching) {
+                watchLoop();
+            }
+        }, "local-maven-watch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void openWatchService() {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try {
+            watchService = root.getFileSystem().newWatchService();
+            watching = true;
+        } catch (IOException | UnsupportedOperationException e) {
+            watching = false;
+        }
+    }
+
+    /**
+     * We register a directory before listing it, so a file created while we
+     * list it is either listed or reported.
+     */
+    private void register(Path dir) {
+        WatchService service = watchService;
+        if (!watching || service == null) {
+            return;
+        }
+        try {
+            dir.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | ClosedWatchServiceException e) {
+            // Out of watches: we fall back to periodic rescans
+            watching = false;
+            try {
+                service.close();
+            } catch (IOException ignored) {
+                // Nothing left to release
+            }
+        }
+    }
+
+    private final class ScanTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Path dir;
+        private final transient Set<String> seen;
+
+        ScanTask(Path dir, Set<String> seen) {
+            this.dir = dir;
+            this.seen = seen;
+        }
+
+        @Override
+        protected void compute() {
+            register(dir);
+            List<ScanTask> subtasks = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attrs;
+                    try {
+                        attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    } catch (IOException e) {
+                        continue;
+                    }
+                    if (attrs.isDirectory()) {
+                        subtasks.add(new ScanTask(entry, seen));
+                    } else if (attrs.isRegularFile()) {
+                        String key = addFile(entry, attrs.lastModifiedTime().toMillis());
+                        if (key != null && seen != null) {
+                            seen.add(key);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                // Deleted or unreadable directory: nothing to index
+            }
+            invokeAll(subtasks);
+        }
+    }
+
+    /**
+     * We scan a directory again and drop what is no longer in it.
+     */
+    private void rescan(Path dir) {
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        scanPool.invoke(new ScanTask(dir, seen));
+        String prefix = relative(dir);
+        Map<String, LocalArtifact> scope = prefix.isEmpty() ? artifacts : artifacts.subMap(prefix + "/", prefix + "/" + Character.MAX_VALUE);
+        for (String key : new ArrayList<>(scope.keySet())) {
+            if (!seen.contains(key)) {
+                removeFile(key);
+            }
+        }
+    }
+
+    private void watchLoop() {
+        WatchService service = watchService;
+        while (watching) {
+            WatchKey key;
+            try {
+                key = service.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ClosedWatchServiceException e) {
+                return;
+            }
+            Path dir = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    rescan(root);
+                    continue;
+                }
+                Path child = dir.resolve((Path) event.context());
+                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    String rel = relative(child);
+                    removeFile(rel);
+                    for (String k : new ArrayList<>(artifacts.subMap(rel + "/", rel + "/" + Character.MAX_VALUE).keySet())) {
+                        removeFile(k);
+                    }
+                } else if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                    rescan(child);
+                } else {
+                    try {
+                        addFile(child, Files.getLastModifiedTime(child, LinkOption.NOFOLLOW_LINKS).toMillis());
+                    } catch (IOException ignored) {
+                        // Deleted meanwhile: its delete event follows
+                    }
+                }
+            }
+            key.reset();
+            scheduleClassIndex();
+        }
+        // Watching was given up: later queries rescan
+        rescanScheduled.set(false);
+    }
+
+    /**
+     * We rescan in the background when the repository is not watched and the
+     * last scan is older than RESCAN_MILLIS.
+     */
+    private void rescanIfStale() {
+        if (watching || !isReady() || System.currentTimeMillis() - scannedAt < RESCAN_MILLIS
+                || !rescanScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        background.execute(() -> {
+            try {
+                rescan(root);
+                scannedAt = System.currentTimeMillis();
+                updateClassIndex();
+            } finally {
+                rescanScheduled.set(false);
+            }
+        });
+    }
+
+    /**
+     * We record an artifact file, or refresh the artifact of a ".sha1"
+     * sidecar, and return the key of the recorded file.
+     */
+    private String addFile(Path file, long lastModified) {
+        String name = file.getFileName().toString();
+        if (name.endsWith(".sha1")) {
+            Path artifact = file.resolveSibling(name.substring(0, name.length() - 5));
+            String key = relative(artifact);
+            LocalArtifact known = artifacts.get(key);
+            if (known != null) {
+                put(key, new LocalArtifact(known.groupId(), known.artifactId(), known.version(), known.classifier(),
+                        known.extension(), known.lastModified(), readSha1(artifact)));
+            }
+            return null;
+        }
+        IndexedGav gav = ClassIndexer.gavFromPath(root, file);
+        if (gav == null || NexusAssets.isChecksumOrSignature(gav.extension())) {
+            return null;
+        }
+        String key = relative(file);
+        put(key, new LocalArtifact(gav.groupId(), gav.artifactId(), gav.version(), gav.classifier(), gav.extension(),
+                lastModified, readSha1(file)));
+        return key;
+    }
+
+    private void put(String key, LocalArtifact artifact) {
+        LocalArtifact previous = artifacts.put(key, artifact);
+        unlinkSha1(key, previous);
+        if (artifact.sha1() != null) {
+            pathsBySha1.computeIfAbsent(artifact.sha1(), s -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        pathsByGavKey.put(artifact.gav().toKey(), key);
+    }
+
+    private void removeFile(String key) {
+        LocalArtifact previous = artifacts.remove(key);
+        if (previous != null) {
+            unlinkSha1(key, previous);
+            pathsByGavKey.remove(previous.gav().toKey(), key);
+        }
+    }
+
+    private void unlinkSha1(String key, LocalArtifact previous) {
+        if (previous != null && previous.sha1() != null) {
+            pathsBySha1.computeIfPresent(previous.sha1(), (s, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    /**
+     * We read the checksum of a ".sha1" sidecar, which holds the hex digest
+     * optionally followed by the file name.
+     */
+    static String readSha1(Path artifact) {
+        Path sidecar = artifact.resolveSibling(artifact.getFileName() + ".sha1");
+        try {
+            if (!Files.isRegularFile(sidecar) || Files.size(sidecar) > 1024) {
+                return null;
+            }
+            String content = Files.readString(sidecar, StandardCharsets.US_ASCII).trim();
+            int end = 0;
+            while (end < content.length() && Character.digit(content.charAt(end), 16) >= 0) {
+                end++;
+            }
+            return end == 40 ? content.substring(0, 40).toLowerCase(Locale.ROOT) : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private String relative(Path file) {
+        return root.relativize(file.toAbsolutePath().normalize()).toString().replace('\\', '/');
+    }
+
+    // --- Class index
+
+    private void scheduleClassIndex() {
+        if (classIndexScheduled.compareAndSet(false, true)) {
+            background.schedule(() -> {
+                classIndexScheduled.set(false);
+                updateClassIndex();
+            }, CLASS_INDEX_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * We bring the class index up to date: the jars modified since it was
+     * written are indexed again, the deleted ones dropped, and the file is
+     * rewritten only when something changed.
+     */
+    void updateClassIndex() {
+        synchronized (classIndexLock) {
+            doUpdateClassIndex();
+        }
+    }
+
+    private void doUpdateClassIndex() {
+        long startedAt = System.currentTimeMillis();
+        ClassIndex existing = classIndex;
+        long indexedAt = classIndexedAt;
+        if (existing == null) {
+            existing = ClassIndex.openIfPresent(classIndexPath);
+            try {
+                indexedAt = existing == null ? 0 : Files.getLastModifiedTime(existing.path()).toMillis();
+            } catch (IOException e) {
+                indexedAt = 0;
+            }
+        }
+        try (ClassIndexWriter writer = new ClassIndexWriter(existing)) {
+            Set<String> present = new HashSet<>();
+            List<Path> jars = new ArrayList<>();
+            boolean changed = existing == null;
+            for (Map.Entry<String, LocalArtifact> e : artifacts.entrySet()) {
+                LocalArtifact artifact = e.getValue();
+                if (!ClassIndexer.isClassBearing(artifact.extension(), artifact.classifier())) {
+                    continue;
+                }
+                String gavKey = artifact.gav().toKey();
+                present.add(gavKey);
+                if (artifact.lastModified() >= indexedAt && writer.containsArtifact(gavKey)) {
+                    writer.removeArtifact(gavKey);
+                    changed = true;
+                }
+                jars.add(root.resolve(e.getKey()));
+            }
+            changed |= writer.retainArtifacts(present);
+            changed |= new ClassIndexer(writer).indexJars(root, jars) > 0;
+            if (changed) {
+                existing = ClassIndex.open(writer.write(classIndexPath));
+            }
+            classIndex = existing;
+            classIndexedAt = startedAt;
+        } catch (IOException | UncheckedIOException e) {
+            // We keep the previous index and try again on the next change
+        }
+    }
+
+    // --- Searches
+
+    private void awaitFirstScan() throws Exception {
+        firstScan.get();
+        rescanIfStale();
+    }
+
+    @Override
+    public NexusSearchResult searchByKeyword(String keyword, int pageNo) throws Exception {
+        return searchByKeyword(keyword, NexusSearchFilter.NONE, pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchBySha1(String sha1, int pageNo) throws Exception {
+        return searchBySha1(sha1, NexusSearchFilter.NONE, pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchByGav(String groupId, String artifactId, String version, int pageNo) throws Exception {
+        return searchByGav(groupId, artifactId, version, NexusSearchFilter.NONE, pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchByKeyword(String keyword, NexusSearchFilter filter, int pageNo) throws Exception {
+        awaitFirstScan();
+        String k = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        return find(artifacts, a -> contains(a.groupId(), k) || contains(a.artifactId(), k) || contains(a.version(), k),
+                filter, pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchBySha1(String sha1, NexusSearchFilter filter, int pageNo) throws Exception {
+        awaitFirstScan();
+        Set<String> keys = sha1 == null ? null : pathsBySha1.get(sha1.trim().toLowerCase(Locale.ROOT));
+        if (pageNo > 0 || keys == null) {
+            return new NexusSearchResult(List.of());
+        }
+        Map<String, LocalArtifact> matches = new TreeMap<>();
+        for (String key : keys) {
+            LocalArtifact artifact = artifacts.get(key);
+            if (artifact != null) {
+                matches.put(key, artifact);
+            }
+        }
+        return find(matches, a -> true, filter, 0);
+    }
+
+    @Override
+    public NexusSearchResult searchByGav(String groupId, String artifactId, String version,
+                                         NexusSearchFilter filter, int pageNo) throws Exception {
+        awaitFirstScan();
+        String g = blankToNull(groupId);
+        String a = blankToNull(artifactId);
+        String v = blankToNull(version);
+        return find(scope(g, a, v), x -> (g == null || g.equals(x.groupId()))
+                && (a == null || a.equals(x.artifactId()))
+                && (v == null || v.equals(x.version())), filter, pageNo);
+    }
+
+    @Override
+    public List<NexusArtifact> searchVersions(String groupId, String artifactId, int pageNo) throws Exception {
+        awaitFirstScan();
+        String g = groupId.trim();
+        String a = artifactId.trim();
+        // One file per version, the POM when there is one, newest first
+        Map<String, Map.Entry<String, LocalArtifact>> byVersion = new HashMap<>();
+        for (Map.Entry<String, LocalArtifact> e : scope(g, a, null).entrySet()) {
+            LocalArtifact x = e.getValue();
+            if (g.equals(x.groupId()) && a.equals(x.artifactId())) {
+                byVersion.merge(x.version(), e, (p, q) -> "pom".equals(q.getValue().extension()) ? q : p);
+            }
+        }
+        List<Map.Entry<String, LocalArtifact>> versions = new ArrayList<>(byVersion.values());
+        versions.sort(Comparator.comparing((Map.Entry<String, LocalArtifact> e) -> MavenVersion.parse(e.getValue().version()))
+                .reversed());
+        int from = Math.min(versions.size(), pageNo * PAGE_SIZE);
+        int to = Math.min(versions.size(), from + PAGE_SIZE);
+        List<NexusArtifact> page = new ArrayList<>(to - from);
+        for (Map.Entry<String, LocalArtifact> e : versions.subList(from, to)) {
+            page.add(toArtifact(e.getKey(), e.getValue()));
+        }
+        return page;
+    }
+
+    /**
+     * We return the class index of the repository without waiting for the
+     * first scan, or null when none was ever written. Server clients answer
+     * class searches from it rather than indexing the repository again.
+     */
+    ClassIndex classIndex() {
+        rescanIfStale();
+        ClassIndex index = classIndex;
+        return index != null ? index : ClassIndex.openIfPresent(classIndexPath);
+    }
+
+    @Override
+    public NexusSearchResult searchByClassName(String className, boolean fullyQualified, int pageNo) throws Exception {
+        awaitFirstScan();
+        ClassIndex index = classIndex;
+        if (index == null || className == null || className.isBlank()) {
+            return new NexusSearchResult(List.of());
+        }
+        List<NexusArtifact> page = new ArrayList<>();
+        for (ClassIndex.Hit hit : index.find(className.trim(), fullyQualified, pageNo * PAGE_SIZE, PAGE_SIZE)) {
+            NexusArtifact artifact = artifact(hit.gav());
+            if (artifact != null) {
+                page.add(artifact);
+            }
+        }
+        return new NexusSearchResult(page);
+    }
+
+    /**
+     * We return the artifact of an indexed GAV, linking to its file, or null
+     * when the file is gone or not scanned yet.
+     */
+    NexusArtifact artifact(IndexedGav gav) {
+        String key = pathsByGavKey.get(new IndexedGav(gav.groupId(), gav.artifactId(), gav.version(),
+                gav.classifier(), gav.extension(), null).toKey());
+        LocalArtifact artifact = key == null ? null : artifacts.get(key);
+        return artifact == null ? null : toArtifact(key, artifact);
+    }
+
+    @Override
+    public boolean supportsVersionDate() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsClassSearch() {
+        return true;
+    }
+
+    /**
+     * We narrow a GAV query to the directory of its group, artifact and
+     * version: the paths are sorted, so that is one range of the map.
+     */
+    private Map<String, LocalArtifact> scope(String groupId, String artifactId, String version) {
+        if (groupId == null) {
+            return artifacts;
+        }
+        String prefix = groupId.replace('.', '/') + "/";
+        if (artifactId != null) {
+            prefix += artifactId + "/";
+            if (version != null) {
+                prefix += version + "/";
+            }
+        }
+        return artifacts.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+
+    /**
+     * We page through the files matching the query and the filter. A sorted
+     * search has to see every match before it can cut a page.
+     */
+    private NexusSearchResult find(Map<String, LocalArtifact> scope, Predicate<LocalArtifact> query,
+                                   NexusSearchFilter filter, int pageNo) {
+        Predicate<LocalArtifact> predicate = query.and(a ->
+                (filter.repository() == null || REPOSITORY.equals(filter.repository()))
+                        && (filter.extension() == null || filter.extension().equalsIgnoreCase(a.extension()))
+                        && (filter.classifier() == null || filter.classifier().equals(a.classifier())));
+        int skip = filter.sort() == null ? pageNo * PAGE_SIZE : 0;
+        int limit = filter.sort() == null ? PAGE_SIZE : Integer.MAX_VALUE;
+        List<Map.Entry<String, LocalArtifact>> matches = new ArrayList<>();
+        for (Map.Entry<String, LocalArtifact> e : scope.entrySet()) {
+            if (predicate.test(e.getValue())) {
+                if (skip > 0) {
+                    skip--;
+                } else if (matches.size() < limit) {
+                    matches.add(Map.entry(e.getKey(), e.getValue()));
+                } else {
+                    break;
+                }
+            }
+        }
+        if (filter.sort() != null) {
+            Comparator<LocalArtifact> order = switch (filter.sort()) {
+                case "group" -> Comparator.comparing(LocalArtifact::groupId, NULLS);
+                case "name" -> Comparator.comparing(LocalArtifact::artifactId, NULLS);
+                case "repository" -> (x, y) -> 0;
+                default -> Comparator.comparing(LocalArtifact::version, Comparator.nullsFirst(MavenVersion::compare));
+            };
+            Comparator<LocalArtifact> direction = "desc".equals(filter.direction()) ? order.reversed() : order;
+            matches.sort((x, y) -> direction.compare(x.getValue(), y.getValue()));
+            int from = Math.min(matches.size(), pageNo * PAGE_SIZE);
+            matches = matches.subList(from, Math.min(matches.size(), from + PAGE_SIZE));
+        }
+        List<NexusArtifact> page = new ArrayList<>(matches.size());
+        for (Map.Entry<String, LocalArtifact> e : matches) {
+            page.add(toArtifact(e.getKey(), e.getValue()));
+        }
+        return new NexusSearchResult(page);
+    }
+
+    private NexusArtifact toArtifact(String key, LocalArtifact artifact) {
+        LocalDate versionDate = artifact.lastModified() > 0
+                ? Instant.ofEpochMilli(artifact.lastModified()).atOffset(ZoneOffset.UTC).toLocalDate()
+                : null;
+        return new NexusArtifact(artifact.groupId(), artifact.artifactId(), artifact.version(), versionDate,
+                artifact.classifier(), artifact.extension(), REPOSITORY, root.resolve(key).toUri().toString());
+    }
+
+    private static boolean contains(String value, String lowerCaseNeedle) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(lowerCaseNeedle);
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s.trim();
+    }
+}
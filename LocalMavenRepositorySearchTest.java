@@ -0,0 +1,233 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.index.ClassIndex;
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.jd.gui.util.nexus.model.NexusSearchResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LocalMavenRepositorySearch, over a repository laid out in a
+ * temporary directory.
+ */
+class LocalMavenRepositorySearchTest {
+
+    private static final String SHA1 = "0123456789abcdef0123456789abcdef01234567";
+
+    @TempDir
+    Path root;
+
+    @TempDir
+    Path home;
+
+    private static Path artifact(Path root, String g, String a, String v, String classifier, String extension,
+                                 String... classes) throws IOException {
+        Path dir = root.resolve(g.replace('.', '/')).resolve(a).resolve(v);
+        Files.createDirectories(dir);
+        Path file = dir.resolve(a + "-" + v + (classifier == null ? "" : "-" + classifier) + "." + extension);
+        try (OutputStream out = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (String c : classes) {
+                zip.putNextEntry(new ZipEntry(c.replace('.', '/') + ".class"));
+                zip.write(new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+            }
+            zip.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+        }
+        return file;
+    }
+
+    private LocalMavenRepositorySearch open() throws Exception {
+        LocalMavenRepositorySearch search = LocalMavenRepositorySearch.open(root, home.resolve("classes.idx"));
+        search.searchByKeyword("", 0);
+        return search;
+    }
+
+    @Test
+    void findsArtifactsByCoordinates() throws Exception {
+        artifact(root, "org.example", "demo", "1.0", null, "jar");
+        artifact(root, "org.example", "demo", "1.0", "sources", "jar");
+        artifact(root, "org.example", "demo", "1.1", null, "jar");
+        artifact(root, "org.example.other", "tool", "2.0", null, "jar");
+        Files.writeString(root.resolve("org/example/demo/1.0/demo-1.0.pom"), "<project/>");
+        Files.writeString(root.resolve("org/example/demo/maven-metadata-central.xml"), "<metadata/>");
+
+        LocalMavenRepositorySearch search = open();
+        assertTrue(search.isReady());
+        assertEquals(5, search.size());
+
+        List<NexusArtifact> demo10 = search.searchByGav("org.example", "demo", "1.0", 0).artifacts();
+        assertEquals(3, demo10.size());
+        assertTrue(demo10.stream().allMatch(a -> "local".equals(a.repository()) && a.artifactLink().startsWith("file:")));
+        assertEquals(4, search.searchByGav("org.example", "demo", null, 0).artifacts().size());
+        assertEquals(1, search.searchByGav("org.example.other", null, null, 0).artifacts().size());
+        assertEquals(1, search.searchByGav("org.example", "demo", "1.0",
+                new NexusSearchFilter(null, "pom", null, null, null, null), 0).artifacts().size());
+        assertEquals(1, search.searchByKeyword("TOOL", 0).artifacts().size());
+
+        List<NexusArtifact> versions = search.searchVersions("org.example", "demo", 0);
+        assertEquals(List.of("1.1", "1.0"), versions.stream().map(NexusArtifact::version).toList());
+        assertEquals("pom", versions.get(1).extension());
+    }
+
+    @Test
+    void findsArtifactsByChecksumSidecar() throws Exception {
+        Path jar = artifact(root, "org.example", "demo", "1.0", null, "jar");
+        Files.writeString(jar.resolveSibling(jar.getFileName() + ".sha1"), SHA1.toUpperCase() + "  demo-1.0.jar\n");
+
+        LocalMavenRepositorySearch search = open();
+        List<NexusArtifact> found = search.searchBySha1(SHA1, 0).artifacts();
+        assertEquals(1, found.size());
+        assertEquals("demo", found.get(0).artifactId());
+        assertTrue(search.searchBySha1("f".repeat(40), 0).artifacts().isEmpty());
+    }
+
+    @Test
+    void findsClassesOnceIndexed() throws Exception {
+        artifact(root, "org.example", "demo", "1.0", null, "jar", "org.example.Demo", "org.example.util.Helper");
+        artifact(root, "org.example", "demo", "1.0", "sources", "jar", "org.example.Demo");
+
+        LocalMavenRepositorySearch search = open();
+        search.updateClassIndex();
+        List<NexusArtifact> hits = search.searchByClassName("Helper", false, 0).artifacts();
+        assertEquals(1, hits.size());
+        assertNull(hits.get(0).classifier());
+        assertEquals(1, search.searchByClassName("org.example.Demo", true, 0).artifacts().size());
+        assertNotNull(ClassIndex.openIfPresent(home.resolve("classes.idx")));
+        assertEquals(1, search.classIndex().find("Helper", false, 0, 10).size());
+    }
+
+    @Test
+    void serverClientsLinkLocalOnlyClassesToTheirFiles() throws Exception {
+        artifact(root, "org.example", "demo", "1.0", null, "jar", "org.example.util.Helper");
+        assertEquals(root, LocalMavenRepositorySearch.configuredRoot(
+                Map.of(LocalMavenRepositorySearch.NEXUS_LOCAL_REPOSITORY_PATH, root.toString())));
+
+        String previousHome = System.getProperty("user.home");
+        System.setProperty("user.home", home.toString());
+        try {
+            LocalMavenRepositorySearch search = LocalMavenRepositorySearch.forRoot(root);
+            search.searchByKeyword("", 0);
+            search.updateClassIndex();
+
+            // No server index: the hit comes from the opened local repository, with a link to its file
+            NexusV3Client client = new NexusV3Client(new NexusConfig("http://127.0.0.1:9", null, null));
+            List<NexusArtifact> hits = client.searchByClassName("Helper", false, 0).artifacts();
+            assertEquals(1, hits.size());
+            assertEquals(LocalMavenRepositorySearch.REPOSITORY, hits.get(0).repository());
+            assertEquals(root.resolve("org/example/demo/1.0/demo-1.0.jar").toUri().toString(), hits.get(0).artifactLink());
+        } finally {
+            System.setProperty("user.home", previousHome);
+        }
+    }
+
+    @Test
+    void followsChangesOfTheRepository() throws Exception {
+        Path jar = artifact(root, "org.example", "demo", "1.0", null, "jar");
+        LocalMavenRepositorySearch search = open();
+        if (!search.isWatching()) {
+            return;
+        }
+        artifact(root, "org.example", "added", "3.0", null, "jar");
+        Files.delete(jar);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline
+                && (search.searchByGav("org.example", "added", null, 0).artifacts().isEmpty()
+                || !search.searchByGav("org.example", "demo", null, 0).artifacts().isEmpty())) {
+            Thread.sleep(50);
+        }
+        assertEquals(1, search.searchByGav("org.example", "added", null, 0).artifacts().size());
+        assertTrue(search.searchByGav("org.example", "demo", null, 0).artifacts().isEmpty());
+    }
+
+    @Test
+    void isOffUnlessEnabled() {
+        NexusSearch remote = LocalMavenRepositorySearch.open(root, home.resolve("classes.idx"));
+        assertSame(remote, LocalMavenRepositorySearch.wrap(remote, Map.of()));
+        assertSame(remote, LocalMavenRepositorySearch.wrap(remote,
+                Map.of(LocalMavenRepositorySearch.NEXUS_LOCAL_REPOSITORY, "off")));
+    }
+
+    @Test
+    void localFirstKeepsTheSideOfAQueryForItsLaterPages() throws Exception {
+        List<Integer> remotePages = new ArrayList<>();
+        NexusSearch remote = (NexusSearch) Proxy.newProxyInstance(NexusSearch.class.getClassLoader(),
+                new Class<?>[] {NexusSearch.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("searchByGav")) {
+                        remotePages.add((Integer) args[args.length - 1]);
+                        return new NexusSearchResult(List.of());
+                    }
+                    return method.getReturnType() == boolean.class ? false : null;
+                });
+        LocalMavenRepositorySearch local = open();
+        if (!local.isWatching()) {
+            return;
+        }
+        NexusSearch search = new LocalFirstNexusSearch(local, remote);
+
+        search.searchByGav("org.example", "added", "1.0", 0);
+        assertEquals(List.of(0), remotePages);
+
+        // The local repository now has a match, but the query was answered by the server
+        artifact(root, "org.example", "added", "1.0", null, "jar");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline
+                && local.searchByGav("org.example", "added", "1.0", 0).artifacts().isEmpty()) {
+            Thread.sleep(50);
+        }
+        assertEquals(1, local.searchByGav("org.example", "added", "1.0", 0).artifacts().size());
+        search.searchByGav("org.example", "added", "1.0", 1);
+        assertEquals(List.of(0, 1), remotePages);
+    }
+
+    @Test
+    void localFirstAnswersOnlyExactLookupsLocally() throws Exception {
+        artifact(root, "org.example", "demo", "1.0", null, "jar");
+        Files.writeString(root.resolve("org/example/demo/1.0/demo-1.0.jar.sha1"), SHA1, StandardCharsets.US_ASCII);
+        List<String> remoteCalls = new ArrayList<>();
+        NexusArtifact onServer = new NexusArtifact("org.example", "demo-server", "2.0", null, null, "jar", "releases", null);
+        NexusSearch remote = (NexusSearch) Proxy.newProxyInstance(NexusSearch.class.getClassLoader(),
+                new Class<?>[] {NexusSearch.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("search")) {
+                        remoteCalls.add(method.getName());
+                        return new NexusSearchResult(List.of(onServer));
+                    }
+                    return method.getReturnType() == boolean.class ? false : null;
+                });
+        NexusSearch search = new LocalFirstNexusSearch(open(), remote);
+
+        assertEquals("local", search.searchByGav("org.example", "demo", "1.0", 0).artifacts().get(0).repository());
+        assertEquals("local", search.searchBySha1(SHA1, 0).artifacts().get(0).repository());
+        assertTrue(remoteCalls.isEmpty());
+
+        // A local match does not hide the other matches of the server
+        assertEquals(List.of(onServer), search.searchByKeyword("demo", 0).artifacts());
+        assertEquals(List.of(onServer), search.searchByGav("org.example", "demo", null, 0).artifacts());
+        assertEquals(List.of("searchByKeyword", "searchByGav"), remoteCalls);
+        // The server cannot search classes: the local repository answers
+        assertTrue(search.searchByClassName("org.example.Missing", true, 0).artifacts().isEmpty());
+        assertEquals(2, remoteCalls.size());
+    }
+
+    @Test
+    void readsChecksumSidecars() throws IOException {
+        Path file = root.resolve("a.jar");
+        Files.writeString(root.resolve("a.jar.sha1"), SHA1, StandardCharsets.US_ASCII);
+        assertEquals(SHA1, LocalMavenRepositorySearch.readSha1(file));
+        Files.writeString(root.resolve("a.jar.sha1"), "not a checksum", StandardCharsets.US_ASCII);
+        assertNull(LocalMavenRepositorySearch.readSha1(file));
+    }
+}
@@ -0,0 +1,93 @@
+package org.jd.gui.util.nexus.index;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only mapping of a whole index file, addressed with long positions.
+ *
+ * A single MappedByteBuffer cannot exceed 2 GB, so we map the file in
+ * segments of 2^segmentShift bytes. Each segment also maps the MAX_READ
+ * bytes after it, so a read of at most MAX_READ bytes, such as a pool string,
+ * is always served by the segment it starts in.
+ *
+ * Instances are safe for concurrent readers: we only use absolute reads.
+ */
+final class MappedFile {
+
+    static final int DEFAULT_SEGMENT_SHIFT = 30;
+    static final int MAX_READ = Short.BYTES + 0xFFFF;
+
+    private final ByteBuffer[] segments;
+    private final int segmentShift;
+    private final long segmentMask;
+    private final long size;
+
+    private MappedFile(ByteBuffer[] segments, int segmentShift, long size) {
+        this.segments = segments;
+        this.segmentShift = segmentShift;
+        this.segmentMask = (1L << segmentShift) - 1;
+        this.size = size;
+    }
+
+    /**
+     * We map the file read-only. The mapping stays valid after the channel is closed.
+     */
+    static MappedFile map(Path file, int segmentShift) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long segmentSize = 1L << segmentShift;
+            int count = (int) Math.max(1, (size + segmentSize - 1) >>> segmentShift);
+            ByteBuffer[] segments = new ByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = (long) i << segmentShift;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(size - start, segmentSize + MAX_READ));
+            }
+            return new MappedFile(segments, segmentShift, size);
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    int getInt(long pos) {
+        return segment(pos).getInt(offset(pos));
+    }
+
+    long getLong(long pos) {
+        return segment(pos).getLong(offset(pos));
+    }
+
+    byte get(long pos) {
+        return segment(pos).get(offset(pos));
+    }
+
+    void get(long pos, byte[] dst) {
+        segment(pos).get(offset(pos), dst);
+    }
+
+    /**
+     * We read a pool string, (unsigned short length, UTF-8 bytes).
+     */
+    String string(long pos) {
+        ByteBuffer segment = segment(pos);
+        int offset = offset(pos);
+        byte[] bytes = new byte[Short.toUnsignedInt(segment.getShort(offset))];
+        segment.get(offset + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private ByteBuffer segment(long pos) {
+        return segments[(int) (pos >>> segmentShift)];
+    }
+
+    private int offset(long pos) {
+        return (int) (pos & segmentMask);
+    }
+}
@@ -0,0 +1,241 @@
+package org.jd.gui.util.nexus.index;
+
+import org.jd.gui.util.nexus.AtomicFiles;
+import org.jd.gui.util.nexus.OptionValues;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * We import a Maven index published as nexus-maven-repository-index.gz, with
+ * its .properties and .N.gz incremental chunks, from a local directory into
+ * a {@link MavenIndexStore} (artifacts.idx) and a {@link ClassIndex}
+ * (classes.idx).
+ *
+ * The first import streams the full index. Later imports of the same chain
+ * (nexus.index.chain-id) only stream the chunks published since, on top of
+ * the existing files; a new chain, a missing chunk or a missing store falls
+ * back to a full import. Updates are merged with the mapped files into new
+ * generations of them, and the state (import.properties) is written last:
+ * an interrupted update is simply applied again, adds and deletes being
+ * idempotent.
+ *
+ * Documents of the index we use (other fields and the descriptor and group
+ * list documents are skipped):
+ *
+ *   u           groupId|artifactId|version|classifier|extension ("NA": no classifier)
+ *   i           packaging|lastModified|size|sources|javadoc|signature|extension
+ *   n           project name
+ *   1           SHA-1 of the file
+ *   classNames  "/org/example/Demo" per line
+ *   del         u of a deleted artifact (chunks only)
+ *   IDXINFO     "1.0|repositoryId" (descriptor)
+ */
+public final class MavenIndexImporter {
+
+    public static final String INDEX_FILE = "nexus-maven-repository-index.gz";
+    public static final String PROPERTIES_FILE = "nexus-maven-repository-index.properties";
+    public static final String STORE_FILE = "artifacts.idx";
+    public static final String CLASS_INDEX_FILE = "classes.idx";
+    public static final String STATE_FILE = "import.properties";
+
+    static final String CHAIN_ID = "nexus.index.chain-id";
+    static final String LAST_INCREMENTAL = "nexus.index.last-incremental";
+    static final String REPOSITORY = "repository";
+    static final String TIMESTAMP = "timestamp";
+
+    private static final String NOT_AVAILABLE = "NA";
+
+    /**
+     * Outcome of an update: the chunks applied (0 for a full import or when
+     * already up to date), documents added and deleted, and the repository
+     * id from the index descriptor (or null).
+     */
+    public record Result(boolean full, int chunks, int added, int deleted, String repository) {
+    }
+
+    private MavenIndexImporter() {
+        // Utility class: no instances
+    }
+
+    /**
+     * We bring the store in storeDir up to date with the index published in
+     * indexDir.
+     */
+    public static Result update(Path indexDir, Path storeDir) throws IOException {
+        Properties published = readProperties(indexDir.resolve(PROPERTIES_FILE));
+        Properties state = readProperties(storeDir.resolve(STATE_FILE));
+        String chainId = published.getProperty(CHAIN_ID);
+        long last = OptionValues.parseLong(published.getProperty(LAST_INCREMENTAL), -1);
+        long applied = OptionValues.parseLong(state.getProperty(LAST_INCREMENTAL), -1);
+
+        MavenIndexStore store = MavenIndexStore.openIfPresent(storeDir.resolve(STORE_FILE));
+        ClassIndex classes = ClassIndex.openIfPresent(storeDir.resolve(CLASS_INDEX_FILE));
+        boolean incremental = store != null && classes != null && chainId != null
+                && chainId.equals(state.getProperty(CHAIN_ID)) && applied >= 0 && last >= applied;
+        List<Path> chunks = new ArrayList<>();
+        if (incremental) {
+            for (long n = applied + 1; n <= last && incremental; n++) {
+                Path chunk = indexDir.resolve(INDEX_FILE.replace(".gz", "." + n + ".gz"));
+                incremental = Files.isRegularFile(chunk);
+                chunks.add(chunk);
+            }
+        }
+        if (incremental && chunks.isEmpty()) {
+            return new Result(false, 0, 0, 0, state.getProperty(REPOSITORY));
+        }
+
+        String repository = null;
+        long timestamp;
+        int[] counts = new int[2];
+        // An update is merged with the mapped files rather than loaded into the writers
+        try (MavenIndexStoreWriter storeWriter = new MavenIndexStoreWriter(incremental ? store : null);
+             ClassIndexWriter classWriter = new ClassIndexWriter(incremental ? classes : null)) {
+            if (incremental) {
+                repository = state.getProperty(REPOSITORY);
+                timestamp = OptionValues.parseLong(state.getProperty(TIMESTAMP), -1);
+                for (Path chunk : chunks) {
+                    try (InputStream in = Files.newInputStream(chunk); MavenIndexReader reader = new MavenIndexReader(in)) {
+                        repository = apply(reader, storeWriter, classWriter, counts, repository);
+                        timestamp = Math.max(timestamp, reader.timestamp());
+                    }
+                }
+            } else {
+                Path full = indexDir.resolve(INDEX_FILE);
+                if (!Files.isRegularFile(full)) {
+                    throw new IOException("No Maven index in " + indexDir);
+                }
+                try (InputStream in = Files.newInputStream(full); MavenIndexReader reader = new MavenIndexReader(in)) {
+                    repository = apply(reader, storeWriter, classWriter, counts, null);
+                    timestamp = reader.timestamp();
+                }
+            }
+
+            storeWriter.write(storeDir.resolve(STORE_FILE));
+            classWriter.write(storeDir.resolve(CLASS_INDEX_FILE));
+        }
+
+        Properties newState = new Properties();
+        if (chainId != null && last >= 0) {
+            newState.setProperty(CHAIN_ID, chainId);
+            newState.setProperty(LAST_INCREMENTAL, Long.toString(last));
+        }
+        if (repository != null) {
+            newState.setProperty(REPOSITORY, repository);
+        }
+        newState.setProperty(TIMESTAMP, Long.toString(timestamp));
+        writeProperties(storeDir.resolve(STATE_FILE), newState);
+        return new Result(!incremental, incremental ? chunks.size() : 0, counts[0], counts[1], repository);
+    }
+
+    /**
+     * We apply the documents of one index file and return the repository id
+     * from its descriptor, or the given one.
+     */
+    static String apply(MavenIndexReader reader, MavenIndexStoreWriter store, ClassIndexWriter classes,
+                        int[] counts, String repository) throws IOException {
+        for (Map<String, String> document = reader.next(); document != null; document = reader.next()) {
+            String info = document.get("IDXINFO");
+            if (info != null) {
+                int bar = info.indexOf('|');
+                repository = bar < 0 ? repository : info.substring(bar + 1);
+                continue;
+            }
+            String deleted = document.get("del");
+            if (deleted != null) {
+                String key = gavKey(deleted, null);
+                if (key != null) {
+                    store.remove(key);
+                    classes.removeArtifact(key);
+                    counts[1]++;
+                }
+                continue;
+            }
+            String uinfo = document.get("u");
+            if (uinfo == null) {
+                continue;
+            }
+            String[] infos = split(document.get("i"));
+            String key = gavKey(uinfo, infos);
+            if (key == null) {
+                continue;
+            }
+            long lastModified = OptionValues.parseLong(infos.length > 1 ? infos[1] : document.get("m"), -1);
+            store.add(key, document.get("n"), lastModified, document.get("1"));
+            String classNames = document.get("classNames");
+            if (classNames != null && !classNames.isEmpty()) {
+                classes.addArtifact(key, toClassNames(classNames));
+            } else {
+                classes.removeArtifact(key);
+            }
+            counts[0]++;
+        }
+        return repository;
+    }
+
+    /**
+     * We map a "u" field to a GAV key. Older indexes leave the extension out
+     * of "u"; we take it from "i" then, or its packaging.
+     */
+    static String gavKey(String uinfo, String[] infos) {
+        String[] parts = split(uinfo);
+        if (parts.length < 3 || parts[0].isEmpty() || parts[1].isEmpty() || parts[2].isEmpty()) {
+            return null;
+        }
+        String classifier = parts.length > 3 && !NOT_AVAILABLE.equals(parts[3]) && !parts[3].isEmpty() ? parts[3] : null;
+        String extension;
+        if (parts.length > 4 && !parts[4].isEmpty()) {
+            extension = parts[4];
+        } else if (infos != null && infos.length > 6 && !infos[6].isEmpty() && !NOT_AVAILABLE.equals(infos[6])) {
+            extension = infos[6];
+        } else if (infos != null && infos.length > 0 && !infos[0].isEmpty() && !NOT_AVAILABLE.equals(infos[0])) {
+            extension = infos[0];
+        } else {
+            extension = "jar";
+        }
+        return new IndexedGav(parts[0], parts[1], parts[2], classifier, extension, null).toKey();
+    }
+
+    static List<String> toClassNames(String field) {
+        List<String> names = new ArrayList<>();
+        for (String line : field.split("\n")) {
+            String name = line.trim();
+            if (name.startsWith("/")) {
+                name = name.substring(1);
+            }
+            if (!name.isEmpty()) {
+                names.add(name.replace('/', '.'));
+            }
+        }
+        return names;
+    }
+
+    private static String[] split(String field) {
+        return field == null ? new String[0] : field.split("\\|", -1);
+    }
+
+    private static Properties readProperties(Path file) throws IOException {
+        Properties properties = new Properties();
+        if (Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            }
+        }
+        return properties;
+    }
+
+    private static void writeProperties(Path file, Properties properties) throws IOException {
+        AtomicFiles.write(file, tmp -> {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                properties.store(out, "Maven index import state");
+            }
+        });
+    }
+}
@@ -0,0 +1,218 @@
+package org.jd.gui.util.nexus.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MavenIndexImporter, MavenIndexReader and MavenIndexStore,
+ * over index files written in the transfer format.
+ */
+class MavenIndexImporterTest {
+
+    private static final String SHA1 = "0123456789abcdef0123456789abcdef01234567";
+
+    @TempDir
+    Path indexDir;
+
+    @TempDir
+    Path storeDir;
+
+    static Map<String, String> artifact(String uinfo, String sha1, String... classNames) {
+        Map<String, String> document = new LinkedHashMap<>();
+        document.put("u", uinfo);
+        document.put("i", "jar|1700000000000|1234|0|0|0|jar");
+        document.put("n", "Demo project");
+        if (sha1 != null) {
+            document.put("1", sha1);
+        }
+        if (classNames.length > 0) {
+            document.put("classNames", "/" + String.join("\n/", classNames).replace('.', '/'));
+        }
+        return document;
+    }
+
+    /**
+     * We write documents the way the indexer does: gzip, version, timestamp,
+     * then each field with its flags, UTF name and int-length value.
+     */
+    static void writeIndex(Path file, List<Map<String, String>> documents) throws IOException {
+        try (OutputStream os = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new GZIPOutputStream(os))) {
+            out.writeByte(MavenIndexReader.VERSION);
+            out.writeLong(1700000000000L);
+            for (Map<String, String> document : documents) {
+                out.writeInt(document.size());
+                for (Map.Entry<String, String> field : document.entrySet()) {
+                    out.writeByte(4);
+                    out.writeUTF(field.getKey());
+                    ByteArrayOutputStream utf = new ByteArrayOutputStream();
+                    new DataOutputStream(utf).writeUTF(field.getValue());
+                    byte[] bytes = utf.toByteArray();
+                    out.writeInt(bytes.length - 2);
+                    out.write(bytes, 2, bytes.length - 2);
+                }
+            }
+        }
+    }
+
+    private void publish(String chainId, int lastIncremental) throws IOException {
+        Files.writeString(indexDir.resolve(MavenIndexImporter.PROPERTIES_FILE),
+                "nexus.index.chain-id=" + chainId + "\nnexus.index.last-incremental=" + lastIncremental + "\n",
+                StandardCharsets.ISO_8859_1);
+    }
+
+    private void publishFull() throws IOException {
+        writeIndex(indexDir.resolve(MavenIndexImporter.INDEX_FILE), List.of(
+                Map.of("DESCRIPTOR", "NexusIndex", "IDXINFO", "1.0|releases"),
+                artifact("org.example|demo|1.0|NA|jar", SHA1, "org.example.Demo", "org.example.Demo$Inner"),
+                artifact("org.example|demo|1.0|sources|jar", null),
+                artifact("org.example|demo|1.1|NA|jar", null, "org.example.Demo"),
+                artifact("org.example.tools|cli|2.0|NA", null),
+                Map.of("allGroups", "allGroups", "allGroupsList", "org.example|org.example.tools")));
+        publish("chain-1", 3);
+    }
+
+    @Test
+    void importsTheFullIndex() throws IOException {
+        publishFull();
+        MavenIndexImporter.Result result = MavenIndexImporter.update(indexDir, storeDir);
+        assertTrue(result.full());
+        assertEquals(4, result.added());
+        assertEquals("releases", result.repository());
+
+        MavenIndexStore store = MavenIndexStore.open(storeDir.resolve(MavenIndexImporter.STORE_FILE));
+        assertEquals(4, store.size());
+        int[] demo = store.prefixRange("org.example|demo|");
+        assertEquals(3, demo[1] - demo[0]);
+        assertEquals(1, store.findSha1(SHA1.toUpperCase()).size());
+        MavenIndexStore.Record record = store.record(store.findSha1(SHA1).get(0));
+        assertEquals("1.0", record.gav().version());
+        assertNull(record.gav().classifier());
+        assertEquals("Demo project", record.name());
+        assertEquals(1700000000000L, record.lastModified());
+        // Older documents without extension in "u" take it from "i"
+        assertTrue(store.find(new IndexedGav("org.example.tools", "cli", "2.0", null, "jar", null).toKey()) >= 0);
+        int[] cli = store.artifactPrefixRange("cl");
+        assertEquals(1, cli[1] - cli[0]);
+
+        ClassIndex classes = ClassIndex.open(storeDir.resolve(MavenIndexImporter.CLASS_INDEX_FILE));
+        assertEquals(2, classes.find("Demo", false, 0, 10).size());
+        assertEquals(1, classes.find("org.example.Demo.Inner", true, 0, 10).size());
+    }
+
+    @Test
+    void appliesIncrementalChunks() throws IOException {
+        publishFull();
+        MavenIndexImporter.update(indexDir, storeDir);
+        assertEquals(0, MavenIndexImporter.update(indexDir, storeDir).added());
+
+        writeIndex(indexDir.resolve("nexus-maven-repository-index.4.gz"), List.of(
+                artifact("org.example|demo|1.2|NA|jar", null, "org.example.Demo")));
+        writeIndex(indexDir.resolve("nexus-maven-repository-index.5.gz"), List.of(
+                Map.of("del", "org.example|demo|1.0|NA|jar")));
+        publish("chain-1", 5);
+
+        MavenIndexImporter.Result result = MavenIndexImporter.update(indexDir, storeDir);
+        assertFalse(result.full());
+        assertEquals(2, result.chunks());
+        assertEquals(1, result.added());
+        assertEquals(1, result.deleted());
+        assertEquals("releases", result.repository());
+
+        MavenIndexStore store = MavenIndexStore.open(storeDir.resolve(MavenIndexImporter.STORE_FILE));
+        assertEquals(4, store.size());
+        assertTrue(store.findSha1(SHA1).isEmpty());
+        ClassIndex classes = ClassIndex.open(storeDir.resolve(MavenIndexImporter.CLASS_INDEX_FILE));
+        assertEquals(List.of("1.1", "1.2"), classes.find("Demo", false, 0, 10).stream()
+                .map(hit -> hit.gav().version()).sorted().toList());
+    }
+
+    @Test
+    void storeWriterMergesSpilledChangesWithTheStore() throws IOException {
+        Path file = storeDir.resolve(MavenIndexImporter.STORE_FILE);
+        String other = "fedcba9876543210fedcba9876543210fedcba98";
+        try (MavenIndexStoreWriter writer = new MavenIndexStoreWriter()) {
+            writer.add("org.example|demo|1.0||jar|", "Demo project", 1, SHA1);
+            writer.add("org.example|demo|1.1||jar|", "Demo project", 2, null);
+            writer.write(file);
+        }
+        try (MavenIndexStoreWriter writer = new MavenIndexStoreWriter(MavenIndexStore.open(file), 2, 2)) {
+            for (int i = 0; i < 10; i++) {
+                writer.add("org.example|tool-" + i + "|1.0||jar|", "Tool", 10 + i, null);
+            }
+            writer.remove("org.example|demo|1.1||jar|");
+            writer.add("org.example|demo|1.2||jar|", "Demo project", 3, other);
+            writer.write(file);
+        }
+
+        MavenIndexStore store = MavenIndexStore.open(file);
+        assertEquals(12, store.size());
+        assertEquals(-1, store.find("org.example|demo|1.1||jar|"));
+        assertEquals("1.0", store.record(store.findSha1(SHA1).get(0)).gav().version());
+        assertEquals("1.2", store.record(store.findSha1(other).get(0)).gav().version());
+        assertEquals(3, store.record(store.find("org.example|demo|1.2||jar|")).lastModified());
+        assertEquals("Tool", store.record(store.find("org.example|tool-7|1.0||jar|")).name());
+        int[] tools = store.artifactPrefixRange("tool-");
+        assertEquals(10, tools[1] - tools[0]);
+        assertEquals("tool-0", store.record(store.byArtifact(tools[0])).gav().artifactId());
+    }
+
+    @Test
+    void storeMatchesGroupPrefixesInAnyCaseAndReadsAcrossSegments() throws IOException {
+        Path file = storeDir.resolve(MavenIndexImporter.STORE_FILE);
+        try (MavenIndexStoreWriter writer = new MavenIndexStoreWriter()) {
+            for (int i = 0; i < 30; i++) {
+                writer.add("org.example|lib-" + i + "|1.0||jar|", "Library " + i, i, String.format("%040x", i));
+            }
+            writer.add("Org.Example.Mixed|Mixed|1.0||jar|", null, 100, null);
+            writer.add("org.other|other|1.0||jar|", null, 101, null);
+            writer.write(file);
+        }
+
+        // 64-byte segments: records, tables and pool strings straddle segment boundaries
+        MavenIndexStore store = MavenIndexStore.open(file, 6);
+        assertEquals(32, store.size());
+        for (int i = 0; i < 30; i++) {
+            MavenIndexStore.Record record = store.record(store.find("org.example|lib-" + i + "|1.0||jar|"));
+            assertEquals("Library " + i, record.name());
+            assertEquals(i, record.lastModified());
+            assertEquals(List.of(store.find("org.example|lib-" + i + "|1.0||jar|")),
+                    store.findSha1(String.format("%040X", i)));
+        }
+        int[] groups = store.groupPrefixRange("org.example");
+        assertEquals(31, groups[1] - groups[0]);
+        assertEquals("Org.Example.Mixed", store.record(store.byGroup(groups[0])).gav().groupId());
+        int[] mixed = store.groupPrefixRange("org.example.m");
+        assertEquals(1, mixed[1] - mixed[0]);
+        assertEquals(0, store.prefixRange("org.example.m")[1] - store.prefixRange("org.example.m")[0]);
+    }
+
+    @Test
+    void reimportsANewChain() throws IOException {
+        publishFull();
+        MavenIndexImporter.update(indexDir, storeDir);
+        publish("chain-2", 0);
+        assertTrue(MavenIndexImporter.update(indexDir, storeDir).full());
+    }
+
+    @Test
+    void decodesModifiedUtf8() throws IOException {
+        assertEquals("a\u0000é€", MavenIndexReader.decodeModifiedUtf8(
+                new byte[] {'a', (byte) 0xC0, (byte) 0x80, (byte) 0xC3, (byte) 0xA9, (byte) 0xE2, (byte) 0x82, (byte) 0xAC}));
+        assertThrows(IOException.class, () -> MavenIndexReader.decodeModifiedUtf8(new byte[] {(byte) 0xC3}));
+    }
+}
@@ -0,0 +1,124 @@
+package org.jd.gui.util.nexus.index;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UTFDataFormatException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming reader of the Maven Indexer transfer format, the
+ * nexus-maven-repository-index.gz files (and their .N.gz incremental chunks)
+ * published by Nexus and Maven Central.
+ *
+ * Layout of the gunzipped stream (big endian):
+ *
+ *   header     byte version (1), long timestamp (-1 when unknown)
+ *   documents  until the end of the stream:
+ *              int fieldCount,
+ *              fieldCount * (byte flags, UTF name, int length, modified UTF-8 value)
+ *
+ * We decode one document at a time, so a file of any size is read in
+ * constant memory. Documents are returned as field name to value maps; the
+ * meaning of the fields is left to {@link MavenIndexImporter}.
+ */
+public final class MavenIndexReader implements Closeable {
+
+    public static final int VERSION = 1;
+
+    // Central's largest values (class name lists) are a few MB
+    static final int MAX_VALUE_LENGTH = 64 << 20;
+
+    private final DataInputStream in;
+    private final long timestamp;
+
+    public MavenIndexReader(InputStream gzipped) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(gzipped, 1 << 16), 1 << 16));
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported Maven index version " + version);
+        }
+        this.timestamp = in.readLong();
+    }
+
+    /**
+     * Publication time of the index in milliseconds, or -1 when unknown.
+     */
+    public long timestamp() {
+        return timestamp;
+    }
+
+    /**
+     * We return the next document, or null at the end of the index.
+     */
+    public Map<String, String> next() throws IOException {
+        int fieldCount;
+        try {
+            fieldCount = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (fieldCount < 0 || fieldCount > 0xFFFF) {
+            throw new IOException("Corrupted Maven index: " + fieldCount + " fields");
+        }
+        Map<String, String> document = new LinkedHashMap<>(fieldCount * 2);
+        for (int i = 0; i < fieldCount; i++) {
+            in.readByte(); // flags: indexed, tokenized, stored, compressed
+            String name = in.readUTF();
+            document.put(name, readString());
+        }
+        return document;
+    }
+
+    /**
+     * We read a modified UTF-8 string with an int length, the form the
+     * indexer uses for values longer than the 64 KB of readUTF.
+     */
+    private String readString() throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_VALUE_LENGTH) {
+            throw new IOException("Corrupted Maven index: value of " + length + " bytes");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return decodeModifiedUtf8(bytes);
+    }
+
+    static String decodeModifiedUtf8(byte[] bytes) throws UTFDataFormatException {
+        char[] chars = new char[bytes.length];
+        int count = 0;
+        int i = 0;
+        while (i < bytes.length) {
+            int c = bytes[i] & 0xFF;
+            if (c < 0x80) {
+                chars[count++] = (char) c;
+                i++;
+            } else if ((c & 0xE0) == 0xC0) {
+                if (i + 1 >= bytes.length || (bytes[i + 1] & 0xC0) != 0x80) {
+                    throw new UTFDataFormatException("Malformed input around byte " + i);
+                }
+                chars[count++] = (char) (((c & 0x1F) << 6) | (bytes[i + 1] & 0x3F));
+                i += 2;
+            } else if ((c & 0xF0) == 0xE0) {
+                if (i + 2 >= bytes.length || (bytes[i + 1] & 0xC0) != 0x80 || (bytes[i + 2] & 0xC0) != 0x80) {
+                    throw new UTFDataFormatException("Malformed input around byte " + i);
+                }
+                chars[count++] = (char) (((c & 0x0F) << 12) | ((bytes[i + 1] & 0x3F) << 6) | (bytes[i + 2] & 0x3F));
+                i += 3;
+            } else {
+                throw new UTFDataFormatException("Malformed input around byte " + i);
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,435 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.index.ClassIndex;
+import org.jd.gui.util.nexus.index.IndexedGav;
+import org.jd.gui.util.nexus.index.MavenIndexImporter;
+import org.jd.gui.util.nexus.index.MavenIndexStore;
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.jd.gui.util.nexus.model.NexusSearchResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * NexusSearch decorator answering queries from an imported Maven index
+ * (nexus-maven-repository-index.gz, see {@link MavenIndexImporter}).
+ *
+ * The index is imported in the background when the search is created, and
+ * the chunks published since are applied when the index directory changes,
+ * checked at most once a minute on a query. Until the first import
+ * completes we delegate to the remote search.
+ *
+ * Every query is a binary search on the memory-mapped store: GAV searches
+ * are a range of the records sorted by key, SHA-1 searches a lookup in the
+ * checksum table, class searches go through the imported {@link ClassIndex}.
+ * A keyword matches the start of an artifact id, then of a group id
+ * (case-insensitive), like the coordinate part of Central's keyword search.
+ *
+ * Preferences:
+ *   - NEXUS_MAVEN_INDEX_DIRECTORY   directory holding the published index files (empty disables it)
+ */
+public final class MavenIndexSearch implements NexusSearch, NexusFilteredSearch, NexusVersionSearch {
+
+    public static final String NEXUS_MAVEN_INDEX_DIRECTORY = "JdGuiPreferences.nexusMavenIndexDirectory";
+
+    static final int PAGE_SIZE = 100;
+    static final long CHECK_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final Comparator<String> NULLS = Comparator.nullsFirst(Comparator.naturalOrder());
+    private static final Map<Path, Store> STORES = new ConcurrentHashMap<>();
+
+    private final NexusSearch remote;
+    private final Store store;
+    private final String baseUrl;
+
+    MavenIndexSearch(NexusSearch remote, Store store, String baseUrl) {
+        this.remote = remote;
+        this.store = store;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * We return a search answered from the Maven index when one is
+     * configured, otherwise the remote search unchanged. Artifact links point
+     * to the configured Nexus server, if any.
+     */
+    public static NexusSearch wrap(NexusSearch remote, NexusConfig config, Map<String, String> prefs) {
+        String directory = prefs == null ? null : prefs.get(NEXUS_MAVEN_INDEX_DIRECTORY);
+        if (directory == null || directory.isBlank()) {
+            return remote;
+        }
+        Path indexDir = Path.of(directory.trim()).toAbsolutePath().normalize();
+        Store store = STORES.computeIfAbsent(indexDir, dir -> new Store(dir, Path.of(System.getProperty("user.home"),
+                ".jd-gui", "nexus", "index", dir.toString().replaceAll("[^a-zA-Z0-9._-]", "_"))));
+        store.refresh();
+        return new MavenIndexSearch(remote, store, config == null ? null : config.baseUrl);
+    }
+
+    /**
+     * Imported index files of one index directory, shared by the searches
+     * created on it, and replaced as a whole after each update.
+     */
+    static final class Store {
+
+        record Snapshot(MavenIndexStore artifacts, ClassIndex classes, String repository) {
+        }
+
+        private final Path indexDir;
+        private final Path storeDir;
+        private final AtomicBoolean updating = new AtomicBoolean();
+        private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "maven-index-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        private volatile Snapshot files;
+        private volatile long checkedAt;
+        private volatile long importedVersion = -1;
+        private volatile IOException lastError;
+
+        Store(Path indexDir, Path storeDir) {
+            this.indexDir = indexDir;
+            this.storeDir = storeDir;
+        }
+
+        Snapshot files() {
+            return files;
+        }
+
+        IOException lastError() {
+            return lastError;
+        }
+
+        /**
+         * We import in the background when the published properties changed
+         * since the last import, at most once per CHECK_MILLIS once imported
+         * (or failed).
+         */
+        void refresh() {
+            long now = System.currentTimeMillis();
+            if ((files != null || lastError != null) && now - checkedAt < CHECK_MILLIS
+                    || !updating.compareAndSet(false, true)) {
+                return;
+            }
+            checkedAt = now;
+            executor.execute(() -> {
+                try {
+                    update();
+                } finally {
+                    updating.set(false);
+                }
+            });
+        }
+
+        /**
+         * We import what was published since the last import, and open the
+         * new files.
+         */
+        void update() {
+            try {
+                long version = publishedVersion();
+                if (files != null && version == importedVersion) {
+                    return;
+                }
+                MavenIndexImporter.Result result = MavenIndexImporter.update(indexDir, storeDir);
+                if (files == null || result.full() || result.chunks() > 0) {
+                    files = new Snapshot(MavenIndexStore.open(storeDir.resolve(MavenIndexImporter.STORE_FILE)),
+                            ClassIndex.open(storeDir.resolve(MavenIndexImporter.CLASS_INDEX_FILE)), result.repository());
+                }
+                importedVersion = version;
+                lastError = null;
+            } catch (IOException e) {
+                lastError = e;
+            }
+        }
+
+        private long publishedVersion() throws IOException {
+            Path properties = indexDir.resolve(MavenIndexImporter.PROPERTIES_FILE);
+            Path index = Files.isRegularFile(properties) ? properties : indexDir.resolve(MavenIndexImporter.INDEX_FILE);
+            return Files.getLastModifiedTime(index).toMillis();
+        }
+    }
+
+    /**
+     * We return the imported files, or null when a query should go to the
+     * remote search; without a remote search we wait for the first import.
+     */
+    private Store.Snapshot files() throws Exception {
+        store.refresh();
+        Store.Snapshot files = store.files();
+        while (files == null && remote == null) {
+            if (store.lastError() != null) {
+                throw store.lastError();
+            }
+            Thread.sleep(100);
+            store.refresh();
+            files = store.files();
+        }
+        return files;
+    }
+
+    @Override
+    public NexusSearchResult searchByKeyword(String keyword, int pageNo) throws Exception {
+        return searchByKeyword(keyword, NexusSearchFilter.NONE, pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchBySha1(String sha1, int pageNo) throws Exception {
+        return searchBySha1(sha1, NexusSearchFilter.NONE, pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchByGav(String groupId, String artifactId, String version, int pageNo) throws Exception {
+        return searchByGav(groupId, artifactId, version, NexusSearchFilter.NONE, pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchByKeyword(String keyword, NexusSearchFilter filter, int pageNo) throws Exception {
+        Store.Snapshot files = files();
+        if (files == null) {
+            return remote instanceof NexusFilteredSearch filtered
+                    ? filtered.searchByKeyword(keyword, filter, pageNo)
+                    : filter.apply(remote.searchByKeyword(keyword, pageNo));
+        }
+        String k = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        MavenIndexStore artifacts = files.artifacts();
+        int[] byArtifact = artifacts.artifactPrefixRange(k);
+        int[] byGroup = artifacts.groupPrefixRange(k);
+        // Then the group ids starting with the keyword, unless already matched by their artifact id
+        IntStream candidates = IntStream.concat(
+                IntStream.range(byArtifact[0], byArtifact[1]).map(artifacts::byArtifact),
+                IntStream.range(byGroup[0], byGroup[1]).map(artifacts::byGroup).filter(recordNo ->
+                        !IndexedGav.fromKey(artifacts.key(recordNo)).artifactId().toLowerCase(Locale.ROOT).startsWith(k)));
+        return find(files, candidates, recordNo -> true, filter, pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchBySha1(String sha1, NexusSearchFilter filter, int pageNo) throws Exception {
+        Store.Snapshot files = files();
+        if (files == null) {
+            return remote instanceof NexusFilteredSearch filtered
+                    ? filtered.searchBySha1(sha1, filter, pageNo)
+                    : filter.apply(remote.searchBySha1(sha1, pageNo));
+        }
+        return find(files, files.artifacts().findSha1(sha1).stream().mapToInt(Integer::intValue), recordNo -> true,
+                filter, pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchByGav(String groupId, String artifactId, String version,
+                                         NexusSearchFilter filter, int pageNo) throws Exception {
+        Store.Snapshot files = files();
+        if (files == null) {
+            return remote instanceof NexusFilteredSearch filtered
+                    ? filtered.searchByGav(groupId, artifactId, version, filter, pageNo)
+                    : filter.apply(remote.searchByGav(groupId, artifactId, version, pageNo));
+        }
+        String g = blankToNull(groupId);
+        String a = blankToNull(artifactId);
+        String v = blankToNull(version);
+        MavenIndexStore artifacts = files.artifacts();
+        IntStream candidates;
+        if (g != null) {
+            int[] range = artifacts.prefixRange(g + "|" + (a == null ? "" : a + "|" + (v == null ? "" : v + "|")));
+            candidates = IntStream.range(range[0], range[1]);
+        } else if (a != null) {
+            int[] range = artifacts.artifactPrefixRange(a.toLowerCase(Locale.ROOT));
+            candidates = IntStream.range(range[0], range[1]).map(artifacts::byArtifact);
+        } else {
+            candidates = IntStream.range(0, artifacts.size());
+        }
+        return find(files, candidates, recordNo -> {
+            IndexedGav gav = IndexedGav.fromKey(artifacts.key(recordNo));
+            return (a == null || a.equals(gav.artifactId())) && (v == null || v.equals(gav.version()));
+        }, filter, pageNo);
+    }
+
+    @Override
+    public List<NexusArtifact> searchVersions(String groupId, String artifactId, int pageNo) throws Exception {
+        Store.Snapshot files = files();
+        if (files == null) {
+            if (remote instanceof NexusVersionSearch versionSearch) {
+                return versionSearch.searchVersions(groupId, artifactId, pageNo);
+            }
+            return pageNo == 0 ? remote.searchByGav(groupId, artifactId, null, 0).artifacts() : List.of();
+        }
+        MavenIndexStore artifacts = files.artifacts();
+        int[] range = artifacts.prefixRange(groupId.trim() + "|" + artifactId.trim() + "|");
+        // One record per version, the main artifact when there is one, newest first
+        Map<String, MavenIndexStore.Record> byVersion = new HashMap<>();
+        for (int recordNo = range[0]; recordNo < range[1]; recordNo++) {
+            MavenIndexStore.Record record = artifacts.record(recordNo);
+            byVersion.merge(record.gav().version(), record, (x, y) -> y.gav().classifier() == null ? y : x);
+        }
+        List<MavenIndexStore.Record> versions = new ArrayList<>(byVersion.values());
+        versions.sort(Comparator.comparing((MavenIndexStore.Record r) -> MavenVersion.parse(r.gav().version())).reversed());
+        int from = Math.min(versions.size(), pageNo * PAGE_SIZE);
+        int to = Math.min(versions.size(), from + PAGE_SIZE);
+        List<NexusArtifact> page = new ArrayList<>(to - from);
+        for (MavenIndexStore.Record record : versions.subList(from, to)) {
+            page.add(toArtifact(record, files.repository()));
+        }
+        return page;
+    }
+
+    @Override
+    public NexusSearchResult searchByClassName(String className, boolean fullyQualified, int pageNo) throws Exception {
+        Store.Snapshot files = files();
+        if (files == null) {
+            return remote.searchByClassName(className, fullyQualified, pageNo);
+        }
+        List<NexusArtifact> page = new ArrayList<>();
+        for (ClassIndex.Hit hit : files.classes().find(className, fullyQualified, pageNo * PAGE_SIZE, PAGE_SIZE)) {
+            int recordNo = files.artifacts().find(hit.gav().toKey());
+            if (recordNo >= 0) {
+                page.add(toArtifact(files.artifacts().record(recordNo), files.repository()));
+            }
+        }
+        return new NexusSearchResult(page);
+    }
+
+    @Override
+    public boolean supportsVersionDate() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsClassSearch() {
+        return true;
+    }
+
+    /**
+     * We page through the candidate records matching the query and the
+     * filter. A sorted search has to see every match before it can cut a
+     * page, but only keeps the first (pageNo + 1) pages of them in a heap.
+     */
+    private NexusSearchResult find(Store.Snapshot files, IntStream candidates, IntPredicate query,
+                                   NexusSearchFilter filter, int pageNo) {
+        MavenIndexStore artifacts = files.artifacts();
+        boolean repositoryMatches = filter.repository() == null || filter.repository().equals(files.repository());
+        int skip = filter.sort() == null ? pageNo * PAGE_SIZE : 0;
+        int limit = filter.sort() == null ? PAGE_SIZE : Integer.MAX_VALUE;
+        List<MavenIndexStore.Record> matches = new ArrayList<>();
+        TopMatches top = filter.sort() == null ? null
+                : new TopMatches(order(filter), (int) Math.min(Integer.MAX_VALUE, (pageNo + 1L) * PAGE_SIZE));
+        PrimitiveIterator.OfInt it = candidates.iterator();
+        while (repositoryMatches && matches.size() < limit && it.hasNext()) {
+            int recordNo = it.nextInt();
+            if (!query.test(recordNo)) {
+                continue;
+            }
+            if (filter.extension() != null || filter.classifier() != null) {
+                IndexedGav gav = IndexedGav.fromKey(artifacts.key(recordNo));
+                if ((filter.extension() != null && !filter.extension().equalsIgnoreCase(gav.extension()))
+                        || (filter.classifier() != null && !filter.classifier().equals(gav.classifier()))) {
+                    continue;
+                }
+            }
+            if (top != null) {
+                top.add(artifacts.record(recordNo));
+            } else if (skip > 0) {
+                skip--;
+            } else {
+                matches.add(artifacts.record(recordNo));
+            }
+        }
+        if (top != null) {
+            matches = top.sorted();
+            int from = Math.min(matches.size(), pageNo * PAGE_SIZE);
+            matches = matches.subList(from, Math.min(matches.size(), from + PAGE_SIZE));
+        }
+        List<NexusArtifact> page = new ArrayList<>(matches.size());
+        for (MavenIndexStore.Record record : matches) {
+            page.add(toArtifact(record, files.repository()));
+        }
+        return new NexusSearchResult(page);
+    }
+
+    private static Comparator<MavenIndexStore.Record> order(NexusSearchFilter filter) {
+        Comparator<MavenIndexStore.Record> order = switch (filter.sort()) {
+            case "group" -> Comparator.comparing((MavenIndexStore.Record r) -> r.gav().groupId(), NULLS);
+            case "name" -> Comparator.comparing((MavenIndexStore.Record r) -> r.gav().artifactId(), NULLS);
+            case "repository" -> (x, y) -> 0;
+            default -> Comparator.comparing((MavenIndexStore.Record r) -> r.gav().version(),
+                    Comparator.nullsFirst(MavenVersion::compare));
+        };
+        return "desc".equals(filter.direction()) ? order.reversed() : order;
+    }
+
+    /**
+     * The first matches in a given order, kept in a bounded heap whose head
+     * is the last of them. Equal matches keep the order they were added in,
+     * so that consecutive pages do not overlap.
+     */
+    private static final class TopMatches {
+
+        private record Match(MavenIndexStore.Record record, long seq) {
+        }
+
+        private final Comparator<Match> order;
+        private final int size;
+        private final PriorityQueue<Match> heap;
+        private long seq;
+
+        TopMatches(Comparator<MavenIndexStore.Record> order, int size) {
+            this.order = Comparator.comparing(Match::record, order).thenComparingLong(Match::seq);
+            this.size = size;
+            this.heap = new PriorityQueue<>(this.order.reversed());
+        }
+
+        void add(MavenIndexStore.Record record) {
+            Match match = new Match(record, seq++);
+            if (heap.size() < size) {
+                heap.add(match);
+            } else if (order.compare(match, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(match);
+            }
+        }
+
+        List<MavenIndexStore.Record> sorted() {
+            List<Match> matches = new ArrayList<>(heap);
+            matches.sort(order);
+            List<MavenIndexStore.Record> records = new ArrayList<>(matches.size());
+            for (Match match : matches) {
+                records.add(match.record());
+            }
+            return records;
+        }
+    }
+
+    private NexusArtifact toArtifact(MavenIndexStore.Record record, String repository) {
+        IndexedGav gav = record.gav();
+        LocalDate versionDate = record.lastModified() > 0
+                ? Instant.ofEpochMilli(record.lastModified()).atOffset(ZoneOffset.UTC).toLocalDate()
+                : null;
+        String link = baseUrl == null ? null : NexusV3Client.buildDownloadUrl(baseUrl, repository, gav.groupId(),
+                gav.artifactId(), gav.version(), gav.extension(), gav.classifier());
+        return new NexusArtifact(gav.groupId(), gav.artifactId(), gav.version(), versionDate,
+                gav.classifier(), gav.extension(), repository, link);
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s.trim();
+    }
+}
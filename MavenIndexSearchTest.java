@@ -0,0 +1,117 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.index.MavenIndexImporter;
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MavenIndexSearch, over an imported index of generated artifacts.
+ */
+class MavenIndexSearchTest {
+
+    @TempDir
+    Path indexDir;
+
+    @TempDir
+    Path storeDir;
+
+    private MavenIndexSearch search(int groups, int versions) throws Exception {
+        try (OutputStream os = Files.newOutputStream(indexDir.resolve(MavenIndexImporter.INDEX_FILE));
+             DataOutputStream out = new DataOutputStream(new GZIPOutputStream(os))) {
+            out.writeByte(1);
+            out.writeLong(-1);
+            for (int g = 0; g < groups; g++) {
+                for (int v = 0; v < versions; v++) {
+                    String[][] fields = {
+                            {"u", "org.example.g" + g + "|lib-" + g + "|1." + v + "|NA|jar"},
+                            {"i", "jar|1700000000000|1|0|0|0|jar"},
+                            {"1", String.format("%040x", g * 1000L + v)},
+                            {"classNames", "/org/example/g" + g + "/Lib" + g}};
+                    out.writeInt(fields.length);
+                    for (String[] field : fields) {
+                        byte[] value = field[1].getBytes(StandardCharsets.UTF_8);
+                        out.writeByte(4);
+                        out.writeUTF(field[0]);
+                        out.writeInt(value.length);
+                        out.write(value);
+                    }
+                }
+            }
+        }
+        MavenIndexSearch.Store store = new MavenIndexSearch.Store(indexDir, storeDir);
+        store.update();
+        assertNotNull(store.files());
+        return new MavenIndexSearch(null, store, "https://nexus.example");
+    }
+
+    @Test
+    void answersEveryMode() throws Exception {
+        MavenIndexSearch search = search(50, 12);
+
+        List<NexusArtifact> gav = search.searchByGav("org.example.g7", "lib-7", null, 0).artifacts();
+        assertEquals(12, gav.size());
+        assertTrue(gav.get(0).artifactLink().startsWith("https://nexus.example/"));
+        assertEquals(1, search.searchByGav("org.example.g7", "lib-7", "1.3", 0).artifacts().size());
+        assertEquals(12, search.searchByGav(null, "lib-7", null, 0).artifacts().size());
+
+        List<NexusArtifact> sha1 = search.searchBySha1(String.format("%040x", 7003L), 0).artifacts();
+        assertEquals(1, sha1.size());
+        assertEquals("1.3", sha1.get(0).version());
+
+        assertEquals(12, search.searchByClassName("Lib7", false, 0).artifacts().size());
+        assertEquals(12, search.searchByClassName("org.example.g7.Lib7", true, 0).artifacts().size());
+
+        // lib-1, lib-10..lib-19: 11 artifacts of 12 versions, over two pages
+        assertEquals(100, search.searchByKeyword("LIB-1", 0).artifacts().size());
+        assertEquals(32, search.searchByKeyword("lib-1", 1).artifacts().size());
+        // Group id matches come after the artifact id ones
+        assertEquals(12, search.searchByKeyword("org.example.g42", 0).artifacts().size());
+
+        List<NexusArtifact> versions = search.searchVersions("org.example.g3", "lib-3", 0);
+        assertEquals("1.11", versions.get(0).version());
+        assertEquals("1.0", versions.get(11).version());
+    }
+
+    @Test
+    void filtersAndSorts() throws Exception {
+        MavenIndexSearch search = search(3, 5);
+        assertTrue(search.searchByGav("org.example.g1", null, null,
+                new NexusSearchFilter(null, "pom", null, null, null, null), 0).artifacts().isEmpty());
+        List<NexusArtifact> sorted = search.searchByGav("org.example.g1", null, null,
+                new NexusSearchFilter(null, null, null, null, "version", "desc"), 0).artifacts();
+        assertEquals("1.4", sorted.get(0).version());
+    }
+
+    @Test
+    void sortedPagesFollowEachOtherWithoutOverlap() throws Exception {
+        MavenIndexSearch search = search(30, 12);
+        NexusSearchFilter byVersion = new NexusSearchFilter(null, null, null, null, "version", "desc");
+        List<String> seen = new ArrayList<>();
+        for (int pageNo = 0; pageNo < 4; pageNo++) {
+            for (NexusArtifact artifact : search.searchByKeyword("ORG.EXAMPLE", byVersion, pageNo).artifacts()) {
+                seen.add(artifact.groupId() + ":" + artifact.version());
+            }
+        }
+        assertEquals(360, seen.size());
+        assertEquals(360, new HashSet<>(seen).size());
+        // The 30 newest versions come first, in the order of the keyword matches
+        assertEquals("org.example.g0:1.11", seen.get(0));
+        assertEquals("org.example.g9:1.11", seen.get(29));
+        assertTrue(seen.get(30).endsWith(":1.10"));
+        assertTrue(seen.get(359).endsWith(":1.0"));
+    }
+}
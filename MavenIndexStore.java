@@ -0,0 +1,300 @@
+package org.jd.gui.util.nexus.index;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Read-only, memory-mapped store of the artifacts of a Maven index.
+ *
+ * The file is produced by {@link MavenIndexStoreWriter}. Like
+ * {@link ClassIndex}, we answer lookups with binary searches on the mapped
+ * bytes: records are sorted by GAV key, so the versions of one group and
+ * artifact are one range; further tables order them by lower-case artifact
+ * id, by lower-case GAV key (for case-insensitive group id prefixes) and by
+ * SHA-1.
+ *
+ * Layout (all integers big endian):
+ *
+ *   header     int MAGIC, int VERSION, int recordCount, int sha1Count,
+ *              long recordPos, long artifactPos, long groupPos, long sha1Pos, long poolPos
+ *   records    (long keyOffset, long nameOffset or -1, long lastModified)[recordCount],
+ *              sorted by GAV key
+ *   artifacts  int[recordCount]     record numbers sorted by lower-case artifact id
+ *   groups     int[recordCount]     record numbers sorted by lower-case GAV key
+ *   sha1s      (byte[20] sha1, int recordNo)[sha1Count], sorted by sha1
+ *   pool       (unsigned short length, UTF-8 bytes)*
+ *
+ * Offsets and positions are longs and the file is mapped in segments (see
+ * {@link MappedFile}), so a store may exceed 2 GB. Instances are safe for
+ * concurrent readers. As for {@link ClassIndex}, the writer creates a new
+ * generation of the file rather than replacing a mapped one.
+ */
+public final class MavenIndexStore {
+
+    static final int MAGIC = 0x4E584D53; // "NXMS"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 4 * Integer.BYTES + 5 * Long.BYTES;
+    static final int RECORD_SIZE = 3 * Long.BYTES;
+    static final int SHA1_SIZE = 20;
+    static final int SHA1_RECORD_SIZE = SHA1_SIZE + Integer.BYTES;
+
+    private final Path path;
+    private final MappedFile mapped;
+    private final int recordCount;
+    private final int sha1Count;
+    private final long recordPos;
+    private final long artifactPos;
+    private final long groupPos;
+    private final long sha1Pos;
+    private final long poolPos;
+
+    private MavenIndexStore(Path path, MappedFile mapped) throws IOException {
+        this.path = path;
+        this.mapped = mapped;
+        if (mapped.size() < HEADER_SIZE || mapped.getInt(0) != MAGIC) {
+            throw new IOException("Not a Maven index store: " + path);
+        }
+        if (mapped.getInt(4) != VERSION) {
+            throw new IOException("Unsupported Maven index store version " + mapped.getInt(4) + ": " + path);
+        }
+        this.recordCount = mapped.getInt(8);
+        this.sha1Count = mapped.getInt(12);
+        this.recordPos = mapped.getLong(16);
+        this.artifactPos = mapped.getLong(24);
+        this.groupPos = mapped.getLong(32);
+        this.sha1Pos = mapped.getLong(40);
+        this.poolPos = mapped.getLong(48);
+    }
+
+    /**
+     * We map the newest generation of the given store read-only (see
+     * {@link IndexFiles}).
+     */
+    public static MavenIndexStore open(Path path) throws IOException {
+        return open(path, MappedFile.DEFAULT_SEGMENT_SHIFT);
+    }
+
+    static MavenIndexStore open(Path path, int segmentShift) throws IOException {
+        Path latest = IndexFiles.latestGeneration(path);
+        Path file = latest != null ? latest : path;
+        return new MavenIndexStore(file, MappedFile.map(file, segmentShift));
+    }
+
+    /**
+     * We return null instead of failing when there is no usable store at the given location.
+     */
+    public static MavenIndexStore openIfPresent(Path path) {
+        if (path == null || IndexFiles.latestGeneration(path) == null) {
+            return null;
+        }
+        try {
+            return open(path);
+        } catch (IOException ignored) {
+            return null;
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public int size() {
+        return recordCount;
+    }
+
+    /**
+     * One artifact; name is the project name from the POM, or null.
+     */
+    public record Record(IndexedGav gav, String name, long lastModified) {
+    }
+
+    public Record record(int recordNo) {
+        long pos = recordPos + (long) recordNo * RECORD_SIZE;
+        long nameOffset = mapped.getLong(pos + 8);
+        return new Record(IndexedGav.fromKey(key(recordNo)), nameOffset < 0 ? null : poolString(nameOffset),
+                mapped.getLong(pos + 16));
+    }
+
+    public String key(int recordNo) {
+        return poolString(mapped.getLong(recordPos + (long) recordNo * RECORD_SIZE));
+    }
+
+    String name(int recordNo) {
+        long nameOffset = mapped.getLong(recordPos + (long) recordNo * RECORD_SIZE + 8);
+        return nameOffset < 0 ? null : poolString(nameOffset);
+    }
+
+    long lastModified(int recordNo) {
+        return mapped.getLong(recordPos + (long) recordNo * RECORD_SIZE + 16);
+    }
+
+    int sha1Count() {
+        return sha1Count;
+    }
+
+    /** The SHA-1 at the given position of the SHA-1 table, in hex. */
+    String sha1(int position) {
+        byte[] sha1 = new byte[SHA1_SIZE];
+        mapped.get(sha1Pos + (long) position * SHA1_RECORD_SIZE, sha1);
+        return HexFormat.of().formatHex(sha1);
+    }
+
+    /** The record number at the given position of the SHA-1 table. */
+    int sha1Record(int position) {
+        return mapped.getInt(sha1Pos + (long) position * SHA1_RECORD_SIZE + SHA1_SIZE);
+    }
+
+    /**
+     * We return the number of the record with the given GAV key, or -1.
+     */
+    public int find(String key) {
+        int recordNo = lowerBound(key);
+        return recordNo < recordCount && key(recordNo).equals(key) ? recordNo : -1;
+    }
+
+    /**
+     * We return the record numbers [from, to) of the keys starting with the
+     * prefix, e.g. "org.example|demo|" for every version of an artifact.
+     */
+    public int[] prefixRange(String prefix) {
+        int from = lowerBound(prefix);
+        int to = lowerBound(prefix + Character.MAX_VALUE);
+        return new int[] {from, Math.max(from, to)};
+    }
+
+    private int lowerBound(String key) {
+        int lo = 0;
+        int hi = recordCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (key(mid).compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * We return the positions [from, to) in the artifact id table of the
+     * artifact ids starting with the lower-case prefix; see {@link #byArtifact(int)}.
+     */
+    public int[] artifactPrefixRange(String lowerCasePrefix) {
+        return tablePrefixRange(artifactPos, true, lowerCasePrefix);
+    }
+
+    public int byArtifact(int position) {
+        return mapped.getInt(artifactPos + (long) position * Integer.BYTES);
+    }
+
+    /**
+     * We return the positions [from, to) in the group table of the GAV keys
+     * starting with the lower-case prefix, e.g. the group ids starting with a
+     * keyword in any case; see {@link #byGroup(int)}.
+     */
+    public int[] groupPrefixRange(String lowerCasePrefix) {
+        return tablePrefixRange(groupPos, false, lowerCasePrefix);
+    }
+
+    public int byGroup(int position) {
+        return mapped.getInt(groupPos + (long) position * Integer.BYTES);
+    }
+
+    private int[] tablePrefixRange(long tablePos, boolean byArtifactId, String prefix) {
+        int from = lowerBoundTable(tablePos, byArtifactId, prefix);
+        int to = lowerBoundTable(tablePos, byArtifactId, prefix + Character.MAX_VALUE);
+        return new int[] {from, Math.max(from, to)};
+    }
+
+    private int lowerBoundTable(long tablePos, boolean byArtifactId, String key) {
+        int lo = 0;
+        int hi = recordCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            String gavKey = key(mapped.getInt(tablePos + (long) mid * Integer.BYTES));
+            if ((byArtifactId ? artifactKey(gavKey) : groupKey(gavKey)).compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * We return the lower-case artifact id of a GAV key, the sort key of the
+     * artifact id table.
+     */
+    static String artifactKey(String gavKey) {
+        int first = gavKey.indexOf('|');
+        int second = gavKey.indexOf('|', first + 1);
+        return gavKey.substring(first + 1, second < 0 ? gavKey.length() : second).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * We return the lower-case GAV key, the sort key of the group table.
+     */
+    static String groupKey(String gavKey) {
+        return gavKey.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * We return the records with the given SHA-1 (hex, any case).
+     */
+    public List<Integer> findSha1(String sha1) {
+        List<Integer> found = new ArrayList<>(1);
+        byte[] wanted = parseSha1(sha1);
+        if (wanted == null) {
+            return found;
+        }
+        int lo = 0;
+        int hi = sha1Count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareSha1(mid, wanted) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        for (int i = lo; i < sha1Count && compareSha1(i, wanted) == 0; i++) {
+            found.add(mapped.getInt(sha1Pos + (long) i * SHA1_RECORD_SIZE + SHA1_SIZE));
+        }
+        return found;
+    }
+
+    private int compareSha1(int i, byte[] wanted) {
+        long pos = sha1Pos + (long) i * SHA1_RECORD_SIZE;
+        for (int j = 0; j < SHA1_SIZE; j++) {
+            int cmp = Integer.compare(mapped.get(pos + j) & 0xFF, wanted[j] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    static byte[] parseSha1(String sha1) {
+        if (sha1 == null) {
+            return null;
+        }
+        String s = sha1.trim();
+        if (s.length() != 2 * SHA1_SIZE) {
+            return null;
+        }
+        try {
+            return HexFormat.of().parseHex(s);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private String poolString(long offset) {
+        return mapped.string(poolPos + offset);
+    }
+}
@@ -0,0 +1,262 @@
+package org.jd.gui.util.nexus.index;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+
+/**
+ * We collect the artifacts of a Maven index and write them as a
+ * {@link MavenIndexStore} file.
+ *
+ * Only the GAV key, project name, last modification time and SHA-1 of each
+ * artifact are kept; class names go to a {@link ClassIndexWriter}.
+ * Incremental updates start from the existing store, which stays mapped:
+ * we only record the artifacts the chunks add and remove, and write the new
+ * file as a merge of the store with those changes.
+ *
+ * Changes, and the tables sorted by artifact id, lower-case key and SHA-1,
+ * go through {@link SortedRuns}, and sections are streamed to temporary
+ * files, so the heap does not grow with the size of the index. Project names are shared
+ * by consecutive records, which are the versions of one artifact.
+ *
+ * This class is not thread-safe.
+ */
+public final class MavenIndexStoreWriter implements AutoCloseable {
+
+    private static final int MAX_POOL_STRING = 0xFFFF;
+    private static final int RUN_SIZE = 1 << 16;
+    private static final int TABLE_RUN_SIZE = 1 << 17;
+
+    // name and sha1 are null when unknown
+    private record Entry(String name, long lastModified, String sha1) {
+    }
+
+    // Recorded for a removal, compared by identity
+    private static final Entry REMOVED = new Entry(null, 0, null);
+
+    private static final SortedRuns.Codec<Entry> CODEC = new SortedRuns.Codec<>() {
+        @Override
+        public void write(DataOutputStream out, Entry entry) throws IOException {
+            out.writeBoolean(entry != REMOVED);
+            if (entry != REMOVED) {
+                // Names are never blank and SHA-1s never empty: "" stands for null
+                SortedRuns.writeString(out, entry.name() == null ? "" : entry.name());
+                out.writeLong(entry.lastModified());
+                SortedRuns.writeString(out, entry.sha1() == null ? "" : entry.sha1());
+            }
+        }
+
+        @Override
+        public Entry read(DataInputStream in) throws IOException {
+            if (!in.readBoolean()) {
+                return REMOVED;
+            }
+            String name = SortedRuns.readString(in);
+            long lastModified = in.readLong();
+            String sha1 = SortedRuns.readString(in);
+            return new Entry(name.isEmpty() ? null : name, lastModified, sha1.isEmpty() ? null : sha1);
+        }
+    };
+
+    private final MavenIndexStore base;
+    private final int tableRunSize;
+    private final SortedRuns<Entry> changes;
+
+    public MavenIndexStoreWriter() {
+        this(null);
+    }
+
+    /**
+     * We start from the records of base, or from nothing when it is null.
+     */
+    public MavenIndexStoreWriter(MavenIndexStore base) {
+        this(base, RUN_SIZE, TABLE_RUN_SIZE);
+    }
+
+    MavenIndexStoreWriter(MavenIndexStore base, int runSize, int tableRunSize) {
+        this.base = base;
+        this.tableRunSize = tableRunSize;
+        this.changes = new SortedRuns<>(CODEC, runSize);
+    }
+
+    /**
+     * We replace whatever was recorded for the GAV. name and sha1 may be null.
+     */
+    public void add(String gavKey, String name, long lastModified, String sha1) {
+        if (gavKey == null || IndexFiles.utf8Length(gavKey) > MAX_POOL_STRING) {
+            return;
+        }
+        if (name != null && (name.isBlank() || IndexFiles.utf8Length(name) > MAX_POOL_STRING)) {
+            name = null;
+        }
+        byte[] parsed = MavenIndexStore.parseSha1(sha1);
+        changes.put(gavKey, new Entry(name, lastModified, parsed == null ? null : HexFormat.of().formatHex(parsed)));
+    }
+
+    public void remove(String gavKey) {
+        if (gavKey != null) {
+            changes.put(gavKey, REMOVED);
+        }
+    }
+
+    /**
+     * We write the next generation of the store at target (see
+     * {@link IndexFiles}) and return its file.
+     */
+    public Path write(Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path dir = parent != null ? parent : Path.of(".");
+        Path records = Files.createTempFile(dir, "records", ".tmp");
+        Path pool = Files.createTempFile(dir, "pool", ".tmp");
+        Path remap = Files.createTempFile(dir, "remap", ".tmp");
+        Path tmp = Files.createTempFile(dir, "artifacts", ".tmp");
+        try (SortedRuns<Integer> byArtifact = new SortedRuns<>(SortedRuns.INTEGER, tableRunSize);
+             SortedRuns<Integer> byGroup = new SortedRuns<>(SortedRuns.INTEGER, tableRunSize);
+             SortedRuns<Integer> bySha1 = new SortedRuns<>(SortedRuns.INTEGER, tableRunSize)) {
+            Merge merge;
+            try (DataOutputStream recordOut = IndexFiles.newSection(records);
+                 IndexFiles.Pool poolOut = new IndexFiles.Pool(pool);
+                 FileChannel remapChannel = FileChannel.open(remap, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                int baseCount = base == null ? 0 : base.size();
+                merge = new Merge(recordOut, poolOut,
+                        remapChannel.map(FileChannel.MapMode.READ_WRITE, 0, (long) baseCount * Integer.BYTES),
+                        byArtifact, byGroup, bySha1);
+                changes.forEach(merge::change);
+                merge.baseUntil(null);
+                merge.baseSha1s();
+            }
+
+            int count = merge.count;
+            long recordPos = MavenIndexStore.HEADER_SIZE;
+            long artifactPos = recordPos + (long) count * MavenIndexStore.RECORD_SIZE;
+            long groupPos = artifactPos + (long) count * Integer.BYTES;
+            long sha1Pos = groupPos + (long) count * Integer.BYTES;
+            long poolPos = sha1Pos + (long) merge.sha1Count * MavenIndexStore.SHA1_RECORD_SIZE;
+            try (DataOutputStream out = IndexFiles.newSection(tmp)) {
+                out.writeInt(MavenIndexStore.MAGIC);
+                out.writeInt(MavenIndexStore.VERSION);
+                out.writeInt(count);
+                out.writeInt(merge.sha1Count);
+                out.writeLong(recordPos);
+                out.writeLong(artifactPos);
+                out.writeLong(groupPos);
+                out.writeLong(sha1Pos);
+                out.writeLong(poolPos);
+                Files.copy(records, out);
+                byArtifact.forEach((key, recordNo) -> out.writeInt(recordNo));
+                byGroup.forEach((key, recordNo) -> out.writeInt(recordNo));
+                bySha1.forEach((key, recordNo) -> {
+                    out.write(HexFormat.of().parseHex(SortedRuns.keyOf(key)));
+                    out.writeInt(recordNo);
+                });
+                Files.copy(pool, out);
+            }
+            return IndexFiles.publish(tmp, target);
+        } finally {
+            for (Path file : new Path[] {records, pool, remap, tmp}) {
+                IndexFiles.deleteQuietly(file);
+            }
+        }
+    }
+
+    /**
+     * We delete the changes spilled to disk.
+     */
+    @Override
+    public void close() {
+        changes.close();
+    }
+
+    /**
+     * Records of the base and changes merged in key order. Each base record
+     * gets its new number, or -1, in remap, which is how its SHA-1 finds
+     * its record once the records are written.
+     */
+    private final class Merge {
+        private final DataOutputStream recordOut;
+        private final IndexFiles.Pool pool;
+        private final MappedByteBuffer remap;
+        private final SortedRuns<Integer> byArtifact;
+        private final SortedRuns<Integer> byGroup;
+        private final SortedRuns<Integer> bySha1;
+        private int baseNo;
+        private int count;
+        private int sha1Count;
+        private String lastName;
+        private long lastNameOffset = -1;
+
+        Merge(DataOutputStream recordOut, IndexFiles.Pool pool, MappedByteBuffer remap,
+              SortedRuns<Integer> byArtifact, SortedRuns<Integer> byGroup, SortedRuns<Integer> bySha1) {
+            this.recordOut = recordOut;
+            this.pool = pool;
+            this.remap = remap;
+            this.byArtifact = byArtifact;
+            this.byGroup = byGroup;
+            this.bySha1 = bySha1;
+        }
+
+        void change(String key, Entry entry) throws IOException {
+            baseUntil(key);
+            if (base != null && baseNo < base.size() && base.key(baseNo).equals(key)) {
+                // Replaced or removed
+                remap.putInt(baseNo++ * Integer.BYTES, -1);
+            }
+            if (entry != REMOVED) {
+                int recordNo = record(key, entry.name(), entry.lastModified());
+                if (entry.sha1() != null) {
+                    bySha1.put(SortedRuns.withNumber(entry.sha1(), recordNo), recordNo);
+                    sha1Count++;
+                }
+            }
+        }
+
+        /**
+         * We copy the base records with keys before the given one, or all the
+         * remaining ones when it is null.
+         */
+        void baseUntil(String key) throws IOException {
+            while (base != null && baseNo < base.size()) {
+                String baseKey = base.key(baseNo);
+                if (key != null && baseKey.compareTo(key) >= 0) {
+                    return;
+                }
+                remap.putInt(baseNo * Integer.BYTES, record(baseKey, base.name(baseNo), base.lastModified(baseNo)));
+                baseNo++;
+            }
+        }
+
+        void baseSha1s() {
+            for (int i = 0; base != null && i < base.sha1Count(); i++) {
+                int recordNo = remap.getInt(base.sha1Record(i) * Integer.BYTES);
+                if (recordNo >= 0) {
+                    bySha1.put(SortedRuns.withNumber(base.sha1(i), recordNo), recordNo);
+                    sha1Count++;
+                }
+            }
+        }
+
+        private int record(String key, String name, long lastModified) throws IOException {
+            int recordNo = count++;
+            long keyOffset = pool.add(key);
+            if (name != null && !name.equals(lastName)) {
+                lastName = name;
+                lastNameOffset = pool.add(name);
+            }
+            recordOut.writeLong(keyOffset);
+            recordOut.writeLong(name == null ? -1 : lastNameOffset);
+            recordOut.writeLong(lastModified);
+            byArtifact.put(SortedRuns.withNumber(MavenIndexStore.artifactKey(key), recordNo), recordNo);
+            byGroup.put(SortedRuns.withNumber(MavenIndexStore.groupKey(key), recordNo), recordNo);
+            return recordNo;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * We list the versions of one group and artifact from the maven-metadata.xml
+ * files of the configured repositories, instead of paging through every
+ * asset of every version with the search API.
+ *
+ * The metadata of each repository is read in parallel, through the
+ * throttle, circuit breaker and credentials of the server (see
+ * {@link NexusV3Client#openStream}); repositories without the artifact
+ * answer 404 and are skipped. Versions are merged and sorted newest first
+ * with {@link MavenVersion} ordering. Asset details are left to a search
+ * for the one version the user expands.
+ *
+ * Preferences:
+ *   - NEXUS_BROWSE_REPOSITORIES   comma separated repository names (empty disables browsing)
+ */
+public final class MavenMetadataVersions {
+
+    public static final String NEXUS_BROWSE_REPOSITORIES = "JdGuiPreferences.nexusBrowseRepositories";
+
+    private static final XMLInputFactory XML = newFactory();
+
+    /**
+     * One version and the repositories that list it, in configuration order.
+     */
+    public record Version(String version, List<String> repositories) {
+    }
+
+    /**
+     * latest and release are those of the first repository declaring them.
+     */
+    public record Versions(List<Version> versions, String latest, String release) {
+    }
+
+    // One parsed maven-metadata.xml
+    record Metadata(List<String> versions, String latest, String release) {
+    }
+
+    @FunctionalInterface
+    interface Opener {
+        InputStream open(String url) throws IOException;
+    }
+
+    private static final ExecutorService EXECUTOR;
+
+    static {
+        AtomicInteger threadNo = new AtomicInteger();
+        EXECUTOR = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "nexus-maven-metadata-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private final String baseUrl;
+    private final List<String> repositories;
+    private final Opener opener;
+
+    MavenMetadataVersions(String baseUrl, List<String> repositories, Opener opener) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.repositories = List.copyOf(repositories);
+        this.opener = opener;
+    }
+
+    /**
+     * We return a version browser when repositories are configured for the
+     * server, otherwise null.
+     */
+    public static MavenMetadataVersions forConfig(NexusConfig config, Map<String, String> prefs) {
+        if (config == null || prefs == null) {
+            return null;
+        }
+        String value = prefs.get(NEXUS_BROWSE_REPOSITORIES);
+        List<String> names = value == null ? List.of() : Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+        if (names.isEmpty()) {
+            return null;
+        }
+        NexusV3Client client = new NexusV3Client(config);
+        return new MavenMetadataVersions(config.baseUrl, names, url -> client.openStream(url, 8000, 15000));
+    }
+
+    public List<String> repositories() {
+        return repositories;
+    }
+
+    /**
+     * The Maven-2 layout URL of a file in a repository.
+     */
+    public String fileUrl(String repository, String groupId, String artifactId, String fileName) {
+        return fileUrl(baseUrl, repository, groupId, artifactId, fileName);
+    }
+
+    static String fileUrl(String baseUrl, String repository, String groupId, String artifactId, String fileName) {
+        String base = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        return base + "/repository/" + repository + "/" + groupId.replace('.', '/') + "/" + artifactId + "/" + fileName;
+    }
+
+    /**
+     * We read and merge the metadata of every repository. A repository that
+     * fails is skipped unless all of them fail.
+     */
+    public Versions fetch(String groupId, String artifactId) throws IOException {
+        List<CompletableFuture<Metadata>> futures = new ArrayList<>(repositories.size());
+        for (String repository : repositories) {
+            String url = fileUrl(repository, groupId.trim(), artifactId.trim(), "maven-metadata.xml");
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return read(url);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, EXECUTOR));
+        }
+
+        Map<String, List<String>> byVersion = new LinkedHashMap<>();
+        String latest = null;
+        String release = null;
+        IOException failure = null;
+        int failed = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            Metadata metadata;
+            try {
+                metadata = futures.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            } catch (ExecutionException e) {
+                failed++;
+                if (failure == null) {
+                    failure = e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+                }
+                continue;
+            }
+            if (metadata == null) {
+                continue;
+            }
+            String repository = repositories.get(i);
+            for (String version : metadata.versions()) {
+                byVersion.computeIfAbsent(version, v -> new ArrayList<>()).add(repository);
+            }
+            latest = latest != null ? latest : metadata.latest();
+            release = release != null ? release : metadata.release();
+        }
+        if (failure != null && failed == futures.size()) {
+            throw failure;
+        }
+
+        List<Version> versions = new ArrayList<>(byVersion.size());
+        byVersion.forEach((version, repos) -> versions.add(new Version(version, List.copyOf(repos))));
+        versions.sort(Comparator.comparing((Version v) -> MavenVersion.parse(v.version())).reversed());
+        return new Versions(versions, latest, release);
+    }
+
+    /**
+     * One row per version: the POM of the version in the first repository
+     * listing it. These rows carry no date and stand for the component until
+     * its assets are searched.
+     */
+    public List<NexusArtifact> toArtifacts(String groupId, String artifactId, Versions versions) {
+        List<NexusArtifact> artifacts = new ArrayList<>(versions.versions().size());
+        for (Version v : versions.versions()) {
+            String repository = v.repositories().get(0);
+            artifacts.add(new NexusArtifact(groupId, artifactId, v.version(), null, null, "pom", repository,
+                    fileUrl(repository, groupId, artifactId, v.version() + "/" + artifactId + "-" + v.version() + ".pom")));
+        }
+        return artifacts;
+    }
+
+    // null when the repository does not have the artifact
+    private Metadata read(String url) throws IOException {
+        try (InputStream in = opener.open(url)) {
+            return parse(in.readAllBytes());
+        } catch (NexusHttpException e) {
+            if (e.getStatus() == HttpURLConnection.HTTP_NOT_FOUND) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private static XMLInputFactory newFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    static Metadata parse(byte[] content) throws IOException {
+        List<String> versions = new ArrayList<>();
+        String latest = null;
+        String release = null;
+        List<String> path = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        try {
+            XMLStreamReader reader = XML.createXMLStreamReader(new ByteArrayInputStream(content));
+            try {
+                while (reader.hasNext()) {
+                    switch (reader.next()) {
+                        case XMLStreamConstants.START_ELEMENT -> {
+                            path.add(reader.getLocalName());
+                            text.setLength(0);
+                        }
+                        case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> text.append(reader.getText());
+                        case XMLStreamConstants.END_ELEMENT -> {
+                            String p = String.join("/", path);
+                            String value = text.toString().trim();
+                            if (!value.isEmpty()) {
+                                switch (p) {
+                                    case "metadata/versioning/versions/version" -> versions.add(value);
+                                    case "metadata/versioning/latest" -> latest = value;
+                                    case "metadata/versioning/release" -> release = value;
+                                    default -> {
+                                    }
+                                }
+                            }
+                            path.remove(path.size() - 1);
+                            text.setLength(0);
+                        }
+                        default -> {
+                            // Comments, processing instructions and whitespace
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid maven-metadata.xml: " + e.getMessage(), e);
+        }
+        return new Metadata(versions, latest, release);
+    }
+}
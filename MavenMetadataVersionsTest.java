@@ -0,0 +1,84 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MavenMetadataVersions.
+ */
+class MavenMetadataVersionsTest {
+
+    private static final String BASE = "https://nexus.example";
+    private static final String PATH = "/org/example/demo/maven-metadata.xml";
+
+    private static String metadata(String latest, String release, String... versions) {
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<metadata>"
+                + "<groupId>org.example</groupId><artifactId>demo</artifactId><versioning>");
+        if (latest != null) {
+            sb.append("<latest>").append(latest).append("</latest>");
+        }
+        if (release != null) {
+            sb.append("<release>").append(release).append("</release>");
+        }
+        sb.append("<versions>");
+        for (String version : versions) {
+            sb.append("<version>").append(version).append("</version>");
+        }
+        return sb.append("</versions><lastUpdated>20240101000000</lastUpdated></versioning></metadata>").toString();
+    }
+
+    private static MavenMetadataVersions.Opener opener(Map<String, String> files) {
+        return url -> {
+            String content = files.get(url);
+            if (content == null) {
+                throw new NexusHttpException(404, url, -1);
+            }
+            return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    @Test
+    void mergesRepositories() throws IOException {
+        MavenMetadataVersions browse = new MavenMetadataVersions(BASE + "/", List.of("releases", "empty", "thirdparty"),
+                opener(Map.of(
+                        BASE + "/repository/releases" + PATH, metadata("2.0-SNAPSHOT", "1.1", "1.0", "1.1", "2.0-SNAPSHOT"),
+                        BASE + "/repository/thirdparty" + PATH, metadata(null, "1.10", "1.1", "1.10"))));
+
+        MavenMetadataVersions.Versions versions = browse.fetch("org.example", "demo");
+        assertEquals(List.of("2.0-SNAPSHOT", "1.10", "1.1", "1.0"),
+                versions.versions().stream().map(MavenMetadataVersions.Version::version).toList());
+        assertEquals(List.of("releases", "thirdparty"), versions.versions().get(2).repositories());
+        assertEquals("2.0-SNAPSHOT", versions.latest());
+        assertEquals("1.1", versions.release());
+
+        List<NexusArtifact> rows = browse.toArtifacts("org.example", "demo", versions);
+        assertEquals("thirdparty", rows.get(1).repository());
+        assertEquals(BASE + "/repository/thirdparty/org/example/demo/1.10/demo-1.10.pom", rows.get(1).artifactLink());
+    }
+
+    @Test
+    void failsOnlyWhenEveryRepositoryFails() {
+        MavenMetadataVersions.Opener broken = url -> {
+            throw new NexusHttpException(503, url, -1);
+        };
+        MavenMetadataVersions browse = new MavenMetadataVersions(BASE, List.of("a", "b"), broken);
+        NexusHttpException e = assertThrows(NexusHttpException.class, () -> browse.fetch("org.example", "demo"));
+        assertEquals(503, e.getStatus());
+
+        MavenMetadataVersions missing = new MavenMetadataVersions(BASE, List.of("a"), opener(Map.of()));
+        assertDoesNotThrow(() -> assertTrue(missing.fetch("org.example", "demo").versions().isEmpty()));
+    }
+
+    @Test
+    void rejectsInvalidMetadata() {
+        assertThrows(IOException.class, () -> MavenMetadataVersions.parse("<metadata><versioning>".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,187 @@
+package org.jd.gui.util.nexus;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parts of a POM that dependency resolution and the enrichment columns
+ * need, as written: nothing is inherited or interpolated here (see
+ * {@link DependencyResolver} and {@link PomEnricher}).
+ *
+ * We read the POM with one StAX pass, tracking the element path; profiles,
+ * build sections and everything else are skipped.
+ */
+final class MavenPom {
+
+    record Parent(String groupId, String artifactId, String version) {
+    }
+
+    /**
+     * One dependency; exclusions are "groupId:artifactId" patterns, "*" matching anything.
+     */
+    record Dependency(String groupId, String artifactId, String version, String type, String classifier,
+                      String scope, boolean optional, List<String> exclusions) {
+
+        String managementKey() {
+            return groupId + ":" + artifactId + ":" + (type == null ? "jar" : type) + ":" + (classifier == null ? "" : classifier);
+        }
+    }
+
+    private static final XMLInputFactory XML = newFactory();
+
+    final String groupId;
+    final String artifactId;
+    final String version;
+    final String packaging;
+    final String name;
+    final String description;
+    final List<String> licenses;
+    final Parent parent;
+    final Map<String, String> properties;
+    final List<Dependency> dependencyManagement;
+    final List<Dependency> dependencies;
+
+    private MavenPom(String groupId, String artifactId, String version, String packaging, String name,
+                     String description, List<String> licenses, Parent parent, Map<String, String> properties,
+                     List<Dependency> dependencyManagement, List<Dependency> dependencies) {
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+        this.packaging = packaging;
+        this.name = name;
+        this.description = description;
+        this.licenses = licenses;
+        this.parent = parent;
+        this.properties = properties;
+        this.dependencyManagement = dependencyManagement;
+        this.dependencies = dependencies;
+    }
+
+    private static XMLInputFactory newFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    static MavenPom parse(byte[] content) throws IOException {
+        Map<String, String> project = new LinkedHashMap<>();
+        Map<String, String> parent = new LinkedHashMap<>();
+        Map<String, String> properties = new LinkedHashMap<>();
+        List<String> licenses = new ArrayList<>();
+        List<Dependency> managed = new ArrayList<>();
+        List<Dependency> dependencies = new ArrayList<>();
+
+        List<String> path = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        Map<String, String> dependency = null;
+        List<String> exclusions = null;
+        Map<String, String> exclusion = null;
+        try {
+            XMLStreamReader reader = XML.createXMLStreamReader(new ByteArrayInputStream(content));
+            try {
+                while (reader.hasNext()) {
+                    switch (reader.next()) {
+                        case XMLStreamConstants.START_ELEMENT -> {
+                            path.add(reader.getLocalName());
+                            text.setLength(0);
+                            String p = String.join("/", path);
+                            if (p.equals("project/dependencies/dependency")
+                                    || p.equals("project/dependencyManagement/dependencies/dependency")) {
+                                dependency = new LinkedHashMap<>();
+                                exclusions = new ArrayList<>();
+                            } else if (dependency != null && p.endsWith("/dependency/exclusions/exclusion")) {
+                                exclusion = new LinkedHashMap<>();
+                            }
+                        }
+                        case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> text.append(reader.getText());
+                        case XMLStreamConstants.END_ELEMENT -> {
+                            String p = String.join("/", path);
+                            String value = text.toString().trim();
+                            int depth = path.size();
+                            if (depth == 2 && p.startsWith("project/")) {
+                                project.put(path.get(1), value);
+                            } else if (depth == 3 && p.startsWith("project/parent/")) {
+                                parent.put(path.get(2), value);
+                            } else if (depth == 3 && p.startsWith("project/properties/")) {
+                                properties.put(path.get(2), value);
+                            } else if (p.equals("project/licenses/license/name") && !value.isEmpty()) {
+                                licenses.add(value);
+                            } else if (exclusion != null && p.endsWith("/exclusion")) {
+                                exclusions.add(exclusion.getOrDefault("groupId", "*") + ":"
+                                        + exclusion.getOrDefault("artifactId", "*"));
+                                exclusion = null;
+                            } else if (exclusion != null) {
+                                exclusion.put(path.get(depth - 1), value);
+                            } else if (dependency != null && p.endsWith("/dependency")) {
+                                Dependency d = toDependency(dependency, exclusions);
+                                if (d != null) {
+                                    (p.startsWith("project/dependencyManagement/") ? managed : dependencies).add(d);
+                                }
+                                dependency = null;
+                            } else if (dependency != null && !p.contains("/exclusions")) {
+                                dependency.put(path.get(depth - 1), value);
+                            }
+                            path.remove(depth - 1);
+                            text.setLength(0);
+                        }
+                        default -> {
+                            // Comments, processing instructions and whitespace
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid POM: " + e.getMessage(), e);
+        }
+        if (project.isEmpty() && parent.isEmpty()) {
+            throw new IOException("Not a POM");
+        }
+
+        Parent p = parent.isEmpty() ? null
+                : new Parent(parent.get("groupId"), parent.get("artifactId"), parent.get("version"));
+        return new MavenPom(
+                project.get("groupId"),
+                project.get("artifactId"),
+                project.get("version"),
+                project.getOrDefault("packaging", "jar"),
+                blankToNull(project.get("name")),
+                blankToNull(project.get("description")),
+                licenses,
+                p,
+                properties,
+                managed,
+                dependencies);
+    }
+
+    private static Dependency toDependency(Map<String, String> d, List<String> exclusions) {
+        String groupId = blankToNull(d.get("groupId"));
+        String artifactId = blankToNull(d.get("artifactId"));
+        if (groupId == null || artifactId == null) {
+            return null;
+        }
+        return new Dependency(groupId, artifactId,
+                blankToNull(d.get("version")),
+                blankToNull(d.get("type")),
+                blankToNull(d.get("classifier")),
+                blankToNull(d.get("scope")),
+                "true".equalsIgnoreCase(d.get("optional")),
+                List.copyOf(exclusions));
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s.trim();
+    }
+}
@@ -0,0 +1,277 @@
+package org.jd.gui.util.nexus;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Maven version ordering, following the rules of Maven's ComparableVersion.
+ *
+ * A version is split on '.', '-' and on transitions between digits and
+ * letters. Numbers compare numerically, qualifiers compare in the order
+ *
+ *   alpha < beta < milestone < rc = cr < snapshot < "" = ga = final = release < sp
+ *
+ * and unknown qualifiers sort after "sp", lexically. Trailing zeros and
+ * release qualifiers are insignificant, so "1.0" equals "1" and "1-ga".
+ *
+ * We keep our own copy instead of depending on maven-artifact so that the
+ * client stays free of Maven runtime dependencies.
+ */
+public final class MavenVersion implements Comparable<MavenVersion> {
+
+    private static final List<String> QUALIFIERS = List.of("alpha", "beta", "milestone", "rc", "snapshot", "", "sp");
+    private static final String RELEASE_VERSION_INDEX = String.valueOf(QUALIFIERS.indexOf(""));
+    private static final Pattern TIMESTAMPED_SNAPSHOT = Pattern.compile(".*-\\d{8}\\.\\d{6}-\\d+");
+
+    private final String value;
+    private final ListItem items;
+
+    private MavenVersion(String value) {
+        this.value = value;
+        this.items = parseItems(value);
+    }
+
+    public static MavenVersion parse(String version) {
+        return new MavenVersion(version == null ? "" : version.trim());
+    }
+
+    public static int compare(String v1, String v2) {
+        return parse(v1).compareTo(parse(v2));
+    }
+
+    /**
+     * Whether this is a snapshot, either "-SNAPSHOT" or the timestamped form
+     * deployed snapshots get, e.g. 1.1-20240101.123456-1.
+     */
+    public boolean isSnapshot() {
+        return value.endsWith("-SNAPSHOT") || value.endsWith("-snapshot")
+                || TIMESTAMPED_SNAPSHOT.matcher(value).matches();
+    }
+
+    @Override
+    public int compareTo(MavenVersion other) {
+        return items.compareTo(other.items);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MavenVersion other && compareTo(other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return items.canonical().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
+    private static ListItem parseItems(String version) {
+        ListItem list = new ListItem();
+        ListItem root = list;
+        Deque<ListItem> stack = new ArrayDeque<>();
+        stack.push(list);
+
+        String v = version.toLowerCase(Locale.ROOT);
+        boolean isDigit = false;
+        int start = 0;
+
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            if (c == '.') {
+                list.add(i == start ? IntItem.ZERO : parseItem(isDigit, v.substring(start, i)));
+                start = i + 1;
+            } else if (c == '-') {
+                list.add(i == start ? IntItem.ZERO : parseItem(isDigit, v.substring(start, i)));
+                start = i + 1;
+                ListItem sub = new ListItem();
+                list.add(sub);
+                list = sub;
+                stack.push(list);
+            } else if (Character.isDigit(c)) {
+                if (!isDigit && i > start) {
+                    // "alpha1": the qualifier is followed by a number
+                    list.add(new StringItem(v.substring(start, i), true));
+                    start = i;
+                    ListItem sub = new ListItem();
+                    list.add(sub);
+                    list = sub;
+                    stack.push(list);
+                }
+                isDigit = true;
+            } else {
+                if (isDigit && i > start) {
+                    list.add(parseItem(true, v.substring(start, i)));
+                    start = i;
+                    ListItem sub = new ListItem();
+                    list.add(sub);
+                    list = sub;
+                    stack.push(list);
+                }
+                isDigit = false;
+            }
+        }
+        if (v.length() > start) {
+            list.add(parseItem(isDigit, v.substring(start)));
+        }
+        while (!stack.isEmpty()) {
+            stack.pop().normalize();
+        }
+        return root;
+    }
+
+    private static Item parseItem(boolean isDigit, String buf) {
+        return isDigit ? new IntItem(new BigInteger(buf)) : new StringItem(buf, false);
+    }
+
+    private interface Item {
+        int compareTo(Item other);
+
+        boolean isNull();
+
+        String canonical();
+    }
+
+    private record IntItem(BigInteger value) implements Item {
+
+        static final IntItem ZERO = new IntItem(BigInteger.ZERO);
+
+        @Override
+        public int compareTo(Item other) {
+            if (other == null) {
+                return value.signum() == 0 ? 0 : 1;
+            }
+            if (other instanceof IntItem i) {
+                return value.compareTo(i.value);
+            }
+            return 1; // 1.1 > 1-sp, 1.1 > 1-1
+        }
+
+        @Override
+        public boolean isNull() {
+            return value.signum() == 0;
+        }
+
+        @Override
+        public String canonical() {
+            return value.toString();
+        }
+    }
+
+    private record StringItem(String value) implements Item {
+
+        StringItem(String value, boolean followedByDigit) {
+            this(normalize(value, followedByDigit));
+        }
+
+        private static String normalize(String value, boolean followedByDigit) {
+            if (followedByDigit && value.length() == 1) {
+                switch (value.charAt(0)) {
+                    case 'a' -> value = "alpha";
+                    case 'b' -> value = "beta";
+                    case 'm' -> value = "milestone";
+                    default -> { }
+                }
+            }
+            return switch (value) {
+                case "ga", "final", "release" -> "";
+                case "cr" -> "rc";
+                default -> value;
+            };
+        }
+
+        static String comparableQualifier(String qualifier) {
+            int i = QUALIFIERS.indexOf(qualifier);
+            return i == -1 ? (QUALIFIERS.size() + "-" + qualifier) : String.valueOf(i);
+        }
+
+        @Override
+        public int compareTo(Item other) {
+            if (other == null) {
+                return comparableQualifier(value).compareTo(RELEASE_VERSION_INDEX);
+            }
+            if (other instanceof StringItem s) {
+                return comparableQualifier(value).compareTo(comparableQualifier(s.value));
+            }
+            return -1; // 1-rc < 1.1, 1-rc < 1-1
+        }
+
+        @Override
+        public boolean isNull() {
+            return comparableQualifier(value).compareTo(RELEASE_VERSION_INDEX) == 0;
+        }
+
+        @Override
+        public String canonical() {
+            return value;
+        }
+    }
+
+    private static final class ListItem implements Item {
+
+        private final List<Item> items = new ArrayList<>();
+
+        void add(Item item) {
+            items.add(item);
+        }
+
+        void normalize() {
+            for (int i = items.size() - 1; i >= 0; i--) {
+                Item last = items.get(i);
+                if (last.isNull()) {
+                    items.remove(i);
+                } else if (!(last instanceof ListItem)) {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public int compareTo(Item other) {
+            if (other == null) {
+                return items.isEmpty() ? 0 : items.get(0).compareTo(null);
+            }
+            if (other instanceof IntItem) {
+                return -1; // 1-1 < 1.0.x
+            }
+            if (other instanceof StringItem) {
+                return 1; // 1-1 > 1-sp
+            }
+            List<Item> otherItems = ((ListItem) other).items;
+            int n = Math.max(items.size(), otherItems.size());
+            for (int i = 0; i < n; i++) {
+                Item l = i < items.size() ? items.get(i) : null;
+                Item r = i < otherItems.size() ? otherItems.get(i) : null;
+                int result = l == null ? (r == null ? 0 : -r.compareTo(null)) : l.compareTo(r);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public boolean isNull() {
+            return items.isEmpty();
+        }
+
+        @Override
+        public String canonical() {
+            StringBuilder sb = new StringBuilder();
+            for (Item item : items) {
+                if (!sb.isEmpty()) {
+                    sb.append(item instanceof ListItem ? '-' : '.');
+                }
+                sb.append(item.canonical());
+            }
+            return sb.toString();
+        }
+    }
+}
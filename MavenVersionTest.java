@@ -0,0 +1,61 @@
+package org.jd.gui.util.nexus;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MavenVersion, using the reference orderings of Maven's ComparableVersion.
+ */
+class MavenVersionTest {
+
+    private static final String[] ORDERED = {
+            "1-alpha2snapshot", "1-alpha2", "1-alpha-123", "1-beta-2", "1-beta123", "1-m2", "1-m11",
+            "1-rc", "1-cr2", "1-rc123", "1-SNAPSHOT", "1", "1-sp", "1-sp2", "1-sp123", "1-abc",
+            "1-def", "1-pom-1", "1-1-snapshot", "1-1", "1-2", "1-123"
+    };
+
+    @Test
+    void referenceSequence_isStrictlyIncreasing() {
+        for (int i = 0; i < ORDERED.length - 1; i++) {
+            assertTrue(MavenVersion.compare(ORDERED[i], ORDERED[i + 1]) < 0,
+                    ORDERED[i] + " should be lower than " + ORDERED[i + 1]);
+            assertTrue(MavenVersion.compare(ORDERED[i + 1], ORDERED[i]) > 0,
+                    ORDERED[i + 1] + " should be greater than " + ORDERED[i]);
+        }
+    }
+
+    @Test
+    void numbersCompareNumericallyAndQualifiersBeforeRelease() {
+        assertTrue(MavenVersion.compare("2.0.10", "2.0.9") > 0);
+        assertTrue(MavenVersion.compare("10.0", "9.9.9") > 0);
+        assertTrue(MavenVersion.compare("2.0.0-RC1", "2.0.0") < 0);
+        assertTrue(MavenVersion.compare("2.0.0-M1", "2.0.0-RC1") < 0);
+        assertTrue(MavenVersion.compare("3.19.0", "3.19.0-SNAPSHOT") > 0);
+    }
+
+    @Test
+    void equivalentSpellings_areEqual() {
+        String[][] pairs = {
+                {"1", "1.0"}, {"1", "1.0.0"}, {"1-ga", "1"}, {"1.0-final", "1"},
+                {"1a1", "1-alpha-1"}, {"1cr1", "1rc1"}, {"1.0.RELEASE", "1"}
+        };
+        for (String[] pair : pairs) {
+            MavenVersion v1 = MavenVersion.parse(pair[0]);
+            MavenVersion v2 = MavenVersion.parse(pair[1]);
+            assertEquals(0, v1.compareTo(v2), pair[0] + " should equal " + pair[1]);
+            assertEquals(v1, v2);
+            assertEquals(v1.hashCode(), v2.hashCode());
+        }
+    }
+
+    @Test
+    void snapshotDetection() {
+        assertTrue(MavenVersion.parse("1.0-SNAPSHOT").isSnapshot());
+        assertFalse(MavenVersion.parse("1.0").isSnapshot());
+        assertTrue(MavenVersion.parse("1.1-20240101.123456-1").isSnapshot());
+        assertTrue(MavenVersion.parse("2.0-rc-20240101.123456-12").isSnapshot());
+        assertFalse(MavenVersion.parse("1.1-20240101").isSnapshot());
+        assertFalse(MavenVersion.parse("20240101.123456").isSnapshot());
+    }
+}
@@ -0,0 +1,259 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.jd.gui.util.nexus.model.NexusSearchResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * NexusSearch decorator answering queries from a local {@link NexusMirror}.
+ *
+ * Sync mode is enabled per server in the preferences by listing the
+ * repositories to mirror. Until every listed repository has completed a
+ * first sync, and for class searches, we delegate to the remote client.
+ *
+ * Preferences:
+ *   - NEXUS_MIRROR_REPOSITORIES   comma separated repository names (empty disables sync mode)
+ *   - NEXUS_MIRROR_INTERVAL       minutes between syncs (default 60)
+ *   - NEXUS_MIRROR_PAGE_DELAY     milliseconds between two page requests (default 250)
+ */
+public final class MirrorNexusSearch implements NexusSearch, NexusFilteredSearch, NexusVersionSearch {
+
+    public static final String NEXUS_MIRROR_REPOSITORIES = "JdGuiPreferences.nexusMirrorRepositories";
+    public static final String NEXUS_MIRROR_INTERVAL = "JdGuiPreferences.nexusMirrorIntervalMinutes";
+    public static final String NEXUS_MIRROR_PAGE_DELAY = "JdGuiPreferences.nexusMirrorPageDelayMillis";
+
+    private static final int PAGE_SIZE = 100;
+    private static final int PAGE_KEY_QUERIES = 64;
+    private static final Comparator<String> NULLS = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private final NexusSearch remote;
+    private final NexusMirror mirror;
+    private final String baseUrl;
+    // Last asset key of each page already served, per query, least recently used first
+    private final Map<String, List<String>> pageKeys = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > PAGE_KEY_QUERIES;
+        }
+    };
+
+    private MirrorNexusSearch(NexusSearch remote, NexusMirror mirror, String baseUrl) {
+        this.remote = remote;
+        this.mirror = mirror;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * We return a mirrored search when sync mode is configured for a Nexus 3
+     * server, otherwise the remote search unchanged.
+     */
+    public static NexusSearch wrap(NexusSearch remote, NexusConfig config, Map<String, String> prefs) {
+        if (!(remote instanceof NexusV3Client client) || config == null || prefs == null) {
+            return remote;
+        }
+        List<String> names = OptionValues.names(prefs.get(NEXUS_MIRROR_REPOSITORIES));
+        if (names.isEmpty()) {
+            return remote;
+        }
+        long intervalMinutes = OptionValues.parseLong(prefs.get(NEXUS_MIRROR_INTERVAL), 60);
+        long pageDelay = OptionValues.parseLong(prefs.get(NEXUS_MIRROR_PAGE_DELAY), 250);
+
+        NexusMirror mirror = NexusMirror.forServer(config.baseUrl);
+        mirror.start(client, names, Duration.ofMinutes(Math.max(1, intervalMinutes)), pageDelay);
+        return new MirrorNexusSearch(remote, mirror, config.baseUrl);
+    }
+
+    @Override
+    public NexusSearchResult searchByKeyword(String keyword, int pageNo) throws Exception {
+        return searchByKeyword(keyword, NexusSearchFilter.NONE, pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchBySha1(String sha1, int pageNo) throws Exception {
+        return searchBySha1(sha1, NexusSearchFilter.NONE, pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchByGav(String groupId, String artifactId, String version, int pageNo) throws Exception {
+        return searchByGav(groupId, artifactId, version, NexusSearchFilter.NONE, pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchByKeyword(String keyword, NexusSearchFilter filter, int pageNo) throws Exception {
+        if (!mirror.isReady()) {
+            return remote instanceof NexusFilteredSearch filtered
+                    ? filtered.searchByKeyword(keyword, filter, pageNo)
+                    : filter.apply(remote.searchByKeyword(keyword, pageNo));
+        }
+        String k = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        return find("keyword\0" + k, a -> (filter.includesChecksums()
+                || !NexusAssets.isChecksumOrSignature(a.extension()))
+                && (contains(a.groupId(), k) || contains(a.artifactId(), k) || contains(a.version(), k)), filter, pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchBySha1(String sha1, NexusSearchFilter filter, int pageNo) throws Exception {
+        if (!mirror.isReady()) {
+            return remote instanceof NexusFilteredSearch filtered
+                    ? filtered.searchBySha1(sha1, filter, pageNo)
+                    : filter.apply(remote.searchBySha1(sha1, pageNo));
+        }
+        if (pageNo > 0 || sha1 == null || sha1.isBlank()) {
+            return new NexusSearchResult(List.of());
+        }
+        return filter.apply(toResult(mirror.findBySha1(sha1)));
+    }
+
+    @Override
+    public NexusSearchResult searchByGav(String groupId, String artifactId, String version,
+                                         NexusSearchFilter filter, int pageNo) throws Exception {
+        if (!mirror.isReady()) {
+            return remote instanceof NexusFilteredSearch filtered
+                    ? filtered.searchByGav(groupId, artifactId, version, filter, pageNo)
+                    : filter.apply(remote.searchByGav(groupId, artifactId, version, pageNo));
+        }
+        String g = blankToNull(groupId);
+        String a = blankToNull(artifactId);
+        String v = blankToNull(version);
+        return find(String.join("\0", "gav", g, a, v), asset -> (filter.includesChecksums()
+                || !NexusAssets.isChecksumOrSignature(asset.extension()))
+                && (g == null || g.equals(asset.groupId()))
+                && (a == null || a.equals(asset.artifactId()))
+                && (v == null || v.equals(asset.version())), filter, pageNo);
+    }
+
+    @Override
+    public List<NexusArtifact> searchVersions(String groupId, String artifactId, int pageNo) throws Exception {
+        if (!mirror.isReady()) {
+            if (remote instanceof NexusVersionSearch versionSearch) {
+                return versionSearch.searchVersions(groupId, artifactId, pageNo);
+            }
+            return pageNo == 0 ? remote.searchByGav(groupId, artifactId, null, 0).artifacts() : List.of();
+        }
+        String g = groupId.trim();
+        String a = artifactId.trim();
+        // One asset per version, newest first
+        Map<String, NexusMirror.MirroredAsset> byVersion = new HashMap<>();
+        for (NexusMirror.MirroredAsset asset : mirror.find(x -> g.equals(x.groupId()) && a.equals(x.artifactId()),
+                null, Integer.MAX_VALUE)) {
+            if (asset.version() != null) {
+                byVersion.merge(asset.version(), asset, (x, y) -> "pom".equals(y.extension()) ? y : x);
+            }
+        }
+        List<NexusMirror.MirroredAsset> versions = new ArrayList<>(byVersion.values());
+        versions.sort(Comparator.comparing((NexusMirror.MirroredAsset x) -> MavenVersion.parse(x.version())).reversed());
+        int from = Math.min(versions.size(), pageNo * PAGE_SIZE);
+        int to = Math.min(versions.size(), from + PAGE_SIZE);
+        return toResult(versions.subList(from, to)).artifacts();
+    }
+
+    @Override
+    public NexusSearchResult searchByClassName(String className, boolean fullyQualified, int pageNo) throws Exception {
+        return remote.searchByClassName(className, fullyQualified, pageNo);
+    }
+
+    @Override
+    public boolean supportsVersionDate() {
+        return remote.supportsVersionDate();
+    }
+
+    @Override
+    public boolean supportsClassSearch() {
+        return remote.supportsClassSearch();
+    }
+
+    /**
+     * We page through the mirrored assets matching the query and the filter.
+     * Pages follow the key order of the mirror and start after the last key
+     * of the previous page, so syncs running meanwhile neither repeat nor
+     * skip assets. A sorted search has to see every match before it can cut
+     * a page; ties keep the key order.
+     */
+    private NexusSearchResult find(String query, Predicate<NexusMirror.MirroredAsset> predicate,
+                                   NexusSearchFilter filter, int pageNo) {
+        Predicate<NexusMirror.MirroredAsset> filtered = predicate.and(asset ->
+                (filter.repository() == null || filter.repository().equals(asset.repository()))
+                        && (filter.extension() == null || filter.extension().equalsIgnoreCase(asset.extension()))
+                        && (filter.classifier() == null || filter.classifier().equals(asset.classifier())));
+        if (filter.sort() == null) {
+            String key = query + '\0' + filter;
+            List<String> known = knownKeys(key);
+            // We walk from the last page we know the end of
+            int from = Math.min(pageNo, known.size());
+            String after = from == 0 ? null : known.get(from - 1);
+            List<NexusMirror.MirroredAsset> page = List.of();
+            for (int n = from; n <= pageNo; n++) {
+                page = mirror.find(filtered, after, PAGE_SIZE);
+                if (page.isEmpty()) {
+                    break;
+                }
+                after = page.get(page.size() - 1).key();
+                rememberKey(key, n, after);
+            }
+            return toResult(page);
+        }
+        List<NexusMirror.MirroredAsset> all = new ArrayList<>(mirror.find(filtered, null, Integer.MAX_VALUE));
+        Comparator<NexusMirror.MirroredAsset> order = switch (filter.sort()) {
+            case "group" -> Comparator.comparing(NexusMirror.MirroredAsset::groupId, NULLS);
+            case "name" -> Comparator.comparing(NexusMirror.MirroredAsset::artifactId, NULLS);
+            case "repository" -> Comparator.comparing(NexusMirror.MirroredAsset::repository, NULLS);
+            default -> Comparator.comparing(NexusMirror.MirroredAsset::version, Comparator.nullsFirst(MavenVersion::compare));
+        };
+        all.sort("desc".equals(filter.direction()) ? order.reversed() : order);
+        int from = Math.min(all.size(), pageNo * PAGE_SIZE);
+        int to = Math.min(all.size(), from + PAGE_SIZE);
+        return toResult(all.subList(from, to));
+    }
+
+    private List<String> knownKeys(String query) {
+        synchronized (pageKeys) {
+            List<String> keys = pageKeys.get(query);
+            return keys == null ? List.of() : new ArrayList<>(keys);
+        }
+    }
+
+    private void rememberKey(String query, int pageNo, String key) {
+        synchronized (pageKeys) {
+            List<String> keys = pageKeys.computeIfAbsent(query, k -> new ArrayList<>());
+            if (pageNo == keys.size()) {
+                keys.add(key);
+            } else if (pageNo < keys.size()) {
+                keys.set(pageNo, key);
+            }
+        }
+    }
+
+    private NexusSearchResult toResult(List<NexusMirror.MirroredAsset> assets) {
+        List<NexusArtifact> list = new ArrayList<>(assets.size());
+        for (NexusMirror.MirroredAsset asset : assets) {
+            LocalDate versionDate = asset.lastModified() > 0
+                    ? Instant.ofEpochMilli(asset.lastModified()).atOffset(ZoneOffset.UTC).toLocalDate()
+                    : null;
+            String link = NexusV3Client.buildDownloadUrl(baseUrl, asset.repository(), asset.groupId(),
+                    asset.artifactId(), asset.version(), asset.extension(), asset.classifier());
+            list.add(new NexusArtifact(asset.groupId(), asset.artifactId(), asset.version(), versionDate,
+                    asset.classifier(), asset.extension(), asset.repository(), link));
+        }
+        return new NexusSearchResult(list);
+    }
+
+    private static boolean contains(String value, String lowerCaseNeedle) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(lowerCaseNeedle);
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s.trim();
+    }
+}
@@ -0,0 +1,39 @@
+package org.jd.gui.util.nexus;
+
+import java.util.List;
+
+/**
+ * One page of a Nexus 3 list response (search, search/assets or components).
+ *
+ * We only keep the fields this client uses. A null continuationToken means
+ * the page is the last one.
+ */
+record Nexus3Page<T>(List<T> items, String continuationToken) {
+
+    boolean hasMore() {
+        return continuationToken != null && !continuationToken.isEmpty();
+    }
+
+    record ComponentItem(
+            String id,
+            String repository,
+            String group,
+            String name,
+            String version,
+            List<AssetItem> assets) {
+    }
+
+    record AssetItem(
+            String id,
+            String repository,
+            String path,
+            String downloadUrl,
+            String lastModified,
+            String sha1,
+            String groupId,
+            String artifactId,
+            String version,
+            String classifier,
+            String extension) {
+    }
+}
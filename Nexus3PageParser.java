@@ -0,0 +1,188 @@
+package org.jd.gui.util.nexus;
+
+import jakarta.json.Json;
+import jakarta.json.stream.JsonParser;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Streaming parser for Nexus 3 list responses.
+ *
+ * Interactive searches and repository crawls both go through this parser:
+ * rather than mapping the response to DTOs, we walk the JSON events
+ * directly and skip every field we do not need. This keeps allocation flat
+ * when crawling whole repositories page by page, and gives us the
+ * continuationToken and asset checksums.
+ */
+final class Nexus3PageParser {
+
+    private Nexus3PageParser() {
+        // Utility class: no instances
+    }
+
+    /**
+     * We parse a page of components (/search or /components).
+     */
+    static Nexus3Page<Nexus3Page.ComponentItem> parseComponents(Reader reader) {
+        return parsePage(reader, Nexus3PageParser::parseComponent);
+    }
+
+    /**
+     * We parse a page of assets (/search/assets).
+     */
+    static Nexus3Page<Nexus3Page.AssetItem> parseAssets(Reader reader) {
+        return parsePage(reader, Nexus3PageParser::parseAsset);
+    }
+
+    private static <T> Nexus3Page<T> parsePage(Reader reader, Function<JsonParser, T> itemParser) {
+        List<T> items = new ArrayList<>();
+        String token = null;
+        try (JsonParser parser = Json.createParser(reader)) {
+            if (!parser.hasNext() || parser.next() != JsonParser.Event.START_OBJECT) {
+                return new Nexus3Page<>(items, null);
+            }
+            JsonParser.Event event;
+            while (parser.hasNext() && (event = parser.next()) != JsonParser.Event.END_OBJECT) {
+                if (event != JsonParser.Event.KEY_NAME) {
+                    continue;
+                }
+                String key = parser.getString();
+                JsonParser.Event value = parser.next();
+                if ("items".equals(key) && value == JsonParser.Event.START_ARRAY) {
+                    while (parser.next() == JsonParser.Event.START_OBJECT) {
+                        items.add(itemParser.apply(parser));
+                    }
+                } else if ("continuationToken".equals(key)) {
+                    token = stringValue(parser, value);
+                } else {
+                    skip(parser, value);
+                }
+            }
+        }
+        return new Nexus3Page<>(items, token);
+    }
+
+    private static Nexus3Page.ComponentItem parseComponent(JsonParser parser) {
+        String id = null;
+        String repository = null;
+        String group = null;
+        String name = null;
+        String version = null;
+        List<Nexus3Page.AssetItem> assets = new ArrayList<>();
+
+        JsonParser.Event event;
+        while ((event = parser.next()) != JsonParser.Event.END_OBJECT) {
+            if (event != JsonParser.Event.KEY_NAME) {
+                continue;
+            }
+            String key = parser.getString();
+            JsonParser.Event value = parser.next();
+            switch (key) {
+                case "id" -> id = stringValue(parser, value);
+                case "repository" -> repository = stringValue(parser, value);
+                case "group" -> group = stringValue(parser, value);
+                case "name" -> name = stringValue(parser, value);
+                case "version" -> version = stringValue(parser, value);
+                case "assets" -> {
+                    if (value == JsonParser.Event.START_ARRAY) {
+                        while (parser.next() == JsonParser.Event.START_OBJECT) {
+                            assets.add(parseAsset(parser));
+                        }
+                    } else {
+                        skip(parser, value);
+                    }
+                }
+                default -> skip(parser, value);
+            }
+        }
+        return new Nexus3Page.ComponentItem(id, repository, group, name, version, assets);
+    }
+
+    private static Nexus3Page.AssetItem parseAsset(JsonParser parser) {
+        String id = null;
+        String repository = null;
+        String path = null;
+        String downloadUrl = null;
+        String lastModified = null;
+        String sha1 = null;
+        String groupId = null;
+        String artifactId = null;
+        String version = null;
+        String classifier = null;
+        String extension = null;
+
+        JsonParser.Event event;
+        while ((event = parser.next()) != JsonParser.Event.END_OBJECT) {
+            if (event != JsonParser.Event.KEY_NAME) {
+                continue;
+            }
+            String key = parser.getString();
+            JsonParser.Event value = parser.next();
+            switch (key) {
+                case "id" -> id = stringValue(parser, value);
+                case "repository" -> repository = stringValue(parser, value);
+                case "path" -> path = stringValue(parser, value);
+                case "downloadUrl" -> downloadUrl = stringValue(parser, value);
+                case "lastModified" -> lastModified = stringValue(parser, value);
+                case "checksum" -> {
+                    if (value == JsonParser.Event.START_OBJECT) {
+                        while ((event = parser.next()) != JsonParser.Event.END_OBJECT) {
+                            String algorithm = parser.getString();
+                            JsonParser.Event checksum = parser.next();
+                            if ("sha1".equals(algorithm)) {
+                                sha1 = stringValue(parser, checksum);
+                            } else {
+                                skip(parser, checksum);
+                            }
+                        }
+                    } else {
+                        skip(parser, value);
+                    }
+                }
+                case "maven2" -> {
+                    if (value == JsonParser.Event.START_OBJECT) {
+                        while ((event = parser.next()) != JsonParser.Event.END_OBJECT) {
+                            String field = parser.getString();
+                            JsonParser.Event fieldValue = parser.next();
+                            switch (field) {
+                                case "groupId" -> groupId = stringValue(parser, fieldValue);
+                                case "artifactId" -> artifactId = stringValue(parser, fieldValue);
+                                case "version" -> version = stringValue(parser, fieldValue);
+                                case "classifier" -> classifier = stringValue(parser, fieldValue);
+                                case "extension" -> extension = stringValue(parser, fieldValue);
+                                default -> skip(parser, fieldValue);
+                            }
+                        }
+                    } else {
+                        skip(parser, value);
+                    }
+                }
+                default -> skip(parser, value);
+            }
+        }
+        return new Nexus3Page.AssetItem(id, repository, path, downloadUrl, lastModified, sha1,
+                groupId, artifactId, version, classifier, extension);
+    }
+
+    private static String stringValue(JsonParser parser, JsonParser.Event value) {
+        return switch (value) {
+            case VALUE_STRING, VALUE_NUMBER -> parser.getString();
+            case VALUE_NULL -> null;
+            default -> {
+                skip(parser, value);
+                yield null;
+            }
+        };
+    }
+
+    private static void skip(JsonParser parser, JsonParser.Event value) {
+        if (value == JsonParser.Event.START_OBJECT) {
+            parser.skipObject();
+        } else if (value == JsonParser.Event.START_ARRAY) {
+            parser.skipArray();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.jd.gui.util.nexus;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Nexus3PageParser, over pages recorded from a Nexus 3 server.
+ */
+class Nexus3PageParserTest {
+
+    // GET /service/rest/v1/search?q=demo, first page; fields we do not use are kept as recorded
+    private static final String SEARCH_PAGE = """
+            {
+              "items" : [ {
+                "id" : "bWF2ZW4tcmVsZWFzZXM6ZjI3ZjA2YjE2NzVkZWQyNjE",
+                "repository" : "maven-releases",
+                "format" : "maven2",
+                "group" : "org.example",
+                "name" : "demo",
+                "version" : "1.2.0",
+                "assets" : [ {
+                  "downloadUrl" : "https://nexus.example/repository/maven-releases/org/example/demo/1.2.0/demo-1.2.0.jar",
+                  "path" : "org/example/demo/1.2.0/demo-1.2.0.jar",
+                  "id" : "bWF2ZW4tcmVsZWFzZXM6ODUxMzU2NTJhOTc4YmU5YTQ",
+                  "repository" : "maven-releases",
+                  "format" : "maven2",
+                  "checksum" : {
+                    "sha1" : "2a3f5c6d7e8f9a0b1c2d3e4f5a6b7c8d9e0f1a2b",
+                    "sha256" : "0e5f3c1d2b4a69788796a5b4c3d2e1f00f1e2d3c4b5a69788796a5b4c3d2e1f0",
+                    "md5" : "4b5a69788796a5b4c3d2e1f00f1e2d3c"
+                  },
+                  "contentType" : "application/java-archive",
+                  "lastModified" : "2024-03-01T10:15:30.000+00:00",
+                  "blobCreated" : "2024-03-01T10:15:30.000+00:00",
+                  "lastDownloaded" : null,
+                  "uploader" : "deployer",
+                  "uploaderIp" : "10.0.0.12",
+                  "fileSize" : 48213,
+                  "maven2" : {
+                    "extension" : "jar",
+                    "groupId" : "org.example",
+                    "artifactId" : "demo",
+                    "version" : "1.2.0"
+                  }
+                }, {
+                  "downloadUrl" : "https://nexus.example/repository/maven-releases/org/example/demo/1.2.0/demo-1.2.0-sources.jar",
+                  "path" : "org/example/demo/1.2.0/demo-1.2.0-sources.jar",
+                  "id" : "bWF2ZW4tcmVsZWFzZXM6YjE2NzVkZWQyNjFmMjdmMDY",
+                  "repository" : "maven-releases",
+                  "format" : "maven2",
+                  "checksum" : {
+                    "sha1" : "9e0f1a2b2a3f5c6d7e8f9a0b1c2d3e4f5a6b7c8d"
+                  },
+                  "lastModified" : "2024-03-01T10:15:31.000+00:00",
+                  "fileSize" : 20111,
+                  "maven2" : {
+                    "extension" : "jar",
+                    "groupId" : "org.example",
+                    "artifactId" : "demo",
+                    "version" : "1.2.0",
+                    "classifier" : "sources"
+                  }
+                } ],
+                "tags" : [ ]
+              } ],
+              "continuationToken" : "88491cd1d185dd136f143f20c4e7d50c"
+            }
+            """;
+
+    // GET /service/rest/v1/search/assets?sha1=..., last page
+    private static final String ASSETS_PAGE = """
+            {
+              "items" : [ {
+                "downloadUrl" : "https://nexus.example/repository/maven-releases/org/example/demo/1.2.0/demo-1.2.0.pom",
+                "path" : "org/example/demo/1.2.0/demo-1.2.0.pom",
+                "id" : "bWF2ZW4tcmVsZWFzZXM6ZGVkMjYxZjI3ZjA2YjE2NzU",
+                "repository" : "maven-releases",
+                "format" : "maven2",
+                "checksum" : {
+                  "sha1" : "0f1e2d3c4b5a69788796a5b4c3d2e1f00f1e2d3c",
+                  "md5" : "96a5b4c3d2e1f00f1e2d3c4b5a697887"
+                },
+                "lastModified" : "2024-03-01T10:15:29.000+00:00",
+                "maven2" : {
+                  "extension" : "pom",
+                  "groupId" : "org.example",
+                  "artifactId" : "demo",
+                  "version" : "1.2.0"
+                }
+              } ],
+              "continuationToken" : null
+            }
+            """;
+
+    @Test
+    void parsesComponentsWithTheirAssetsAndContinuationToken() {
+        Nexus3Page<Nexus3Page.ComponentItem> page = Nexus3PageParser.parseComponents(new StringReader(SEARCH_PAGE));
+        assertTrue(page.hasMore());
+        assertEquals("88491cd1d185dd136f143f20c4e7d50c", page.continuationToken());
+        assertEquals(1, page.items().size());
+
+        Nexus3Page.ComponentItem component = page.items().get(0);
+        assertEquals("bWF2ZW4tcmVsZWFzZXM6ZjI3ZjA2YjE2NzVkZWQyNjE", component.id());
+        assertEquals("maven-releases", component.repository());
+        assertEquals("org.example", component.group());
+        assertEquals("demo", component.name());
+        assertEquals("1.2.0", component.version());
+        assertEquals(2, component.assets().size());
+
+        assertEquals(new Nexus3Page.AssetItem("bWF2ZW4tcmVsZWFzZXM6ODUxMzU2NTJhOTc4YmU5YTQ", "maven-releases",
+                "org/example/demo/1.2.0/demo-1.2.0.jar",
+                "https://nexus.example/repository/maven-releases/org/example/demo/1.2.0/demo-1.2.0.jar",
+                "2024-03-01T10:15:30.000+00:00", "2a3f5c6d7e8f9a0b1c2d3e4f5a6b7c8d9e0f1a2b",
+                "org.example", "demo", "1.2.0", null, "jar"), component.assets().get(0));
+        Nexus3Page.AssetItem sources = component.assets().get(1);
+        assertEquals("sources", sources.classifier());
+        assertEquals("9e0f1a2b2a3f5c6d7e8f9a0b1c2d3e4f5a6b7c8d", sources.sha1());
+    }
+
+    @Test
+    void parsesAssetsOfTheLastPage() {
+        Nexus3Page<Nexus3Page.AssetItem> page = Nexus3PageParser.parseAssets(new StringReader(ASSETS_PAGE));
+        assertFalse(page.hasMore());
+        assertNull(page.continuationToken());
+        Nexus3Page.AssetItem asset = page.items().get(0);
+        assertEquals("pom", asset.extension());
+        assertEquals("0f1e2d3c4b5a69788796a5b4c3d2e1f00f1e2d3c", asset.sha1());
+        assertEquals("2024-03-01T10:15:29.000+00:00", asset.lastModified());
+        assertNull(asset.classifier());
+    }
+
+    @Test
+    void toleratesEmptyAndUnexpectedPages() {
+        assertEquals(List.of(), Nexus3PageParser.parseComponents(new StringReader("[]")).items());
+        Nexus3Page<Nexus3Page.ComponentItem> page = Nexus3PageParser.parseComponents(new StringReader(
+                "{\"continuationToken\":\"\",\"items\":[],\"extra\":{\"nested\":[1,{\"a\":true}]}}"));
+        assertTrue(page.items().isEmpty());
+        assertFalse(page.hasMore());
+    }
+}
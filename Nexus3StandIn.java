@@ -0,0 +1,339 @@
+package org.jd.gui.util.nexus.cli;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in of a Nexus Repository 3 server, for the load benchmark.
+ *
+ * We serve a synthetic maven2 catalog of artifacts * VERSIONS components,
+ * each with a jar, a pom and their .sha1 sidecars, through the endpoints our
+ * client uses:
+ *
+ *   - GET /service/rest/v1/status
+ *   - GET /service/rest/v1/search          (q, group, name, version)
+ *   - GET /service/rest/v1/search/assets   (sha1)
+ *
+ * The repository, maven.extension and maven.classifier filters are honoured,
+ * pages hold PAGE_SIZE items and are chained with continuation tokens as in
+ * Nexus. Every request waits for a random latency around the configured one
+ * on a fixed pool of threads, so a saturated server queues requests like a
+ * real one. Requests are counted per endpoint.
+ */
+final class Nexus3StandIn implements AutoCloseable {
+
+    static final int PAGE_SIZE = 50;
+    static final int VERSIONS = 5;
+    static final String REPOSITORY = "maven-releases";
+
+    static final String THREAD_PREFIX = "nexus-stand-in-";
+
+    private static final String[] GROUPS = {"org.example", "com.acme", "io.demo", "net.sample"};
+    private static final String LAST_MODIFIED = "2024-03-01T10:15:30.000+00:00";
+
+    record Asset(String path, String sha1, String groupId, String artifactId, String version,
+                 String classifier, String extension) {
+    }
+
+    record Component(String group, String name, String version, List<Asset> assets) {
+    }
+
+    private final List<Component> components = new ArrayList<>();
+    private final Map<String, List<Component>> componentsByGa = new HashMap<>();
+    private final Map<String, Asset> assetsBySha1 = new HashMap<>();
+    private final Map<String, LongAdder> requests = new HashMap<>();
+    private final long latencyMillis;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String baseUrl;
+
+    /**
+     * We build the catalog and start the server on a free local port.
+     */
+    Nexus3StandIn(int artifacts, long latencyMillis, int threads) throws IOException {
+        this.latencyMillis = latencyMillis;
+        MessageDigest sha1 = sha1Digest();
+        for (int i = 0; i < artifacts; i++) {
+            String group = GROUPS[i % GROUPS.length];
+            String name = artifactId(i);
+            List<Component> versions = new ArrayList<>(VERSIONS);
+            for (int v = 1; v <= VERSIONS; v++) {
+                String version = "1." + v;
+                String base = group.replace('.', '/') + "/" + name + "/" + version + "/" + name + "-" + version;
+                List<Asset> assets = new ArrayList<>(4);
+                for (String extension : List.of("jar", "pom")) {
+                    String path = base + "." + extension;
+                    Asset asset = new Asset(path, HexFormat.of().formatHex(sha1.digest(path.getBytes(StandardCharsets.UTF_8))),
+                            group, name, version, null, extension);
+                    assets.add(asset);
+                    assetsBySha1.put(asset.sha1(), asset);
+                    String sidecar = path + ".sha1";
+                    assets.add(new Asset(sidecar, HexFormat.of().formatHex(sha1.digest(sidecar.getBytes(StandardCharsets.UTF_8))),
+                            group, name, version, null, extension + ".sha1"));
+                }
+                Component component = new Component(group, name, version, assets);
+                components.add(component);
+                versions.add(component);
+            }
+            componentsByGa.put(group + ":" + name, versions);
+        }
+        for (String endpoint : List.of("status", "search", "search/assets", "other")) {
+            requests.put(endpoint, new LongAdder());
+        }
+
+        AtomicInteger threadNo = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, THREAD_PREFIX + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    static String artifactId(int i) {
+        return "demo-" + i;
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    List<Component> components() {
+        return components;
+    }
+
+    /**
+     * We return the requests served since the last reset, search and status included.
+     */
+    long requestCount() {
+        return requests.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    long requestCount(String endpoint) {
+        LongAdder count = requests.get(endpoint);
+        return count == null ? 0 : count.sum();
+    }
+
+    void resetCounts() {
+        requests.values().forEach(LongAdder::reset);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> params = params(exchange.getRequestURI().getRawQuery());
+            String body;
+            switch (path) {
+                case "/service/rest/v1/status" -> {
+                    requests.get("status").increment();
+                    exchange.sendResponseHeaders(200, -1);
+                    return;
+                }
+                case "/service/rest/v1/search" -> {
+                    requests.get("search").increment();
+                    body = searchComponents(params);
+                }
+                case "/service/rest/v1/search/assets" -> {
+                    requests.get("search/assets").increment();
+                    body = searchAssets(params);
+                }
+                default -> {
+                    requests.get("other").increment();
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+            }
+            if (body == null) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            pause();
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void pause() {
+        if (latencyMillis <= 0) {
+            return;
+        }
+        try {
+            // Uniform between half and one and a half times the configured latency
+            TimeUnit.MICROSECONDS.sleep(ThreadLocalRandom.current().nextLong(latencyMillis * 500, latencyMillis * 1500 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String searchComponents(Map<String, String> params) {
+        String q = params.get("q");
+        String group = params.get("group");
+        String name = params.get("name");
+        String version = params.get("version");
+        String repository = params.get("repository");
+        List<Component> candidates = group != null && name != null
+                ? componentsByGa.getOrDefault(group + ":" + name, List.of())
+                : components;
+        List<Component> matches = new ArrayList<>();
+        for (Component c : candidates) {
+            if ((q == null || c.group().contains(q) || c.name().contains(q))
+                    && (group == null || c.group().equals(group))
+                    && (name == null || c.name().equals(name))
+                    && (version == null || c.version().equals(version))
+                    && (repository == null || repository.equals(REPOSITORY))) {
+                matches.add(c);
+            }
+        }
+        int offset = offset(params.get("continuationToken"));
+        if (offset < 0) {
+            return null;
+        }
+        StringBuilder json = new StringBuilder(8192).append("{\"items\":[");
+        int end = Math.min(matches.size(), offset + PAGE_SIZE);
+        for (int i = offset; i < end; i++) {
+            Component c = matches.get(i);
+            if (i > offset) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(quote(c.group() + ":" + c.name() + ":" + c.version()))
+                    .append(",\"repository\":").append(quote(REPOSITORY))
+                    .append(",\"format\":\"maven2\",\"group\":").append(quote(c.group()))
+                    .append(",\"name\":").append(quote(c.name()))
+                    .append(",\"version\":").append(quote(c.version()))
+                    .append(",\"assets\":[");
+            boolean first = true;
+            for (Asset asset : c.assets()) {
+                if (matches(asset, params)) {
+                    if (!first) {
+                        json.append(',');
+                    }
+                    appendAsset(json, asset);
+                    first = false;
+                }
+            }
+            json.append("]}");
+        }
+        return appendToken(json.append(']'), end < matches.size() ? end : -1);
+    }
+
+    private String searchAssets(Map<String, String> params) {
+        String sha1 = params.get("sha1");
+        if (sha1 == null) {
+            return null;
+        }
+        StringBuilder json = new StringBuilder(1024).append("{\"items\":[");
+        // One asset per checksum: there is never a second page
+        Asset asset = offset(params.get("continuationToken")) == 0 ? assetsBySha1.get(sha1.toLowerCase(Locale.ROOT)) : null;
+        String repository = params.get("repository");
+        if (asset != null && matches(asset, params) && (repository == null || repository.equals(REPOSITORY))) {
+            appendAsset(json, asset);
+        }
+        return appendToken(json.append(']'), -1);
+    }
+
+    private static boolean matches(Asset asset, Map<String, String> params) {
+        String extension = params.get("maven.extension");
+        String classifier = params.get("maven.classifier");
+        return (extension == null || extension.equals(asset.extension()))
+                && (classifier == null || classifier.equals(asset.classifier()));
+    }
+
+    private void appendAsset(StringBuilder json, Asset asset) {
+        json.append("{\"downloadUrl\":").append(quote(baseUrl + "/repository/" + REPOSITORY + "/" + asset.path()))
+                .append(",\"path\":").append(quote(asset.path()))
+                .append(",\"id\":").append(quote(asset.sha1()))
+                .append(",\"repository\":").append(quote(REPOSITORY))
+                .append(",\"format\":\"maven2\",\"checksum\":{\"sha1\":").append(quote(asset.sha1()))
+                .append("},\"lastModified\":").append(quote(LAST_MODIFIED))
+                .append(",\"maven2\":{\"extension\":").append(quote(asset.extension()))
+                .append(",\"groupId\":").append(quote(asset.groupId()))
+                .append(",\"artifactId\":").append(quote(asset.artifactId()))
+                .append(",\"version\":").append(quote(asset.version()));
+        if (asset.classifier() != null) {
+            json.append(",\"classifier\":").append(quote(asset.classifier()));
+        }
+        json.append("}}");
+    }
+
+    private static String appendToken(StringBuilder json, int next) {
+        return json.append(",\"continuationToken\":")
+                .append(next < 0 ? "null" : quote(Integer.toHexString(next)))
+                .append('}')
+                .toString();
+    }
+
+    // Tokens are opaque to clients; ours are the hexadecimal offset of the next page
+    private static int offset(String token) {
+        if (token == null || token.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(token, 16);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Map<String, String> params(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static String quote(String s) {
+        return '"' + s.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    private static MessageDigest sha1Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+}
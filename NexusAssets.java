@@ -0,0 +1,31 @@
+package org.jd.gui.util.nexus;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Helpers to classify Maven assets by extension.
+ */
+public final class NexusAssets {
+
+    private static final List<String> SIDECAR_SUFFIXES = List.of(
+            "sha1", "sha256", "sha512", "md5", "asc", "sig");
+
+    private NexusAssets() {
+        // Utility class: no instances
+    }
+
+    /**
+     * We tell whether an extension denotes a checksum or signature sidecar
+     * (jar.sha1, pom.asc, asc.md5, ...) rather than content users search for.
+     */
+    public static boolean isChecksumOrSignature(String extension) {
+        if (extension == null || extension.isBlank()) {
+            return false;
+        }
+        String ext = extension.trim().toLowerCase(Locale.ROOT);
+        int dot = ext.lastIndexOf('.');
+        String last = dot >= 0 ? ext.substring(dot + 1) : ext;
+        return SIDECAR_SUFFIXES.contains(last);
+    }
+}
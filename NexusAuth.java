@@ -0,0 +1,147 @@
+package org.jd.gui.util.nexus;
+
+import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Authentication of the requests of one {@link NexusConfig}.
+ *
+ * We build the Authorization header once, when the client is created:
+ *
+ *   - user and password          Basic (also Nexus user tokens: name code and pass code)
+ *   - password without a user    Bearer token
+ *   - neither                    anonymous
+ *
+ * When the server answers with an NXSESSIONID cookie we send the cookie
+ * alone on the following requests, sparing the server a realm
+ * authentication per request. A 401 on a session request drops the session
+ * and the caller repeats the request with the Authorization header.
+ */
+final class NexusAuth {
+
+    static final String SESSION_COOKIE = "NXSESSIONID";
+
+    private final String authorization;
+    private final String credentialKey;
+    private volatile String session;
+
+    private NexusAuth(String authorization) {
+        this.authorization = authorization;
+        this.credentialKey = credentialKey(authorization);
+    }
+
+    static NexusAuth of(NexusConfig config) {
+        boolean hasUser = config.username != null && !config.username.isBlank();
+        boolean hasPassword = config.password != null && config.password.length > 0;
+        if (hasUser && config.password != null) {
+            return new NexusAuth(basic(config.username, config.password));
+        }
+        if (!hasUser && hasPassword) {
+            return new NexusAuth("Bearer " + new String(config.password).trim());
+        }
+        return new NexusAuth(null);
+    }
+
+    /**
+     * We return the Authorization header value, or null for anonymous access.
+     */
+    String authorization() {
+        return authorization;
+    }
+
+    /**
+     * We return a digest of the credentials, so keys built from it never
+     * mix users and never contain the credentials themselves.
+     */
+    String credentialKey() {
+        return credentialKey;
+    }
+
+    /**
+     * We authenticate the connection, with the session cookie when we have
+     * one. We return whether the session was used.
+     */
+    boolean apply(HttpURLConnection conn) {
+        String s = session;
+        if (s != null) {
+            conn.setRequestProperty("Cookie", SESSION_COOKIE + "=" + s);
+            return true;
+        }
+        if (authorization != null) {
+            conn.setRequestProperty("Authorization", authorization);
+        }
+        return false;
+    }
+
+    /**
+     * We pick up or drop the session from the Set-Cookie headers of a response.
+     */
+    void onResponse(Map<String, List<String>> headers) {
+        if (authorization == null) {
+            return;
+        }
+        for (Map.Entry<String, List<String>> e : headers.entrySet()) {
+            if (e.getKey() == null || !e.getKey().equalsIgnoreCase("Set-Cookie")) {
+                continue;
+            }
+            for (String cookie : e.getValue()) {
+                String[] parts = cookie.split(";");
+                int eq = parts[0].indexOf('=');
+                if (eq < 0 || !parts[0].substring(0, eq).trim().equals(SESSION_COOKIE)) {
+                    continue;
+                }
+                String value = parts[0].substring(eq + 1).trim();
+                boolean expired = value.isEmpty();
+                for (int i = 1; i < parts.length && !expired; i++) {
+                    String attribute = parts[i].trim().toLowerCase(Locale.ROOT);
+                    expired = attribute.equals("max-age=0");
+                }
+                session = expired ? null : value;
+            }
+        }
+    }
+
+    void dropSession() {
+        session = null;
+    }
+
+    boolean hasSession() {
+        return session != null;
+    }
+
+    private static String basic(String username, char[] password) {
+        byte[] userBytes = (username + ":").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(password));
+        byte[] passBytes = new byte[encoded.remaining()];
+        encoded.get(passBytes);
+        Arrays.fill(encoded.array(), (byte) 0);
+        byte[] credentials = Arrays.copyOf(userBytes, userBytes.length + passBytes.length);
+        System.arraycopy(passBytes, 0, credentials, userBytes.length, passBytes.length);
+        String header = "Basic " + Base64.getEncoder().encodeToString(credentials);
+        Arrays.fill(passBytes, (byte) 0);
+        Arrays.fill(credentials, (byte) 0);
+        return header;
+    }
+
+    private static String credentialKey(String authorization) {
+        if (authorization == null) {
+            return "anonymous";
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(authorization.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
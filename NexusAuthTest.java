@@ -0,0 +1,57 @@
+package org.jd.gui.util.nexus;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NexusAuth.
+ */
+class NexusAuthTest {
+
+    @Test
+    void userAndPasswordUseBasic() {
+        NexusAuth auth = NexusAuth.of(new NexusConfig("https://nexus", "bob", "pw".toCharArray()));
+        assertEquals("Basic Ym9iOnB3", auth.authorization());
+    }
+
+    @Test
+    void passwordWithoutUserIsABearerToken() {
+        NexusAuth auth = NexusAuth.of(new NexusConfig("https://nexus", null, "tok".toCharArray()));
+        assertEquals("Bearer tok", auth.authorization());
+    }
+
+    @Test
+    void noCredentialsIsAnonymous() {
+        NexusAuth auth = NexusAuth.of(new NexusConfig("https://nexus", null, null));
+        assertNull(auth.authorization());
+        assertEquals("anonymous", auth.credentialKey());
+    }
+
+    @Test
+    void credentialKeysDifferPerUserAndHideCredentials() {
+        NexusAuth bob = NexusAuth.of(new NexusConfig("https://nexus", "bob", "pw".toCharArray()));
+        NexusAuth alice = NexusAuth.of(new NexusConfig("https://nexus", "alice", "pw".toCharArray()));
+        assertNotEquals(bob.credentialKey(), alice.credentialKey());
+        assertFalse(bob.credentialKey().contains("Ym9i"));
+    }
+
+    @Test
+    void sessionCookieIsPickedUpAndExpired() {
+        NexusAuth auth = NexusAuth.of(new NexusConfig("https://nexus", "bob", "pw".toCharArray()));
+        auth.onResponse(Map.of("Set-Cookie", List.of("NXSESSIONID=abc; Path=/; HttpOnly")));
+        assertTrue(auth.hasSession());
+        auth.onResponse(Map.of("Set-Cookie", List.of("NXSESSIONID=deleted; Max-Age=0")));
+        assertFalse(auth.hasSession());
+    }
+
+    @Test
+    void anonymousClientsKeepNoSession() {
+        NexusAuth auth = NexusAuth.of(new NexusConfig("https://nexus", null, null));
+        auth.onResponse(Map.of("Set-Cookie", List.of("NXSESSIONID=abc")));
+        assertFalse(auth.hasSession());
+    }
+}
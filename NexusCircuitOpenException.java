@@ -0,0 +1,27 @@
+package org.jd.gui.util.nexus;
+
+import java.io.IOException;
+
+/**
+ * A request refused without contacting the server, because recent requests
+ * to the same Nexus failed (see {@link CircuitBreaker}).
+ */
+public class NexusCircuitOpenException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAtMillis;
+
+    public NexusCircuitOpenException(String baseUrl, long retryAtMillis) {
+        super("Nexus at " + baseUrl + " is failing; requests are paused for "
+                + Math.max(1, (retryAtMillis - System.currentTimeMillis() + 999) / 1000) + " s");
+        this.retryAtMillis = retryAtMillis;
+    }
+
+    /**
+     * We return the wall-clock time at which a trial request will be let through.
+     */
+    public long getRetryAtMillis() {
+        return retryAtMillis;
+    }
+}
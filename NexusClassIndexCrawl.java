@@ -0,0 +1,43 @@
+package org.jd.gui.util.nexus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background crawl of Nexus 3 repositories into the class index of the
+ * server, which answers class searches (see {@link NexusV3Client}).
+ *
+ * The crawl is enabled per server in the preferences by listing the
+ * repositories to crawl. It runs on the class index thread of the client,
+ * downloads only the jars not indexed yet, and is repeated at most once per
+ * interval.
+ *
+ * Preferences:
+ *   - NEXUS_CLASS_INDEX_REPOSITORIES   comma separated repository names (empty disables the crawl)
+ *   - NEXUS_CLASS_INDEX_INTERVAL       hours between two complete crawls (default 24)
+ */
+public final class NexusClassIndexCrawl {
+
+    public static final String NEXUS_CLASS_INDEX_REPOSITORIES = "JdGuiPreferences.nexusClassIndexRepositories";
+    public static final String NEXUS_CLASS_INDEX_INTERVAL = "JdGuiPreferences.nexusClassIndexIntervalHours";
+
+    private NexusClassIndexCrawl() {
+        // Utility class: no instances
+    }
+
+    /**
+     * We start the crawl of the configured repositories when the remote
+     * search is a Nexus 3 server; other servers are left alone.
+     */
+    public static void start(NexusSearch remote, Map<String, String> prefs) {
+        if (!(remote instanceof NexusV3Client client) || prefs == null) {
+            return;
+        }
+        List<String> names = OptionValues.names(prefs.get(NEXUS_CLASS_INDEX_REPOSITORIES));
+        if (!names.isEmpty()) {
+            long intervalHours = OptionValues.parseLong(prefs.get(NEXUS_CLASS_INDEX_INTERVAL), 24);
+            client.crawlClassIndex(names, Duration.ofHours(Math.max(1, intervalHours)));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.jd.gui.util.nexus;
+
+import com.sun.net.httpserver.HttpServer;
+import org.jd.gui.util.nexus.index.ClassIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the class index crawl of NexusV3Client, against a local
+ * server listing two pages of components.
+ */
+class NexusClassIndexCrawlTest {
+
+    @TempDir
+    Path home;
+
+    private final AtomicInteger downloads = new AtomicInteger();
+    private HttpServer server;
+    private String baseUrl;
+    private String previousHome;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        previousHome = System.getProperty("user.home");
+        System.setProperty("user.home", home.toString());
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/service/rest/v1/components", exchange -> {
+            String query = exchange.getRequestURI().getRawQuery();
+            byte[] body = (query.contains("continuationToken=next")
+                    ? page(component("beta", "org.example.beta.Beta"), null)
+                    : page(component("alpha", "org.example.alpha.Alpha"), "next")).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/service/rest/v1/search/assets/download", exchange -> {
+            downloads.incrementAndGet();
+            String query = URLDecoder.decode(exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8);
+            String name = query.replaceFirst(".*[?&]?name=([^&]*).*", "$1");
+            byte[] body = jar("org/example/" + name + "/" + Character.toUpperCase(name.charAt(0)) + name.substring(1)
+                    + ".class");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        System.setProperty("user.home", previousHome);
+    }
+
+    private static String page(String component, String token) {
+        return "{\"items\":[" + component + "],\"continuationToken\":" + (token == null ? "null" : "\"" + token + "\"") + "}";
+    }
+
+    private static String component(String name, String className) {
+        String asset = "{\"repository\":\"releases\",\"path\":\"org/example/" + name + "/1.0/" + name + "-1.0.%s\","
+                + "\"maven2\":{\"groupId\":\"org.example\",\"artifactId\":\"" + name + "\",\"version\":\"1.0\","
+                + "\"extension\":\"%s\"}}";
+        return "{\"repository\":\"releases\",\"group\":\"org.example\",\"name\":\"" + name + "\",\"version\":\"1.0\","
+                + "\"assets\":[" + asset.formatted("jar", "jar") + "," + asset.formatted("pom", "pom") + "]}";
+    }
+
+    private static byte[] jar(String entry) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry(entry));
+            zip.write(new byte[] {(byte) 0xCA, (byte) 0xFE});
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    void crawlPublishesTheClassIndexOfTheServer() throws Exception {
+        NexusV3Client client = new NexusV3Client(new NexusConfig(baseUrl, null, null));
+        client.crawlClassIndex(List.of("releases"), Duration.ofHours(1)).get(30, TimeUnit.SECONDS);
+
+        Path published = ClassIndex.latestGeneration(NexusV3Client.defaultClassIndexPath(baseUrl));
+        assertNotNull(published);
+        ClassIndex index = ClassIndex.open(published);
+        assertEquals(2, index.gavCount());
+        assertEquals("alpha", index.find("Alpha", false, 0, 10).get(0).gav().artifactId());
+        assertEquals("beta", index.find("org.example.beta.Beta", true, 0, 10).get(0).gav().artifactId());
+        assertEquals(2, downloads.get());
+
+        // Within the interval the crawl is not repeated, and a new client sees the published index
+        new NexusV3Client(new NexusConfig(baseUrl, null, null))
+                .crawlClassIndex(List.of("releases"), Duration.ofHours(1)).get(30, TimeUnit.SECONDS);
+        assertEquals(published, ClassIndex.latestGeneration(NexusV3Client.defaultClassIndexPath(baseUrl)));
+        assertEquals(2, downloads.get());
+    }
+
+    @Test
+    void startCrawlsOnlyConfiguredNexus3Servers() {
+        NexusClassIndexCrawl.start(null, Map.of(NexusClassIndexCrawl.NEXUS_CLASS_INDEX_REPOSITORIES, "releases"));
+        NexusClassIndexCrawl.start(new NexusV3Client(new NexusConfig(baseUrl, null, null)), Map.of());
+        assertNull(ClassIndex.latestGeneration(NexusV3Client.defaultClassIndexPath(baseUrl)));
+    }
+}
@@ -19,9 +19,18 @@ import java.util.Map;
  * is required. We never persist clear text credentials here.
  *
  * A null return value means no usable Nexus configuration was found.
+ *
+ * We always ask SecureSession for the master password, so a locked session
+ * prompts again. Decrypted credentials are then kept sealed in memory for a
+ * short time (see NexusCredentialCache), so opening more panels does not run
+ * the key derivation again. The cache is keyed by the encrypted preference
+ * values and the master password: saved preferences or another master
+ * password miss it, and it needs no invalidation.
  */
 public final class NexusConfigHelper {
 
+    private static final NexusCredentialCache CREDENTIALS = new NexusCredentialCache(NexusCredentialCache.DEFAULT_TTL_MILLIS);
+
     private NexusConfigHelper() {
         // Utility class: no instances
     }
@@ -37,8 +46,8 @@ public final class NexusConfigHelper {
         String username = null;
         char[] password = null;
 
-        // We only bother with the master password if there is something to decrypt
         if (userEnc != null || passEnc != null) {
+            // We only bother with the master password if there is something to decrypt
             final char[] master = SecureSession.get().requireForLoad(component);
 
             if (master == null || master.length == 0) {
@@ -50,20 +59,28 @@ public final class NexusConfigHelper {
 
             if (master != null && master.length > 0) {
                 try {
-                    if (userEnc != null) {
-                        username = SecurePreferences.decrypt(master, userEnc);
-                        if (username != null && username.isEmpty()) {
-                            username = null;
+                    final String fingerprint = CREDENTIALS.fingerprint(url, userEnc, passEnc, master);
+                    final NexusCredentialCache.Credentials cached = CREDENTIALS.get(fingerprint);
+                    if (cached != null) {
+                        username = cached.username();
+                        password = cached.password();
+                    } else {
+                        if (userEnc != null) {
+                            username = SecurePreferences.decrypt(master, userEnc);
+                            if (username != null && username.isEmpty()) {
+                                username = null;
+                            }
                         }
-                    }
-                    if (passEnc != null) {
-                        final String passPlain = SecurePreferences.decrypt(master, passEnc);
-                        if (passPlain != null && !passPlain.isEmpty()) {
-                            char[] tmp = passPlain.toCharArray();
-                            // We copy into our own char array in case callers want to wipe it later
-                            password = Arrays.copyOf(tmp, tmp.length);
-                            Arrays.fill(tmp, '\0');
+                        if (passEnc != null) {
+                            final String passPlain = SecurePreferences.decrypt(master, passEnc);
+                            if (passPlain != null && !passPlain.isEmpty()) {
+                                char[] tmp = passPlain.toCharArray();
+                                // We copy into our own char array in case callers want to wipe it later
+                                password = Arrays.copyOf(tmp, tmp.length);
+                                Arrays.fill(tmp, '\0');
+                            }
                         }
+                        CREDENTIALS.put(fingerprint, username, password);
                     }
                 } catch (GeneralSecurityException ignored) {
                     // Any decryption error is treated as "no credentials"
@@ -0,0 +1,213 @@
+package org.jd.gui.util;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time-bounded in-memory cache of decrypted Nexus credentials.
+ *
+ * We keep credentials sealed with AES-GCM under a random key created for
+ * this JVM, never in clear text. Entries are keyed by a fingerprint of the
+ * encrypted preference values and of the master password they were
+ * decrypted with, an HMAC under a second random key: any change of URL,
+ * user or password in the preferences, or another master password, misses
+ * the cache, so entries never need to be invalidated. Each entry is wiped
+ * (its bytes overwritten and dropped) when it expires, even if nobody asks
+ * for it again.
+ */
+final class NexusCredentialCache {
+
+    static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+
+    private static final ScheduledExecutorService WIPER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "nexus-credential-wiper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    record Credentials(String username, char[] password) {
+    }
+
+    private final long ttlMillis;
+    private final SecureRandom random = new SecureRandom();
+    private final SecretKey sessionKey;
+    private final SecretKey fingerprintKey;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    NexusCredentialCache(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        try {
+            KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(256, random);
+            this.sessionKey = generator.generateKey();
+            byte[] macKey = new byte[32];
+            random.nextBytes(macKey);
+            this.fingerprintKey = new SecretKeySpec(macKey, "HmacSHA256");
+            Arrays.fill(macKey, (byte) 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * We fingerprint the preference values the credentials were decrypted
+     * from and the master password they were decrypted with. The fingerprint
+     * is keyed, so it cannot be used to check guesses of the master password.
+     */
+    String fingerprint(String url, String userEnc, String passEnc, char[] master) {
+        byte[] secret = new byte[0];
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(fingerprintKey);
+            for (String s : new String[] {url, userEnc, passEnc}) {
+                mac.update(String.valueOf(s).getBytes(StandardCharsets.UTF_8));
+                mac.update((byte) 0);
+            }
+            ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(master == null ? new char[0] : master));
+            secret = new byte[encoded.remaining()];
+            encoded.get(secret);
+            Arrays.fill(encoded.array(), (byte) 0);
+            return HexFormat.of().formatHex(mac.doFinal(secret));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            Arrays.fill(secret, (byte) 0);
+        }
+    }
+
+    /**
+     * We return a fresh copy of the cached credentials, or null. The caller
+     * owns the returned password array.
+     */
+    Credentials get(String fingerprint) {
+        Entry entry = entries.get(fingerprint);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() >= entry.expiresAt) {
+            remove(fingerprint, entry);
+            return null;
+        }
+        byte[] plain = null;
+        try {
+            plain = unseal(entry);
+            ByteBuffer buffer = ByteBuffer.wrap(plain);
+            int userLength = buffer.getInt();
+            String username = null;
+            if (userLength >= 0) {
+                username = new String(plain, 4, userLength, StandardCharsets.UTF_8);
+                buffer.position(4 + userLength);
+            }
+            char[] password = null;
+            if (buffer.get() == 1) {
+                CharBuffer chars = StandardCharsets.UTF_8.decode(buffer);
+                password = new char[chars.remaining()];
+                chars.get(password);
+                Arrays.fill(chars.array(), '\0');
+            }
+            return new Credentials(username, password);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            remove(fingerprint, entry);
+            return null;
+        } finally {
+            if (plain != null) {
+                Arrays.fill(plain, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * We seal the credentials under the fingerprint. The password array is
+     * not kept; the caller may wipe it afterwards.
+     */
+    void put(String fingerprint, String username, char[] password) {
+        byte[] user = username == null ? new byte[0] : username.getBytes(StandardCharsets.UTF_8);
+        byte[] pass = new byte[0];
+        if (password != null) {
+            ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(password));
+            pass = new byte[encoded.remaining()];
+            encoded.get(pass);
+            Arrays.fill(encoded.array(), (byte) 0);
+        }
+        byte[] plain = ByteBuffer.allocate(4 + user.length + 1 + pass.length)
+                .putInt(username == null ? -1 : user.length)
+                .put(user)
+                .put((byte) (password == null ? 0 : 1))
+                .put(pass)
+                .array();
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, sessionKey, new GCMParameterSpec(TAG_BITS, iv));
+            Entry entry = new Entry(iv, cipher.doFinal(plain), System.currentTimeMillis() + ttlMillis);
+            Entry previous = entries.put(fingerprint, entry);
+            if (previous != null) {
+                previous.wipe();
+            }
+            entry.wipe = WIPER.schedule(() -> remove(fingerprint, entry), ttlMillis, TimeUnit.MILLISECONDS);
+        } catch (GeneralSecurityException ignored) {
+            // Not cached: the next panel decrypts from the preferences again
+        } finally {
+            Arrays.fill(plain, (byte) 0);
+            Arrays.fill(pass, (byte) 0);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private byte[] unseal(Entry entry) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, sessionKey, new GCMParameterSpec(TAG_BITS, entry.iv));
+        return cipher.doFinal(entry.sealed);
+    }
+
+    private void remove(String fingerprint, Entry entry) {
+        if (entries.remove(fingerprint, entry)) {
+            entry.wipe();
+        }
+    }
+
+    private static final class Entry {
+        final byte[] iv;
+        final byte[] sealed;
+        final long expiresAt;
+        volatile ScheduledFuture<?> wipe;
+
+        Entry(byte[] iv, byte[] sealed, long expiresAt) {
+            this.iv = iv;
+            this.sealed = sealed;
+            this.expiresAt = expiresAt;
+        }
+
+        void wipe() {
+            Arrays.fill(sealed, (byte) 0);
+            Arrays.fill(iv, (byte) 0);
+            if (wipe != null) {
+                wipe.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.jd.gui.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NexusCredentialCache.
+ */
+class NexusCredentialCacheTest {
+
+    private static final char[] MASTER = "master".toCharArray();
+
+    @Test
+    void returnsACopyOfTheSealedCredentials() {
+        NexusCredentialCache cache = new NexusCredentialCache(60_000);
+        String fingerprint = cache.fingerprint("https://nexus", "u-enc", "p-enc", MASTER);
+        char[] password = "sécret".toCharArray();
+        cache.put(fingerprint, "bob", password);
+
+        NexusCredentialCache.Credentials first = cache.get(fingerprint);
+        assertEquals("bob", first.username());
+        assertArrayEquals(password, first.password());
+
+        // Callers wipe what they get; the cache is not affected
+        java.util.Arrays.fill(first.password(), '\0');
+        assertArrayEquals(password, cache.get(fingerprint).password());
+    }
+
+    @Test
+    void changedPreferencesMiss() {
+        NexusCredentialCache cache = new NexusCredentialCache(60_000);
+        cache.put(cache.fingerprint("https://nexus", "u-enc", "p-enc", MASTER), "bob", "x".toCharArray());
+        assertNull(cache.get(cache.fingerprint("https://nexus", "u-enc", "p-enc-2", MASTER)));
+        assertNull(cache.get(cache.fingerprint("https://other", "u-enc", "p-enc", MASTER)));
+    }
+
+    @Test
+    void missingValuesStayMissing() {
+        NexusCredentialCache cache = new NexusCredentialCache(60_000);
+        String fingerprint = cache.fingerprint("https://nexus", null, "p-enc", MASTER);
+        cache.put(fingerprint, null, "x".toCharArray());
+        assertNull(cache.get(fingerprint).username());
+        cache.put(fingerprint, "bob", null);
+        assertNull(cache.get(fingerprint).password());
+    }
+
+    @Test
+    void anotherMasterPasswordMisses() {
+        NexusCredentialCache cache = new NexusCredentialCache(60_000);
+        cache.put(cache.fingerprint("https://nexus", "u-enc", "p-enc", MASTER), "bob", "x".toCharArray());
+        assertNotNull(cache.get(cache.fingerprint("https://nexus", "u-enc", "p-enc", "master".toCharArray())));
+        assertNull(cache.get(cache.fingerprint("https://nexus", "u-enc", "p-enc", "other".toCharArray())));
+
+        // Fingerprints are keyed per cache, so they reveal nothing about the master password
+        NexusCredentialCache other = new NexusCredentialCache(60_000);
+        assertNotEquals(cache.fingerprint("https://nexus", "u-enc", "p-enc", MASTER),
+                other.fingerprint("https://nexus", "u-enc", "p-enc", MASTER));
+    }
+
+    @Test
+    void entriesAreWipedOnExpiry() throws Exception {
+        NexusCredentialCache cache = new NexusCredentialCache(100);
+        String fingerprint = cache.fingerprint("https://nexus", "u-enc", "p-enc", MASTER);
+        cache.put(fingerprint, "bob", "x".toCharArray());
+        Thread.sleep(300);
+        assertEquals(0, cache.size());
+        assertNull(cache.get(fingerprint));
+    }
+}
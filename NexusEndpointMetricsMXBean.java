@@ -0,0 +1,59 @@
+package org.jd.gui.util.nexus;
+
+/**
+ * JMX view of the request metrics of one Nexus endpoint, registered as
+ * org.jd.gui.nexus:type=Endpoint,name="&lt;endpoint&gt;".
+ *
+ * Durations are milliseconds. Phases are connect (DNS, TCP and TLS), first
+ * byte (server time), transfer (body download), parse (JSON) and build
+ * (artifact creation); total covers the whole request. Queue is the wait
+ * for the client-side throttle before the request starts.
+ */
+public interface NexusEndpointMetricsMXBean {
+
+    String getEndpoint();
+
+    long getRequestCount();
+
+    long getErrorCount();
+
+    /**
+     * Requests answered by joining an identical request already in flight.
+     */
+    long getSharedCount();
+
+    long getBytesReceived();
+
+    double getMeanAssetsPerPage();
+
+    double getTotalMillisP50();
+
+    double getTotalMillisP95();
+
+    double getTotalMillisP99();
+
+    double getTotalMillisMax();
+
+    double getConnectMillisP95();
+
+    double getFirstByteMillisP95();
+
+    double getTransferMillisP95();
+
+    double getParseMillisP95();
+
+    double getBuildMillisP95();
+
+    /**
+     * Time spent waiting for the client-side throttle (see NexusThrottle).
+     */
+    double getQueueWaitMillisP95();
+
+    /**
+     * We return a percentile of one phase: "total", "connect", "firstByte",
+     * "transfer", "parse", "build" or "queue".
+     */
+    double percentileMillis(String phase, double quantile);
+
+    void reset();
+}
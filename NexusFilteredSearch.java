@@ -0,0 +1,18 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.model.NexusSearchResult;
+
+/**
+ * Optional capability of a {@link NexusSearch}: searches that take a
+ * {@link NexusSearchFilter} and push it down to the server, so only the rows
+ * that will be shown are transferred and parsed.
+ */
+public interface NexusFilteredSearch {
+
+    NexusSearchResult searchByKeyword(String keyword, NexusSearchFilter filter, int pageNo) throws Exception;
+
+    NexusSearchResult searchBySha1(String sha1, NexusSearchFilter filter, int pageNo) throws Exception;
+
+    NexusSearchResult searchByGav(String groupId, String artifactId, String version,
+                                  NexusSearchFilter filter, int pageNo) throws Exception;
+}
@@ -0,0 +1,44 @@
+package org.jd.gui.util.nexus;
+
+import java.io.IOException;
+
+/**
+ * A Nexus request answered with an error status, after any retries.
+ *
+ * We raise it instead of returning an empty page so callers can tell a
+ * failing server from a search without results.
+ */
+public class NexusHttpException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+    private final String url;
+    private final long retryAfterMillis;
+
+    public NexusHttpException(int status, String url, long retryAfterMillis) {
+        super("HTTP " + status + " for " + url);
+        this.status = status;
+        this.url = url;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * We return the delay the server asked for with Retry-After, or -1.
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+
+    public boolean isThrottled() {
+        return status == 429 || status == 503;
+    }
+}
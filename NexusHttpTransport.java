@@ -0,0 +1,413 @@
+package org.jd.gui.util.nexus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Instrumented HTTP GET used by the Nexus 3 client.
+ *
+ * We split every request into connect (DNS, TCP and TLS, near zero when a
+ * kept-alive connection is reused), time to first byte and body transfer,
+ * and record them with the bytes received on the wire into
+ * {@link NexusMetrics}. JSON bodies are requested gzip compressed.
+ *
+ * Requests are authenticated by {@link NexusAuth}; when a request sent with
+ * a session cookie is rejected with 401 we drop the session and send it
+ * once more with the Authorization header.
+ */
+final class NexusHttpTransport {
+
+    private final NexusMetrics metrics;
+
+    NexusHttpTransport(NexusMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    NexusMetrics metrics() {
+        return metrics;
+    }
+
+    record Response(int status, String body, Map<String, List<String>> headers, boolean sessionUsed) {
+
+        boolean isSuccess() {
+            return status / 100 == 2;
+        }
+
+        String header(String name) {
+            for (Map.Entry<String, List<String>> e : headers.entrySet()) {
+                if (e.getKey() != null && e.getKey().equalsIgnoreCase(name) && !e.getValue().isEmpty()) {
+                    return e.getValue().get(0);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * We GET a text body. Error statuses are returned, not thrown; the body
+     * of an error response is read so the connection can be reused.
+     */
+    Response get(String url, NexusAuth auth, int connectTimeout, int readTimeout) throws IOException {
+        Response response = getOnce(url, auth, connectTimeout, readTimeout);
+        if (response.status() == HttpURLConnection.HTTP_UNAUTHORIZED && response.sessionUsed()) {
+            auth.dropSession();
+            response = getOnce(url, auth, connectTimeout, readTimeout);
+        }
+        return response;
+    }
+
+    private Response getOnce(String url, NexusAuth auth, int connectTimeout, int readTimeout) throws IOException {
+        NexusMetrics.Endpoint endpoint = metrics.endpoint(NexusMetrics.endpointName(url));
+        long start = System.nanoTime();
+        long connected = -1;
+        long firstByte = -1;
+        CountingInputStream counter = null;
+        boolean failed = true;
+        try {
+            HttpURLConnection conn = open(url, connectTimeout, readTimeout);
+            boolean sessionUsed = auth != null && auth.apply(conn);
+            conn.setRequestProperty("Accept", "application/json");
+            conn.setRequestProperty("Accept-Encoding", "gzip");
+            conn.connect();
+            connected = System.nanoTime();
+            int status = conn.getResponseCode();
+            firstByte = System.nanoTime();
+
+            InputStream raw = status >= 400 ? conn.getErrorStream() : conn.getInputStream();
+            String body = null;
+            if (raw != null) {
+                counter = new CountingInputStream(raw);
+                InputStream in = "gzip".equalsIgnoreCase(conn.getContentEncoding()) ? new GZIPInputStream(counter) : counter;
+                try (in) {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    in.transferTo(out);
+                    body = out.toString(StandardCharsets.UTF_8);
+                }
+            }
+            failed = status / 100 != 2;
+            if (auth != null) {
+                auth.onResponse(conn.getHeaderFields());
+            }
+            return new Response(status, body, conn.getHeaderFields(), sessionUsed);
+        } finally {
+            long end = System.nanoTime();
+            endpoint.recordRequest(
+                    connected < 0 ? -1 : connected - start,
+                    firstByte < 0 ? -1 : firstByte - connected,
+                    firstByte < 0 ? -1 : end - firstByte,
+                    end - start,
+                    counter == null ? 0 : counter.count,
+                    failed);
+        }
+    }
+
+    /**
+     * Body of a range request. start is the offset of the first byte of the
+     * body in the resource, and total the length of the resource.
+     */
+    record RangeResponse(byte[] body, long start, long total) {
+    }
+
+    /**
+     * We GET a byte range, e.g. "bytes=-1024" or "bytes=0-99", of a binary
+     * resource, recorded under the given endpoint name. A server ignoring
+     * the range answers with the whole resource, which we only accept when
+     * it is at most maxFullLength bytes.
+     */
+    RangeResponse getRange(String url, NexusAuth auth, String range, String endpointName, long maxFullLength,
+                           int connectTimeout, int readTimeout) throws IOException {
+        try {
+            return getRangeOnce(url, auth, range, endpointName, maxFullLength, connectTimeout, readTimeout);
+        } catch (NexusHttpException e) {
+            if (e.getStatus() != HttpURLConnection.HTTP_UNAUTHORIZED || auth == null || !auth.hasSession()) {
+                throw e;
+            }
+            auth.dropSession();
+            return getRangeOnce(url, auth, range, endpointName, maxFullLength, connectTimeout, readTimeout);
+        }
+    }
+
+    private RangeResponse getRangeOnce(String url, NexusAuth auth, String range, String endpointName, long maxFullLength,
+                                       int connectTimeout, int readTimeout) throws IOException {
+        NexusMetrics.Endpoint endpoint = metrics.endpoint(endpointName);
+        long start = System.nanoTime();
+        long connected = -1;
+        long firstByte = -1;
+        long bytes = 0;
+        boolean failed = true;
+        try {
+            HttpURLConnection conn = open(url, connectTimeout, readTimeout);
+            if (auth != null) {
+                auth.apply(conn);
+            }
+            conn.setRequestProperty("Range", range);
+            conn.setRequestProperty("Accept-Encoding", "identity");
+            conn.connect();
+            connected = System.nanoTime();
+            int status = conn.getResponseCode();
+            firstByte = System.nanoTime();
+            if (auth != null) {
+                auth.onResponse(conn.getHeaderFields());
+            }
+            long offset;
+            long total;
+            if (status == 206) {
+                long[] contentRange = parseContentRange(conn.getHeaderField("Content-Range"));
+                if (contentRange == null) {
+                    conn.disconnect();
+                    throw new IOException("Invalid Content-Range from " + url);
+                }
+                offset = contentRange[0];
+                total = contentRange[1];
+            } else if (status == HttpURLConnection.HTTP_OK) {
+                total = conn.getContentLengthLong();
+                if (total < 0 || total > maxFullLength) {
+                    conn.disconnect();
+                    throw new IOException("The server does not support range requests: " + url);
+                }
+                offset = 0;
+            } else {
+                long retryAfter = RetryPolicy.parseRetryAfter(conn.getHeaderField("Retry-After"), System.currentTimeMillis());
+                conn.disconnect();
+                throw new NexusHttpException(status, url, retryAfter);
+            }
+            byte[] body;
+            try (InputStream in = conn.getInputStream()) {
+                body = in.readAllBytes();
+            }
+            bytes = body.length;
+            failed = false;
+            return new RangeResponse(body, offset, total);
+        } finally {
+            long end = System.nanoTime();
+            endpoint.recordRequest(
+                    connected < 0 ? -1 : connected - start,
+                    firstByte < 0 ? -1 : firstByte - connected,
+                    firstByte < 0 ? -1 : end - firstByte,
+                    end - start,
+                    bytes,
+                    failed);
+        }
+    }
+
+    /**
+     * We parse "bytes first-last/total" into {first, total}; total is -1
+     * when unknown ("*").
+     */
+    static long[] parseContentRange(String header) {
+        if (header == null || !header.startsWith("bytes ")) {
+            return null;
+        }
+        try {
+            String spec = header.substring(6).trim();
+            int dash = spec.indexOf('-');
+            int slash = spec.indexOf('/');
+            if (dash < 0 || slash < dash) {
+                return null;
+            }
+            long first = Long.parseLong(spec.substring(0, dash).trim());
+            String total = spec.substring(slash + 1).trim();
+            return new long[] {first, "*".equals(total) ? -1 : Long.parseLong(total)};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Answer to a conditional GET: body is null when the server answered 304
+     * Not Modified. etag and lastModified are the validators to send next time.
+     */
+    record ConditionalResponse(int status, byte[] body, String etag, String lastModified) {
+
+        boolean isNotModified() {
+            return status == HttpURLConnection.HTTP_NOT_MODIFIED;
+        }
+    }
+
+    /**
+     * We GET a small binary resource with If-None-Match and If-Modified-Since
+     * (either may be null). 200 and 304 are returned, other statuses thrown.
+     */
+    ConditionalResponse getConditional(String url, NexusAuth auth, String etag, String lastModified,
+                                       int connectTimeout, int readTimeout) throws IOException {
+        try {
+            return getConditionalOnce(url, auth, etag, lastModified, connectTimeout, readTimeout);
+        } catch (NexusHttpException e) {
+            if (e.getStatus() != HttpURLConnection.HTTP_UNAUTHORIZED || auth == null || !auth.hasSession()) {
+                throw e;
+            }
+            auth.dropSession();
+            return getConditionalOnce(url, auth, etag, lastModified, connectTimeout, readTimeout);
+        }
+    }
+
+    private ConditionalResponse getConditionalOnce(String url, NexusAuth auth, String etag, String lastModified,
+                                                   int connectTimeout, int readTimeout) throws IOException {
+        NexusMetrics.Endpoint endpoint = metrics.endpoint(NexusMetrics.endpointName(url));
+        long start = System.nanoTime();
+        long connected = -1;
+        long firstByte = -1;
+        long bytes = 0;
+        boolean failed = true;
+        try {
+            HttpURLConnection conn = open(url, connectTimeout, readTimeout);
+            if (auth != null) {
+                auth.apply(conn);
+            }
+            if (etag != null) {
+                conn.setRequestProperty("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                conn.setRequestProperty("If-Modified-Since", lastModified);
+            }
+            conn.setRequestProperty("Accept-Encoding", "gzip");
+            conn.connect();
+            connected = System.nanoTime();
+            int status = conn.getResponseCode();
+            firstByte = System.nanoTime();
+            if (auth != null) {
+                auth.onResponse(conn.getHeaderFields());
+            }
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                conn.disconnect();
+                failed = false;
+                return new ConditionalResponse(status, null, etag, lastModified);
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                long retryAfter = RetryPolicy.parseRetryAfter(conn.getHeaderField("Retry-After"), System.currentTimeMillis());
+                conn.disconnect();
+                throw new NexusHttpException(status, url, retryAfter);
+            }
+            CountingInputStream counter = new CountingInputStream(conn.getInputStream());
+            byte[] body;
+            try (InputStream in = "gzip".equalsIgnoreCase(conn.getContentEncoding()) ? new GZIPInputStream(counter) : counter) {
+                body = in.readAllBytes();
+            }
+            bytes = counter.count;
+            failed = false;
+            return new ConditionalResponse(status, body, conn.getHeaderField("ETag"), conn.getHeaderField("Last-Modified"));
+        } finally {
+            long end = System.nanoTime();
+            endpoint.recordRequest(
+                    connected < 0 ? -1 : connected - start,
+                    firstByte < 0 ? -1 : firstByte - connected,
+                    firstByte < 0 ? -1 : end - firstByte,
+                    end - start,
+                    bytes,
+                    failed);
+        }
+    }
+
+    /**
+     * We open a binary download. Its transfer time and size are recorded when
+     * the caller closes the stream.
+     */
+    InputStream openStream(String url, NexusAuth auth, int connectTimeout, int readTimeout) throws IOException {
+        try {
+            return openStreamOnce(url, auth, connectTimeout, readTimeout);
+        } catch (NexusHttpException e) {
+            if (e.getStatus() != HttpURLConnection.HTTP_UNAUTHORIZED || auth == null || !auth.hasSession()) {
+                throw e;
+            }
+            auth.dropSession();
+            return openStreamOnce(url, auth, connectTimeout, readTimeout);
+        }
+    }
+
+    private InputStream openStreamOnce(String url, NexusAuth auth, int connectTimeout, int readTimeout) throws IOException {
+        NexusMetrics.Endpoint endpoint = metrics.endpoint(NexusMetrics.endpointName(url));
+        long start = System.nanoTime();
+        long connected = -1;
+        try {
+            HttpURLConnection conn = open(url, connectTimeout, readTimeout);
+            if (auth != null) {
+                auth.apply(conn);
+            }
+            conn.connect();
+            connected = System.nanoTime();
+            int status = conn.getResponseCode();
+            long firstByte = System.nanoTime();
+            if (auth != null) {
+                auth.onResponse(conn.getHeaderFields());
+            }
+            if (status / 100 != 2) {
+                long retryAfter = RetryPolicy.parseRetryAfter(conn.getHeaderField("Retry-After"), System.currentTimeMillis());
+                conn.disconnect();
+                endpoint.recordRequest(connected - start, firstByte - connected, -1, firstByte - start, 0, true);
+                throw new NexusHttpException(status, url, retryAfter);
+            }
+            long connectNanos = connected - start;
+            return new CountingInputStream(conn.getInputStream()) {
+                private boolean recorded;
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        if (!recorded) {
+                            recorded = true;
+                            long end = System.nanoTime();
+                            endpoint.recordRequest(connectNanos, firstByte - start - connectNanos,
+                                    end - firstByte, end - start, count, false);
+                        }
+                    }
+                }
+            };
+        } catch (IOException e) {
+            if (connected < 0) {
+                endpoint.recordRequest(-1, -1, -1, System.nanoTime() - start, 0, true);
+            }
+            throw e;
+        }
+    }
+
+    private static HttpURLConnection open(String url, int connectTimeout, int readTimeout) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) URI.create(url).toURL().openConnection();
+        conn.setConnectTimeout(connectTimeout);
+        conn.setReadTimeout(readTimeout);
+        conn.setInstanceFollowRedirects(true);
+        return conn;
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
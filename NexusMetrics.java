@@ -0,0 +1,298 @@
+package org.jd.gui.util.nexus;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Request metrics of the Nexus clients, one entry per endpoint.
+ *
+ * Endpoints are named after the REST path without the /service/rest prefix
+ * and the query, e.g. "v1/search" or "v1/search/assets/download", so every
+ * page of every search of one kind lands in the same histograms. Each
+ * endpoint is registered as an MXBean (see {@link NexusEndpointMetricsMXBean})
+ * the first time it is used.
+ */
+public final class NexusMetrics {
+
+    private static final NexusMetrics GLOBAL = new NexusMetrics(true);
+
+    private final boolean registerMBeans;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    NexusMetrics(boolean registerMBeans) {
+        this.registerMBeans = registerMBeans;
+    }
+
+    public static NexusMetrics global() {
+        return GLOBAL;
+    }
+
+    Endpoint endpoint(String name) {
+        return endpoints.computeIfAbsent(name, n -> {
+            Endpoint endpoint = new Endpoint(n);
+            if (registerMBeans) {
+                register(endpoint);
+            }
+            return endpoint;
+        });
+    }
+
+    /**
+     * We name the endpoint of a URL or of a path with an optional query.
+     */
+    static String endpointName(String urlOrPath) {
+        String path = urlOrPath;
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        if (path.contains("://")) {
+            String p = URI.create(path).getPath();
+            path = p == null ? "" : p;
+        }
+        int rest = path.indexOf("/service/rest/");
+        if (rest >= 0) {
+            path = path.substring(rest + "/service/rest/".length());
+        }
+        while (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        return path.isEmpty() ? "/" : path;
+    }
+
+    public List<NexusEndpointMetricsMXBean> endpoints() {
+        List<NexusEndpointMetricsMXBean> list = new ArrayList<>(endpoints.values());
+        list.sort(Comparator.comparing(NexusEndpointMetricsMXBean::getEndpoint));
+        return list;
+    }
+
+    public void reset() {
+        endpoints.values().forEach(Endpoint::reset);
+    }
+
+    /**
+     * We format a fixed-width table of the endpoints, for status views and logs.
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-28s %6s %5s %6s %9s %7s %23s %8s %8s %8s %8s %8s %8s%n",
+                "endpoint", "req", "err", "shared", "KiB", "assets",
+                "total p50/p95/p99 ms", "queue95", "conn95", "ttfb95", "xfer95", "parse95", "build95"));
+        for (NexusEndpointMetricsMXBean e : endpoints()) {
+            sb.append(String.format(Locale.ROOT, "%-28s %6d %5d %6d %9.1f %7.1f %7.1f/%7.1f/%7.1f %8.1f %8.1f %8.1f %8.1f %8.1f %8.1f%n",
+                    e.getEndpoint(), e.getRequestCount(), e.getErrorCount(), e.getSharedCount(), e.getBytesReceived() / 1024.0,
+                    e.getMeanAssetsPerPage(),
+                    e.getTotalMillisP50(), e.getTotalMillisP95(), e.getTotalMillisP99(), e.getQueueWaitMillisP95(),
+                    e.getConnectMillisP95(), e.getFirstByteMillisP95(), e.getTransferMillisP95(),
+                    e.getParseMillisP95(), e.getBuildMillisP95()));
+        }
+        return sb.toString();
+    }
+
+    private static void register(Endpoint endpoint) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("org.jd.gui.nexus:type=Endpoint,name=" + ObjectName.quote(endpoint.name));
+            if (!server.isRegistered(name)) {
+                server.registerMBean(endpoint, name);
+            }
+        } catch (JMException | SecurityException ignored) {
+            // Metrics stay available through report()
+        }
+    }
+
+    static final class Endpoint implements NexusEndpointMetricsMXBean {
+
+        private final String name;
+        final LatencyHistogram total = new LatencyHistogram();
+        final LatencyHistogram connect = new LatencyHistogram();
+        final LatencyHistogram firstByte = new LatencyHistogram();
+        final LatencyHistogram transfer = new LatencyHistogram();
+        final LatencyHistogram parse = new LatencyHistogram();
+        final LatencyHistogram build = new LatencyHistogram();
+        final LatencyHistogram queueWait = new LatencyHistogram();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder shared = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder pages = new LongAdder();
+        private final LongAdder assets = new LongAdder();
+
+        private Endpoint(String name) {
+            this.name = name;
+        }
+
+        /**
+         * We record one completed HTTP exchange; phases not reached are negative.
+         */
+        void recordRequest(long connectNanos, long firstByteNanos, long transferNanos, long totalNanos,
+                           long bytesReceived, boolean failed) {
+            requests.increment();
+            if (failed) {
+                errors.increment();
+            }
+            record(connect, connectNanos);
+            record(firstByte, firstByteNanos);
+            record(transfer, transferNanos);
+            record(total, totalNanos);
+            if (bytesReceived > 0) {
+                bytes.add(bytesReceived);
+            }
+        }
+
+        void recordParse(long nanos) {
+            record(parse, nanos);
+        }
+
+        void recordBuild(long nanos, int assetCount) {
+            record(build, nanos);
+            pages.increment();
+            assets.add(assetCount);
+        }
+
+        void recordQueueWait(long nanos) {
+            record(queueWait, nanos);
+        }
+
+        void recordShared() {
+            shared.increment();
+        }
+
+        void recordError() {
+            errors.increment();
+        }
+
+        private static void record(LatencyHistogram histogram, long nanos) {
+            if (nanos >= 0) {
+                histogram.record(nanos / 1000);
+            }
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+
+        @Override
+        public String getEndpoint() {
+            return name;
+        }
+
+        @Override
+        public long getRequestCount() {
+            return requests.sum();
+        }
+
+        @Override
+        public long getErrorCount() {
+            return errors.sum();
+        }
+
+        @Override
+        public long getSharedCount() {
+            return shared.sum();
+        }
+
+        @Override
+        public long getBytesReceived() {
+            return bytes.sum();
+        }
+
+        @Override
+        public double getMeanAssetsPerPage() {
+            long n = pages.sum();
+            return n == 0 ? 0 : (double) assets.sum() / n;
+        }
+
+        @Override
+        public double getTotalMillisP50() {
+            return millis(total.percentile(0.50));
+        }
+
+        @Override
+        public double getTotalMillisP95() {
+            return millis(total.percentile(0.95));
+        }
+
+        @Override
+        public double getTotalMillisP99() {
+            return millis(total.percentile(0.99));
+        }
+
+        @Override
+        public double getTotalMillisMax() {
+            return millis(total.max());
+        }
+
+        @Override
+        public double getConnectMillisP95() {
+            return millis(connect.percentile(0.95));
+        }
+
+        @Override
+        public double getFirstByteMillisP95() {
+            return millis(firstByte.percentile(0.95));
+        }
+
+        @Override
+        public double getTransferMillisP95() {
+            return millis(transfer.percentile(0.95));
+        }
+
+        @Override
+        public double getParseMillisP95() {
+            return millis(parse.percentile(0.95));
+        }
+
+        @Override
+        public double getBuildMillisP95() {
+            return millis(build.percentile(0.95));
+        }
+
+        @Override
+        public double getQueueWaitMillisP95() {
+            return millis(queueWait.percentile(0.95));
+        }
+
+        @Override
+        public double percentileMillis(String phase, double quantile) {
+            LatencyHistogram histogram = switch (phase == null ? "" : phase) {
+                case "connect" -> connect;
+                case "firstByte" -> firstByte;
+                case "transfer" -> transfer;
+                case "parse" -> parse;
+                case "build" -> build;
+                case "queue" -> queueWait;
+                default -> total;
+            };
+            return millis(histogram.percentile(quantile));
+        }
+
+        @Override
+        public void reset() {
+            total.reset();
+            connect.reset();
+            firstByte.reset();
+            transfer.reset();
+            parse.reset();
+            build.reset();
+            queueWait.reset();
+            requests.reset();
+            errors.reset();
+            shared.reset();
+            bytes.reset();
+            pages.reset();
+            assets.reset();
+        }
+    }
+}
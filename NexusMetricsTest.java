@@ -0,0 +1,74 @@
+package org.jd.gui.util.nexus;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the latency histogram and the endpoint naming of NexusMetrics.
+ */
+class NexusMetricsTest {
+
+    @Test
+    void percentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(10_000, histogram.count());
+        assertEquals(5000.5, histogram.mean(), 1e-9);
+        assertEquals(5000, histogram.percentile(0.50), 5000 * 0.04);
+        assertEquals(9900, histogram.percentile(0.99), 9900 * 0.04);
+        assertEquals(10_000, histogram.percentile(1.0));
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        for (long v = 0; v < 64; v++) {
+            assertEquals(v, LatencyHistogram.highestValueOf(LatencyHistogram.bucketOf(v)));
+        }
+    }
+
+    @Test
+    void bucketsAreContiguous() {
+        for (long v = 1; v < 1_000_000; v++) {
+            int bucket = LatencyHistogram.bucketOf(v);
+            assertTrue(LatencyHistogram.highestValueOf(bucket) >= v, "bucket of " + v);
+            assertTrue(bucket == 0 || LatencyHistogram.highestValueOf(bucket - 1) < v, "previous bucket of " + v);
+        }
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(0.99));
+        histogram.record(42);
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+    }
+
+    @Test
+    void endpointNamesDropServerPrefixAndQuery() {
+        assertEquals("v1/search", NexusMetrics.endpointName("https://nexus.example.com/service/rest/v1/search?q=foo"));
+        assertEquals("v1/search/assets", NexusMetrics.endpointName("/service/rest/v1/search/assets?sha1=abc"));
+        assertEquals("v1/components", NexusMetrics.endpointName("http://host:8081/nexus/service/rest/v1/components"));
+    }
+
+    @Test
+    void endpointAggregatesRequests() {
+        NexusMetrics metrics = new NexusMetrics(false);
+        NexusMetrics.Endpoint endpoint = metrics.endpoint("v1/search");
+        endpoint.recordRequest(1_000_000, 2_000_000, 3_000_000, 6_000_000, 2048, false);
+        endpoint.recordRequest(-1, -1, -1, 500_000, 0, true);
+        endpoint.recordBuild(100_000, 10);
+        endpoint.recordBuild(100_000, 30);
+
+        assertEquals(2, endpoint.getRequestCount());
+        assertEquals(1, endpoint.getErrorCount());
+        assertEquals(2048, endpoint.getBytesReceived());
+        assertEquals(20.0, endpoint.getMeanAssetsPerPage(), 1e-9);
+        assertEquals(6.0, endpoint.getTotalMillisMax(), 1e-9);
+        assertTrue(metrics.report().contains("v1/search"));
+    }
+}
@@ -0,0 +1,503 @@
+package org.jd.gui.util.nexus;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Local mirror of the Maven component metadata of selected Nexus 3 repositories.
+ *
+ * We walk GET /service/rest/v1/components?repository=... page by page with
+ * continuation tokens on a single background thread, with a fixed delay
+ * between pages so a sync never competes with interactive users for server
+ * capacity. Per repository we keep:
+ *
+ *   - <repository>.journal     append-only log of "+" (upsert) and "-" (delete) records
+ *   - <repository>.properties  time of the last complete sync
+ *
+ * A sync only appends assets that are new or whose lastModified changed
+ * since the last sync, and tombstones for assets that disappeared. The
+ * journal is compacted when it grows well beyond the live content. A record
+ * torn by a crash is cut from the journal when it is loaded, with anything
+ * after it; the next sync appends what was lost.
+ *
+ * Assets are also kept sorted by GAV, so that queries page through a stable
+ * order and resume after the last asset of the previous page, whatever the
+ * syncs add or remove meanwhile.
+ *
+ * There is one mirror per server in the JVM, shared by all search panels;
+ * the last panel to start it sets its client and repositories.
+ */
+final class NexusMirror {
+
+    private static final Map<String, NexusMirror> MIRRORS = new ConcurrentHashMap<>();
+
+    private static final String LAST_SYNC = "lastSync";
+    private static final int COMPACT_SLACK = 1000;
+
+    private final Path directory;
+    private final Map<String, RepositoryMirror> repositories = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private volatile NexusV3Client client;
+    private volatile long pageDelayMillis = 250;
+    private ScheduledFuture<?> schedule;
+
+    private NexusMirror(Path directory) {
+        this.directory = directory;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "nexus-mirror-sync");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    static NexusMirror forServer(String baseUrl) {
+        return MIRRORS.computeIfAbsent(trimTrailingSlash(baseUrl), url ->
+                new NexusMirror(NexusV3Client.serverDataDirectory(url).resolve("mirror")));
+    }
+
+    /**
+     * We (re)start periodic syncs of the given repositories with the given
+     * client, and drop the repositories no longer listed; their journals stay
+     * on disk for when they are listed again. The first sync starts
+     * immediately; journals already on disk are loaded first so the mirror
+     * can answer queries before the server is contacted.
+     */
+    synchronized void start(NexusV3Client client, Collection<String> repositoryNames, Duration interval,
+                            long pageDelayMillis) {
+        this.client = client;
+        this.pageDelayMillis = Math.max(0, pageDelayMillis);
+        repositories.keySet().retainAll(new HashSet<>(repositoryNames));
+        for (String name : repositoryNames) {
+            repositories.computeIfAbsent(name, n -> new RepositoryMirror(n, directory));
+        }
+        if (schedule != null) {
+            schedule.cancel(false);
+        }
+        schedule = scheduler.scheduleWithFixedDelay(this::syncAll, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void stop() {
+        if (schedule != null) {
+            schedule.cancel(true);
+            schedule = null;
+        }
+    }
+
+    /**
+     * The mirror answers queries once every configured repository has
+     * completed at least one sync (now or in a previous session).
+     */
+    boolean isReady() {
+        if (repositories.isEmpty()) {
+            return false;
+        }
+        for (RepositoryMirror repository : repositories.values()) {
+            if (!repository.isLoaded() || repository.lastSync() <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * We return, in {@link MirroredAsset#key()} order, up to limit assets
+     * matching the filter with keys after the given one, or from the first
+     * asset when it is null.
+     */
+    List<MirroredAsset> find(Predicate<MirroredAsset> filter, String after, int limit) {
+        List<MirroredAsset> result = new ArrayList<>();
+        for (RepositoryMirror repository : repositories.values()) {
+            int found = 0;
+            for (MirroredAsset asset : repository.assetsAfter(after)) {
+                if (found >= limit) {
+                    break;
+                }
+                if (filter.test(asset)) {
+                    result.add(asset);
+                    found++;
+                }
+            }
+        }
+        // Each repository is sorted: the first limit of their union is the page
+        result.sort(Comparator.comparing(MirroredAsset::key));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    List<MirroredAsset> findBySha1(String sha1) {
+        List<MirroredAsset> result = new ArrayList<>();
+        String key = sha1.trim().toLowerCase(Locale.ROOT);
+        for (RepositoryMirror repository : repositories.values()) {
+            result.addAll(repository.bySha1(key));
+        }
+        return result;
+    }
+
+    private void syncAll() {
+        NexusV3Client syncClient = client;
+        for (RepositoryMirror repository : repositories.values()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            try {
+                repository.load();
+                sync(syncClient, repository);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ignored) {
+                // We keep the previous content and retry at the next interval
+            }
+        }
+    }
+
+    private void sync(NexusV3Client client, RepositoryMirror repository) throws Exception {
+        long syncStart = System.currentTimeMillis();
+        long lastSync = repository.lastSync();
+        Set<String> seen = new HashSet<>();
+        List<MirroredAsset> changed = new ArrayList<>();
+
+        String token = null;
+        long lastRequest = 0;
+        do {
+            long wait = lastRequest + pageDelayMillis - System.currentTimeMillis();
+            if (wait > 0) {
+                Thread.sleep(wait);
+            }
+            lastRequest = System.currentTimeMillis();
+
+            Nexus3Page<Nexus3Page.ComponentItem> page = client.listComponents(repository.name(), token);
+            for (Nexus3Page.ComponentItem component : page.items()) {
+                for (Nexus3Page.AssetItem asset : component.assets()) {
+                    if (asset.id() == null || asset.artifactId() == null) {
+                        continue;
+                    }
+                    seen.add(asset.id());
+                    long lastModified = parseMillis(asset.lastModified());
+                    MirroredAsset existing = repository.get(asset.id());
+                    if (existing == null || lastModified > lastSync || lastModified != existing.lastModified()) {
+                        changed.add(MirroredAsset.of(repository.name(), asset, lastModified));
+                    }
+                }
+            }
+            // We persist progress page by page so an interrupted sync is not lost
+            if (!changed.isEmpty()) {
+                repository.apply(changed, List.of());
+                changed.clear();
+            }
+            token = page.continuationToken();
+        } while (token != null && !token.isEmpty() && !Thread.currentThread().isInterrupted()
+                && isMirrored(repository));
+
+        if (Thread.currentThread().isInterrupted() || !isMirrored(repository)) {
+            return;
+        }
+
+        // Deletions are only known after a complete walk
+        List<String> removed = new ArrayList<>();
+        for (MirroredAsset asset : repository.assets()) {
+            if (!seen.contains(asset.id())) {
+                removed.add(asset.id());
+            }
+        }
+        repository.apply(List.of(), removed);
+        repository.completeSync(syncStart);
+    }
+
+    private boolean isMirrored(RepositoryMirror repository) {
+        return repositories.get(repository.name()) == repository;
+    }
+
+    private static long parseMillis(String lastModified) {
+        if (lastModified == null || lastModified.isBlank()) {
+            return 0;
+        }
+        try {
+            return OffsetDateTime.parse(lastModified.trim()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException ignored) {
+            return 0;
+        }
+    }
+
+    private static String trimTrailingSlash(String s) {
+        return s != null && s.endsWith("/") ? s.substring(0, s.length() - 1) : s;
+    }
+
+    /**
+     * One mirrored Maven asset. lastModified is in epoch milliseconds, 0 when unknown.
+     */
+    record MirroredAsset(
+            String id,
+            String repository,
+            String groupId,
+            String artifactId,
+            String version,
+            String classifier,
+            String extension,
+            String sha1,
+            long lastModified) {
+
+        static MirroredAsset of(String repository, Nexus3Page.AssetItem asset, long lastModified) {
+            return new MirroredAsset(asset.id(), repository, asset.groupId(), asset.artifactId(), asset.version(),
+                    asset.classifier(), asset.extension(),
+                    asset.sha1() != null ? asset.sha1().toLowerCase(Locale.ROOT) : null, lastModified);
+        }
+
+        /**
+         * Sort key of the asset: its GAV, classifier and extension, then its
+         * repository and id, which make it unique.
+         */
+        String key() {
+            return String.join("\0", field(groupId), field(artifactId), field(version), field(classifier),
+                    field(extension), repository, id);
+        }
+
+        String toLine() {
+            return String.join("\t", "+", field(id), field(groupId), field(artifactId), field(version),
+                    field(classifier), field(extension), field(sha1), Long.toString(lastModified));
+        }
+
+        static MirroredAsset fromLine(String repository, String[] parts) {
+            return new MirroredAsset(value(parts[1]), repository, value(parts[2]), value(parts[3]), value(parts[4]),
+                    value(parts[5]), value(parts[6]), value(parts[7]), Long.parseLong(parts[8]));
+        }
+
+        private static String field(String s) {
+            return s == null ? "" : s.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+        }
+
+        private static String value(String s) {
+            return s.isEmpty() ? null : s;
+        }
+    }
+
+    private static final class RepositoryMirror {
+
+        private final String name;
+        private final Path journal;
+        private final Path stateFile;
+
+        private final Map<String, MirroredAsset> assets = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<String, MirroredAsset> sorted = new ConcurrentSkipListMap<>();
+        private final Map<String, List<MirroredAsset>> bySha1 = new ConcurrentHashMap<>();
+        private volatile boolean loaded;
+        private volatile long lastSync;
+        private long journalEntries;
+
+        RepositoryMirror(String name, Path directory) {
+            this.name = name;
+            String file = name.replaceAll("[^A-Za-z0-9._-]", "_");
+            this.journal = directory.resolve(file + ".journal");
+            this.stateFile = directory.resolve(file + ".properties");
+            try {
+                load();
+            } catch (IOException ignored) {
+                // We start from an empty mirror
+            }
+        }
+
+        String name() {
+            return name;
+        }
+
+        boolean isLoaded() {
+            return loaded;
+        }
+
+        long lastSync() {
+            return lastSync;
+        }
+
+        MirroredAsset get(String id) {
+            return assets.get(id);
+        }
+
+        Collection<MirroredAsset> assets() {
+            return assets.values();
+        }
+
+        Collection<MirroredAsset> assetsAfter(String key) {
+            return key == null ? sorted.values() : sorted.tailMap(key, false).values();
+        }
+
+        List<MirroredAsset> bySha1(String sha1) {
+            return bySha1.getOrDefault(sha1, List.of());
+        }
+
+        synchronized void load() throws IOException {
+            if (loaded) {
+                return;
+            }
+            if (Files.isRegularFile(stateFile)) {
+                Properties state = new Properties();
+                try (Reader reader = Files.newBufferedReader(stateFile, StandardCharsets.UTF_8)) {
+                    state.load(reader);
+                }
+                lastSync = OptionValues.parseLong(state.getProperty(LAST_SYNC), 0);
+            }
+            if (Files.isRegularFile(journal)) {
+                long valid = replay();
+                if (valid < Files.size(journal)) {
+                    // A torn or corrupt tail: we cut it so later records start on a line of their own
+                    try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+                        channel.truncate(valid);
+                    }
+                }
+            }
+            loaded = true;
+        }
+
+        /**
+         * We replay the journal up to its first record that is incomplete or
+         * cannot be parsed, and return the length in bytes of what we replayed.
+         */
+        private long replay() throws IOException {
+            long offset = 0;
+            long valid = 0;
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(journal))) {
+                int b;
+                while ((b = in.read()) >= 0) {
+                    offset++;
+                    if (b != '\n') {
+                        line.write(b);
+                        continue;
+                    }
+                    if (!replay(line.toString(StandardCharsets.UTF_8))) {
+                        break;
+                    }
+                    valid = offset;
+                    journalEntries++;
+                    line.reset();
+                }
+            }
+            return valid;
+        }
+
+        private boolean replay(String line) {
+            String[] parts = (line.endsWith("\r") ? line.substring(0, line.length() - 1) : line).split("\t", -1);
+            if (parts.length == 9 && "+".equals(parts[0])) {
+                try {
+                    put(MirroredAsset.fromLine(name, parts));
+                    return true;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+            if (parts.length == 2 && "-".equals(parts[0]) && !parts[1].isEmpty()) {
+                remove(parts[1]);
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void apply(List<MirroredAsset> upserts, List<String> removals) throws IOException {
+            if (upserts.isEmpty() && removals.isEmpty()) {
+                return;
+            }
+            Files.createDirectories(journal.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(journal, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (MirroredAsset asset : upserts) {
+                    writer.write(asset.toLine());
+                    writer.newLine();
+                    put(asset);
+                }
+                for (String id : removals) {
+                    writer.write("-\t" + id);
+                    writer.newLine();
+                    remove(id);
+                }
+            }
+            journalEntries += upserts.size() + removals.size();
+        }
+
+        synchronized void completeSync(long syncStart) throws IOException {
+            if (journalEntries > 2L * assets.size() + COMPACT_SLACK) {
+                compact();
+            }
+            Properties state = new Properties();
+            state.setProperty(LAST_SYNC, Long.toString(syncStart));
+            AtomicFiles.write(stateFile, tmp -> {
+                try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                    state.store(writer, "Nexus mirror state for " + name);
+                }
+            });
+            lastSync = syncStart;
+        }
+
+        private void compact() throws IOException {
+            AtomicFiles.write(journal, tmp -> {
+                try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                    for (MirroredAsset asset : assets.values()) {
+                        writer.write(asset.toLine());
+                        writer.newLine();
+                    }
+                }
+            });
+            journalEntries = assets.size();
+        }
+
+        private void put(MirroredAsset asset) {
+            MirroredAsset previous = assets.put(asset.id(), asset);
+            if (previous != null) {
+                sorted.remove(previous.key());
+            }
+            sorted.put(asset.key(), asset);
+            if (previous != null && previous.sha1() != null) {
+                bySha1.computeIfPresent(previous.sha1(), (k, list) -> without(list, previous.id()));
+            }
+            if (asset.sha1() != null) {
+                bySha1.merge(asset.sha1(), List.of(asset), (a, b) -> {
+                    List<MirroredAsset> merged = new ArrayList<>(a);
+                    merged.addAll(b);
+                    return List.copyOf(merged);
+                });
+            }
+        }
+
+        private void remove(String id) {
+            MirroredAsset previous = assets.remove(id);
+            if (previous != null) {
+                sorted.remove(previous.key());
+            }
+            if (previous != null && previous.sha1() != null) {
+                bySha1.computeIfPresent(previous.sha1(), (k, list) -> without(list, id));
+            }
+        }
+
+        private static List<MirroredAsset> without(List<MirroredAsset> list, String id) {
+            List<MirroredAsset> kept = list.stream().filter(a -> !a.id().equals(id)).toList();
+            return kept.isEmpty() ? null : kept;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package org.jd.gui.util.nexus;
+
+import com.sun.net.httpserver.HttpServer;
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NexusMirror and MirrorNexusSearch, syncing from a local
+ * server listing the components of one repository.
+ */
+class NexusMirrorTest {
+
+    private static final String REPOSITORY = "releases";
+    private static final String LAST_MODIFIED = "2024-03-01T10:15:30.000+00:00";
+
+    @TempDir
+    Path home;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile List<String> components = List.of();
+    private volatile boolean blockSync;
+    private HttpServer server;
+    private String baseUrl;
+    private String previousHome;
+    private NexusMirror mirror;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        previousHome = System.getProperty("user.home");
+        System.setProperty("user.home", home.toString());
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/service/rest/v1/components", exchange -> {
+            try {
+                if (blockSync) {
+                    release.await(20, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<String> items = components;
+            if (items.isEmpty()) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = ("{\"items\":[" + String.join(",", items) + "],\"continuationToken\":null}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        mirror = NexusMirror.forServer(baseUrl);
+    }
+
+    @AfterEach
+    void stopServer() {
+        release.countDown();
+        mirror.stop();
+        server.stop(0);
+        System.setProperty("user.home", previousHome);
+    }
+
+    private Path mirrorFile(String extension) {
+        return NexusV3Client.serverDataDirectory(baseUrl).resolve("mirror").resolve(REPOSITORY + extension);
+    }
+
+    private void writeMirror(long lastSync, String journal) throws IOException {
+        Files.createDirectories(mirrorFile(".journal").getParent());
+        Files.writeString(mirrorFile(".journal"), journal);
+        Files.writeString(mirrorFile(".properties"), "lastSync=" + lastSync + "\n");
+    }
+
+    private static String record(String id, String artifactId, long lastModified) {
+        return String.join("\t", "+", id, "org.example", artifactId, "1.0", "", "jar", "", Long.toString(lastModified))
+                + "\n";
+    }
+
+    private static String component(String id, String artifactId) {
+        return "{\"repository\":\"" + REPOSITORY + "\",\"group\":\"org.example\",\"name\":\"" + artifactId + "\","
+                + "\"version\":\"1.0\",\"assets\":[{\"id\":\"" + id + "\",\"repository\":\"" + REPOSITORY + "\","
+                + "\"lastModified\":\"" + LAST_MODIFIED + "\",\"maven2\":{\"groupId\":\"org.example\","
+                + "\"artifactId\":\"" + artifactId + "\",\"version\":\"1.0\",\"extension\":\"jar\"}}]}";
+    }
+
+    private void start() {
+        mirror.start(new NexusV3Client(new NexusConfig(baseUrl, null, null)), List.of(REPOSITORY), Duration.ofHours(1), 0);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 20_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static List<String> artifactIds(List<NexusMirror.MirroredAsset> assets) {
+        return assets.stream().map(NexusMirror.MirroredAsset::artifactId).toList();
+    }
+
+    @Test
+    void replaysTheJournalUpToItsFirstBrokenRecord() throws Exception {
+        String valid = record("1", "one", 1) + record("2", "two", 2) + record("3", "three", 3) + "-\t3\n";
+        writeMirror(1, valid
+                + "+\t4\torg.example\tfour\t1.0\t\tjar\t\tnot-a-number\n"
+                + record("5", "five", 5)
+                + "+\t6\torg.exa");
+
+        start();
+        assertTrue(mirror.isReady());
+        assertEquals(List.of("one", "two"), artifactIds(mirror.find(a -> true, null, 10)));
+        // The broken record and everything after it are cut
+        assertEquals(valid, Files.readString(mirrorFile(".journal")));
+    }
+
+    @Test
+    void compactsTheJournalAndWritesTheStateAfterASync() throws Exception {
+        StringBuilder journal = new StringBuilder();
+        for (int i = 0; i < 1500; i++) {
+            journal.append(record("1", "one", i));
+        }
+        writeMirror(1, journal.toString());
+        components = List.of(component("1", "one"));
+
+        start();
+        await(() -> {
+            try {
+                return Files.readString(mirrorFile(".properties")).contains("lastSync=")
+                        && !Files.readString(mirrorFile(".properties")).contains("lastSync=1\n");
+            } catch (IOException e) {
+                return false;
+            }
+        });
+        List<String> lines = Files.readAllLines(mirrorFile(".journal"));
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).startsWith("+\t1\torg.example\tone\t"));
+        try (var files = Files.list(mirrorFile(".journal").getParent())) {
+            assertTrue(files.noneMatch(f -> f.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    void pagesByKeyWhileASyncAddsAssets() throws Exception {
+        StringBuilder journal = new StringBuilder();
+        List<String> listed = new ArrayList<>();
+        Set<String> original = new HashSet<>();
+        for (int i = 0; i < 150; i++) {
+            String artifactId = String.format("a%03d", i);
+            journal.append(record("id" + i, artifactId, 0));
+            listed.add(component("id" + i, artifactId));
+            original.add(artifactId);
+        }
+        // Sorts between a000 and a001, so offset paging would repeat a row on the next page
+        listed.add(component("early", "a0005"));
+        writeMirror(1, journal.toString());
+        components = listed;
+        blockSync = true;
+
+        MirrorNexusSearch search = (MirrorNexusSearch) MirrorNexusSearch.wrap(
+                new NexusV3Client(new NexusConfig(baseUrl, null, null)), new NexusConfig(baseUrl, null, null),
+                Map.of(MirrorNexusSearch.NEXUS_MIRROR_REPOSITORIES, REPOSITORY,
+                        MirrorNexusSearch.NEXUS_MIRROR_PAGE_DELAY, "0"));
+        List<NexusArtifact> first = search.searchByKeyword("", 0).artifacts();
+        assertEquals(100, first.size());
+
+        release.countDown();
+        await(() -> {
+            try {
+                return !search.searchByGav("org.example", "a0005", null, 0).artifacts().isEmpty();
+            } catch (Exception e) {
+                return false;
+            }
+        });
+
+        List<NexusArtifact> second = search.searchByKeyword("", 1).artifacts();
+        assertEquals(50, second.size());
+        Set<String> seen = new HashSet<>();
+        for (NexusArtifact artifact : first) {
+            seen.add(artifact.artifactId());
+        }
+        for (NexusArtifact artifact : second) {
+            assertTrue(seen.add(artifact.artifactId()), artifact.artifactId() + " repeated");
+        }
+        assertEquals(original, seen);
+        assertEquals("a149", second.get(second.size() - 1).artifactId());
+    }
+}
@@ -0,0 +1,101 @@
+package org.jd.gui.util.nexus;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RetryPolicy, CircuitBreaker and AdaptiveTimeouts.
+ */
+class NexusResilienceTest {
+
+    @Test
+    void retryAfterAcceptsSecondsAndHttpDates() {
+        long now = 1_700_000_000_000L;
+        assertEquals(120_000, RetryPolicy.parseRetryAfter("120", now));
+        assertEquals(-1, RetryPolicy.parseRetryAfter(null, now));
+        assertEquals(-1, RetryPolicy.parseRetryAfter("soon", now));
+        // Tue, 14 Nov 2023 22:13:30 GMT is now + 10 s
+        assertEquals(10_000, RetryPolicy.parseRetryAfter("Tue, 14 Nov 2023 22:13:30 GMT", now));
+    }
+
+    @Test
+    void backoffIsBoundedAndHonoursRetryAfter() {
+        RetryPolicy policy = new RetryPolicy(3, 100, 1_000, 5_000);
+        for (int i = 0; i < 100; i++) {
+            long delay = policy.delayMillis(5, -1);
+            assertTrue(delay >= 0 && delay <= 1_000, "delay " + delay);
+        }
+        assertTrue(policy.delayMillis(0, 2_000) >= 2_000);
+        assertTrue(policy.canRetry(1, -1));
+        assertFalse(policy.canRetry(2, -1));
+        assertFalse(policy.canRetry(0, 60_000));
+    }
+
+    @Test
+    void onlyThrottlingAndGatewayStatusesAreRetried() {
+        assertTrue(RetryPolicy.isRetryable(429));
+        assertTrue(RetryPolicy.isRetryable(503));
+        assertFalse(RetryPolicy.isRetryable(500));
+        assertFalse(RetryPolicy.isRetryable(404));
+    }
+
+    @Test
+    void breakerOpensAfterThresholdAndLetsOneTrialThrough() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("http://nexus", 3, 50);
+        for (int i = 0; i < 3; i++) {
+            breaker.acquirePermission();
+            breaker.onFailure(-1);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertThrows(NexusCircuitOpenException.class, breaker::acquirePermission);
+
+        Thread.sleep(80);
+        breaker.acquirePermission();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertThrows(NexusCircuitOpenException.class, breaker::acquirePermission);
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        breaker.acquirePermission();
+    }
+
+    @Test
+    void failedTrialReopensTheBreaker() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("http://nexus", 1, 30);
+        breaker.onFailure(-1);
+        Thread.sleep(50);
+        breaker.acquirePermission();
+        breaker.onFailure(-1);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void releasedTrialLetsTheNextRequestThrough() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("http://nexus", 1, 30);
+        breaker.onFailure(-1);
+        Thread.sleep(50);
+        breaker.acquirePermission();
+        // e.g. the transport rejected a malformed URL
+        breaker.releasePermission();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        breaker.acquirePermission();
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void timeoutsFollowObservedLatencyOnceSampled() {
+        NexusMetrics metrics = new NexusMetrics(false);
+        AdaptiveTimeouts timeouts = new AdaptiveTimeouts(metrics);
+        assertEquals(15_000, timeouts.readTimeout("v1/search", 15_000, 0));
+
+        NexusMetrics.Endpoint endpoint = metrics.endpoint("v1/search");
+        for (int i = 0; i < AdaptiveTimeouts.MIN_SAMPLES; i++) {
+            endpoint.recordRequest(1_000_000, 100_000_000, 100_000_000, 200_000_000, 100, false);
+        }
+        int read = timeouts.readTimeout("v1/search", 15_000, 0);
+        assertTrue(read >= 1_500 && read <= 2_000, "read timeout " + read);
+        assertEquals(2 * read, timeouts.readTimeout("v1/search", 15_000, 1));
+    }
+}
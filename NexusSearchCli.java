@@ -0,0 +1,394 @@
+package org.jd.gui.util.nexus.cli;
+
+import org.jd.gui.util.nexus.ArtifactRecordWriter;
+import org.jd.gui.util.nexus.LatestVersionResolver;
+import org.jd.gui.util.nexus.LocalMavenRepositorySearch;
+import org.jd.gui.util.nexus.MavenIndexSearch;
+import org.jd.gui.util.nexus.MirrorNexusSearch;
+import org.jd.gui.util.nexus.NexusConfig;
+import org.jd.gui.util.nexus.NexusFilteredSearch;
+import org.jd.gui.util.nexus.NexusMetrics;
+import org.jd.gui.util.nexus.NexusSearch;
+import org.jd.gui.util.nexus.NexusSearchFactory;
+import org.jd.gui.util.nexus.NexusSearchFilter;
+import org.jd.gui.util.nexus.NexusThrottle;
+import org.jd.gui.util.nexus.OptionValues;
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.jd.gui.util.nexus.model.NexusSearchResult;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Headless batch mode of the Nexus searches, for scripts and build servers.
+ *
+ *   java -cp jd-gui.jar org.jd.gui.util.nexus.cli.NexusSearchCli [options] [file...]
+ *
+ * We read one query per line from the files, or from stdin when there are
+ * none (or for "-"). Blank lines and lines starting with '#' are skipped.
+ * A query is "type value" or a bare value whose type is inferred:
+ *
+ *   sha1 &lt;40 hex digits&gt;       artifacts with this checksum (bare: 40 hex digits)
+ *   gav g:a[:v]                artifacts of the coordinates (bare: contains ':')
+ *   latest g:a                 newest release of the group and artifact
+ *   class name                 artifacts containing the class (qualified if it has a dot)
+ *   keyword text               keyword search (bare: anything else)
+ *
+ * Queries run in parallel through the same search stack as the panel
+ * (mirror, caches, throttle, retries). Results are streamed as they
+ * complete, one record per artifact, with the input line number, query,
+ * type and a status: "found", "not-found" or "error" (with the message).
+ * The exit status is 0 when every query ran, 1 when some failed and 2 on a
+ * usage error.
+ *
+ * The server is given with --url or NEXUS_URL; credentials come from
+ * NEXUS_USER and NEXUS_PASSWORD (a password without a user is sent as a
+ * bearer token), never from the command line.
+ */
+public final class NexusSearchCli {
+
+    static final List<String> EXTRA_COLUMNS = List.of("line", "query", "type", "status", "error");
+
+    private static final Pattern SHA1 = Pattern.compile("[0-9a-fA-F]{40}");
+
+    private static final String USAGE = String.join("\n",
+            "Usage: NexusSearchCli [options] [file...]",
+            "  --url URL              Nexus base URL (default: $NEXUS_URL)",
+            "  --format jsonl|csv     output format (default: jsonl)",
+            "  --parallelism N        queries run at once (default: 4)",
+            "  --pages N              pages read per keyword, GAV or class query (default: 1)",
+            "  --repository NAME      only artifacts of this repository",
+            "  --extension EXT        only artifacts with this extension",
+            "  --classifier NAME      only artifacts with this classifier",
+            "  --rate N               requests per second to the server (default: 10)",
+            "  --max-in-flight N      concurrent requests to the server (default: 4)",
+            "  --local first|only     query the local Maven repository first for exact lookups, or only",
+            "  --local-repository DIR local Maven repository (default: ~/.m2/repository)",
+            "  --maven-index DIR      answer from the Maven index published in DIR",
+            "  --output FILE          write to FILE instead of stdout",
+            "  --metrics              print request metrics to stderr at the end",
+            "Credentials: $NEXUS_USER and $NEXUS_PASSWORD.");
+
+    record Query(int line, String type, String value) {
+
+        /**
+         * We parse one input line, or return null for blank and comment lines.
+         */
+        static Query parse(int lineNo, String line) {
+            String s = line.strip();
+            if (s.isEmpty() || s.startsWith("#")) {
+                return null;
+            }
+            int space = s.indexOf(' ');
+            if (space > 0) {
+                String type = s.substring(0, space).toLowerCase(Locale.ROOT);
+                switch (type) {
+                    case "sha1", "gav", "latest", "class", "keyword" -> {
+                        return new Query(lineNo, type, s.substring(space + 1).strip());
+                    }
+                    default -> {
+                        // A keyword search with spaces
+                    }
+                }
+            }
+            if (SHA1.matcher(s).matches()) {
+                return new Query(lineNo, "sha1", s.toLowerCase(Locale.ROOT));
+            }
+            if (s.indexOf(':') > 0 && space < 0) {
+                return new Query(lineNo, "gav", s);
+            }
+            return new Query(lineNo, "keyword", s);
+        }
+    }
+
+    static final class Options {
+        String url = System.getenv("NEXUS_URL");
+        ArtifactRecordWriter.Format format = ArtifactRecordWriter.Format.JSONL;
+        int parallelism = 4;
+        int pages = 1;
+        String repository;
+        String extension;
+        String classifier;
+        String rate;
+        String maxInFlight;
+        String local;
+        String localRepository;
+        String mavenIndex;
+        Path output;
+        boolean metrics;
+        final List<String> inputs = new ArrayList<>();
+
+        static Options parse(String[] args) {
+            Options o = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--url" -> o.url = OptionValues.value(args, ++i, arg);
+                    case "--format" -> o.format = ArtifactRecordWriter.Format.parse(OptionValues.value(args, ++i, arg));
+                    case "--parallelism" -> o.parallelism = OptionValues.positive(args, ++i, arg);
+                    case "--pages" -> o.pages = OptionValues.positive(args, ++i, arg);
+                    case "--repository" -> o.repository = OptionValues.value(args, ++i, arg);
+                    case "--extension" -> o.extension = OptionValues.value(args, ++i, arg);
+                    case "--classifier" -> o.classifier = OptionValues.value(args, ++i, arg);
+                    case "--rate" -> o.rate = OptionValues.value(args, ++i, arg);
+                    case "--max-in-flight" -> o.maxInFlight = OptionValues.value(args, ++i, arg);
+                    case "--local" -> o.local = OptionValues.value(args, ++i, arg);
+                    case "--local-repository" -> o.localRepository = OptionValues.value(args, ++i, arg);
+                    case "--maven-index" -> o.mavenIndex = OptionValues.value(args, ++i, arg);
+                    case "--output" -> o.output = Path.of(OptionValues.value(args, ++i, arg));
+                    case "--metrics" -> o.metrics = true;
+                    default -> {
+                        if (arg.startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option: " + arg);
+                        }
+                        o.inputs.add(arg);
+                    }
+                }
+            }
+            if (o.url == null || o.url.isBlank()) {
+                throw new IllegalArgumentException("No Nexus URL: use --url or NEXUS_URL");
+            }
+            return o;
+        }
+    }
+
+    private final NexusSearch search;
+    private final NexusSearchFilter filter;
+    private final int pages;
+    private final LatestVersionResolver latestVersionResolver;
+    private final ArtifactRecordWriter out;
+    private final AtomicInteger failures = new AtomicInteger();
+
+    NexusSearchCli(NexusSearch search, NexusSearchFilter filter, int pages, int parallelism, ArtifactRecordWriter out) {
+        this.search = search;
+        this.filter = filter;
+        this.pages = pages;
+        this.latestVersionResolver = new LatestVersionResolver(search, Duration.ofMinutes(10), parallelism, false);
+        this.out = out;
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.in, System.out, System.err));
+    }
+
+    static int run(String[] args, InputStream in, PrintStream stdout, PrintStream err) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return 2;
+        }
+
+        NexusConfig config = new NexusConfig(options.url.strip(), System.getenv("NEXUS_USER"), password());
+        Map<String, String> prefs = new HashMap<>();
+        if (options.rate != null) {
+            prefs.put(NexusThrottle.NEXUS_MAX_REQUESTS_PER_SECOND, options.rate);
+        }
+        if (options.maxInFlight != null) {
+            prefs.put(NexusThrottle.NEXUS_MAX_IN_FLIGHT, options.maxInFlight);
+        }
+        if (options.local != null) {
+            prefs.put(LocalMavenRepositorySearch.NEXUS_LOCAL_REPOSITORY, options.local);
+        }
+        if (options.localRepository != null) {
+            prefs.put(LocalMavenRepositorySearch.NEXUS_LOCAL_REPOSITORY_PATH, options.localRepository);
+        }
+        if (options.mavenIndex != null) {
+            prefs.put(MavenIndexSearch.NEXUS_MAVEN_INDEX_DIRECTORY, options.mavenIndex);
+        }
+        NexusThrottle.configure(config.baseUrl, prefs);
+        NexusSearch remote = MirrorNexusSearch.wrap(NexusSearchFactory.create(config, null), config, prefs);
+        NexusSearch search = LocalMavenRepositorySearch.wrap(MavenIndexSearch.wrap(remote, config, prefs), prefs);
+        NexusSearchFilter filter = new NexusSearchFilter(
+                options.repository, options.extension, options.classifier, null, null, null);
+
+        try (Writer writer = options.output != null
+                ? Files.newBufferedWriter(options.output, StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(stdout, StandardCharsets.UTF_8))) {
+            ArtifactRecordWriter records = new ArtifactRecordWriter(writer, options.format, EXTRA_COLUMNS);
+            NexusSearchCli cli = new NexusSearchCli(search, filter, options.pages, options.parallelism, records);
+            records.writeHeader();
+            List<String> inputs = options.inputs.isEmpty() ? List.of("-") : options.inputs;
+            try {
+                for (String input : inputs) {
+                    try (BufferedReader reader = "-".equals(input)
+                            ? new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))
+                            : Files.newBufferedReader(Path.of(input), StandardCharsets.UTF_8)) {
+                        cli.runAll(reader, options.parallelism);
+                    }
+                }
+            } finally {
+                cli.latestVersionResolver.close();
+            }
+            records.flush();
+            if (options.metrics) {
+                err.print(NexusMetrics.global().report());
+            }
+            return cli.failures.get() == 0 ? 0 : 1;
+        } catch (IOException e) {
+            err.println("I/O error: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+
+    private static char[] password() {
+        String password = System.getenv("NEXUS_PASSWORD");
+        return password == null || password.isEmpty() ? null : password.toCharArray();
+    }
+
+    /**
+     * We run the queries of a reader with at most parallelism queries at
+     * once. Reading waits for a free slot, so a large input is never held
+     * in memory.
+     */
+    void runAll(BufferedReader reader, int parallelism) throws IOException, InterruptedException {
+        AtomicInteger threadNo = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "nexus-cli-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        Semaphore slots = new Semaphore(parallelism);
+        try {
+            String line;
+            int lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                Query query = Query.parse(++lineNo, line);
+                if (query == null) {
+                    continue;
+                }
+                slots.acquire();
+                executor.execute(() -> {
+                    try {
+                        runQuery(query);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // Queries still running
+            }
+        }
+    }
+
+    private void runQuery(Query query) {
+        List<NexusArtifact> artifacts;
+        try {
+            artifacts = execute(query);
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            write(query, List.of(), message);
+            return;
+        }
+        write(query, artifacts, null);
+    }
+
+    private List<NexusArtifact> execute(Query query) throws Exception {
+        switch (query.type()) {
+            case "sha1" -> {
+                return page(search instanceof NexusFilteredSearch filtered
+                        ? filtered.searchBySha1(query.value(), filter, 0)
+                        : filter.apply(search.searchBySha1(query.value(), 0)));
+            }
+            case "latest" -> {
+                String[] ga = query.value().split(":");
+                if (ga.length < 2) {
+                    throw new IllegalArgumentException("Expected group:artifact");
+                }
+                NexusArtifact latest = latestVersionResolver.resolve(ga[0], ga[1]);
+                return latest == null ? List.of() : List.of(latest);
+            }
+            case "class" -> {
+                if (!search.supportsClassSearch()) {
+                    throw new UnsupportedOperationException("Class search is not supported by this backend");
+                }
+            }
+            default -> {
+                // Paged searches below
+            }
+        }
+
+        String[] gav = query.type().equals("gav") ? query.value().split(":") : null;
+        if (gav != null && gav.length < 2) {
+            throw new IllegalArgumentException("Expected group:artifact[:version]");
+        }
+        List<NexusArtifact> artifacts = new ArrayList<>();
+        for (int page = 0; page < pages; page++) {
+            NexusSearchResult result = switch (query.type()) {
+                case "gav" -> {
+                    String version = gav.length > 2 && !gav[2].isBlank() ? gav[2] : null;
+                    yield search instanceof NexusFilteredSearch filtered
+                            ? filtered.searchByGav(gav[0], gav[1], version, filter, page)
+                            : filter.apply(search.searchByGav(gav[0], gav[1], version, page));
+                }
+                case "class" -> filter.apply(search.searchByClassName(query.value(), query.value().contains("."), page));
+                default -> search instanceof NexusFilteredSearch filtered
+                        ? filtered.searchByKeyword(query.value(), filter, page)
+                        : filter.apply(search.searchByKeyword(query.value(), page));
+            };
+            if (result == null || result.artifacts() == null || result.artifacts().isEmpty()) {
+                break;
+            }
+            artifacts.addAll(result.artifacts());
+        }
+        return artifacts;
+    }
+
+    private static List<NexusArtifact> page(NexusSearchResult result) {
+        return result == null || result.artifacts() == null ? List.of() : result.artifacts();
+    }
+
+    /**
+     * We write all records of a query together and flush them, so consumers
+     * of the stream see each query complete.
+     */
+    private void write(Query query, List<NexusArtifact> artifacts, String error) {
+        String line = Integer.toString(query.line());
+        synchronized (out) {
+            try {
+                if (error != null) {
+                    out.write(null, line, query.value(), query.type(), "error", error);
+                } else if (artifacts.isEmpty()) {
+                    out.write(null, line, query.value(), query.type(), "not-found", null);
+                } else {
+                    for (NexusArtifact artifact : artifacts) {
+                        out.write(artifact, line, query.value(), query.type(), "found", null);
+                    }
+                }
+                out.flush();
+            } catch (IOException e) {
+                failures.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.jd.gui.util.nexus.cli;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NexusSearchCli.
+ */
+class NexusSearchCliTest {
+
+    @Test
+    void queryTypesAreInferred() {
+        assertNull(NexusSearchCli.Query.parse(1, "   "));
+        assertNull(NexusSearchCli.Query.parse(2, "# comment"));
+        assertEquals(new NexusSearchCli.Query(3, "sha1", "0123456789abcdef0123456789abcdef01234567"),
+                NexusSearchCli.Query.parse(3, "0123456789ABCDEF0123456789abcdef01234567"));
+        assertEquals(new NexusSearchCli.Query(4, "gav", "org.example:demo:1.0"),
+                NexusSearchCli.Query.parse(4, "org.example:demo:1.0"));
+        assertEquals(new NexusSearchCli.Query(5, "keyword", "commons lang"),
+                NexusSearchCli.Query.parse(5, "commons lang"));
+    }
+
+    @Test
+    void explicitTypes() {
+        assertEquals(new NexusSearchCli.Query(1, "latest", "org.example:demo"),
+                NexusSearchCli.Query.parse(1, "latest  org.example:demo"));
+        assertEquals(new NexusSearchCli.Query(2, "class", "org.example.Demo"),
+                NexusSearchCli.Query.parse(2, "CLASS org.example.Demo"));
+        assertEquals(new NexusSearchCli.Query(3, "keyword", "a:b"),
+                NexusSearchCli.Query.parse(3, "keyword a:b"));
+    }
+
+    @Test
+    void usageErrorsExitWithTwo() {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int status = NexusSearchCli.run(new String[] {"--url", "https://nexus", "--parallelism", "0"},
+                new ByteArrayInputStream(new byte[0]), new PrintStream(new ByteArrayOutputStream()),
+                new PrintStream(err, true, StandardCharsets.UTF_8));
+        assertEquals(2, status);
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("--parallelism needs a positive number"));
+    }
+}
@@ -0,0 +1,94 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.jd.gui.util.nexus.model.NexusSearchResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Result filters and ordering that backends push down into their queries.
+ *
+ * Every field is optional. Sort accepts "group", "name", "version" and
+ * "repository"; direction accepts "asc" and "desc". Other values are dropped.
+ *
+ * Backends that cannot push a filter down still honour it through
+ * {@link #apply(NexusSearchResult)}, so callers see the same rows either way.
+ *
+ * Component searches leave checksum and signature sidecars (see
+ * {@link NexusAssets}) out of their results, unless the extension asks for
+ * one, e.g. "jar.sha1" or "asc".
+ */
+public record NexusSearchFilter(
+        String repository,
+        String extension,
+        String classifier,
+        String format,
+        String sort,
+        String direction) {
+
+    public static final NexusSearchFilter NONE = new NexusSearchFilter(null, null, null, null, null, null);
+
+    private static final Set<String> SORTS = Set.of("group", "name", "version", "repository");
+    private static final Set<String> DIRECTIONS = Set.of("asc", "desc");
+
+    public NexusSearchFilter {
+        repository = trimToNull(repository);
+        extension = trimToNull(extension);
+        classifier = trimToNull(classifier);
+        format = trimToNull(format);
+        sort = lowerIfIn(sort, SORTS);
+        direction = lowerIfIn(direction, DIRECTIONS);
+    }
+
+    public boolean isEmpty() {
+        return repository == null && extension == null && classifier == null
+                && format == null && sort == null && direction == null;
+    }
+
+    /**
+     * True when checksum and signature sidecars are wanted: the extension
+     * names one.
+     */
+    public boolean includesChecksums() {
+        return NexusAssets.isChecksumOrSignature(extension);
+    }
+
+    public boolean matches(NexusArtifact artifact) {
+        return (repository == null || repository.equals(artifact.repository()))
+                && (extension == null || extension.equalsIgnoreCase(artifact.extension()))
+                && (classifier == null || classifier.equals(artifact.classifier()));
+    }
+
+    public NexusSearchResult apply(NexusSearchResult result) {
+        if (result == null || result.artifacts() == null || (repository == null && extension == null && classifier == null)) {
+            return result;
+        }
+        List<NexusArtifact> kept = new ArrayList<>(result.artifacts().size());
+        for (NexusArtifact artifact : result.artifacts()) {
+            if (matches(artifact)) {
+                kept.add(artifact);
+            }
+        }
+        return new NexusSearchResult(kept);
+    }
+
+    private static String trimToNull(String s) {
+        if (s == null) {
+            return null;
+        }
+        String t = s.trim();
+        return t.isEmpty() ? null : t;
+    }
+
+    private static String lowerIfIn(String s, Set<String> allowed) {
+        String t = trimToNull(s);
+        if (t == null) {
+            return null;
+        }
+        t = t.toLowerCase(Locale.ROOT);
+        return allowed.contains(t) ? t : null;
+    }
+}
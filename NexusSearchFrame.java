@@ -1,30 +1,163 @@
 package org.jd.gui.util.nexus.ui;
 
-import org.jd.gui.util.nexus.NexusSearch;
+import org.jd.gui.api.API;
+import org.jd.gui.util.maven.central.helper.NexusSearchPanel;
+import org.jd.gui.util.nexus.NexusWatchlist;
 
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
 import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 import java.awt.BorderLayout;
 import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 /**
  * We provide a top-level frame hosting a {@link NexusSearchPanel}
- * bound to a given {@link NexusSearch} implementation.
+ * for the repository configured in the preferences of the given API.
+ *
+ * When the watchlist of the panel finds a newer version of a watched
+ * artifact, a banner above the panel names it and offers to search it;
+ * only the latest finding is shown. The watchlist stops polling when the
+ * frame is closed.
+ *
+ * With NEXUS_SEARCH_PREWARM set, {@link #prewarm} loads the editor and
+ * table classes on a low priority thread at application start and builds
+ * a hidden frame, which the first {@link #obtain} returns; the panel only
+ * connects to the server once shown.
  *
  * This frame is designed for integration into the main application,
  * and should be constructed and displayed by higher-level controllers.
  */
 public final class NexusSearchFrame extends JFrame {
 
-    public NexusSearchFrame(NexusSearch search) {
+    private static final long serialVersionUID = 1L;
+
+    public static final String NEXUS_SEARCH_PREWARM = "JdGuiPreferences.nexusSearchPrewarm";
+
+    // Classes whose loading and static initialization dominate the first construction
+    private static final String[] PRELOADED_CLASSES = {
+            "org.fife.ui.rsyntaxtextarea.RSyntaxTextArea",
+            "org.fife.ui.rsyntaxtextarea.TokenMakerFactory",
+            "org.fife.ui.rtextarea.RTextScrollPane",
+            "org.jdesktop.swingx.JXTable",
+            "org.oxbow.swingbits.table.filter.TableRowFilterSupport",
+            "org.jd.gui.util.maven.central.helper.NexusSearchPanel",
+            "org.jd.gui.util.nexus.snippet.SnippetGenerators",
+    };
+
+    // Touched on the EDT only
+    private static NexusSearchFrame warm;
+
+    private final transient API api;
+
+    private final NexusSearchPanel panel;
+    private final JPanel banner = new JPanel(new BorderLayout());
+    private final JLabel bannerLabel = new JLabel();
+    private transient NexusWatchlist.Entry bannerEntry;
+
+    public NexusSearchFrame(API api) {
         super("Repository Search");
+        this.api = api;
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setLayout(new BorderLayout());
 
-        NexusSearchPanel panel = new NexusSearchPanel(search);
+        panel = new NexusSearchPanel(api);
         panel.setPreferredSize(new Dimension(1000, 600));
 
+        JButton searchButton = new JButton("Search");
+        searchButton.addActionListener(e -> {
+            NexusWatchlist.Entry entry = bannerEntry;
+            banner.setVisible(false);
+            if (entry != null) {
+                panel.searchCoordinates(entry.groupId(), entry.artifactId(), entry.version());
+            }
+        });
+        JButton dismissButton = new JButton("Dismiss");
+        dismissButton.addActionListener(e -> banner.setVisible(false));
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 4, 0));
+        buttons.add(searchButton);
+        buttons.add(dismissButton);
+        banner.setBorder(BorderFactory.createEmptyBorder(4, 8, 4, 4));
+        banner.add(bannerLabel, BorderLayout.CENTER);
+        banner.add(buttons, BorderLayout.EAST);
+        banner.setVisible(false);
+
+        add(banner, BorderLayout.NORTH);
         add(panel, BorderLayout.CENTER);
+
+        panel.addWatchlistListener((entry, previousVersion) ->
+                SwingUtilities.invokeLater(() -> showNewVersion(entry, previousVersion)));
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                panel.close();
+            }
+        });
+
         pack();
         setLocationRelativeTo(null);
     }
+
+    /**
+     * We build a hidden frame in the background when NEXUS_SEARCH_PREWARM is
+     * set, so that opening the search later only has to show it.
+     */
+    public static void prewarm(API api) {
+        if (!Boolean.parseBoolean(api.getPreferences().get(NEXUS_SEARCH_PREWARM))) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            ClassLoader loader = NexusSearchFrame.class.getClassLoader();
+            for (String name : PRELOADED_CLASSES) {
+                try {
+                    Class.forName(name, true, loader);
+                } catch (ClassNotFoundException | LinkageError ignored) {
+                    // Loaded, or reported, on first use instead
+                }
+            }
+            // Swing components are built on the EDT
+            SwingUtilities.invokeLater(() -> {
+                if (warm == null) {
+                    warm = new NexusSearchFrame(api);
+                }
+            });
+        }, "nexus-search-prewarm");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * We return the prewarmed frame of the API, once, or a new frame. To be
+     * called on the EDT.
+     */
+    public static NexusSearchFrame obtain(API api) {
+        NexusSearchFrame frame = warm;
+        warm = null;
+        if (frame != null && frame.api == api) {
+            return frame;
+        }
+        if (frame != null) {
+            frame.dispose();
+        }
+        return new NexusSearchFrame(api);
+    }
+
+    // For the startup benchmark
+    static boolean isWarm() {
+        return warm != null;
+    }
+
+    private void showNewVersion(NexusWatchlist.Entry entry, String previousVersion) {
+        bannerEntry = entry;
+        bannerLabel.setText("New version of " + entry.groupId() + ":" + entry.artifactId() + ": "
+                + entry.version() + " (was " + previousVersion + ")");
+        banner.setVisible(true);
+        banner.revalidate();
+    }
 }
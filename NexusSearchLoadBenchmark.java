@@ -0,0 +1,616 @@
+package org.jd.gui.util.nexus.cli;
+
+import org.jd.gui.util.nexus.LocalMavenRepositorySearch;
+import org.jd.gui.util.nexus.MavenIndexSearch;
+import org.jd.gui.util.nexus.MirrorNexusSearch;
+import org.jd.gui.util.nexus.NexusConfig;
+import org.jd.gui.util.nexus.NexusEndpointMetricsMXBean;
+import org.jd.gui.util.nexus.NexusMetrics;
+import org.jd.gui.util.nexus.NexusSearch;
+import org.jd.gui.util.nexus.NexusSearchFactory;
+import org.jd.gui.util.nexus.NexusThrottle;
+import org.jd.gui.util.nexus.OptionValues;
+import org.jd.gui.util.nexus.model.NexusSearchResult;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent-user load benchmark of the search stack.
+ *
+ *   java -cp jd-gui.jar org.jd.gui.util.nexus.cli.NexusSearchLoadBenchmark [options]
+ *
+ * We simulate many users of the same Nexus: each session runs keyword,
+ * SHA-1 and GAV searches in the configured mix, separated by an
+ * exponentially distributed think time, through a client created by
+ * {@link NexusSearchFactory} and wrapped as in the panel. Sessions start
+ * evenly over the ramp-up and stop starting actions at the end of the
+ * duration. Popular queries are picked more often than the others, as
+ * engineers of one team search the same artifacts.
+ *
+ * By default the server is a local {@link Nexus3StandIn} with a synthetic
+ * catalog and the given latency. With --url we load a real server instead,
+ * with queries read from --queries in the format of {@link NexusSearchCli}
+ * (sha1, gav and keyword lines, most popular first).
+ *
+ * Each session has its own client, as each engineer runs their own
+ * application, unless --shared-client is given. The throttle is shared by
+ * every client of a server in the JVM, so it is configured with the budget
+ * of one user (--rate and --max-in-flight, defaults of the application)
+ * times the number of sessions.
+ *
+ * We report throughput, latency percentiles per kind of search, requests
+ * sent by the clients per action (and those served by the stand-in), heap
+ * used and live threads. Threads of the sessions and of the stand-in are
+ * counted apart from those of the clients. The exit status is 0 when every
+ * action succeeded, 1 otherwise and 2 on a usage error.
+ *
+ * Credentials come from NEXUS_USER and NEXUS_PASSWORD, as for the CLI.
+ */
+public final class NexusSearchLoadBenchmark {
+
+    static final String SESSION_THREAD_PREFIX = "nexus-load-session-";
+
+    private static final String USAGE = String.join("\n",
+            "Usage: NexusSearchLoadBenchmark [options]",
+            "  --sessions N           simulated users (default: 50)",
+            "  --duration SECONDS     time during which actions start (default: 60)",
+            "  --ramp-up SECONDS      time over which sessions start (default: 10)",
+            "  --think MILLIS         mean think time between actions (default: 3000)",
+            "  --mix K,S,G            weights of keyword, SHA-1 and GAV searches (default: 50,20,30)",
+            "  --shared-client        one client for all sessions",
+            "  --rate N               requests per second per session (default: 10)",
+            "  --max-in-flight N      concurrent requests per session (default: 4)",
+            "  --seed N               seed of the simulated users (default: 1)",
+            "  --metrics              print request metrics at the end",
+            "Local stand-in (default):",
+            "  --artifacts N          artifacts of the catalog (default: 2000)",
+            "  --server-latency MS    mean latency of the stand-in (default: 20)",
+            "  --server-threads N     request threads of the stand-in (default: 64)",
+            "Real server:",
+            "  --url URL              Nexus base URL",
+            "  --queries FILE         queries, one per line, most popular first",
+            "Credentials: $NEXUS_USER and $NEXUS_PASSWORD.");
+
+    enum Kind {
+        KEYWORD("keyword"), SHA1("sha1"), GAV("gav");
+
+        final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        static Kind of(String type) {
+            for (Kind kind : values()) {
+                if (kind.label.equals(type)) {
+                    return kind;
+                }
+            }
+            return null;
+        }
+    }
+
+    static final class Options {
+        int sessions = 50;
+        int durationSeconds = 60;
+        int rampUpSeconds = 10;
+        int thinkMillis = 3000;
+        int[] mix = {50, 20, 30};
+        boolean sharedClient;
+        double rate = 10;
+        int maxInFlight = 4;
+        long seed = 1;
+        boolean metrics;
+        int artifacts = 2000;
+        int serverLatencyMillis = 20;
+        int serverThreads = 64;
+        String url;
+        Path queries;
+
+        static Options parse(String[] args) {
+            Options o = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--sessions" -> o.sessions = OptionValues.positive(args, ++i, arg);
+                    case "--duration" -> o.durationSeconds = OptionValues.positive(args, ++i, arg);
+                    case "--ramp-up" -> o.rampUpSeconds = OptionValues.nonNegative(args, ++i, arg);
+                    case "--think" -> o.thinkMillis = OptionValues.nonNegative(args, ++i, arg);
+                    case "--mix" -> o.mix = mix(OptionValues.value(args, ++i, arg));
+                    case "--shared-client" -> o.sharedClient = true;
+                    case "--rate" -> o.rate = OptionValues.nonNegative(args, ++i, arg);
+                    case "--max-in-flight" -> o.maxInFlight = OptionValues.positive(args, ++i, arg);
+                    case "--seed" -> o.seed = OptionValues.nonNegative(args, ++i, arg);
+                    case "--metrics" -> o.metrics = true;
+                    case "--artifacts" -> o.artifacts = OptionValues.positive(args, ++i, arg);
+                    case "--server-latency" -> o.serverLatencyMillis = OptionValues.nonNegative(args, ++i, arg);
+                    case "--server-threads" -> o.serverThreads = OptionValues.positive(args, ++i, arg);
+                    case "--url" -> o.url = OptionValues.value(args, ++i, arg).strip();
+                    case "--queries" -> o.queries = Path.of(OptionValues.value(args, ++i, arg));
+                    default -> throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            if (o.url != null && o.queries == null) {
+                throw new IllegalArgumentException("--url needs --queries");
+            }
+            return o;
+        }
+
+        static int[] mix(String s) {
+            String[] parts = s.split(",");
+            if (parts.length != Kind.values().length) {
+                throw new IllegalArgumentException("--mix needs three weights: " + s);
+            }
+            int[] weights = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                weights[i] = OptionValues.nonNegative(parts[i].strip(), "--mix");
+            }
+            if (Arrays.stream(weights).sum() == 0) {
+                throw new IllegalArgumentException("--mix needs a positive weight: " + s);
+            }
+            return weights;
+        }
+    }
+
+    /**
+     * Queries of each kind, most popular first.
+     */
+    static final class Corpus {
+        private final Map<Kind, List<NexusSearchCli.Query>> queries = new EnumMap<>(Kind.class);
+
+        void add(NexusSearchCli.Query query) {
+            Kind kind = Kind.of(query.type());
+            if (kind == null) {
+                throw new IllegalArgumentException("Line " + query.line() + ": only sha1, gav and keyword queries are supported");
+            }
+            queries.computeIfAbsent(kind, k -> new ArrayList<>()).add(query);
+        }
+
+        boolean has(Kind kind) {
+            return queries.containsKey(kind);
+        }
+
+        /**
+         * We pick a query with a skewed distribution: the first tenth of the
+         * queries receives about half of the picks.
+         */
+        NexusSearchCli.Query pick(Kind kind, SplittableRandom random) {
+            List<NexusSearchCli.Query> list = queries.get(kind);
+            return list.get((int) (list.size() * Math.pow(random.nextDouble(), 3.3)));
+        }
+
+        static Corpus read(Path file) throws IOException {
+            Corpus corpus = new Corpus();
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                int lineNo = 0;
+                while ((line = reader.readLine()) != null) {
+                    NexusSearchCli.Query query = NexusSearchCli.Query.parse(++lineNo, line);
+                    if (query != null) {
+                        corpus.add(query);
+                    }
+                }
+            }
+            return corpus;
+        }
+
+        /**
+         * We derive queries from the catalog of the stand-in: artifact
+         * names, jar checksums and coordinates with or without version.
+         */
+        static Corpus of(Nexus3StandIn standIn) {
+            Corpus corpus = new Corpus();
+            int line = 0;
+            for (Nexus3StandIn.Component c : standIn.components()) {
+                line++;
+                if (c.version().equals("1." + Nexus3StandIn.VERSIONS)) {
+                    corpus.add(new NexusSearchCli.Query(line, "keyword", c.name()));
+                    corpus.add(new NexusSearchCli.Query(line, "gav", c.group() + ":" + c.name()));
+                } else {
+                    corpus.add(new NexusSearchCli.Query(line, "gav", c.group() + ":" + c.name() + ":" + c.version()));
+                }
+                corpus.add(new NexusSearchCli.Query(line, "sha1", c.assets().get(0).sha1()));
+            }
+            return corpus;
+        }
+    }
+
+    /**
+     * Latencies of one kind of action, in microseconds.
+     */
+    static final class Recorder {
+        private long[] micros = new long[1024];
+        private int count;
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+
+        synchronized void record(long nanos) {
+            if (count == micros.length) {
+                micros = Arrays.copyOf(micros, count * 2);
+            }
+            micros[count++] = TimeUnit.NANOSECONDS.toMicros(nanos);
+        }
+
+        void fail() {
+            failures.increment();
+        }
+
+        void rows(int n) {
+            rows.add(n);
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(micros, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        long failures() {
+            return failures.sum();
+        }
+
+        long rows() {
+            return rows.sum();
+        }
+    }
+
+    /**
+     * Heap and thread samples, taken at a fixed rate during the run.
+     */
+    static final class Sampler {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private final AtomicLong peakHeap = new AtomicLong();
+        private final AtomicInteger peakThreads = new AtomicInteger();
+        private final AtomicInteger peakClientThreads = new AtomicInteger();
+
+        void sample() {
+            peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+            int all = 0;
+            int client = 0;
+            for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds(), 0)) {
+                if (info != null) {
+                    all++;
+                    if (isClientThread(info.getThreadName())) {
+                        client++;
+                    }
+                }
+            }
+            peakThreads.accumulateAndGet(all, Math::max);
+            peakClientThreads.accumulateAndGet(client, Math::max);
+        }
+
+        long heapUsed() {
+            return memory.getHeapMemoryUsage().getUsed();
+        }
+
+        long heapAfterGc() {
+            memory.gc();
+            return heapUsed();
+        }
+
+        int clientThreads() {
+            int client = 0;
+            for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds(), 0)) {
+                if (info != null && isClientThread(info.getThreadName())) {
+                    client++;
+                }
+            }
+            return client;
+        }
+
+        // The harness runs the sessions, the stand-in and the sampler; everything else is the client's or the JVM's
+        static boolean isClientThread(String name) {
+            return !name.startsWith(SESSION_THREAD_PREFIX) && !name.startsWith(Nexus3StandIn.THREAD_PREFIX)
+                    && !name.equals("HTTP-Dispatcher") && !name.equals("nexus-load-sampler");
+        }
+    }
+
+    private final NexusSearch[] clients;
+    private final Corpus corpus;
+    private final Options options;
+    private final Map<Kind, Recorder> recorders = new EnumMap<>(Kind.class);
+    private final int[] weights;
+
+    NexusSearchLoadBenchmark(NexusSearch[] clients, Corpus corpus, Options options) {
+        this.clients = clients;
+        this.corpus = corpus;
+        this.options = options;
+        this.weights = options.mix.clone();
+        for (Kind kind : Kind.values()) {
+            recorders.put(kind, new Recorder());
+            if (!corpus.has(kind)) {
+                weights[kind.ordinal()] = 0;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) throws Exception {
+        Options options;
+        Corpus corpus = null;
+        try {
+            options = Options.parse(args);
+            if (options.queries != null) {
+                corpus = Corpus.read(options.queries);
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return 2;
+        } catch (IOException e) {
+            err.println("Cannot read the queries: " + e.getMessage());
+            return 2;
+        }
+
+        Sampler sampler = new Sampler();
+        long heapBefore = sampler.heapAfterGc();
+        int threadsBefore = sampler.clientThreads();
+
+        Nexus3StandIn standIn = options.url == null
+                ? new Nexus3StandIn(options.artifacts, options.serverLatencyMillis, options.serverThreads)
+                : null;
+        try {
+            String url = standIn != null ? standIn.baseUrl() : options.url;
+            if (corpus == null) {
+                corpus = Corpus.of(standIn);
+            }
+            NexusSearchLoadBenchmark benchmark = new NexusSearchLoadBenchmark(clients(url, options), corpus, options);
+            if (Arrays.stream(benchmark.weights).sum() == 0) {
+                err.println("No queries of the kinds in the mix");
+                return 2;
+            }
+
+            // Client creation probes the server; only the load is measured
+            NexusMetrics.global().reset();
+            if (standIn != null) {
+                standIn.resetCounts();
+            }
+            ScheduledExecutorService sampling = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "nexus-load-sampler");
+                t.setDaemon(true);
+                return t;
+            });
+            sampling.scheduleAtFixedRate(sampler::sample, 0, 200, TimeUnit.MILLISECONDS);
+            long elapsedNanos;
+            try {
+                elapsedNanos = benchmark.runSessions();
+            } finally {
+                sampling.shutdownNow();
+            }
+            sampler.sample();
+
+            long actions = benchmark.report(out, elapsedNanos, standIn);
+            out.printf(Locale.ROOT, "heap:     %s before, %s peak, %s after GC%n",
+                    mebibytes(heapBefore), mebibytes(sampler.peakHeap.get()), mebibytes(sampler.heapAfterGc()));
+            out.printf(Locale.ROOT, "threads:  %d before, %d peak, %d at end (clients; %d peak in the JVM)%n",
+                    threadsBefore, sampler.peakClientThreads.get(), sampler.clientThreads(), sampler.peakThreads.get());
+            if (options.metrics) {
+                out.print(NexusMetrics.global().report());
+            }
+            long failures = benchmark.recorders.values().stream().mapToLong(Recorder::failures).sum();
+            return actions > 0 && failures == 0 ? 0 : 1;
+        } finally {
+            if (standIn != null) {
+                standIn.close();
+            }
+        }
+    }
+
+    /**
+     * We create the clients as the application does, with a throttle sized
+     * for all the sessions since it is shared by the JVM.
+     */
+    private static NexusSearch[] clients(String url, Options options) {
+        NexusConfig config = new NexusConfig(url, System.getenv("NEXUS_USER"), password());
+        Map<String, String> prefs = new HashMap<>();
+        prefs.put(NexusThrottle.NEXUS_MAX_REQUESTS_PER_SECOND, Double.toString(options.rate * options.sessions));
+        prefs.put(NexusThrottle.NEXUS_MAX_IN_FLIGHT, Integer.toString(options.maxInFlight * options.sessions));
+        NexusThrottle.configure(config.baseUrl, prefs);
+        NexusSearch[] clients = new NexusSearch[options.sharedClient ? 1 : options.sessions];
+        for (int i = 0; i < clients.length; i++) {
+            NexusSearch remote = MirrorNexusSearch.wrap(NexusSearchFactory.create(config, null), config, prefs);
+            clients[i] = LocalMavenRepositorySearch.wrap(MavenIndexSearch.wrap(remote, config, prefs), prefs);
+        }
+        return clients;
+    }
+
+    private static char[] password() {
+        String password = System.getenv("NEXUS_PASSWORD");
+        return password == null || password.isEmpty() ? null : password.toCharArray();
+    }
+
+    /**
+     * We run all sessions and return the time from the first start to the
+     * end of the last action.
+     */
+    long runSessions() throws InterruptedException {
+        AtomicInteger threadNo = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(options.sessions, r -> {
+            Thread t = new Thread(r, SESSION_THREAD_PREFIX + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        long rampUpNanos = TimeUnit.SECONDS.toNanos(options.rampUpSeconds);
+        try {
+            for (int i = 0; i < options.sessions; i++) {
+                int session = i;
+                long startAt = start + rampUpNanos * i / options.sessions;
+                executor.execute(() -> runSession(session, startAt, end));
+            }
+        } finally {
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // Actions still running
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void runSession(int session, long startAt, long end) {
+        NexusSearch search = clients[session % clients.length];
+        SplittableRandom random = new SplittableRandom(options.seed * 1_000_003 + session);
+        try {
+            sleepUntil(startAt);
+            while (System.nanoTime() < end) {
+                Kind kind = pickKind(random);
+                NexusSearchCli.Query query = corpus.pick(kind, random);
+                Recorder recorder = recorders.get(kind);
+                long actionStart = System.nanoTime();
+                try {
+                    recorder.rows(execute(search, kind, query.value()));
+                    recorder.record(System.nanoTime() - actionStart);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    recorder.record(System.nanoTime() - actionStart);
+                    recorder.fail();
+                }
+                sleepUntil(Math.min(end, System.nanoTime() + thinkNanos(random)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Kind pickKind(SplittableRandom random) {
+        int r = random.nextInt(Arrays.stream(weights).sum());
+        for (Kind kind : Kind.values()) {
+            r -= weights[kind.ordinal()];
+            if (r < 0) {
+                return kind;
+            }
+        }
+        throw new IllegalStateException("No kind for the mix");
+    }
+
+    // Exponential with the configured mean, capped at five times the mean
+    private long thinkNanos(SplittableRandom random) {
+        double millis = -options.thinkMillis * Math.log(1 - random.nextDouble());
+        return TimeUnit.MICROSECONDS.toNanos((long) (Math.min(millis, 5.0 * options.thinkMillis) * 1000));
+    }
+
+    private static int execute(NexusSearch search, Kind kind, String value) throws Exception {
+        NexusSearchResult result = switch (kind) {
+            case KEYWORD -> search.searchByKeyword(value, 0);
+            case SHA1 -> search.searchBySha1(value, 0);
+            case GAV -> {
+                String[] gav = value.split(":");
+                if (gav.length < 2) {
+                    throw new IllegalArgumentException("Expected group:artifact[:version]");
+                }
+                yield search.searchByGav(gav[0], gav[1], gav.length > 2 && !gav[2].isBlank() ? gav[2] : null, 0);
+            }
+        };
+        return result == null || result.artifacts() == null ? 0 : result.artifacts().size();
+    }
+
+    private static void sleepUntil(long deadline) throws InterruptedException {
+        long nanos = deadline - System.nanoTime();
+        if (nanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+    }
+
+    /**
+     * We print throughput, latencies and requests per action, and return
+     * the number of actions.
+     */
+    long report(PrintStream out, long elapsedNanos, Nexus3StandIn standIn) {
+        double seconds = elapsedNanos / 1e9;
+        long actions = 0;
+        long failures = 0;
+        long rows = 0;
+        Map<Kind, long[]> sorted = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            Recorder recorder = recorders.get(kind);
+            long[] micros = recorder.sorted();
+            sorted.put(kind, micros);
+            actions += micros.length;
+            failures += recorder.failures();
+            rows += recorder.rows();
+        }
+        long[] merged = sorted.values().stream().flatMapToLong(Arrays::stream).sorted().toArray();
+
+        out.printf(Locale.ROOT, "sessions: %d (%s), %.1f s, think %d ms%n", options.sessions,
+                clients.length == 1 ? "shared client" : "one client each", seconds, options.thinkMillis);
+        out.printf(Locale.ROOT, "actions:  %d, %d failed, %.1f rows each%n", actions, failures,
+                actions == 0 ? 0.0 : (double) rows / actions);
+        out.printf(Locale.ROOT, "throughput: %.2f actions/s%n", actions / seconds);
+        out.printf(Locale.ROOT, "%-10s %8s %8s %8s %8s %8s %8s%n", "latency", "count", "failed", "p50 ms", "p90 ms",
+                "p99 ms", "max ms");
+        for (Map.Entry<Kind, long[]> entry : sorted.entrySet()) {
+            printLatencies(out, entry.getKey().label, entry.getValue(), recorders.get(entry.getKey()).failures());
+        }
+        printLatencies(out, "all", merged, failures);
+
+        long sent = 0;
+        long shared = 0;
+        for (NexusEndpointMetricsMXBean endpoint : NexusMetrics.global().endpoints()) {
+            sent += endpoint.getRequestCount();
+            shared += endpoint.getSharedCount();
+        }
+        out.printf(Locale.ROOT, "requests: %.2f sent per action (%d), %.2f shared per action (%d)%n",
+                perAction(sent, actions), sent, perAction(shared, actions), shared);
+        if (standIn != null) {
+            long served = standIn.requestCount();
+            out.printf(Locale.ROOT, "server:   %.2f served per action (%d), %.1f per second%n",
+                    perAction(served, actions), served, served / seconds);
+        }
+        return actions;
+    }
+
+    private static void printLatencies(PrintStream out, String label, long[] micros, long failures) {
+        out.printf(Locale.ROOT, "%-10s %8d %8d %8.1f %8.1f %8.1f %8.1f%n", label, micros.length, failures,
+                percentile(micros, 0.50) / 1e3, percentile(micros, 0.90) / 1e3,
+                percentile(micros, 0.99) / 1e3, micros.length == 0 ? 0 : micros[micros.length - 1] / 1e3);
+    }
+
+    /**
+     * We return the nearest-rank percentile of sorted values, or 0 when there are none.
+     */
+    static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(Math.min(1, Math.max(0, quantile)) * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double perAction(long n, long actions) {
+        return actions == 0 ? 0 : (double) n / actions;
+    }
+
+    private static String mebibytes(long bytes) {
+        return String.format(Locale.ROOT, "%.1f MiB", bytes / (1024.0 * 1024.0));
+    }
+}
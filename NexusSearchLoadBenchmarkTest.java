@@ -0,0 +1,127 @@
+package org.jd.gui.util.nexus.cli;
+
+import org.jd.gui.util.nexus.NexusSearch;
+import org.jd.gui.util.nexus.model.NexusSearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Proxy;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NexusSearchLoadBenchmark and its Nexus 3 stand-in.
+ */
+class NexusSearchLoadBenchmarkTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"continuationToken\":\"([0-9a-f]+)\"");
+
+    private static String get(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static int count(String body, String needle) {
+        int n = 0;
+        for (int i = body.indexOf(needle); i >= 0; i = body.indexOf(needle, i + 1)) {
+            n++;
+        }
+        return n;
+    }
+
+    @Test
+    void standInPagesAndFilters() throws IOException {
+        try (Nexus3StandIn standIn = new Nexus3StandIn(200, 0, 4)) {
+            String search = standIn.baseUrl() + "/service/rest/v1/search";
+
+            // demo-1, demo-10..19 and demo-100..199: 111 artifacts of 5 versions, over 12 pages
+            int components = 0;
+            int pages = 0;
+            String token = null;
+            do {
+                String body = get(search + "?q=demo-1" + (token == null ? "" : "&continuationToken=" + token));
+                components += count(body, "\"format\":\"maven2\",\"group\"");
+                pages++;
+                Matcher m = TOKEN.matcher(body);
+                token = m.find() ? m.group(1) : null;
+            } while (token != null);
+            assertEquals(111 * Nexus3StandIn.VERSIONS, components);
+            assertEquals(12, pages);
+
+            String gav = get(search + "?group=org.example&name=demo-4&version=1.2&maven.extension=jar");
+            assertEquals(1, count(gav, "\"group\":\"org.example\""));
+            assertEquals(1, count(gav, "\"downloadUrl\""));
+
+            Nexus3StandIn.Asset jar = standIn.components().get(0).assets().get(0);
+            String assets = get(standIn.baseUrl() + "/service/rest/v1/search/assets?sha1=" + jar.sha1());
+            assertTrue(assets.contains("\"path\":\"" + jar.path() + "\""));
+            assertTrue(assets.contains("\"continuationToken\":null"));
+
+            assertEquals(pages + 1, standIn.requestCount("search"));
+            assertEquals(pages + 2, standIn.requestCount());
+            standIn.resetCounts();
+            assertEquals(0, standIn.requestCount());
+        }
+    }
+
+    @Test
+    void sessionsRunTheMix() throws IOException, InterruptedException {
+        Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        NexusSearch search = (NexusSearch) Proxy.newProxyInstance(NexusSearch.class.getClassLoader(),
+                new Class<?>[] {NexusSearch.class}, (proxy, method, args) -> {
+                    calls.computeIfAbsent(method.getName(), k -> new AtomicInteger()).incrementAndGet();
+                    return method.getReturnType() == NexusSearchResult.class ? new NexusSearchResult(List.of()) : null;
+                });
+        NexusSearchLoadBenchmark.Options options = NexusSearchLoadBenchmark.Options.parse(new String[] {
+                "--sessions", "4", "--duration", "1", "--ramp-up", "0", "--think", "5", "--mix", "1,0,1"});
+
+        try (Nexus3StandIn standIn = new Nexus3StandIn(20, 0, 1)) {
+            NexusSearchLoadBenchmark benchmark = new NexusSearchLoadBenchmark(new NexusSearch[] {search},
+                    NexusSearchLoadBenchmark.Corpus.of(standIn), options);
+            long elapsed = benchmark.runSessions();
+            assertTrue(elapsed >= 1_000_000_000L);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            long actions = benchmark.report(new PrintStream(out, true, StandardCharsets.UTF_8), elapsed, standIn);
+            assertEquals(actions, calls.get("searchByKeyword").get() + calls.get("searchByGav").get());
+            assertNull(calls.get("searchBySha1"));
+            assertTrue(out.toString(StandardCharsets.UTF_8).contains("throughput:"));
+        }
+    }
+
+    @Test
+    void percentilesUseNearestRank() {
+        long[] values = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        assertEquals(5, NexusSearchLoadBenchmark.percentile(values, 0.5));
+        assertEquals(9, NexusSearchLoadBenchmark.percentile(values, 0.9));
+        assertEquals(10, NexusSearchLoadBenchmark.percentile(values, 0.99));
+        assertEquals(1, NexusSearchLoadBenchmark.percentile(values, 0));
+        assertEquals(0, NexusSearchLoadBenchmark.percentile(new long[0], 0.5));
+    }
+
+    @Test
+    void usageErrorsExitWithTwo() throws Exception {
+        for (String[] args : List.of(new String[] {"--url", "https://nexus"}, new String[] {"--mix", "1,2"},
+                new String[] {"--mix", "0,0,0"}, new String[] {"--sessions", "0"})) {
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+            assertEquals(2, NexusSearchLoadBenchmark.run(args, new PrintStream(new ByteArrayOutputStream()),
+                    new PrintStream(err, true, StandardCharsets.UTF_8)));
+            assertTrue(err.toString(StandardCharsets.UTF_8).startsWith("--"));
+        }
+    }
+}
@@ -1,18 +1,39 @@
 package org.jd.gui.util.maven.central.helper;
 
 import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
-import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 import org.fife.ui.rtextarea.RTextScrollPane;
 import org.jd.gui.api.API;
 import org.jd.gui.util.NexusConfigHelper;
 import org.jd.gui.util.ProxyConfigHelper;
 import org.jd.gui.util.ThemeUtil;
 import org.jd.gui.util.maven.central.helper.ProxyConfig;
+import org.jd.gui.util.nexus.ArtifactRecordWriter;
+import org.jd.gui.util.nexus.ExportProgress;
+import org.jd.gui.util.nexus.LatestVersionResolver;
+import org.jd.gui.util.nexus.LocalMavenRepositorySearch;
+import org.jd.gui.util.nexus.MavenIndexSearch;
+import org.jd.gui.util.nexus.MavenMetadataVersions;
+import org.jd.gui.util.nexus.MirrorNexusSearch;
+import org.jd.gui.util.nexus.NexusCircuitOpenException;
+import org.jd.gui.util.nexus.NexusClassIndexCrawl;
 import org.jd.gui.util.nexus.NexusConfig;
+import org.jd.gui.util.nexus.NexusFilteredSearch;
+import org.jd.gui.util.nexus.NexusHttpException;
+import org.jd.gui.util.nexus.NexusMetrics;
 import org.jd.gui.util.nexus.NexusSearch;
 import org.jd.gui.util.nexus.NexusSearchFactory;
+import org.jd.gui.util.nexus.NexusSearchFilter;
+import org.jd.gui.util.nexus.NexusThrottle;
+import org.jd.gui.util.nexus.NexusWatchlist;
+import org.jd.gui.util.nexus.PomEnricher;
+import org.jd.gui.util.nexus.PomSource;
+import org.jd.gui.util.nexus.ResultExporter;
+import org.jd.gui.util.nexus.SpillingArtifactList;
 import org.jd.gui.util.nexus.model.NexusArtifact;
 import org.jd.gui.util.nexus.model.NexusSearchResult;
+import org.jd.gui.util.nexus.snippet.SnippetExport;
+import org.jd.gui.util.nexus.snippet.SnippetGenerator;
+import org.jd.gui.util.nexus.snippet.SnippetGenerators;
 import org.jdesktop.swingx.JXTable;
 import org.jdesktop.swingx.decorator.HighlighterFactory;
 import org.oxbow.swingbits.list.CheckListRenderer;
@@ -20,6 +41,10 @@ import org.oxbow.swingbits.table.filter.TableRowFilterSupport;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
+import javax.swing.JComponent;
+import javax.swing.JDialog;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
@@ -27,24 +52,53 @@ import javax.swing.JPopupMenu;
 import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
+import javax.swing.JTextArea;
 import javax.swing.JTextField;
+import javax.swing.JMenu;
 import javax.swing.JMenuItem;
+import javax.swing.JFileChooser;
+import javax.swing.SwingUtilities;
 import javax.swing.SwingWorker;
+import javax.swing.Timer;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
+import javax.swing.event.TableModelEvent;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.AbstractTableModel;
 import java.awt.BorderLayout;
+import java.awt.Font;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.Toolkit;
+import java.awt.datatransfer.StringSelection;
+import java.awt.event.HierarchyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 /**
  * We provide a search panel for NexusSearch implementations.
@@ -58,20 +112,72 @@ import java.util.List;
  * We execute searches in a background SwingWorker and report progress
  * through a single JProgressBar at the bottom. Results are displayed
  * in a table backed by a custom table model and are appended as pages
- * arrive. Snippets for several build tools are shown in RSyntaxTextArea
- * tabs for the selected row. A double click on a row opens the artifact
- * link in the main JD-GUI window via API.openURI. A right click on the
- * table shows a context menu with a Compare Files action when exactly
- * two rows are selected, which calls API.compareFiles.
+ * arrive. Past 20,000 artifacts, older results spill to a memory-mapped
+ * file and rows are shown flat (see SpillingArtifactList).
+ *
+ * By default results are grouped with one row per component; a double
+ * click on the Assets column (or the Show Assets context action) expands
+ * the other files of the component. Otherwise a double click on a row
+ * opens the artifact link in the main JD-GUI window via API.openURI.
+ *
+ * The detail tabs of the selected row:
+ *  - Snippets for several build tools (see SnippetGenerators), in
+ *    RSyntaxTextArea tabs; only the visible tab is rendered, and rendered
+ *    snippets are cached per artifact
+ *  - Contents, the entries of the archive listed through HTTP range
+ *    requests (see RemoteZip), small entries shown on demand
+ *  - Dependencies, the transitive dependency tree filled in level by
+ *    level (see DependencyResolver)
+ *
+ * A right click on the table shows a context menu with:
+ *  - Compare Files, when exactly two rows are selected, which calls
+ *    API.compareFiles
+ *  - Copy Snippets and Save Snippets, one combined block for all selected
+ *    rows (see SnippetExport)
+ *  - Watch for New Versions, which adds the group and artifact of the
+ *    selected rows to the watchlist of the server, polled in the
+ *    background (see NexusWatchlist); the hosting frame shows what it finds
+ *
+ * The coordinates tab has a Latest button that fills in the newest release
+ * of the group and artifact (see LatestVersionResolver) and runs the
+ * search. When browse repositories are configured, a coordinates search
+ * without a version lists the versions from maven-metadata.xml (see
+ * MavenMetadataVersions), and expanding a version searches its assets.
+ *
+ * The filter strip (repository, extension, classifier, sort) is passed to
+ * backends implementing NexusFilteredSearch so it is applied by the
+ * server, and applied to each page otherwise. The Export button saves the
+ * rows shown, as filtered and sorted, to CSV or JSON Lines (see
+ * ResultExporter), and the Metrics button shows request timings per
+ * endpoint (see NexusMetrics).
+ *
+ * The Packaging, License and Description columns, hidden by default, are
+ * read from the POMs of the rows in the viewport only (see PomEnricher).
+ *
+ * Construction is kept cheap so the panel paints quickly: the search
+ * backend (configuration, clients, index and caches) is created in the
+ * background once the panel is first shown, and a search started before
+ * it is ready waits for it. Snippet editors and the Contents and
+ * Dependencies panels are built when their tab is first shown, and the
+ * table filter support when the first results arrive.
  */
 public final class NexusSearchPanel extends JPanel {
 
     private static final long serialVersionUID = 1L;
 
     private static final int MAX_PAGES = 50;
+    private static final int SNIPPET_CACHE_SIZE = 256;
+    private static final String GROUP_TOOLTIP = "One row per component; double click the Assets column to show its other files";
 
     private final transient API api;
-    private final transient NexusSearch search;
+
+    // Set on the EDT once created in the background; read by search workers
+    private transient volatile Backend backend;
+    private boolean backendStarted;
+    private boolean pendingSearch;
+    private boolean closed;
+    private boolean filterInstalled;
+    private final transient List<NexusWatchlist.Listener> watchlistListeners = new ArrayList<>();
 
     private final JTabbedPane modeTabs;
 
@@ -85,30 +191,44 @@ public final class NexusSearchPanel extends JPanel {
     private final JTextField groupField;
     private final JTextField artifactField;
     private final JTextField versionField;
+    private final JButton latestButton;
 
     // Class tab
     private final JTextField classNameField;
 
+    // Filters
+    private final JTextField repositoryField;
+    private final JComboBox<String> extensionCombo;
+    private final JTextField classifierField;
+    private final JComboBox<String> sortCombo;
+    private final JComboBox<String> directionCombo;
+
     // Controls
     private JButton searchButton;
     private JButton cancelButton;
+    private JCheckBox groupCheckBox;
     private final JProgressBar progressBar;
 
     private final JXTable resultTable;
     private final ResultTableModel tableModel;
+    private final Timer enrichTimer;
 
     private final JTabbedPane snippetTabs;
-    private final RSyntaxTextArea mavenArea;
-    private final RSyntaxTextArea gradleArea;
-    private final RSyntaxTextArea ivyArea;
-    private final RSyntaxTextArea sbtArea;
-    private final RSyntaxTextArea leinArea;
-    private final RSyntaxTextArea grapeArea;
-    private final RSyntaxTextArea buildrArea;
-    private final RSyntaxTextArea bldArea;
+    private final transient List<SnippetTab> snippetTabList = new ArrayList<>();
+    private final transient Map<SnippetKey, String> snippetCache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<SnippetKey, String> eldest) {
+            return size() > SNIPPET_CACHE_SIZE;
+        }
+    };
+    private transient NexusArtifact snippetArtifact;
+    private final LazyTab<ArchiveContentsPanel> contentsTab;
+    private final LazyTab<DependencyTreePanel> dependencyTab;
 
     private final JPopupMenu tablePopupMenu;
     private final JMenuItem compareFilesItem;
+    private final JMenuItem toggleAssetsItem;
+    private final JMenuItem watchItem;
 
     private transient SearchWorker currentWorker;
 
@@ -123,35 +243,58 @@ public final class NexusSearchPanel extends JPanel {
         groupField = new JTextField(20);
         artifactField = new JTextField(20);
         versionField = new JTextField(12);
+        latestButton = new JButton("Latest");
         classNameField = new JTextField(30);
 
+        repositoryField = new JTextField(12);
+        extensionCombo = new JComboBox<>(new String[] {"", "jar", "pom", "war", "aar", "zip"});
+        extensionCombo.setEditable(true);
+        extensionCombo.setToolTipText("Checksums and signatures are only listed when asked for here, e.g. jar.sha1 or jar.asc");
+        classifierField = new JTextField(8);
+        sortCombo = new JComboBox<>(new String[] {"Relevance", "Group", "Name", "Version", "Repository"});
+        directionCombo = new JComboBox<>(new String[] {"asc", "desc"});
+        directionCombo.setEnabled(false);
+        sortCombo.addActionListener(e -> directionCombo.setEnabled(sortCombo.getSelectedIndex() > 0));
+
         modeTabs.addTab("Keyword", createKeywordPanel());
         modeTabs.addTab("SHA-1", createSha1Panel());
         modeTabs.addTab("Coordinates", createGavPanel());
         modeTabs.addTab("Class", createClassPanel());
 
-        ProxyConfig proxyConfig = ProxyConfigHelper.fromPreferences(api.getPreferences(), this);
-        NexusConfig nexusConfig = NexusConfigHelper.fromPreferences(api.getPreferences(), this);
-        search = NexusSearchFactory.create(nexusConfig, proxyConfig);
-        if (!search.supportsClassSearch()) {
-            modeTabs.setEnabledAt(3, false);
-            modeTabs.setToolTipTextAt(3, "Class search is not supported by this backend");
-        }
-
         JPanel north = new JPanel(new BorderLayout());
         north.add(modeTabs, BorderLayout.CENTER);
-        north.add(createControlStrip(), BorderLayout.SOUTH);
+        JPanel strips = new JPanel(new BorderLayout());
+        strips.add(createFilterStrip(), BorderLayout.NORTH);
+        strips.add(createControlStrip(), BorderLayout.SOUTH);
+        north.add(strips, BorderLayout.SOUTH);
 
         tableModel = new ResultTableModel();
         resultTable = new JXTable(tableModel);
         resultTable.setFillsViewportHeight(true);
         resultTable.setColumnControlVisible(true);
+
+        // POM columns are hidden until chosen in the column control; only visible rows are enriched
+        enrichTimer = new Timer(150, e -> enrichVisibleRows());
+        enrichTimer.setRepeats(false);
+        for (String column : ResultTableModel.POM_COLUMNS) {
+            resultTable.getColumnExt(column).setVisible(false);
+            resultTable.getColumnExt(column).addPropertyChangeListener(e -> {
+                if ("visible".equals(e.getPropertyName())) {
+                    enrichTimer.restart();
+                }
+            });
+        }
+        tableModel.addTableModelListener(e -> {
+            if (e.getType() != TableModelEvent.UPDATE || e.getLastRow() == Integer.MAX_VALUE) {
+                enrichTimer.restart();
+            }
+            if (!filterInstalled && tableModel.getRowCount() > 0) {
+                // Not while the model is notifying its listeners
+                filterInstalled = true;
+                SwingUtilities.invokeLater(this::installFilterSupport);
+            }
+        });
         resultTable.setHighlighters(HighlighterFactory.createSimpleStriping());
-        TableRowFilterSupport.forTable(resultTable)
-                .actions(true)
-                .searchable(true)
-                .checkListRenderer(new CheckListRenderer())
-                .apply();
 
         resultTable.getSelectionModel().addListSelectionListener(new ListSelectionListener() {
             @Override
@@ -174,6 +317,25 @@ public final class NexusSearchPanel extends JPanel {
         compareFilesItem = new JMenuItem("Compare Files");
         compareFilesItem.addActionListener(e -> compareSelectedArtifacts());
         tablePopupMenu.add(compareFilesItem);
+        toggleAssetsItem = new JMenuItem("Show Assets");
+        toggleAssetsItem.addActionListener(e -> toggleSelectedComponent());
+        tablePopupMenu.add(toggleAssetsItem);
+        watchItem = new JMenuItem("Watch for New Versions");
+        watchItem.addActionListener(e -> toggleWatchSelected());
+        tablePopupMenu.add(watchItem);
+        tablePopupMenu.addSeparator();
+        JMenu copySnippetsMenu = new JMenu("Copy Snippets");
+        JMenu saveSnippetsMenu = new JMenu("Save Snippets");
+        for (SnippetGenerator generator : SnippetGenerators.all()) {
+            JMenuItem copyItem = new JMenuItem(generator.name());
+            copyItem.addActionListener(e -> exportSelectedSnippets(generator, null));
+            copySnippetsMenu.add(copyItem);
+            JMenuItem saveItem = new JMenuItem(generator.name() + "...");
+            saveItem.addActionListener(e -> saveSelectedSnippets(generator));
+            saveSnippetsMenu.add(saveItem);
+        }
+        tablePopupMenu.add(copySnippetsMenu);
+        tablePopupMenu.add(saveSnippetsMenu);
 
         resultTable.addMouseListener(new MouseAdapter() {
 
@@ -186,6 +348,13 @@ public final class NexusSearchPanel extends JPanel {
                         return;
                     }
                     int modelRow = resultTable.convertRowIndexToModel(viewRow);
+                    int viewColumn = resultTable.columnAtPoint(e.getPoint());
+                    if (viewColumn >= 0
+                            && resultTable.convertColumnIndexToModel(viewColumn) == ResultTableModel.ASSETS_COLUMN
+                            && tableModel.isExpandable(modelRow)) {
+                        toggleComponent(modelRow);
+                        return;
+                    }
                     NexusArtifact artifact = tableModel.getArtifactAt(modelRow);
                     if (artifact == null) {
                         return;
@@ -234,32 +403,43 @@ public final class NexusSearchPanel extends JPanel {
                     }
                 }
                 int[] selected = resultTable.getSelectedRows();
-                if (selected.length == 2) {
+                boolean canCompare = selected.length == 2;
+                boolean canToggle = selected.length == 1
+                        && tableModel.isExpandable(resultTable.convertRowIndexToModel(selected[0]));
+                if (selected.length > 0) {
+                    compareFilesItem.setEnabled(canCompare);
+                    toggleAssetsItem.setEnabled(canToggle);
+                    toggleAssetsItem.setText(canToggle
+                            && tableModel.isExpanded(resultTable.convertRowIndexToModel(selected[0]))
+                            ? "Hide Assets" : "Show Assets");
+                    NexusWatchlist watchlist = watchlist();
+                    watchItem.setEnabled(watchlist != null);
+                    watchItem.setText(watchlist != null && allWatched(watchlist, selectedArtifacts())
+                            ? "Stop Watching" : "Watch for New Versions");
                     tablePopupMenu.show(resultTable, e.getX(), e.getY());
                 }
             }
         });
 
         JScrollPane tableScrollPane = new JScrollPane(resultTable);
+        tableScrollPane.getViewport().addChangeListener(e -> enrichTimer.restart());
 
         snippetTabs = new JTabbedPane();
-        mavenArea = createReadOnlyEditor(api, SyntaxConstants.SYNTAX_STYLE_XML);
-        gradleArea = createReadOnlyEditor(api, SyntaxConstants.SYNTAX_STYLE_GROOVY);
-        ivyArea = createReadOnlyEditor(api, SyntaxConstants.SYNTAX_STYLE_XML);
-        sbtArea = createReadOnlyEditor(api, SyntaxConstants.SYNTAX_STYLE_SCALA);
-        leinArea = createReadOnlyEditor(api, SyntaxConstants.SYNTAX_STYLE_CLOJURE);
-        grapeArea = createReadOnlyEditor(api, SyntaxConstants.SYNTAX_STYLE_GROOVY);
-        buildrArea = createReadOnlyEditor(api, SyntaxConstants.SYNTAX_STYLE_RUBY);
-        bldArea = createReadOnlyEditor(api, SyntaxConstants.SYNTAX_STYLE_JAVA);
-
-        snippetTabs.addTab("Maven", new RTextScrollPane(mavenArea));
-        snippetTabs.addTab("Gradle", new RTextScrollPane(gradleArea));
-        snippetTabs.addTab("Ivy", new RTextScrollPane(ivyArea));
-        snippetTabs.addTab("SBT", new RTextScrollPane(sbtArea));
-        snippetTabs.addTab("Leiningen", new RTextScrollPane(leinArea));
-        snippetTabs.addTab("Grape", new RTextScrollPane(grapeArea));
-        snippetTabs.addTab("Buildr", new RTextScrollPane(buildrArea));
-        snippetTabs.addTab("bld", new RTextScrollPane(bldArea));
+        for (SnippetGenerator generator : SnippetGenerators.all()) {
+            SnippetTab tab = new SnippetTab(generator,
+                    new LazyTab<>(() -> createReadOnlyEditor(api, generator.syntaxStyle()), RTextScrollPane::new));
+            snippetTabList.add(tab);
+            snippetTabs.addTab(generator.name(), tab.view);
+        }
+        contentsTab = new LazyTab<>(() -> new ArchiveContentsPanel(api, backend.config()), Function.identity());
+        snippetTabs.addTab("Contents", contentsTab);
+        snippetTabs.setToolTipTextAt(snippetTabs.getTabCount() - 1,
+                "Entries of the archive, read with range requests instead of a download");
+        dependencyTab = new LazyTab<>(() -> new DependencyTreePanel(backend.pomSource()), Function.identity());
+        snippetTabs.addTab("Dependencies", dependencyTab);
+        snippetTabs.setToolTipTextAt(snippetTabs.getTabCount() - 1,
+                "Transitive dependencies, resolved from the POMs with Maven mediation");
+        snippetTabs.addChangeListener(e -> renderVisibleSnippet());
 
         javax.swing.JSplitPane splitPane = new javax.swing.JSplitPane(
                 javax.swing.JSplitPane.VERTICAL_SPLIT,
@@ -276,6 +456,156 @@ public final class NexusSearchPanel extends JPanel {
         progressBar.setBorder(BorderFactory.createEmptyBorder(2, 4, 2, 4));
 
         add(progressBar, BorderLayout.SOUTH);
+
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && isShowing() && !backendStarted) {
+                startBackend();
+            }
+        });
+    }
+
+    /**
+     * What the panel searches with; created off the EDT.
+     */
+    private record Backend(NexusConfig config, NexusSearch search, LatestVersionResolver latestVersionResolver,
+                           MavenMetadataVersions metadataVersions, NexusWatchlist watchlist, PomSource pomSource,
+                           PomEnricher pomEnricher) {
+    }
+
+    /**
+     * We read the configuration on the EDT, after the first paint, since
+     * decrypting the credentials may ask for the master password. Clients,
+     * index and caches are then created in the background.
+     */
+    private void startBackend() {
+        backendStarted = true;
+        showConnecting();
+        SwingUtilities.invokeLater(() -> {
+            Map<String, String> prefs = api.getPreferences();
+            ProxyConfig proxyConfig = ProxyConfigHelper.fromPreferences(prefs, this);
+            NexusConfig nexusConfig = NexusConfigHelper.fromPreferences(prefs, this);
+            new SwingWorker<Backend, Void>() {
+                @Override
+                protected Backend doInBackground() {
+                    return createBackend(prefs, nexusConfig, proxyConfig);
+                }
+
+                @Override
+                protected void done() {
+                    try {
+                        backendReady(get());
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } catch (ExecutionException ex) {
+                        Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                        // The next search tries again
+                        backendStarted = false;
+                        pendingSearch = false;
+                        cancelButton.setEnabled(false);
+                        progressBar.setIndeterminate(false);
+                        progressBar.setString("Cannot connect: " + cause.getMessage());
+                    }
+                }
+            }.execute();
+        });
+    }
+
+    private static Backend createBackend(Map<String, String> prefs, NexusConfig nexusConfig, ProxyConfig proxyConfig) {
+        if (nexusConfig != null) {
+            NexusThrottle.configure(nexusConfig.baseUrl, prefs);
+        }
+        NexusSearch server = NexusSearchFactory.create(nexusConfig, proxyConfig);
+        NexusClassIndexCrawl.start(server, prefs);
+        NexusSearch remote = MirrorNexusSearch.wrap(server, nexusConfig, prefs);
+        NexusSearch search = LocalMavenRepositorySearch.wrap(MavenIndexSearch.wrap(remote, nexusConfig, prefs), prefs);
+        LatestVersionResolver latestVersionResolver = new LatestVersionResolver(search, Duration.ofMinutes(10), 4, false);
+        PomSource pomSource = PomSource.firstOf(
+                PomSource.localRepository(LocalMavenRepositorySearch.configuredRoot(prefs)),
+                PomSource.remote(nexusConfig, prefs));
+        return new Backend(nexusConfig, search, latestVersionResolver,
+                MavenMetadataVersions.forConfig(nexusConfig, prefs),
+                openWatchlist(nexusConfig, prefs, search),
+                pomSource, new PomEnricher(pomSource, 8, 64, 20_000));
+    }
+
+    private void backendReady(Backend ready) {
+        if (closed) {
+            closeBackend(ready);
+            return;
+        }
+        backend = ready;
+        if (!ready.search().supportsClassSearch()) {
+            modeTabs.setEnabledAt(3, false);
+            modeTabs.setToolTipTextAt(3, "Class search is not supported by this backend");
+        }
+        if (ready.watchlist() != null) {
+            watchlistListeners.forEach(ready.watchlist()::addListener);
+        }
+        tableModel.setEnricher(ready.pomEnricher());
+        latestButton.setEnabled(true);
+        progressBar.setIndeterminate(false);
+        progressBar.setString("");
+        renderVisibleSnippet();
+        enrichTimer.restart();
+        if (pendingSearch) {
+            pendingSearch = false;
+            startSearch();
+        }
+    }
+
+    private void showConnecting() {
+        progressBar.setIndeterminate(true);
+        progressBar.setString("Connecting...");
+    }
+
+    private void closeBackend(Backend b) {
+        if (b.watchlist() != null) {
+            // The watchlist is shared with the other panels of the server
+            watchlistListeners.forEach(b.watchlist()::removeListener);
+            b.watchlist().close();
+        }
+        b.pomEnricher().close();
+        b.latestVersionResolver().close();
+    }
+
+    /**
+     * We stop the background work of the panel (search, watchlist polling,
+     * POM loads, version and dependency resolution, archive reads) and
+     * delete spilled results. The hosting window calls this when it is
+     * closed.
+     */
+    public void close() {
+        closed = true;
+        cancelSearch();
+        tableModel.close();
+        if (contentsTab.isCreated()) {
+            contentsTab.content().close();
+        }
+        if (dependencyTab.isCreated()) {
+            dependencyTab.content().close();
+        }
+        Backend b = backend;
+        if (b != null) {
+            backend = null;
+            closeBackend(b);
+        }
+    }
+
+    private void updateGroupCheckBox() {
+        boolean groupable = tableModel.isGroupable();
+        if (groupCheckBox.isEnabled() != groupable) {
+            groupCheckBox.setEnabled(groupable);
+            groupCheckBox.setToolTipText(groupable ? GROUP_TOOLTIP
+                    : "More than " + ResultTableModel.GROUPING_LIMIT + " results are shown one row per artifact");
+        }
+    }
+
+    private void installFilterSupport() {
+        TableRowFilterSupport.forTable(resultTable)
+                .actions(true)
+                .searchable(true)
+                .checkListRenderer(new CheckListRenderer())
+                .apply();
     }
 
     private RSyntaxTextArea createReadOnlyEditor(API api, String syntaxStyle) {
@@ -366,9 +696,58 @@ public final class NexusSearchPanel extends JPanel {
         gbc.fill = GridBagConstraints.HORIZONTAL;
         panel.add(versionField, gbc);
 
+        latestButton.setToolTipText("Find the newest release of this group and artifact");
+        latestButton.addActionListener(e -> findLatestVersion());
+        latestButton.setEnabled(false);
+        gbc.gridx = 2;
+        gbc.weightx = 0.0;
+        gbc.fill = GridBagConstraints.NONE;
+        panel.add(latestButton, gbc);
+
         return panel;
     }
 
+    private void findLatestVersion() {
+        String groupId = groupField.getText().trim();
+        String artifactId = artifactField.getText().trim();
+        LatestVersionResolver latestVersionResolver = backend == null ? null : backend.latestVersionResolver();
+        if (groupId.isEmpty() || artifactId.isEmpty() || latestVersionResolver == null) {
+            return;
+        }
+        latestButton.setEnabled(false);
+        new SwingWorker<NexusArtifact, Void>() {
+            @Override
+            protected NexusArtifact doInBackground() throws Exception {
+                return latestVersionResolver.resolve(groupId, artifactId);
+            }
+
+            @Override
+            protected void done() {
+                latestButton.setEnabled(true);
+                try {
+                    NexusArtifact latest = get();
+                    if (latest == null) {
+                        JOptionPane.showMessageDialog(NexusSearchPanel.this,
+                                "No release found for " + groupId + ":" + artifactId + ".",
+                                "Latest version",
+                                JOptionPane.INFORMATION_MESSAGE);
+                        return;
+                    }
+                    versionField.setText(latest.version());
+                    startSearch();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(NexusSearchPanel.this,
+                            cause.getClass().getSimpleName() + ": " + cause.getMessage(),
+                            "Search error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
     private JPanel createClassPanel() {
         JPanel panel = new JPanel(new GridBagLayout());
         panel.setBorder(BorderFactory.createEmptyBorder(4, 4, 4, 4));
@@ -389,6 +768,55 @@ public final class NexusSearchPanel extends JPanel {
         return panel;
     }
 
+    private JPanel createFilterStrip() {
+        JPanel panel = new JPanel(new GridBagLayout());
+        panel.setBorder(BorderFactory.createEmptyBorder(0, 4, 0, 4));
+
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(2, 4, 2, 4);
+        gbc.anchor = GridBagConstraints.WEST;
+        gbc.gridy = 0;
+
+        gbc.gridx = 0;
+        panel.add(new JLabel("Repository:"), gbc);
+        gbc.gridx = 1;
+        panel.add(repositoryField, gbc);
+
+        gbc.gridx = 2;
+        panel.add(new JLabel("Extension:"), gbc);
+        gbc.gridx = 3;
+        panel.add(extensionCombo, gbc);
+
+        gbc.gridx = 4;
+        panel.add(new JLabel("Classifier:"), gbc);
+        gbc.gridx = 5;
+        panel.add(classifierField, gbc);
+
+        gbc.gridx = 6;
+        panel.add(new JLabel("Sort:"), gbc);
+        gbc.gridx = 7;
+        panel.add(sortCombo, gbc);
+        gbc.gridx = 8;
+        gbc.weightx = 1.0;
+        panel.add(directionCombo, gbc);
+
+        return panel;
+    }
+
+    private NexusSearchFilter currentFilter() {
+        Object extension = extensionCombo.getEditor().getItem();
+        String sort = sortCombo.getSelectedIndex() > 0
+                ? ((String) sortCombo.getSelectedItem()).toLowerCase(Locale.ROOT)
+                : null;
+        return new NexusSearchFilter(
+                repositoryField.getText(),
+                extension == null ? null : extension.toString(),
+                classifierField.getText(),
+                null,
+                sort,
+                (String) directionCombo.getSelectedItem());
+    }
+
     private JPanel createControlStrip() {
         JPanel panel = new JPanel(new GridBagLayout());
         panel.setBorder(BorderFactory.createEmptyBorder(4, 4, 4, 4));
@@ -411,13 +839,120 @@ public final class NexusSearchPanel extends JPanel {
         gbc.gridx = 1;
         panel.add(cancelButton, gbc);
 
+        groupCheckBox = new JCheckBox("Group by component", true);
+        groupCheckBox.setToolTipText(GROUP_TOOLTIP);
+        groupCheckBox.addActionListener(e -> {
+            tableModel.setGrouped(groupCheckBox.isSelected());
+            updateSnippets(null);
+        });
+        gbc.gridx = 2;
+        panel.add(groupCheckBox, gbc);
+
+        JButton exportButton = new JButton("Export...");
+        exportButton.setToolTipText("Save the rows shown, as filtered and sorted, to CSV or JSON Lines");
+        exportButton.addActionListener(e -> exportResults());
+        gbc.gridx = 3;
+        panel.add(exportButton, gbc);
+
+        JButton metricsButton = new JButton("Metrics");
+        metricsButton.setToolTipText("Request timings per endpoint (also exported over JMX)");
+        metricsButton.addActionListener(e -> showMetrics());
+        gbc.gridx = 4;
+        panel.add(metricsButton, gbc);
+
         return panel;
     }
 
+    /**
+     * We show the request metrics in a small non-modal window, refreshed
+     * every second while it is open.
+     */
+    private void showMetrics() {
+        JTextArea area = new JTextArea(12, 120);
+        area.setEditable(false);
+        area.setFont(new Font(Font.MONOSPACED, Font.PLAIN, area.getFont().getSize()));
+        area.setText(NexusMetrics.global().report());
+
+        JButton resetButton = new JButton("Reset");
+        resetButton.addActionListener(e -> {
+            NexusMetrics.global().reset();
+            area.setText(NexusMetrics.global().report());
+        });
+        JPanel buttons = new JPanel();
+        buttons.add(resetButton);
+
+        JDialog dialog = new JDialog(SwingUtilities.getWindowAncestor(this), "Nexus Metrics");
+        dialog.getContentPane().add(new JScrollPane(area), BorderLayout.CENTER);
+        dialog.getContentPane().add(buttons, BorderLayout.SOUTH);
+        dialog.setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+
+        Timer refresh = new Timer(1000, e -> area.setText(NexusMetrics.global().report()));
+        dialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                refresh.stop();
+            }
+        });
+        refresh.start();
+
+        dialog.pack();
+        dialog.setLocationRelativeTo(this);
+        dialog.setVisible(true);
+    }
+
+    /**
+     * We register a listener with the watchlist of the server, now or once
+     * the backend is ready. Nothing is reported without a watchlist.
+     */
+    public void addWatchlistListener(NexusWatchlist.Listener listener) {
+        watchlistListeners.add(listener);
+        NexusWatchlist watchlist = watchlist();
+        if (watchlist != null) {
+            watchlist.addListener(listener);
+        }
+    }
+
+    private NexusWatchlist watchlist() {
+        Backend b = backend;
+        return b == null ? null : b.watchlist();
+    }
+
+    /**
+     * We run a coordinates search, as if typed in the Coordinates tab.
+     */
+    public void searchCoordinates(String groupId, String artifactId, String version) {
+        modeTabs.setSelectedIndex(2);
+        groupField.setText(groupId == null ? "" : groupId);
+        artifactField.setText(artifactId == null ? "" : artifactId);
+        versionField.setText(version == null ? "" : version);
+        startSearch();
+    }
+
+    private static NexusWatchlist openWatchlist(NexusConfig config, Map<String, String> prefs, NexusSearch search) {
+        try {
+            return NexusWatchlist.open(config, prefs, search);
+        } catch (IOException e) {
+            // An unreadable watchlist only disables watching
+            return null;
+        }
+    }
+
     private void startSearch() {
         if (currentWorker != null && !currentWorker.isDone()) {
             return;
         }
+        Backend b = backend;
+        if (b == null) {
+            // Run as soon as the backend is ready
+            pendingSearch = !closed;
+            cancelButton.setEnabled(pendingSearch);
+            if (!backendStarted && !closed) {
+                startBackend();
+            } else {
+                showConnecting();
+            }
+            return;
+        }
 
         int mode = modeTabs.getSelectedIndex();
 
@@ -445,12 +980,14 @@ public final class NexusSearchPanel extends JPanel {
             }
         }
 
-        SearchRequest request = new SearchRequest(mode, keyword, sha1, groupId, artifactId, version, className);
+        SearchRequest request = new SearchRequest(mode, keyword, sha1, groupId, artifactId, version, className,
+                currentFilter());
 
         tableModel.setArtifacts(List.of());
+        updateGroupCheckBox();
         updateSnippets(null);
 
-        currentWorker = new SearchWorker(this, search, request);
+        currentWorker = new SearchWorker(this, b.search(), request);
         currentWorker.addPropertyChangeListener(currentWorker);
         currentWorker.execute();
 
@@ -461,6 +998,10 @@ public final class NexusSearchPanel extends JPanel {
     }
 
     private void cancelSearch() {
+        if (pendingSearch) {
+            pendingSearch = false;
+            cancelButton.setEnabled(false);
+        }
         if (currentWorker != null && !currentWorker.isDone()) {
             currentWorker.cancel(true);
         }
@@ -473,10 +1014,22 @@ public final class NexusSearchPanel extends JPanel {
         progressBar.setString("");
 
         if (error != null) {
-            JOptionPane.showMessageDialog(this,
-                    error.getClass().getSimpleName() + ": " + error.getMessage(),
-                    "Search error",
-                    JOptionPane.ERROR_MESSAGE);
+            String title;
+            String message;
+            if (error instanceof NexusCircuitOpenException) {
+                title = "Nexus unavailable";
+                message = error.getMessage();
+            } else if (error instanceof NexusHttpException httpError && httpError.isThrottled()) {
+                title = "Nexus busy";
+                message = "The server is throttling requests (HTTP " + httpError.getStatus() + "). Try again later.";
+            } else {
+                title = "Search error";
+                message = error.getClass().getSimpleName() + ": " + error.getMessage();
+            }
+            if (tableModel.getRowCount() > 0) {
+                message += "\n\nThe results shown are incomplete.";
+            }
+            JOptionPane.showMessageDialog(this, message, title, JOptionPane.ERROR_MESSAGE);
             return;
         }
 
@@ -494,7 +1047,8 @@ public final class NexusSearchPanel extends JPanel {
             String groupId,
             String artifactId,
             String version,
-            String className) {
+            String className,
+            NexusSearchFilter filter) {
     }
 
     private static final class SearchWorker extends SwingWorker<Void, List<NexusArtifact>> implements PropertyChangeListener {
@@ -504,6 +1058,7 @@ public final class NexusSearchPanel extends JPanel {
         private final SearchRequest request;
 
         private volatile Throwable error;
+        private volatile boolean versionRows;
 
         SearchWorker(NexusSearchPanel panel, NexusSearch search, SearchRequest request) {
             this.panel = panel;
@@ -521,7 +1076,9 @@ public final class NexusSearchPanel extends JPanel {
                         return null;
                     }
                     setProgress(25);
-                    NexusSearchResult page = search.searchBySha1(request.sha1(), 0);
+                    NexusSearchResult page = search instanceof NexusFilteredSearch filtered
+                            ? filtered.searchBySha1(request.sha1(), request.filter(), 0)
+                            : request.filter().apply(search.searchBySha1(request.sha1(), 0));
                     if (!isCancelled() && page != null && page.artifacts() != null && !page.artifacts().isEmpty()) {
                         publish(page.artifacts());
                     }
@@ -529,6 +1086,22 @@ public final class NexusSearchPanel extends JPanel {
                     return null;
                 }
 
+                MavenMetadataVersions browse = panel.backend == null ? null : panel.backend.metadataVersions();
+                if (request.mode() == 2 && request.version() == null && browse != null
+                        && request.groupId() != null && !request.groupId().isBlank()
+                        && request.artifactId() != null && !request.artifactId().isBlank()) {
+                    // One small request per repository; assets are searched when a version is expanded
+                    setProgress(25);
+                    MavenMetadataVersions.Versions versions = browse.fetch(request.groupId(), request.artifactId());
+                    List<NexusArtifact> rows = browse.toArtifacts(request.groupId().trim(), request.artifactId().trim(), versions);
+                    if (!isCancelled() && !rows.isEmpty()) {
+                        versionRows = true;
+                        publish(rows);
+                    }
+                    setProgress(100);
+                    return null;
+                }
+
                 for (int page = 0; page < MAX_PAGES && !isCancelled(); page++) {
                     int baseProgress = 10;
                     int pageRange = 80;
@@ -539,10 +1112,16 @@ public final class NexusSearchPanel extends JPanel {
                         break;
                     }
 
+                    NexusSearchFilter filter = request.filter();
+                    NexusFilteredSearch filtered = search instanceof NexusFilteredSearch f ? f : null;
                     NexusSearchResult pageResult;
                     switch (request.mode()) {
-                        case 0 -> pageResult = search.searchByKeyword(request.keyword(), page);
-                        case 2 -> pageResult = search.searchByGav(request.groupId(), request.artifactId(), request.version(), page);
+                        case 0 -> pageResult = filtered != null
+                                ? filtered.searchByKeyword(request.keyword(), filter, page)
+                                : search.searchByKeyword(request.keyword(), page);
+                        case 2 -> pageResult = filtered != null
+                                ? filtered.searchByGav(request.groupId(), request.artifactId(), request.version(), filter, page)
+                                : search.searchByGav(request.groupId(), request.artifactId(), request.version(), page);
                         case 3 -> {
                             boolean fullyQualified = request.className() != null && request.className().contains(".");
                             pageResult = search.searchByClassName(request.className(), fullyQualified, page);
@@ -559,7 +1138,14 @@ public final class NexusSearchPanel extends JPanel {
                         break;
                     }
 
-                    publish(pageArtifacts);
+                    // Backends that cannot push the filter down get it applied per page;
+                    // an empty filtered page does not mean the results are exhausted
+                    List<NexusArtifact> shown = filtered != null && request.mode() != 3
+                            ? pageArtifacts
+                            : filter.apply(pageResult).artifacts();
+                    if (!shown.isEmpty()) {
+                        publish(shown);
+                    }
                 }
 
                 setProgress(100);
@@ -571,12 +1157,21 @@ public final class NexusSearchPanel extends JPanel {
 
         @Override
         protected void process(List<List<NexusArtifact>> chunks) {
+            if (isCancelled()) {
+                // The panel may be closed
+                return;
+            }
             for (List<NexusArtifact> chunk : chunks) {
                 if (chunk == null || chunk.isEmpty()) {
                     continue;
                 }
                 boolean hadRowsBefore = panel.tableModel.getRowCount() > 0;
-                panel.tableModel.addArtifacts(chunk);
+                if (versionRows) {
+                    panel.tableModel.addVersionRows(chunk);
+                } else {
+                    panel.tableModel.addArtifacts(chunk);
+                }
+                panel.updateGroupCheckBox();
 
                 if (!hadRowsBefore && panel.tableModel.getRowCount() > 0) {
                     panel.resultTable.getSelectionModel().setSelectionInterval(0, 0);
@@ -605,10 +1200,29 @@ public final class NexusSearchPanel extends JPanel {
         }
     }
 
-    private static final class ResultTableModel extends AbstractTableModel {
+    /**
+     * Table model for search results.
+     *
+     * In flat mode there is one row per artifact. In grouped mode there is one
+     * row per component (group, artifact, version and repository), showing its
+     * main artifact; the other assets of the component are kept aside and only
+     * become rows when the component is expanded.
+     *
+     * Artifacts are kept in a SpillingArtifactList, so large results spill
+     * to disk. Grouping needs one object per component, so it is only
+     * offered up to GROUPING_LIMIT artifacts, the size of the in-memory
+     * window; larger results are shown flat.
+     */
+    static final class ResultTableModel extends AbstractTableModel {
 
         private static final long serialVersionUID = 1L;
 
+        static final int GROUPING_LIMIT = 20_000;
+        private static final int READ_CACHE_ROWS = 2_048;
+
+        static final int ASSETS_COLUMN = 7;
+        static final List<String> POM_COLUMNS = List.of("Packaging", "License", "Description");
+
         private static final String[] COLUMN_NAMES = {
                 "Group",
                 "Artifact",
@@ -616,15 +1230,48 @@ public final class NexusSearchPanel extends JPanel {
                 "Date",
                 "Classifier",
                 "Extension",
-                "Repository"
+                "Repository",
+                "Assets",
+                "Packaging",
+                "License",
+                "Description"
         };
 
-        private final List<NexusArtifact> artifacts = new ArrayList<>();
+        private transient PomEnricher enricher;
+
+        private transient SpillingArtifactList artifacts = newArtifactList();
+
+        private boolean grouped = true;
+        private boolean groupable = true;
+        private final List<ComponentGroup> groups = new ArrayList<>();
+        private final Map<String, ComponentGroup> groupsByKey = new HashMap<>();
+        private final List<Row> rows = new ArrayList<>();
+
+        void setEnricher(PomEnricher newEnricher) {
+            enricher = newEnricher;
+            if (getRowCount() > 0) {
+                fireTableRowsUpdated(0, getRowCount() - 1);
+            }
+        }
+
+        private static SpillingArtifactList newArtifactList() {
+            return new SpillingArtifactList(Path.of(System.getProperty("java.io.tmpdir")), GROUPING_LIMIT, READ_CACHE_ROWS);
+        }
 
         public void setArtifacts(List<NexusArtifact> newArtifacts) {
-            artifacts.clear();
+            // A new list: an export still reading the previous results keeps them open until it is done
+            artifacts.close();
+            artifacts = newArtifactList();
+            groupable = true;
+            groups.clear();
+            groupsByKey.clear();
+            rows.clear();
             if (newArtifacts != null) {
                 artifacts.addAll(newArtifacts);
+                if (!dropGroupsOverLimit()) {
+                    groupAll(newArtifacts);
+                    rebuildRows();
+                }
             }
             fireTableDataChanged();
         }
@@ -635,19 +1282,254 @@ public final class NexusSearchPanel extends JPanel {
             }
             int first = artifacts.size();
             artifacts.addAll(newArtifacts);
-            fireTableRowsInserted(first, artifacts.size() - 1);
+            if (dropGroupsOverLimit()) {
+                fireTableDataChanged();
+                return;
+            }
+            if (!isGrouped()) {
+                if (groupable) {
+                    groupAll(newArtifacts);
+                }
+                fireTableRowsInserted(first, artifacts.size() - 1);
+                return;
+            }
+            int firstRow = rows.size();
+            if (groupAll(newArtifacts)) {
+                // Only new components: their rows go at the end
+                if (rows.size() > firstRow) {
+                    fireTableRowsInserted(firstRow, rows.size() - 1);
+                }
+            } else {
+                rebuildRows();
+                fireTableDataChanged();
+            }
+        }
+
+        /**
+         * True when rows are components: grouping is chosen and the result
+         * is small enough.
+         */
+        public boolean isGrouped() {
+            return grouped && groupable;
+        }
+
+        public boolean isGroupable() {
+            return groupable;
+        }
+
+        public void setGrouped(boolean grouped) {
+            if (this.grouped != grouped) {
+                this.grouped = grouped;
+                if (groupable) {
+                    rebuildRows();
+                    fireTableDataChanged();
+                }
+            }
+        }
+
+        /**
+         * We drop the component groups, for good, once the result no longer
+         * fits in memory, and return true when we just did.
+         */
+        private boolean dropGroupsOverLimit() {
+            if (!groupable || artifacts.size() <= GROUPING_LIMIT) {
+                return false;
+            }
+            groupable = false;
+            groups.clear();
+            groupsByKey.clear();
+            rows.clear();
+            return true;
+        }
+
+        /**
+         * The artifacts of the given model rows, for a background export,
+         * which closes them once written. Flat rows are read from the
+         * artifact list when needed rather than copied; the list stays open
+         * for the export even when a new search replaces it.
+         */
+        public RowsView rowsView(int[] modelRows) {
+            if (isGrouped()) {
+                List<NexusArtifact> copy = new ArrayList<>(modelRows.length);
+                for (int modelRow : modelRows) {
+                    copy.add(getArtifactAt(modelRow));
+                }
+                return new RowsView(copy::get, copy.size(), () -> { });
+            }
+            SpillingArtifactList list = artifacts.retain();
+            return new RowsView(index -> list.get(modelRows[index]), modelRows.length, list::close);
+        }
+
+        void close() {
+            artifacts.close();
         }
 
         public NexusArtifact getArtifactAt(int rowIndex) {
-            if (rowIndex < 0 || rowIndex >= artifacts.size()) {
-                return null;
+            if (!isGrouped()) {
+                return rowIndex < 0 || rowIndex >= artifacts.size() ? null : artifacts.get(rowIndex);
+            }
+            return rowIndex < 0 || rowIndex >= rows.size() ? null : rows.get(rowIndex).artifact();
+        }
+
+        /**
+         * We add one row per version, from maven-metadata.xml; each stands for
+         * its component until loadAssets replaces it with the assets found.
+         */
+        public void addVersionRows(List<NexusArtifact> versions) {
+            if (!groupable) {
+                addArtifacts(versions);
+                return;
+            }
+            int first = getRowCount();
+            for (NexusArtifact version : versions) {
+                ComponentGroup group = new ComponentGroup(version);
+                group.unloaded = true;
+                groupsByKey.put(componentKey(version), group);
+                groups.add(group);
+                artifacts.add(version);
+                rows.add(new Row(version, group, false));
+            }
+            if (getRowCount() > first) {
+                fireTableRowsInserted(first, getRowCount() - 1);
+            }
+        }
+
+        /**
+         * True for a version row whose assets have not been searched yet.
+         */
+        public boolean isUnloaded(int rowIndex) {
+            ComponentGroup group = groupAt(rowIndex);
+            return group != null && group.unloaded && group.primary == getArtifactAt(rowIndex);
+        }
+
+        public void setLoading(NexusArtifact version) {
+            ComponentGroup group = groupsByKey.get(componentKey(version));
+            if (group != null && group.unloaded) {
+                group.loading = true;
+                fireTableRowsUpdated(0, getRowCount() - 1);
+            }
+        }
+
+        /**
+         * We replace a version row with the assets of its component and
+         * expand it. With no assets (or null, on failure) the row stays.
+         */
+        public void loadAssets(NexusArtifact version, List<NexusArtifact> assets) {
+            ComponentGroup group = groupsByKey.get(componentKey(version));
+            if (group == null || !group.unloaded) {
+                return;
+            }
+            group.loading = false;
+            if (assets != null && !assets.isEmpty()) {
+                group.unloaded = false;
+                int index = artifacts.indexOf(version);
+                artifacts.remove(index);
+                artifacts.addAll(index, assets);
+                group.primary = assets.get(0);
+                for (NexusArtifact asset : assets.subList(1, assets.size())) {
+                    group.add(asset);
+                }
+                group.expanded = true;
+                if (!dropGroupsOverLimit()) {
+                    rebuildRows();
+                }
+            } else if (assets != null) {
+                // Nothing matches the filter: the row stays as it is
+                group.unloaded = false;
+            }
+            fireTableDataChanged();
+        }
+
+        private ComponentGroup groupAt(int rowIndex) {
+            if (isGrouped()) {
+                return rowIndex < 0 || rowIndex >= rows.size() ? null : rows.get(rowIndex).group();
+            }
+            NexusArtifact a = getArtifactAt(rowIndex);
+            return a == null ? null : groupsByKey.get(componentKey(a));
+        }
+
+        /**
+         * True when the row is a component row with other assets to show or
+         * hide, or a version row whose assets can be searched.
+         */
+        public boolean isExpandable(int rowIndex) {
+            if (isUnloaded(rowIndex)) {
+                return true;
+            }
+            if (!isGrouped() || rowIndex < 0 || rowIndex >= rows.size()) {
+                return false;
+            }
+            Row row = rows.get(rowIndex);
+            return !row.child() && !row.group().others.isEmpty();
+        }
+
+        public boolean isExpanded(int rowIndex) {
+            return isExpandable(rowIndex) && rows.get(rowIndex).group().expanded;
+        }
+
+        public void toggleExpanded(int rowIndex) {
+            if (!isExpandable(rowIndex) || isUnloaded(rowIndex)) {
+                return;
+            }
+            ComponentGroup group = rows.get(rowIndex).group();
+            int count = group.others.size();
+            if (group.expanded) {
+                group.expanded = false;
+                rows.subList(rowIndex + 1, rowIndex + 1 + count).clear();
+                fireTableRowsDeleted(rowIndex + 1, rowIndex + count);
+            } else {
+                group.expanded = true;
+                List<Row> children = new ArrayList<>(count);
+                for (NexusArtifact other : group.others) {
+                    children.add(new Row(other, group, true));
+                }
+                rows.addAll(rowIndex + 1, children);
+                fireTableRowsInserted(rowIndex + 1, rowIndex + count);
+            }
+            fireTableCellUpdated(rowIndex, ASSETS_COLUMN);
+        }
+
+        /**
+         * We add artifacts to their component groups and return true when every
+         * artifact started a new group, in which case rows were appended in place.
+         */
+        private boolean groupAll(List<NexusArtifact> newArtifacts) {
+            boolean onlyNewGroups = true;
+            for (NexusArtifact artifact : newArtifacts) {
+                String key = componentKey(artifact);
+                ComponentGroup group = groupsByKey.get(key);
+                if (group == null) {
+                    group = new ComponentGroup(artifact);
+                    groupsByKey.put(key, group);
+                    groups.add(group);
+                    rows.add(new Row(artifact, group, false));
+                } else {
+                    group.add(artifact);
+                    onlyNewGroups = false;
+                }
+            }
+            return onlyNewGroups;
+        }
+
+        private void rebuildRows() {
+            rows.clear();
+            for (ComponentGroup group : groups) {
+                rows.add(new Row(group.primary, group, false));
+                if (group.expanded) {
+                    for (NexusArtifact other : group.others) {
+                        rows.add(new Row(other, group, true));
+                    }
+                }
             }
-            return artifacts.get(rowIndex);
+        }
+
+        private static String componentKey(NexusArtifact a) {
+            return a.groupId() + ':' + a.artifactId() + ':' + a.version() + '@' + a.repository();
         }
 
         @Override
         public int getRowCount() {
-            return artifacts.size();
+            return isGrouped() ? rows.size() : artifacts.size();
         }
 
         @Override
@@ -662,7 +1544,7 @@ public final class NexusSearchPanel extends JPanel {
 
         @Override
         public Object getValueAt(int rowIndex, int columnIndex) {
-            NexusArtifact a = artifacts.get(rowIndex);
+            NexusArtifact a = getArtifactAt(rowIndex);
             return switch (columnIndex) {
                 case 0 -> a.groupId();
                 case 1 -> a.artifactId();
@@ -674,6 +1556,22 @@ public final class NexusSearchPanel extends JPanel {
                 case 4 -> a.classifier();
                 case 5 -> a.extension();
                 case 6 -> a.repository();
+                case ASSETS_COLUMN -> {
+                    if (isUnloaded(rowIndex)) {
+                        yield groupAt(rowIndex).loading ? "\u2026" : "\u25B8 ?";
+                    }
+                    if (!isExpandable(rowIndex)) {
+                        yield "";
+                    }
+                    int others = rows.get(rowIndex).group().others.size();
+                    yield (isExpanded(rowIndex) ? "\u25BE " : "\u25B8 ") + others;
+                }
+                case 8, 9, 10 -> {
+                    PomEnricher.PomInfo info = enricher == null ? null : enricher.cached(a);
+                    String value = info == null ? null
+                            : columnIndex == 8 ? info.packaging() : columnIndex == 9 ? info.licenses() : info.description();
+                    yield value != null ? value : "";
+                }
                 default -> "";
             };
         }
@@ -682,35 +1580,428 @@ public final class NexusSearchPanel extends JPanel {
         public boolean isCellEditable(int rowIndex, int columnIndex) {
             return false;
         }
+
+        private record Row(NexusArtifact artifact, ComponentGroup group, boolean child) {
+        }
+
+        /**
+         * Rows handed to a background export, released by {@link #close()}.
+         */
+        static final class RowsView extends AbstractList<NexusArtifact> implements AutoCloseable {
+            private final IntFunction<NexusArtifact> rows;
+            private final int size;
+            private final Runnable release;
+
+            RowsView(IntFunction<NexusArtifact> rows, int size, Runnable release) {
+                this.rows = rows;
+                this.size = size;
+                this.release = release;
+            }
+
+            @Override
+            public NexusArtifact get(int index) {
+                return rows.apply(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void close() {
+                release.run();
+            }
+        }
+
+        private static final class ComponentGroup {
+            NexusArtifact primary;
+            final List<NexusArtifact> others = new ArrayList<>(2);
+            boolean expanded;
+            // Version row from maven-metadata.xml, assets not searched yet
+            boolean unloaded;
+            boolean loading;
+
+            ComponentGroup(NexusArtifact first) {
+                this.primary = first;
+            }
+
+            /**
+             * The main artifact (no classifier, preferably a jar) represents the component.
+             */
+            void add(NexusArtifact artifact) {
+                if (rank(artifact) < rank(primary)) {
+                    others.add(0, primary);
+                    primary = artifact;
+                } else {
+                    others.add(artifact);
+                }
+            }
+
+            private static int rank(NexusArtifact a) {
+                boolean main = a.classifier() == null || a.classifier().isBlank();
+                if (main && "jar".equalsIgnoreCase(a.extension())) {
+                    return 0;
+                }
+                if (main && !"pom".equalsIgnoreCase(a.extension())) {
+                    return 1;
+                }
+                return main ? 2 : 3;
+            }
+        }
     }
 
+    /**
+     * We ask for the POM metadata of the rows in the viewport while a POM
+     * column is shown; loads of rows scrolled away are cancelled.
+     */
+    private void enrichVisibleRows() {
+        Backend b = backend;
+        if (b == null) {
+            return;
+        }
+        List<NexusArtifact> visible = new ArrayList<>();
+        boolean shown = false;
+        for (String column : ResultTableModel.POM_COLUMNS) {
+            shown |= resultTable.getColumnExt(column).isVisible();
+        }
+        Rectangle rect = resultTable.getVisibleRect();
+        int first = resultTable.rowAtPoint(rect.getLocation());
+        if (shown && first >= 0) {
+            int last = resultTable.rowAtPoint(new Point(rect.x, rect.y + rect.height - 1));
+            if (last < 0) {
+                last = resultTable.getRowCount() - 1;
+            }
+            for (int viewRow = first; viewRow <= last; viewRow++) {
+                visible.add(tableModel.getArtifactAt(resultTable.convertRowIndexToModel(viewRow)));
+            }
+        }
+        b.pomEnricher().request(visible, artifact -> SwingUtilities.invokeLater(resultTable::repaint));
+    }
+
+    /**
+     * We remember the selected artifact and render the visible tab only; the
+     * other tabs are rendered when they are shown.
+     */
     private void updateSnippets(NexusArtifact artifact) {
+        snippetArtifact = artifact;
+        renderVisibleSnippet();
+    }
+
+    private void renderVisibleSnippet() {
+        int index = snippetTabs.getSelectedIndex();
+        if (snippetTabs.getSelectedComponent() == contentsTab) {
+            if (backend != null) {
+                contentsTab.content().setArtifact(snippetArtifact);
+            }
+            return;
+        }
+        if (snippetTabs.getSelectedComponent() == dependencyTab) {
+            if (backend != null) {
+                dependencyTab.content().setArtifact(snippetArtifact);
+            }
+            return;
+        }
+        if (index < 0 || index >= snippetTabList.size()) {
+            return;
+        }
+        SnippetTab tab = snippetTabList.get(index);
+        NexusArtifact artifact = snippetArtifact;
+        if (tab.rendered == artifact) {
+            return;
+        }
+        tab.rendered = artifact;
+        RSyntaxTextArea area = tab.view.content();
         if (artifact == null) {
-            mavenArea.setText("");
-            gradleArea.setText("");
-            ivyArea.setText("");
-            sbtArea.setText("");
-            leinArea.setText("");
-            grapeArea.setText("");
-            buildrArea.setText("");
-            bldArea.setText("");
+            area.setText("");
             return;
         }
+        String text = snippetCache.computeIfAbsent(new SnippetKey(tab.generator.name(), artifact),
+                k -> tab.generator.snippet(artifact));
+        area.setText(text);
+        area.setCaretPosition(0);
+    }
 
-        String g = artifact.groupId();
-        String a = artifact.artifactId();
-        String v = artifact.version();
-        String c = artifact.classifier();
-        String p = artifact.extension();
+    /**
+     * We snapshot the selected artifacts in view order; the export itself
+     * runs in the background.
+     */
+    private List<NexusArtifact> selectedArtifacts() {
+        int[] selected = resultTable.getSelectedRows();
+        List<NexusArtifact> artifacts = new ArrayList<>(selected.length);
+        for (int viewRow : selected) {
+            NexusArtifact artifact = tableModel.getArtifactAt(resultTable.convertRowIndexToModel(viewRow));
+            if (artifact != null) {
+                artifacts.add(artifact);
+            }
+        }
+        return artifacts;
+    }
 
-        mavenArea.setText(buildMavenSnippet(g, a, v, c, p));
-        gradleArea.setText(buildGradleSnippet(g, a, v, c, p));
-        ivyArea.setText(buildIvySnippet(g, a, v, c, p));
-        sbtArea.setText(buildSbtSnippet(g, a, v, c, p));
-        leinArea.setText(buildLeinSnippet(g, a, v, c, p));
-        grapeArea.setText(buildGrapeSnippet(g, a, v, c, p));
-        buildrArea.setText(buildBuildrSnippet(g, a, v, c, p));
-        bldArea.setText(buildBldSnippet(g, a, v, c, p));
+    private static boolean allWatched(NexusWatchlist watchlist, List<NexusArtifact> artifacts) {
+        for (NexusArtifact artifact : artifacts) {
+            if (artifact.groupId() == null || artifact.artifactId() == null
+                    || !watchlist.contains(artifact.groupId(), artifact.artifactId())) {
+                return false;
+            }
+        }
+        return !artifacts.isEmpty();
+    }
+
+    /**
+     * We stop watching the selected group/artifact pairs when all of them are
+     * watched, and start watching them otherwise.
+     */
+    private void toggleWatchSelected() {
+        NexusWatchlist watchlist = watchlist();
+        if (watchlist == null) {
+            return;
+        }
+        List<NexusArtifact> artifacts = selectedArtifacts();
+        boolean unwatch = allWatched(watchlist, artifacts);
+        LinkedHashSet<String> done = new LinkedHashSet<>();
+        try {
+            for (NexusArtifact artifact : artifacts) {
+                if (artifact.groupId() == null || artifact.artifactId() == null
+                        || !done.add(artifact.groupId() + ":" + artifact.artifactId())) {
+                    continue;
+                }
+                if (unwatch) {
+                    watchlist.remove(artifact.groupId(), artifact.artifactId());
+                } else {
+                    watchlist.add(artifact.groupId(), artifact.artifactId());
+                }
+            }
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(
+                    this,
+                    "Cannot save the watchlist:\n" + ex.getMessage(),
+                    "Watchlist error",
+                    JOptionPane.ERROR_MESSAGE
+            );
+        }
+    }
+
+    private void saveSelectedSnippets(SnippetGenerator generator) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Save " + generator.name() + " Snippets");
+        if (chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+            exportSelectedSnippets(generator, chooser.getSelectedFile().toPath());
+        }
+    }
+
+    /**
+     * We write one combined block for the selected rows, to the clipboard
+     * when target is null and streamed to the target file otherwise. The
+     * block is generated off the EDT; progress goes to the progress bar
+     * unless a search is using it.
+     */
+    private void exportSelectedSnippets(SnippetGenerator generator, Path target) {
+        List<NexusArtifact> artifacts = selectedArtifacts();
+        if (artifacts.isEmpty()) {
+            return;
+        }
+        SwingWorker<String, Void> worker = new SwingWorker<>() {
+            @Override
+            protected String doInBackground() throws Exception {
+                SwingWorker<String, Void> self = this;
+                ExportProgress progress = new ExportProgress() {
+                    @Override
+                    public void update(int done, int total) {
+                        setProgress(total == 0 ? 100 : (int) (100L * done / total));
+                    }
+
+                    @Override
+                    public boolean isCancelled() {
+                        return self.isCancelled();
+                    }
+                };
+                if (target != null) {
+                    SnippetExport.write(generator, artifacts, target, progress);
+                    return null;
+                }
+                StringBuilder sb = new StringBuilder();
+                SnippetExport.write(generator, artifacts, sb, progress);
+                return sb.toString();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    String text = get();
+                    if (text != null) {
+                        Toolkit.getDefaultToolkit().getSystemClipboard().setContents(new StringSelection(text), null);
+                    }
+                    showExportStatus(generator.name() + " snippets "
+                            + (target != null ? "saved to " + target.getFileName() : "copied to the clipboard"));
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (CancellationException ex) {
+                    showExportStatus("Snippet export cancelled");
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    showExportStatus("");
+                    JOptionPane.showMessageDialog(NexusSearchPanel.this,
+                            "Cannot export snippets:\n" + cause.getMessage(),
+                            "Export error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName()) && !isSearching()) {
+                progressBar.setValue((Integer) e.getNewValue());
+                progressBar.setString("Exporting " + generator.name() + " snippets...");
+            }
+        });
+        worker.execute();
+    }
+
+    /**
+     * We export the rows in view order, so the file matches the current
+     * filter and sort. Only the row references are copied on the EDT; the
+     * records are formatted and written in the background.
+     */
+    private void exportResults() {
+        int rowCount = resultTable.getRowCount();
+        if (rowCount == 0) {
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export Results");
+        FileNameExtensionFilter csv = new FileNameExtensionFilter("CSV (*.csv)", "csv");
+        FileNameExtensionFilter jsonl = new FileNameExtensionFilter("JSON Lines (*.jsonl)", "jsonl", "ndjson");
+        chooser.addChoosableFileFilter(csv);
+        chooser.addChoosableFileFilter(jsonl);
+        chooser.setFileFilter(csv);
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path target = chooser.getSelectedFile().toPath();
+        ArtifactRecordWriter.Format format;
+        if (chooser.getFileFilter() == jsonl) {
+            format = ArtifactRecordWriter.Format.JSONL;
+        } else if (chooser.getFileFilter() == csv) {
+            format = ArtifactRecordWriter.Format.CSV;
+        } else {
+            format = ResultExporter.formatOf(target);
+        }
+        if (!target.getFileName().toString().contains(".")) {
+            target = target.resolveSibling(target.getFileName() + "." + format.fileExtension());
+        }
+
+        int[] modelRows = new int[rowCount];
+        for (int viewRow = 0; viewRow < rowCount; viewRow++) {
+            modelRows[viewRow] = resultTable.convertRowIndexToModel(viewRow);
+        }
+        ResultTableModel.RowsView rows = tableModel.rowsView(modelRows);
+
+        Path file = target;
+        SwingWorker<Void, Void> worker = new SwingWorker<>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                SwingWorker<Void, Void> self = this;
+                try (rows) {
+                    ResultExporter.export(rows, file, format, new ExportProgress() {
+                        @Override
+                        public void update(int done, int total) {
+                            setProgress(total == 0 ? 100 : (int) (100L * done / total));
+                        }
+
+                        @Override
+                        public boolean isCancelled() {
+                            return self.isCancelled();
+                        }
+                    });
+                }
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    showExportStatus(rowCount + " rows exported to " + file.getFileName());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (CancellationException ex) {
+                    showExportStatus("Export cancelled");
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    showExportStatus("");
+                    JOptionPane.showMessageDialog(NexusSearchPanel.this,
+                            "Cannot export results:\n" + cause.getMessage(),
+                            "Export error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName()) && !isSearching()) {
+                progressBar.setValue((Integer) e.getNewValue());
+                progressBar.setString("Exporting " + rowCount + " rows...");
+            }
+        });
+        worker.execute();
+    }
+
+    private boolean isSearching() {
+        return currentWorker != null && !currentWorker.isDone();
+    }
+
+    /**
+     * We show the outcome of an export unless a search is using the progress
+     * bar; failures are reported in a dialog either way.
+     */
+    private void showExportStatus(String status) {
+        if (!isSearching()) {
+            progressBar.setValue(0);
+            progressBar.setString(status);
+        }
+    }
+
+    private void toggleSelectedComponent() {
+        int viewRow = resultTable.getSelectedRow();
+        if (viewRow >= 0) {
+            toggleComponent(resultTable.convertRowIndexToModel(viewRow));
+        }
+    }
+
+    /**
+     * We expand or collapse a component; a version row from maven-metadata.xml
+     * is first searched for its assets.
+     */
+    private void toggleComponent(int modelRow) {
+        if (!tableModel.isUnloaded(modelRow)) {
+            tableModel.toggleExpanded(modelRow);
+            return;
+        }
+        NexusArtifact version = tableModel.getArtifactAt(modelRow);
+        NexusSearchFilter filter = currentFilter();
+        NexusSearch search = backend.search();
+        tableModel.setLoading(version);
+        new SwingWorker<List<NexusArtifact>, Void>() {
+            @Override
+            protected List<NexusArtifact> doInBackground() throws Exception {
+                NexusSearchResult result = search instanceof NexusFilteredSearch filtered
+                        ? filtered.searchByGav(version.groupId(), version.artifactId(), version.version(), filter, 0)
+                        : filter.apply(search.searchByGav(version.groupId(), version.artifactId(), version.version(), 0));
+                return result == null || result.artifacts() == null ? List.of() : result.artifacts();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    tableModel.loadAssets(version, get());
+                } catch (InterruptedException | ExecutionException ex) {
+                    tableModel.loadAssets(version, null);
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(NexusSearchPanel.this,
+                            "Cannot list the assets of " + version.version() + ":\n" + cause.getMessage(),
+                            "Search error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
     }
 
     private void compareSelectedArtifacts() {
@@ -751,111 +2042,52 @@ public final class NexusSearchPanel extends JPanel {
         }
     }
 
-    private static String buildMavenSnippet(String g, String a, String v, String c, String p) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("<dependency>\n");
-        sb.append("  <groupId>").append(g).append("</groupId>\n");
-        sb.append("  <artifactId>").append(a).append("</artifactId>\n");
-        sb.append("  <version>").append(v).append("</version>\n");
-        if (c != null && !c.isBlank()) {
-            sb.append("  <classifier>").append(c).append("</classifier>\n");
-        }
-        if (p != null && !p.isBlank() && !"jar".equalsIgnoreCase(p)) {
-            sb.append("  <type>").append(p).append("</type>\n");
+    /**
+     * One snippet tab: its generator, its editor and the artifact it shows.
+     */
+    private static final class SnippetTab {
+        final SnippetGenerator generator;
+        final LazyTab<RSyntaxTextArea> view;
+        NexusArtifact rendered;
+
+        SnippetTab(SnippetGenerator generator, LazyTab<RSyntaxTextArea> view) {
+            this.generator = generator;
+            this.view = view;
         }
-        sb.append("</dependency>\n");
-        return sb.toString();
     }
 
-    private static String buildGradleSnippet(String g, String a, String v, String c, String p) {
-        String coords;
-        if (c != null && !c.isBlank()) {
-            if (p != null && !p.isBlank() && !"jar".equalsIgnoreCase(p)) {
-                coords = g + ":" + a + ":" + v + ":" + c + "@" + p;
-            } else {
-                coords = g + ":" + a + ":" + v + ":" + c;
-            }
-        } else {
-            coords = g + ":" + a + ":" + v;
-        }
-        return "dependencies {\n    implementation \"" + coords + "\"\n}\n";
-    }
+    /**
+     * A tab whose content is built the first time it is needed, and shown
+     * through the component made by view (e.g. a scroll pane).
+     */
+    private static final class LazyTab<T extends JComponent> extends JPanel {
 
-    private static String buildIvySnippet(String g, String a, String v, String c, String p) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("<dependency org=\"").append(g)
-                .append("\" name=\"").append(a)
-                .append("\" rev=\"").append(v).append("\"");
-        if (p != null && !p.isBlank()) {
-            sb.append(" type=\"").append(p).append("\"");
-        }
-        if (c != null && !c.isBlank()) {
-            sb.append(" classifier=\"").append(c).append("\"");
-        }
-        sb.append(" />\n");
-        return sb.toString();
-    }
+        private static final long serialVersionUID = 1L;
 
-    private static String buildSbtSnippet(String g, String a, String v, String c, String p) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("libraryDependencies += \"").append(g).append("\" % \"").append(a).append("\" % \"").append(v).append("\"");
-        if (c != null && !c.isBlank()) {
-            sb.append(" classifier \"").append(c).append("\"");
-        }
-        sb.append("\n");
-        return sb.toString();
-    }
+        private final transient Supplier<T> factory;
+        private final transient Function<T, ? extends JComponent> view;
+        private transient T content;
 
-    private static String buildLeinSnippet(String g, String a, String v, String c, String p) {
-        String ga = g + "/" + a;
-        StringBuilder sb = new StringBuilder();
-        sb.append("[\"").append(ga).append("\" \"").append(v).append("\"");
-        if (c != null && !c.isBlank()) {
-            sb.append(" :classifier \"").append(c).append("\"");
-        }
-        if (p != null && !p.isBlank() && !"jar".equalsIgnoreCase(p)) {
-            sb.append(" :extension \"").append(p).append("\"");
+        LazyTab(Supplier<T> factory, Function<T, ? extends JComponent> view) {
+            super(new BorderLayout());
+            this.factory = factory;
+            this.view = view;
         }
-        sb.append("]\n");
-        return sb.toString();
-    }
 
-    private static String buildGrapeSnippet(String g, String a, String v, String c, String p) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("@Grapes(\n");
-        sb.append("    @Grab(group='").append(g).append("', module='").append(a).append("', version='").append(v).append("'");
-        if (c != null && !c.isBlank()) {
-            sb.append(", classifier='").append(c).append("'");
-        }
-        if (p != null && !p.isBlank() && !"jar".equalsIgnoreCase(p)) {
-            sb.append(", type='").append(p).append("'");
+        boolean isCreated() {
+            return content != null;
         }
-        sb.append(")\n");
-        sb.append(")\n");
-        return sb.toString();
-    }
 
-    private static String buildBuildrSnippet(String g, String a, String v, String c, String p) {
-        StringBuilder sb = new StringBuilder();
-        String packaging = (p == null || p.isBlank()) ? "jar" : p;
-        sb.append("compile '").append(g).append(":").append(a).append(":").append(packaging).append(":").append(v);
-        if (c != null && !c.isBlank()) {
-            sb.append(":").append(c);
+        T content() {
+            if (content == null) {
+                content = factory.get();
+                add(view.apply(content), BorderLayout.CENTER);
+                revalidate();
+            }
+            return content;
         }
-        sb.append("'\n");
-        return sb.toString();
     }
 
-    private static String buildBldSnippet(String g, String a, String v, String c, String p) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("dependency(\"").append(g).append("\", \"").append(a).append("\", \"").append(v).append("\"");
-        if (c != null && !c.isBlank()) {
-            sb.append(", classifier=\"").append(c).append("\"");
-        }
-        if (p != null && !p.isBlank() && !"jar".equalsIgnoreCase(p)) {
-            sb.append(", type=\"").append(p).append("\"");
-        }
-        sb.append(");\n");
-        return sb.toString();
+    private record SnippetKey(String generator, NexusArtifact artifact) {
     }
 }
@@ -0,0 +1,113 @@
+package org.jd.gui.util.maven.central.helper;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the grouping of search results by component in the result
+ * table model of NexusSearchPanel.
+ */
+class NexusSearchPanelTest {
+
+    private final NexusSearchPanel.ResultTableModel model = new NexusSearchPanel.ResultTableModel();
+
+    @AfterEach
+    void closeModel() {
+        model.close();
+    }
+
+    private static NexusArtifact artifact(String artifactId, String version, String classifier, String extension,
+                                          String repository) {
+        return new NexusArtifact("org.example", artifactId, version, null, classifier, extension, repository, null);
+    }
+
+    private List<String> rows() {
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < model.getRowCount(); i++) {
+            NexusArtifact a = model.getArtifactAt(i);
+            rows.add(a.artifactId() + ":" + a.version() + (a.classifier() == null ? "" : ":" + a.classifier())
+                    + "." + a.extension() + "@" + a.repository());
+        }
+        return rows;
+    }
+
+    @Test
+    void groupsTheAssetsOfAComponentUnderItsMainArtifact() {
+        model.setArtifacts(List.of(
+                artifact("demo", "1.0", null, "pom", "releases"),
+                artifact("demo", "1.0", null, "jar", "releases"),
+                artifact("demo", "1.0", "sources", "jar", "releases"),
+                artifact("demo", "1.1", null, "jar", "releases"),
+                artifact("demo", "1.0", null, "jar", "mirror")));
+
+        assertTrue(model.isGrouped());
+        // One row per component and repository, showing the main jar
+        assertEquals(List.of("demo:1.0.jar@releases", "demo:1.1.jar@releases", "demo:1.0.jar@mirror"), rows());
+        assertTrue(model.isExpandable(0));
+        assertFalse(model.isExpandable(1));
+        assertEquals("▸ 2", model.getValueAt(0, NexusSearchPanel.ResultTableModel.ASSETS_COLUMN));
+
+        model.toggleExpanded(0);
+        assertTrue(model.isExpanded(0));
+        assertEquals("▾ 2", model.getValueAt(0, NexusSearchPanel.ResultTableModel.ASSETS_COLUMN));
+        assertEquals(List.of("demo:1.0.jar@releases", "demo:1.0.pom@releases", "demo:1.0:sources.jar@releases",
+                "demo:1.1.jar@releases", "demo:1.0.jar@mirror"), rows());
+        // Asset rows are not expandable themselves
+        assertFalse(model.isExpandable(1));
+
+        model.toggleExpanded(0);
+        assertEquals(3, model.getRowCount());
+    }
+
+    @Test
+    void flatModeShowsOneRowPerAssetAndKeepsTheExpandedComponents() {
+        model.setArtifacts(List.of(
+                artifact("demo", "1.0", null, "pom", "releases"),
+                artifact("demo", "1.0", null, "jar", "releases"),
+                artifact("tool", "2.0", null, "jar", "releases")));
+        model.toggleExpanded(0);
+
+        model.setGrouped(false);
+        assertFalse(model.isGrouped());
+        assertEquals(List.of("demo:1.0.pom@releases", "demo:1.0.jar@releases", "tool:2.0.jar@releases"), rows());
+
+        model.setGrouped(true);
+        assertEquals(List.of("demo:1.0.jar@releases", "demo:1.0.pom@releases", "tool:2.0.jar@releases"), rows());
+    }
+
+    @Test
+    void laterPagesJoinTheComponentsAlreadyShown() {
+        model.setArtifacts(List.of(artifact("demo", "1.0", null, "pom", "releases")));
+        model.addArtifacts(List.of(artifact("tool", "2.0", null, "jar", "releases")));
+        assertEquals(List.of("demo:1.0.pom@releases", "tool:2.0.jar@releases"), rows());
+
+        // The jar of a component seen on an earlier page becomes its main row
+        model.addArtifacts(List.of(artifact("demo", "1.0", null, "jar", "releases")));
+        assertEquals(List.of("demo:1.0.jar@releases", "tool:2.0.jar@releases"), rows());
+        assertEquals("▸ 1", model.getValueAt(0, NexusSearchPanel.ResultTableModel.ASSETS_COLUMN));
+    }
+
+    @Test
+    void versionRowsAreReplacedByTheAssetsOfTheirComponent() {
+        NexusArtifact version = artifact("demo", "1.0", null, null, "releases");
+        model.setArtifacts(List.of());
+        model.addVersionRows(List.of(version, artifact("demo", "1.1", null, null, "releases")));
+        assertTrue(model.isUnloaded(0));
+        assertEquals("▸ ?", model.getValueAt(0, NexusSearchPanel.ResultTableModel.ASSETS_COLUMN));
+
+        model.setLoading(version);
+        assertEquals("…", model.getValueAt(0, NexusSearchPanel.ResultTableModel.ASSETS_COLUMN));
+        model.loadAssets(version, List.of(
+                artifact("demo", "1.0", null, "jar", "releases"),
+                artifact("demo", "1.0", null, "pom", "releases")));
+        assertFalse(model.isUnloaded(0));
+        assertTrue(model.isExpanded(0));
+        assertEquals(List.of("demo:1.0.jar@releases", "demo:1.0.pom@releases", "demo:1.1.null@releases"), rows());
+    }
+}
@@ -0,0 +1,275 @@
+package org.jd.gui.util.nexus.ui;
+
+import org.jd.gui.api.API;
+import org.jd.gui.service.preferencespanel.NexusPreferencesProvider;
+import org.jd.gui.util.maven.central.helper.NexusSearchPanel;
+import org.jd.gui.util.nexus.OptionValues;
+import org.jdesktop.swingx.JXTable;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Graphics;
+import java.awt.GraphicsEnvironment;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Startup benchmark of the search frame.
+ *
+ *   java -cp jd-gui.jar org.jd.gui.util.nexus.ui.NexusSearchStartupBenchmark [options]
+ *
+ * Each run opens a frame, runs a coordinates search and closes the frame.
+ * We report, from the start of the construction:
+ *
+ *   construct      the frame is built (EDT time before it can be shown)
+ *   first paint    the frame has painted once
+ *   first result   the first result row is in the table
+ *
+ * The first run includes class loading and is reported apart from the
+ * median of the others. With --prewarm the first frame comes from
+ * {@link NexusSearchFrame#prewarm}, as at application start. The server
+ * must allow anonymous searches; other preferences (local repository,
+ * Maven index, throttle) are given with --pref. The exit status is 0 when
+ * every run found a result, 1 otherwise and 2 on a usage error.
+ */
+public final class NexusSearchStartupBenchmark {
+
+    private static final String USAGE = String.join("\n",
+            "Usage: NexusSearchStartupBenchmark [options]",
+            "  --url URL              Nexus base URL (default: $NEXUS_URL)",
+            "  --gav g:a[:v]          coordinates searched (default: junit:junit)",
+            "  --runs N               frames opened (default: 5)",
+            "  --timeout SECONDS      wait for each result (default: 60)",
+            "  --prewarm              prewarm the first frame in the background",
+            "  --pref KEY=VALUE       extra preference, may be repeated");
+
+    private record Run(long constructNanos, long firstPaintNanos, long firstResultNanos) {
+    }
+
+    private NexusSearchStartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) throws Exception {
+        String url = System.getenv("NEXUS_URL");
+        String[] gav = {"junit", "junit", null};
+        int runs = 5;
+        long timeoutSeconds = 60;
+        boolean prewarm = false;
+        Map<String, String> prefs = new HashMap<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--url" -> url = OptionValues.value(args, ++i, arg);
+                    case "--gav" -> {
+                        String[] parts = OptionValues.value(args, ++i, arg).split(":");
+                        if (parts.length < 2 || parts.length > 3) {
+                            throw new IllegalArgumentException("--gav needs g:a or g:a:v");
+                        }
+                        gav = new String[] {parts[0], parts[1], parts.length == 3 ? parts[2] : null};
+                    }
+                    case "--runs" -> runs = OptionValues.positive(args, ++i, arg);
+                    case "--timeout" -> timeoutSeconds = OptionValues.positive(args, ++i, arg);
+                    case "--prewarm" -> prewarm = true;
+                    case "--pref" -> {
+                        String pref = OptionValues.value(args, ++i, arg);
+                        int eq = pref.indexOf('=');
+                        if (eq <= 0) {
+                            throw new IllegalArgumentException("--pref needs KEY=VALUE: " + pref);
+                        }
+                        prefs.put(pref.substring(0, eq), pref.substring(eq + 1));
+                    }
+                    default -> throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            if (url == null || url.isBlank()) {
+                throw new IllegalArgumentException("No Nexus URL: use --url or NEXUS_URL");
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return 2;
+        }
+        if (GraphicsEnvironment.isHeadless()) {
+            err.println("The benchmark needs a display");
+            return 2;
+        }
+
+        prefs.put(NexusPreferencesProvider.NEXUS_URL, url.strip());
+        if (prewarm) {
+            prefs.put(NexusSearchFrame.NEXUS_SEARCH_PREWARM, "true");
+        }
+        API api = api(prefs);
+        if (prewarm) {
+            NexusSearchFrame.prewarm(api);
+            if (!awaitWarm(timeoutSeconds)) {
+                err.println("The frame was not prewarmed in time");
+                return 1;
+            }
+        }
+
+        List<Run> results = new ArrayList<>(runs);
+        int failed = 0;
+        for (int i = 1; i <= runs; i++) {
+            Run r = runOnce(api, gav, timeoutSeconds);
+            results.add(r);
+            if (r.firstResultNanos() < 0) {
+                failed++;
+            }
+            out.printf(Locale.ROOT, "run %d: construct %s, first paint %s, first result %s%n", i,
+                    millis(r.constructNanos()), millis(r.firstPaintNanos()), millis(r.firstResultNanos()));
+        }
+
+        Run first = results.get(0);
+        out.printf(Locale.ROOT, "first run:  construct %s, first paint %s, first result %s%n",
+                millis(first.constructNanos()), millis(first.firstPaintNanos()), millis(first.firstResultNanos()));
+        if (results.size() > 1) {
+            List<Run> others = results.subList(1, results.size());
+            out.printf(Locale.ROOT, "median (%d): construct %s, first paint %s, first result %s%n", others.size(),
+                    millis(median(others, Run::constructNanos)), millis(median(others, Run::firstPaintNanos)),
+                    millis(median(others, Run::firstResultNanos)));
+        }
+        return failed == 0 ? 0 : 1;
+    }
+
+    /**
+     * We open one frame and time it; a step that does not happen within the
+     * timeout is reported as -1.
+     */
+    private static Run runOnce(API api, String[] gav, long timeoutSeconds)
+            throws InterruptedException, InvocationTargetException {
+        CountDownLatch painted = new CountDownLatch(1);
+        CountDownLatch found = new CountDownLatch(1);
+        AtomicLong constructed = new AtomicLong(-1);
+        AtomicLong firstPaint = new AtomicLong(-1);
+        AtomicLong firstResult = new AtomicLong(-1);
+        NexusSearchFrame[] frame = new NexusSearchFrame[1];
+
+        SwingUtilities.invokeAndWait(() -> {
+            long start = System.nanoTime();
+            frame[0] = NexusSearchFrame.obtain(api);
+            constructed.set(System.nanoTime() - start);
+
+            // The glass pane is painted over the content, so its first paint follows the content's
+            JComponent glass = new JComponent() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void paintComponent(Graphics g) {
+                    if (firstPaint.compareAndSet(-1, System.nanoTime() - start)) {
+                        painted.countDown();
+                    }
+                }
+            };
+            frame[0].setGlassPane(glass);
+            glass.setVisible(true);
+
+            JXTable table = find(frame[0], JXTable.class);
+            table.getModel().addTableModelListener(e -> {
+                if (table.getModel().getRowCount() > 0 && firstResult.compareAndSet(-1, System.nanoTime() - start)) {
+                    found.countDown();
+                }
+            });
+            frame[0].setVisible(true);
+            find(frame[0], NexusSearchPanel.class).searchCoordinates(gav[0], gav[1], gav[2]);
+        });
+
+        painted.await(timeoutSeconds, TimeUnit.SECONDS);
+        found.await(timeoutSeconds, TimeUnit.SECONDS);
+        SwingUtilities.invokeAndWait(() -> frame[0].dispose());
+        return new Run(constructed.get(), firstPaint.get(), firstResult.get());
+    }
+
+    private static boolean awaitWarm(long timeoutSeconds) throws InterruptedException, InvocationTargetException {
+        boolean[] warm = new boolean[1];
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (System.nanoTime() < deadline) {
+            SwingUtilities.invokeAndWait(() -> warm[0] = NexusSearchFrame.isWarm());
+            if (warm[0]) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+
+    private static <T> T find(Container container, Class<T> type) {
+        for (Component child : container.getComponents()) {
+            if (type.isInstance(child)) {
+                return type.cast(child);
+            }
+            if (child instanceof Container c) {
+                T found = find(c, type);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Only the preferences are read by the frame outside of user actions
+    private static API api(Map<String, String> prefs) {
+        return (API) Proxy.newProxyInstance(API.class.getClassLoader(), new Class<?>[] {API.class},
+                (proxy, method, methodArgs) -> switch (method.getName()) {
+                    case "getPreferences" -> prefs;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == methodArgs[0];
+                    case "toString" -> "benchmark API";
+                    default -> defaultValue(method.getReturnType());
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+
+    private static long median(List<Run> runs, ToLongFunction<Run> metric) {
+        long[] values = runs.stream().mapToLong(metric).filter(v -> v >= 0).sorted().toArray();
+        return values.length == 0 ? -1 : values[values.length / 2];
+    }
+
+    private static String millis(long nanos) {
+        return nanos < 0 ? "timeout" : String.format(Locale.ROOT, "%.1f ms", nanos / 1e6);
+    }
+}
@@ -0,0 +1,193 @@
+package org.jd.gui.util.nexus;
+
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Client-side rate limiter and concurrency governor of one Nexus server.
+ *
+ * Every client of the same base URL in the JVM shares one throttle: a
+ * bounded number of requests in flight and a token bucket refilled at the
+ * configured rate, with a burst of one second worth of tokens. A request
+ * first waits for an in-flight slot, then for its token, so requests start
+ * at most at the configured rate whatever the number of searches, panels
+ * and background jobs.
+ *
+ * Preferences:
+ *   - NEXUS_MAX_REQUESTS_PER_SECOND   default 10, 0 disables the rate limit
+ *   - NEXUS_MAX_IN_FLIGHT             default 4
+ */
+public final class NexusThrottle {
+
+    public static final String NEXUS_MAX_REQUESTS_PER_SECOND = "JdGuiPreferences.nexusMaxRequestsPerSecond";
+    public static final String NEXUS_MAX_IN_FLIGHT = "JdGuiPreferences.nexusMaxInFlight";
+
+    static final double DEFAULT_REQUESTS_PER_SECOND = 10;
+    static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    private static final Map<String, NexusThrottle> THROTTLES = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition slotFreed = lock.newCondition();
+
+    private int maxInFlight;
+    private int inFlight;
+    private int waiting;
+
+    private double permitsPerSecond;
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+
+    NexusThrottle(double permitsPerSecond, int maxInFlight) {
+        setLimits(permitsPerSecond, maxInFlight);
+        this.tokens = Math.max(1, permitsPerSecond);
+    }
+
+    static NexusThrottle forBaseUrl(String baseUrl) {
+        return THROTTLES.computeIfAbsent(AbstractNexusClient.trimTrailingSlash(baseUrl),
+                url -> new NexusThrottle(DEFAULT_REQUESTS_PER_SECOND, DEFAULT_MAX_IN_FLIGHT));
+    }
+
+    /**
+     * We apply the limits configured in the preferences to the throttle of a server.
+     */
+    public static void configure(String baseUrl, Map<String, String> prefs) {
+        if (baseUrl == null || prefs == null) {
+            return;
+        }
+        forBaseUrl(baseUrl).setLimits(
+                parseDouble(prefs.get(NEXUS_MAX_REQUESTS_PER_SECOND), DEFAULT_REQUESTS_PER_SECOND),
+                (int) parseDouble(prefs.get(NEXUS_MAX_IN_FLIGHT), DEFAULT_MAX_IN_FLIGHT));
+    }
+
+    void setLimits(double permitsPerSecond, int maxInFlight) {
+        lock.lock();
+        try {
+            this.permitsPerSecond = Math.max(0, permitsPerSecond);
+            this.maxInFlight = Math.max(1, maxInFlight);
+            this.tokens = Math.min(tokens, Math.max(1, this.permitsPerSecond));
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A granted request; closing it frees the in-flight slot.
+     */
+    interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * We wait for an in-flight slot and a rate token, recording the time
+     * spent waiting in the queue-wait histogram of the endpoint.
+     */
+    Permit acquire(NexusMetrics.Endpoint endpoint) throws InterruptedIOException {
+        long start = System.nanoTime();
+        long delayNanos;
+        lock.lock();
+        try {
+            waiting++;
+            try {
+                while (inFlight >= maxInFlight) {
+                    slotFreed.await();
+                }
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+            delayNanos = reserveToken();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a Nexus request slot");
+        } finally {
+            lock.unlock();
+        }
+
+        Permit permit = new Permit() {
+            private boolean released;
+
+            @Override
+            public void close() {
+                if (!released) {
+                    released = true;
+                    release();
+                }
+            }
+        };
+        if (delayNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
+            } catch (InterruptedException e) {
+                permit.close();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the Nexus rate limit");
+            }
+        }
+        if (endpoint != null) {
+            endpoint.recordQueueWait(System.nanoTime() - start);
+        }
+        return permit;
+    }
+
+    /**
+     * We take one token, letting the bucket go negative; the deficit is the
+     * time the caller has to wait. Callers are served in arrival order.
+     */
+    private long reserveToken() {
+        if (permitsPerSecond <= 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        double burst = Math.max(1, permitsPerSecond);
+        tokens = Math.min(burst, tokens + (now - refilledAt) * permitsPerSecond / 1e9);
+        refilledAt = now;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) (-tokens / permitsPerSecond * 1e9);
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            slotFreed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int waiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static double parseDouble(String s, double defaultValue) {
+        if (s == null || s.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(s.trim());
+        } catch (NumberFormatException ignored) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.jd.gui.util.nexus;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NexusThrottle.
+ */
+class NexusThrottleTest {
+
+    @Test
+    void limitsRequestsInFlight() throws Exception {
+        NexusThrottle throttle = new NexusThrottle(0, 2);
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread t = new Thread(() -> {
+                try (NexusThrottle.Permit ignored = throttle.acquire(null)) {
+                    peak.accumulateAndGet(current.incrementAndGet(), Math::max);
+                    Thread.sleep(20);
+                    current.decrementAndGet();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(2, peak.get());
+        assertEquals(0, throttle.inFlight());
+    }
+
+    @Test
+    void spacesRequestsAtTheConfiguredRate() throws Exception {
+        NexusThrottle throttle = new NexusThrottle(20, 100);
+        long start = System.nanoTime();
+        // 20 burst tokens, then 20 more at 20 per second
+        for (int i = 0; i < 40; i++) {
+            throttle.acquire(null).close();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMillis >= 900 && elapsedMillis < 2_000, "elapsed " + elapsedMillis);
+    }
+
+    @Test
+    void recordsQueueWait() throws Exception {
+        NexusMetrics metrics = new NexusMetrics(false);
+        NexusMetrics.Endpoint endpoint = metrics.endpoint("v1/search");
+        NexusThrottle throttle = new NexusThrottle(0, 1);
+        throttle.acquire(endpoint).close();
+        assertEquals(1, endpoint.queueWait.count());
+    }
+
+    @Test
+    void permitIsReleasedOnce() throws Exception {
+        NexusThrottle throttle = new NexusThrottle(0, 1);
+        NexusThrottle.Permit permit = throttle.acquire(null);
+        permit.close();
+        permit.close();
+        assertEquals(0, throttle.inFlight());
+    }
+}
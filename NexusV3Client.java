@@ -1,22 +1,39 @@
 package org.jd.gui.util.nexus;
 
-import jakarta.json.bind.Jsonb;
-import jakarta.json.bind.JsonbBuilder;
-import org.jd.gui.util.nexus.dto.Asset;
-import org.jd.gui.util.nexus.dto.Component;
-import org.jd.gui.util.nexus.dto.Maven2;
-import org.jd.gui.util.nexus.dto.Nexus3AssetSearchResponse;
-import org.jd.gui.util.nexus.dto.Nexus3Response;
+import org.jd.gui.util.nexus.index.ClassIndex;
+import org.jd.gui.util.nexus.index.ClassIndexWriter;
+import org.jd.gui.util.nexus.index.ClassIndexer;
+import org.jd.gui.util.nexus.index.IndexedGav;
 import org.jd.gui.util.nexus.model.NexusArtifact;
 import org.jd.gui.util.nexus.model.NexusSearchResult;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.SocketTimeoutException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * Nexus Repository 3 search implementation.
@@ -26,7 +43,8 @@ import java.util.List;
  *   - GET /service/rest/v1/search              (component search)
  *   - GET /service/rest/v1/search/assets       (asset search, for SHA-1)
  *
- * For each asset we create one NexusArtifact with:
+ * For each asset we create one NexusArtifact (component searches skip checksum
+ * and signature sidecars such as .sha1, .md5 and .asc) with:
  *   - groupId, artifactId, version, classifier, extension from the "maven2" object
  *   - repository from the asset repository name
  *   - versionDate from asset.lastModified (if parseable)
@@ -40,25 +58,105 @@ import java.util.List;
  *          &extension=<extension>
  *          &classifier=<classifier>
  *
- * We do not use proxies in this client.
+ * We do not use proxies in this client. Authentication (Basic, Nexus user
+ * token or bearer token, and NXSESSIONID session reuse) is prepared once per
+ * client by {@link NexusAuth}.
+ *
+ * Failures:
+ *   Timeouts adapt to the observed latency of each endpoint, network errors
+ *   and 429/502/503/504 are retried with jittered backoff honouring
+ *   Retry-After, and a circuit breaker per server fails fast while the server
+ *   is down. Failed or malformed pages are thrown, never returned as empty.
+ *   All requests to a server pass through its shared {@link NexusThrottle},
+ *   and identical search pages requested concurrently are fetched once
+ *   (see {@link SingleFlight}).
+ *
+ * Metrics:
+ *   Requests go through {@link NexusHttpTransport}, which records connect,
+ *   first byte and transfer times and bytes per endpoint; we add parse and
+ *   artifact build times and assets per page (see {@link NexusMetrics}).
+ *
+ * Filters:
+ *   Searches taking a {@link NexusSearchFilter} push repository, maven.extension,
+ *   maven.classifier, format and sort/direction into the query, so the server
+ *   only returns rows we show. The format defaults to "maven2", the only format
+ *   we can turn into artifacts.
  *
  * Pagination:
- *   The Nexus 3 Search API uses continuation tokens, not page numbers. For the
- *   sake of a simple, stateless client we currently ignore pageNo and always
- *   fetch the first page of results.
+ *   The Nexus 3 Search API uses continuation tokens, not page numbers. We map
+ *   pageNo onto tokens and remember the tokens seen per query, so walking the
+ *   pages of a search costs one request per page.
+ *
+ * Class search:
+ *   Nexus 3 has no class-name search, so we answer class queries from
+ *   {@link ClassIndex} files: the index of the repositories listed in the
+ *   preferences (see {@link NexusClassIndexCrawl}), kept under
+ *   ~/.jd-gui/nexus/<server>/classes.idx and crawled on a thread of its own by
+ *   {@link #crawlClassIndex(List, Duration)}, and the index of the local Maven
+ *   repository when it is enabled (see {@link LocalMavenRepositorySearch}); we
+ *   never open a local repository ourselves. Artifacts only found locally link
+ *   to their file. Until some index has a hit we fall back to the generic "q"
+ *   search.
  */
-final class NexusV3Client extends AbstractNexusClient implements NexusSearch {
+final class NexusV3Client extends AbstractNexusClient implements NexusSearch, NexusFilteredSearch, NexusVersionSearch {
+
+    private static final int CLASS_PAGE_SIZE = 100;
+    private static final int PAGE_TOKEN_QUERIES = 64;
+    private static final int CONNECT_TIMEOUT = 8_000;
+    private static final int READ_TIMEOUT = 15_000;
+
+    // One POM per version, newest first
+    private static final NexusSearchFilter VERSIONS_FILTER =
+            new NexusSearchFilter(null, "pom", null, null, "version", "desc");
+
+    // How often we look for a class index written by another client
+    private static final long CLASS_INDEX_TTL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    // One crawl per index file at a time, shared by all clients in the JVM
+    private static final Map<Path, CompletableFuture<Void>> CLASS_INDEX_CRAWLS = new ConcurrentHashMap<>();
+
+    // Crawls run here rather than on the common pool, which they would starve
+    private static final ExecutorService CLASS_INDEX_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "nexus-class-index");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Search pages in flight, keyed by URL and credentials, shared by all clients in the JVM
+    private static final SingleFlight<String, Nexus3Page<?>> IN_FLIGHT_PAGES = new SingleFlight<>();
+
+    private final NexusHttpTransport transport = new NexusHttpTransport(NexusMetrics.global());
+    private final AdaptiveTimeouts timeouts = new AdaptiveTimeouts(NexusMetrics.global());
+    private final RetryPolicy retryPolicy = RetryPolicy.DEFAULT;
+    private final CircuitBreaker breaker;
+    private final NexusThrottle throttle;
+    private final NexusAuth auth;
+    private final Path classIndexPath;
+    private volatile ClassIndex classIndex;
+    private volatile long classIndexCheckedAt;
+
+    // Continuation tokens per query, least recently used first
+    private final Map<String, List<String>> pageTokens = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > PAGE_TOKEN_QUERIES;
+        }
+    };
 
     NexusV3Client(NexusConfig config) {
         super(config);
+        this.breaker = CircuitBreaker.forBaseUrl(config.baseUrl);
+        this.throttle = NexusThrottle.forBaseUrl(config.baseUrl);
+        this.auth = NexusAuth.of(config);
+        this.classIndexPath = defaultClassIndexPath(config.baseUrl);
     }
 
     // Probe helper used by the factory
     static boolean probe(NexusConfig cfg) {
         try {
             String url = trimTrailingSlash(cfg.baseUrl) + "/service/rest/v1/status";
-            String body = new NexusV3Client(cfg).get(url, 4000, 6000);
-            return body != null;
+            NexusV3Client client = new NexusV3Client(cfg);
+            return client.transport.get(url, client.auth, 4000, 6000).isSuccess();
         } catch (Exception ignored) {
             return false;
         }
@@ -66,150 +164,586 @@ final class NexusV3Client extends AbstractNexusClient implements NexusSearch {
 
     @Override
     public NexusSearchResult searchByKeyword(String keyword, int pageNo) throws Exception {
-        String path = "/service/rest/v1/search?q=" + enc(keyword);
-        String body = get(buildUrl(config.baseUrl, path), 8000, 15000);
-        return parseComponents(body);
+        return searchByKeyword(keyword, NexusSearchFilter.NONE, pageNo);
     }
 
     @Override
     public NexusSearchResult searchBySha1(String sha1, int pageNo) throws Exception {
-        String path = "/service/rest/v1/search/assets?sha1=" + enc(sha1);
-        String body = get(buildUrl(config.baseUrl, path), 8000, 15000);
-        return parseAssets(body);
+        return searchBySha1(sha1, NexusSearchFilter.NONE, pageNo);
     }
 
     @Override
     public NexusSearchResult searchByGav(String groupId, String artifactId, String version, int pageNo) throws Exception {
-        StringBuilder path = new StringBuilder("/service/rest/v1/search?");
+        return searchByGav(groupId, artifactId, version, NexusSearchFilter.NONE, pageNo);
+    }
+
+    @Override
+    public NexusSearchResult searchByKeyword(String keyword, NexusSearchFilter filter, int pageNo) throws Exception {
+        Query query = new Query("/service/rest/v1/search")
+                .add("q", keyword)
+                .filter(filter);
+        return toResult(query.toString(), fetchPage(query.toString(), pageNo, Nexus3PageParser::parseComponents), filter);
+    }
+
+    @Override
+    public NexusSearchResult searchBySha1(String sha1, NexusSearchFilter filter, int pageNo) throws Exception {
+        Query query = new Query("/service/rest/v1/search/assets")
+                .add("sha1", sha1)
+                .filter(filter);
+        return toAssetResult(query.toString(), fetchPage(query.toString(), pageNo, Nexus3PageParser::parseAssets), filter);
+    }
+
+    @Override
+    public NexusSearchResult searchByGav(String groupId, String artifactId, String version,
+                                         NexusSearchFilter filter, int pageNo) throws Exception {
+        Query query = new Query("/service/rest/v1/search")
+                .add("group", groupId)
+                .add("name", artifactId)
+                .add("version", version)
+                .filter(filter);
+        return toResult(query.toString(), fetchPage(query.toString(), pageNo, Nexus3PageParser::parseComponents), filter);
+    }
 
-        boolean first = true;
-        if (groupId != null && !groupId.trim().isEmpty()) {
-            path.append("group=").append(enc(groupId.trim()));
-            first = false;
+    @Override
+    public NexusSearchResult searchByClassName(String className, boolean fullyQualified, int pageNo) throws Exception {
+        ClassIndex remote = classIndex();
+        Collection<LocalMavenRepositorySearch> locals = LocalMavenRepositorySearch.opened();
+        if (remote != null || !locals.isEmpty()) {
+            // Crawled artifacts first, then local ones not seen on the server; the
+            // page is cut from the start of all lists so that pages do not overlap
+            int end = (pageNo + 1) * CLASS_PAGE_SIZE;
+            Map<String, NexusArtifact> artifacts = new LinkedHashMap<>();
+            if (remote != null) {
+                for (ClassIndex.Hit hit : remote.find(className, fullyQualified, 0, end)) {
+                    artifacts.putIfAbsent(withoutRepository(hit.gav()), createArtifactFromIndex(hit.gav()));
+                }
+            }
+            for (LocalMavenRepositorySearch local : locals) {
+                ClassIndex index = local.classIndex();
+                if (index != null) {
+                    for (ClassIndex.Hit hit : index.find(className, fullyQualified, 0, end)) {
+                        // Local-only artifacts link to their file; those whose file is gone are skipped
+                        String key = withoutRepository(hit.gav());
+                        if (!artifacts.containsKey(key)) {
+                            NexusArtifact artifact = local.artifact(hit.gav());
+                            if (artifact != null) {
+                                artifacts.put(key, artifact);
+                            }
+                        }
+                    }
+                }
+            }
+            if (remote != null || !artifacts.isEmpty()) {
+                return new NexusSearchResult(artifacts.values().stream()
+                        .skip(pageNo * (long) CLASS_PAGE_SIZE)
+                        .limit(CLASS_PAGE_SIZE)
+                        .toList());
+            }
+        }
+
+        // Nexus 3 does not provide dedicated class-name search parameters.
+        // Until an index is available we approximate with the generic "q" search.
+        if (pageNo > 0) {
+            return new NexusSearchResult(List.of());
         }
-        if (artifactId != null && !artifactId.trim().isEmpty()) {
-            if (!first) {
-                path.append('&');
+        return searchByKeyword(className, NexusSearchFilter.NONE, 0);
+    }
+
+    /**
+     * We list versions of one GA through the search API, asking only for POM
+     * assets (one per version) sorted by version, newest first. Nexus sorts
+     * versions with its own rules, so callers apply Maven ordering on the page.
+     */
+    @Override
+    public List<NexusArtifact> searchVersions(String groupId, String artifactId, int pageNo) throws Exception {
+        Query query = new Query("/service/rest/v1/search")
+                .add("group", groupId)
+                .add("name", artifactId)
+                .filter(VERSIONS_FILTER);
+        Nexus3Page<Nexus3Page.ComponentItem> page = fetchPage(query.toString(), pageNo, Nexus3PageParser::parseComponents);
+
+        List<NexusArtifact> list = new ArrayList<>();
+        for (Nexus3Page.ComponentItem component : page.items()) {
+            for (Nexus3Page.AssetItem asset : component.assets()) {
+                NexusArtifact artifact = createArtifactFromItem(asset);
+                if (artifact != null) {
+                    list.add(artifact);
+                    break;
+                }
             }
-            path.append("name=").append(enc(artifactId.trim()));
-            first = false;
         }
-        if (version != null && !version.trim().isEmpty()) {
-            if (!first) {
-                path.append('&');
+        return list;
+    }
+
+    /**
+     * We return the index of the remote artifacts crawled on this server, or
+     * null when there is none. At most every CLASS_INDEX_TTL_MILLIS we switch
+     * to a newer generation written by another client.
+     */
+    private ClassIndex classIndex() {
+        ClassIndex index = classIndex;
+        long now = System.currentTimeMillis();
+        if (index == null || now - classIndexCheckedAt > CLASS_INDEX_TTL_MILLIS) {
+            classIndexCheckedAt = now;
+            if (index == null || !index.path().equals(ClassIndex.latestGeneration(classIndexPath))) {
+                ClassIndex newer = ClassIndex.openIfPresent(classIndexPath);
+                if (newer != null) {
+                    classIndex = index = newer;
+                }
             }
-            path.append("version=").append(enc(version.trim()));
         }
+        return index;
+    }
 
-        String body = get(buildUrl(config.baseUrl, path.toString()), 8000, 15000);
-        return parseComponents(body);
+    private static String withoutRepository(IndexedGav gav) {
+        return new IndexedGav(gav.groupId(), gav.artifactId(), gav.version(), gav.classifier(), gav.extension(), null)
+                .toKey();
     }
 
-    @Override
-    public NexusSearchResult searchByClassName(String className, boolean fullyQualified, int pageNo) throws Exception {
-        // Nexus 3 does not provide dedicated class-name search parameters.
-        // We approximate by using the generic "q" search, but the implementation
-        // expresses this limitation via supportsClassSearch().
-        String path = "/service/rest/v1/search?q=" + enc(className);
-        String body = get(buildUrl(config.baseUrl, path), 8000, 15000);
-        return parseComponents(body);
+    /**
+     * We list the components of the given repositories and add the class names
+     * of their artifacts to the index of this server. Artifacts already indexed
+     * are not downloaded again, and a crawl completed less than interval ago is
+     * not repeated. Crawls of one index never overlap: while one runs, we return
+     * it instead of starting another.
+     */
+    CompletableFuture<Void> crawlClassIndex(List<String> repositories, Duration interval) {
+        List<String> names = List.copyOf(repositories);
+        return CLASS_INDEX_CRAWLS.compute(classIndexPath, (path, running) -> running != null && !running.isDone()
+                ? running
+                : CompletableFuture.runAsync(() -> crawl(path, names, interval), CLASS_INDEX_EXECUTOR));
     }
 
-    private NexusSearchResult parseComponents(String json) {
-        List<NexusArtifact> list = new ArrayList<>();
-        if (json == null || json.isEmpty()) {
-            return new NexusSearchResult(list);
+    private void crawl(Path path, List<String> repositories, Duration interval) {
+        // Touched when a crawl completes, so that an interrupted crawl is resumed on the next start
+        Path crawled = path.resolveSibling(path.getFileName() + ".crawled");
+        // An index written by an older version does not open: we crawl again to rebuild it
+        ClassIndex existing = ClassIndex.openIfPresent(path);
+        try {
+            if (existing != null && Files.exists(crawled) && Files.getLastModifiedTime(crawled).toMillis()
+                    > System.currentTimeMillis() - interval.toMillis()) {
+                return;
+            }
+        } catch (IOException ignored) {
+            // We crawl again
+        }
+        try (ClassIndexWriter writer = new ClassIndexWriter(existing)) {
+            ClassIndexer indexer = new ClassIndexer(writer);
+            int added = 0;
+            boolean complete = false;
+            try {
+                for (String repository : repositories) {
+                    String token = null;
+                    do {
+                        Nexus3Page<Nexus3Page.ComponentItem> page = listComponents(repository, token);
+                        List<NexusArtifact> artifacts = new ArrayList<>();
+                        for (Nexus3Page.ComponentItem component : page.items()) {
+                            for (Nexus3Page.AssetItem asset : component.assets()) {
+                                NexusArtifact artifact = createArtifactFromItem(asset);
+                                if (artifact != null) {
+                                    artifacts.add(artifact);
+                                }
+                            }
+                        }
+                        added += indexer.indexRemoteArtifacts(artifacts, url -> openStream(url, CONNECT_TIMEOUT, 60_000));
+                        token = page.continuationToken();
+                    } while (token != null && !token.isEmpty());
+                }
+                complete = true;
+            } catch (Exception ignored) {
+                // We keep what was indexed before the failure and resume on the next crawl
+            }
+            if (added > 0 || (existing == null && complete)) {
+                classIndex = ClassIndex.open(writer.write(path));
+                classIndexCheckedAt = System.currentTimeMillis();
+            }
+            if (complete) {
+                Files.createDirectories(crawled.getParent());
+                Files.write(crawled, new byte[0]);
+            }
+        } catch (IOException | UncheckedIOException ignored) {
+            // We keep answering class queries with the index we have, or the "q" fallback
+        }
+    }
+
+    static Path defaultClassIndexPath(String baseUrl) {
+        return serverDataDirectory(baseUrl).resolve("classes.idx");
+    }
+
+    /**
+     * Per-server directory for local data derived from the server (indexes, mirrors).
+     */
+    static Path serverDataDirectory(String baseUrl) {
+        String server = trimTrailingSlash(baseUrl)
+                .replaceFirst("^[a-zA-Z]+://", "")
+                .replaceAll("[^A-Za-z0-9._-]", "_")
+                .toLowerCase(Locale.ROOT);
+        return Path.of(System.getProperty("user.home"), ".jd-gui", "nexus", server);
+    }
+
+    /**
+     * We open a binary download (artifact content) with the configured credentials.
+     */
+    InputStream openStream(String url, int connectTimeout, int readTimeout) throws IOException {
+        // Downloads hold their slot only until the response starts; the body is streamed outside the throttle
+        try (NexusThrottle.Permit ignored = throttle.acquire(transport.metrics().endpoint(NexusMetrics.endpointName(url)))) {
+            breaker.acquirePermission();
+            try {
+                InputStream in = transport.openStream(url, auth, connectTimeout, readTimeout);
+                breaker.onSuccess();
+                return in;
+            } catch (NexusHttpException e) {
+                if (RetryPolicy.isRetryable(e.getStatus())) {
+                    breaker.onFailure(e.getRetryAfterMillis());
+                } else {
+                    breaker.onSuccess();
+                }
+                throw e;
+            } catch (IOException e) {
+                if (isCancellation(e)) {
+                    breaker.releasePermission();
+                } else {
+                    breaker.onFailure(-1);
+                }
+                throw e;
+            } catch (RuntimeException | Error e) {
+                breaker.releasePermission();
+                throw e;
+            }
         }
+    }
 
-        try (Jsonb jsonb = JsonbBuilder.create()) {
-            Nexus3Response resp = jsonb.fromJson(json, Nexus3Response.class);
-            if (resp == null || resp.getItems() == null) {
-                return new NexusSearchResult(list);
+    /**
+     * We GET a small file with validators from a previous answer, through
+     * the throttle and circuit breaker; a 304 answer costs no body.
+     */
+    NexusHttpTransport.ConditionalResponse fetchConditional(String url, String etag, String lastModified) throws IOException {
+        try (NexusThrottle.Permit ignored = throttle.acquire(transport.metrics().endpoint(NexusMetrics.endpointName(url)))) {
+            breaker.acquirePermission();
+            try {
+                NexusHttpTransport.ConditionalResponse response =
+                        transport.getConditional(url, auth, etag, lastModified, CONNECT_TIMEOUT, READ_TIMEOUT);
+                breaker.onSuccess();
+                return response;
+            } catch (NexusHttpException e) {
+                if (RetryPolicy.isRetryable(e.getStatus())) {
+                    breaker.onFailure(e.getRetryAfterMillis());
+                } else {
+                    breaker.onSuccess();
+                }
+                throw e;
+            } catch (IOException e) {
+                if (isCancellation(e)) {
+                    breaker.releasePermission();
+                } else {
+                    breaker.onFailure(-1);
+                }
+                throw e;
+            } catch (RuntimeException | Error e) {
+                breaker.releasePermission();
+                throw e;
             }
-            for (Component component : resp.getItems()) {
-                if (component.getAssets() == null) {
-                    continue;
+        }
+    }
+
+    /**
+     * We GET a byte range of an archive on this server (see {@link RemoteZip}),
+     * through the throttle and circuit breaker.
+     */
+    NexusHttpTransport.RangeResponse fetchRange(String url, String range, String endpointName, long maxFullLength,
+                                                int connectTimeout, int readTimeout) throws IOException {
+        try (NexusThrottle.Permit ignored = throttle.acquire(transport.metrics().endpoint(endpointName))) {
+            breaker.acquirePermission();
+            try {
+                NexusHttpTransport.RangeResponse response =
+                        transport.getRange(url, auth, range, endpointName, maxFullLength, connectTimeout, readTimeout);
+                breaker.onSuccess();
+                return response;
+            } catch (NexusHttpException e) {
+                if (RetryPolicy.isRetryable(e.getStatus())) {
+                    breaker.onFailure(e.getRetryAfterMillis());
+                } else {
+                    breaker.onSuccess();
+                }
+                throw e;
+            } catch (IOException e) {
+                if (isCancellation(e)) {
+                    breaker.releasePermission();
+                } else {
+                    breaker.onFailure(-1);
                 }
-                for (Asset asset : component.getAssets()) {
-                    NexusArtifact artifact = createArtifactFromAsset(asset);
-                    if (artifact != null) {
-                        list.add(artifact);
+                throw e;
+            } catch (RuntimeException | Error e) {
+                breaker.releasePermission();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * We GET a JSON body through the instrumented transport.
+     *
+     * Timeouts adapt to the latency observed on the endpoint, starting from
+     * the given defaults. Network errors and throttling statuses are retried
+     * with jittered backoff (see {@link RetryPolicy}); every outcome but a
+     * cancellation feeds the circuit breaker of the server, which fails fast
+     * while it is open.
+     */
+    private String fetch(String url, int defaultConnectTimeout, int defaultReadTimeout) throws IOException {
+        String endpoint = NexusMetrics.endpointName(url);
+        for (int attempt = 0; ; attempt++) {
+            NexusHttpTransport.Response response = null;
+            IOException failure = null;
+            // The breaker is asked once we hold a slot, so waiting in the queue never holds its trial request
+            try (NexusThrottle.Permit ignored = throttle.acquire(transport.metrics().endpoint(endpoint))) {
+                breaker.acquirePermission();
+                try {
+                    response = transport.get(url, auth,
+                            timeouts.connectTimeout(endpoint, defaultConnectTimeout),
+                            timeouts.readTimeout(endpoint, defaultReadTimeout, attempt));
+                } catch (IOException e) {
+                    if (isCancellation(e)) {
+                        // Says nothing about the server
+                        breaker.releasePermission();
+                        throw e;
                     }
+                    breaker.onFailure(-1);
+                    failure = e;
+                } catch (RuntimeException | Error e) {
+                    breaker.releasePermission();
+                    throw e;
                 }
             }
-        } catch (Exception ignored) {
+            if (failure != null) {
+                if (!retryPolicy.canRetry(attempt, -1)) {
+                    throw failure;
+                }
+                sleep(retryPolicy.delayMillis(attempt, -1));
+                continue;
+            }
+
+            if (response.isSuccess()) {
+                breaker.onSuccess();
+                return response.body();
+            }
+            long retryAfter = RetryPolicy.parseRetryAfter(response.header("Retry-After"), System.currentTimeMillis());
+            if (!RetryPolicy.isRetryable(response.status())) {
+                // The server is up; the request itself is wrong
+                breaker.onSuccess();
+                throw new NexusHttpException(response.status(), url, retryAfter);
+            }
+            breaker.onFailure(retryAfter);
+            if (!retryPolicy.canRetry(attempt, retryAfter)) {
+                throw new NexusHttpException(response.status(), url, retryAfter);
+            }
+            sleep(retryPolicy.delayMillis(attempt, retryAfter));
         }
+    }
 
-        return new NexusSearchResult(list);
+    /**
+     * We tell a cancelled request (interrupted thread) from a failed one; a
+     * timeout, although an InterruptedIOException, is a failure.
+     */
+    private static boolean isCancellation(IOException e) {
+        return Thread.currentThread().isInterrupted()
+                || e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException);
     }
 
-    private NexusSearchResult parseAssets(String json) {
-        List<NexusArtifact> list = new ArrayList<>();
-        if (json == null || json.isEmpty()) {
-            return new NexusSearchResult(list);
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
         }
+    }
 
-        try (Jsonb jsonb = JsonbBuilder.create()) {
-            Nexus3AssetSearchResponse resp = jsonb.fromJson(json, Nexus3AssetSearchResponse.class);
-            if (resp == null || resp.getItems() == null) {
-                return new NexusSearchResult(list);
+    /**
+     * We fetch one page of the components of a repository, used by {@link NexusMirror}.
+     */
+    Nexus3Page<Nexus3Page.ComponentItem> listComponents(String repository, String continuationToken) throws Exception {
+        String path = new Query("/service/rest/v1/components")
+                .add("repository", repository)
+                .add("continuationToken", continuationToken)
+                .toString();
+        String body = fetch(buildUrl(config.baseUrl, path), CONNECT_TIMEOUT, 30_000);
+        return parse(path, body, Nexus3PageParser::parseComponents);
+    }
+
+    /**
+     * We return page pageNo of a search, following continuation tokens.
+     *
+     * The tokens seen for a query are remembered, so asking for the next page
+     * costs one request instead of replaying every page before it, and asking
+     * past the last page costs nothing.
+     */
+    private <T> Nexus3Page<T> fetchPage(String query, int pageNo, Function<Reader, Nexus3Page<T>> parser) throws Exception {
+        List<String> known = knownTokens(query);
+        // known.get(i) leads to page i + 1; null marks page i as the last one
+        for (int i = 0; i < Math.min(pageNo, known.size()); i++) {
+            if (known.get(i) == null) {
+                return new Nexus3Page<>(List.of(), null);
             }
-            for (Asset asset : resp.getItems()) {
-                NexusArtifact artifact = createArtifactFromAsset(asset);
-                if (artifact != null) {
+        }
+
+        NexusMetrics.Endpoint endpoint = transport.metrics().endpoint(NexusMetrics.endpointName(query));
+        int start = Math.min(pageNo, known.size());
+        String token = start == 0 ? null : known.get(start - 1);
+        for (int i = start; ; i++) {
+            String path = token == null ? query : query + (query.indexOf('?') < 0 ? '?' : '&')
+                    + "continuationToken=" + enc(token);
+            Nexus3Page<T> page = fetchAndParse(query, buildUrl(config.baseUrl, path), parser, endpoint);
+            rememberToken(query, i, page.continuationToken());
+            if (i == pageNo) {
+                return page;
+            }
+            if (!page.hasMore()) {
+                return new Nexus3Page<>(List.of(), null);
+            }
+            token = page.continuationToken();
+        }
+    }
+
+    /**
+     * We GET and parse one page. Identical requests in flight at the same
+     * time, from any client of the JVM with the same credentials, share one
+     * HTTP call and one parse.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Nexus3Page<T> fetchAndParse(String query, String url, Function<Reader, Nexus3Page<T>> parser,
+                                            NexusMetrics.Endpoint endpoint) throws IOException {
+        return (Nexus3Page<T>) IN_FLIGHT_PAGES.execute(url + '#' + auth.credentialKey(), () -> {
+            String body = fetch(url, CONNECT_TIMEOUT, READ_TIMEOUT);
+            long parseStart = System.nanoTime();
+            Nexus3Page<T> page = parse(query, body, parser);
+            endpoint.recordParse(System.nanoTime() - parseStart);
+            return page;
+        }, endpoint::recordShared);
+    }
+
+    private List<String> knownTokens(String query) {
+        synchronized (pageTokens) {
+            List<String> tokens = pageTokens.get(query);
+            return tokens == null ? List.of() : new ArrayList<>(tokens);
+        }
+    }
+
+    private void rememberToken(String query, int pageNo, String token) {
+        synchronized (pageTokens) {
+            List<String> tokens = pageTokens.computeIfAbsent(query, k -> new ArrayList<>());
+            if (pageNo == tokens.size()) {
+                tokens.add(token);
+            } else if (pageNo < tokens.size()) {
+                tokens.set(pageNo, token);
+            }
+        }
+    }
+
+    private <T> Nexus3Page<T> parse(String path, String body, Function<Reader, Nexus3Page<T>> parser) throws IOException {
+        if (body == null || body.isEmpty()) {
+            return new Nexus3Page<>(List.of(), null);
+        }
+        try {
+            return parser.apply(new StringReader(body));
+        } catch (RuntimeException e) {
+            // A truncated or non-JSON page must not read as "no more results"
+            transport.metrics().endpoint(NexusMetrics.endpointName(path)).recordError();
+            throw new IOException("Malformed response from " + NexusMetrics.endpointName(path), e);
+        }
+    }
+
+    private NexusSearchResult toResult(String query, Nexus3Page<Nexus3Page.ComponentItem> page, NexusSearchFilter filter) {
+        long start = System.nanoTime();
+        int assets = 0;
+        List<NexusArtifact> list = new ArrayList<>();
+        for (Nexus3Page.ComponentItem component : page.items()) {
+            assets += component.assets().size();
+            for (Nexus3Page.AssetItem asset : component.assets()) {
+                // Checksum and signature sidecars would triple the row count for nothing, unless asked for
+                if (!filter.includesChecksums() && NexusAssets.isChecksumOrSignature(asset.extension())) {
+                    continue;
+                }
+                NexusArtifact artifact = createArtifactFromItem(asset);
+                if (artifact != null && filter.matches(artifact)) {
                     list.add(artifact);
                 }
             }
-        } catch (Exception ignored) {
         }
+        recordBuild(query, start, assets);
+        return new NexusSearchResult(list);
+    }
 
+    private NexusSearchResult toAssetResult(String query, Nexus3Page<Nexus3Page.AssetItem> page, NexusSearchFilter filter) {
+        long start = System.nanoTime();
+        List<NexusArtifact> list = new ArrayList<>();
+        for (Nexus3Page.AssetItem asset : page.items()) {
+            NexusArtifact artifact = createArtifactFromItem(asset);
+            if (artifact != null && filter.matches(artifact)) {
+                list.add(artifact);
+            }
+        }
+        recordBuild(query, start, page.items().size());
         return new NexusSearchResult(list);
     }
 
-    private NexusArtifact createArtifactFromAsset(Asset asset) {
-        if (asset == null) {
+    private void recordBuild(String query, long startNanos, int assets) {
+        transport.metrics().endpoint(NexusMetrics.endpointName(query)).recordBuild(System.nanoTime() - startNanos, assets);
+    }
+
+    private NexusArtifact createArtifactFromItem(Nexus3Page.AssetItem asset) {
+        if (asset == null || asset.artifactId() == null) {
             return null;
         }
-        Maven2 m2 = asset.getMaven2();
-        if (m2 == null) {
+        String artifactLink = buildDownloadUrl(
+                config.baseUrl,
+                asset.repository(),
+                asset.groupId(),
+                asset.artifactId(),
+                asset.version(),
+                asset.extension(),
+                asset.classifier()
+        );
+        return new NexusArtifact(
+                asset.groupId(),
+                asset.artifactId(),
+                asset.version(),
+                parseVersionDate(asset.lastModified()),
+                asset.classifier(),
+                asset.extension(),
+                asset.repository(),
+                artifactLink
+        );
+    }
+
+    private static LocalDate parseVersionDate(String lastModified) {
+        if (lastModified == null || lastModified.isBlank()) {
             return null;
         }
-
-        String groupId = m2.getGroupId();
-        String artifactId = m2.getArtifactId();
-        String version = m2.getVersion();
-        String classifier = m2.getClassifier();
-        String extension = m2.getExtension();
-        String repository = asset.getRepository();
-
-        LocalDate versionDate = null;
-        String lastModified = asset.getLastModified();
-        if (lastModified != null && !lastModified.isBlank()) {
-            try {
-                versionDate = OffsetDateTime.parse(lastModified.trim()).toLocalDate();
-            } catch (DateTimeParseException ignored) {
-                // leave null
-            }
+        try {
+            return OffsetDateTime.parse(lastModified.trim()).toLocalDate();
+        } catch (DateTimeParseException ignored) {
+            return null;
         }
+    }
 
+    private NexusArtifact createArtifactFromIndex(IndexedGav gav) {
         String artifactLink = buildDownloadUrl(
                 config.baseUrl,
-                repository,
-                groupId,
-                artifactId,
-                version,
-                extension,
-                classifier
+                gav.repository(),
+                gav.groupId(),
+                gav.artifactId(),
+                gav.version(),
+                gav.extension(),
+                gav.classifier()
         );
-
         return new NexusArtifact(
-                groupId,
-                artifactId,
-                version,
-                versionDate,
-                classifier,
-                extension,
-                repository,
+                gav.groupId(),
+                gav.artifactId(),
+                gav.version(),
+                null,
+                gav.classifier(),
+                gav.extension(),
+                gav.repository(),
                 artifactLink
         );
     }
@@ -225,19 +759,25 @@ final class NexusV3Client extends AbstractNexusClient implements NexusSearch {
      *      &extension=<extension>
      *      &classifier=<classifier>
      */
-    private static String buildDownloadUrl(String baseUrl,
-                                           String repository,
-                                           String groupId,
-                                           String artifactId,
-                                           String version,
-                                           String extension,
-                                           String classifier) {
+    static String buildDownloadUrl(String baseUrl,
+                                   String repository,
+                                   String groupId,
+                                   String artifactId,
+                                   String version,
+                                   String extension,
+                                   String classifier) {
         StringBuilder sb = new StringBuilder();
         sb.append(trimTrailingSlash(baseUrl))
                 .append("/service/rest/v1/search/assets/download");
 
-        sb.append("?repository=").append(urlEncode(repository));
-        sb.append("&group=").append(urlEncode(groupId));
+        // Artifacts found in the local class index may not know their repository;
+        // the download endpoint then resolves the single matching asset itself
+        if (repository != null && !repository.isBlank()) {
+            sb.append("?repository=").append(urlEncode(repository)).append('&');
+        } else {
+            sb.append('?');
+        }
+        sb.append("group=").append(urlEncode(groupId));
         sb.append("&name=").append(urlEncode(artifactId));
         sb.append("&version=").append(urlEncode(version));
 
@@ -259,6 +799,40 @@ final class NexusV3Client extends AbstractNexusClient implements NexusSearch {
         return URLEncoder.encode(s, StandardCharsets.UTF_8);
     }
 
+    /**
+     * Search query path; blank parameters are left out.
+     */
+    static final class Query {
+        private final StringBuilder path;
+        private boolean first = true;
+
+        Query(String path) {
+            this.path = new StringBuilder(path);
+        }
+
+        Query add(String name, String value) {
+            if (value != null && !value.trim().isEmpty()) {
+                path.append(first ? '?' : '&').append(name).append('=').append(enc(value.trim()));
+                first = false;
+            }
+            return this;
+        }
+
+        Query filter(NexusSearchFilter filter) {
+            return add("repository", filter.repository())
+                    .add("format", filter.format() != null ? filter.format() : "maven2")
+                    .add("maven.extension", filter.extension())
+                    .add("maven.classifier", filter.classifier())
+                    .add("sort", filter.sort())
+                    .add("direction", filter.sort() != null ? filter.direction() : null);
+        }
+
+        @Override
+        public String toString() {
+            return path.toString();
+        }
+    }
+
     @Override
     public boolean supportsVersionDate() {
         return true; // lastModified is available on assets
@@ -266,8 +840,7 @@ final class NexusV3Client extends AbstractNexusClient implements NexusSearch {
 
     @Override
     public boolean supportsClassSearch() {
-        // Nexus 3 does not expose dedicated class-name search; we approximate via "q="
-        // but signal to callers that class search is not officially supported.
-        return false;
+        // Answered from the local class index (see class comment)
+        return true;
     }
 }
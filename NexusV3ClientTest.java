@@ -0,0 +1,141 @@
+package org.jd.gui.util.nexus;
+
+import com.sun.net.httpserver.HttpServer;
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NexusV3Client, against a local server recording the
+ * requests it gets.
+ */
+class NexusV3ClientTest {
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private volatile String body = "{\"items\":[],\"continuationToken\":null}";
+    private volatile Thread interruptOnRequest;
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/service/rest/v1", exchange -> {
+            requests.add(exchange.getRequestURI().getPath() + "?" + exchange.getRequestURI().getRawQuery());
+            Thread caller = interruptOnRequest;
+            if (caller != null) {
+                // Cancelled while waiting for the answer, which never comes
+                caller.interrupt();
+                exchange.close();
+                return;
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private NexusV3Client client() {
+        return new NexusV3Client(new NexusConfig(baseUrl, null, null));
+    }
+
+    @Test
+    void queryLeavesOutBlankParametersAndEncodesValues() {
+        assertEquals("/service/rest/v1/search?q=a+b%2Fc&version=1.0",
+                new NexusV3Client.Query("/service/rest/v1/search")
+                        .add("q", " a b/c ")
+                        .add("group", null)
+                        .add("name", "  ")
+                        .add("version", "1.0")
+                        .toString());
+    }
+
+    @Test
+    void filtersMapToSearchParameters() {
+        NexusSearchFilter filter = new NexusSearchFilter("releases", "jar", "sources", null, "Version", "DESC");
+        assertEquals("/service/rest/v1/search?q=demo&repository=releases&format=maven2&maven.extension=jar"
+                        + "&maven.classifier=sources&sort=version&direction=desc",
+                new NexusV3Client.Query("/service/rest/v1/search").add("q", "demo").filter(filter).toString());
+
+        // The format defaults to maven2, a direction needs a sort, and unknown sorts are dropped
+        assertEquals("/service/rest/v1/search?format=maven2",
+                new NexusV3Client.Query("/service/rest/v1/search").filter(NexusSearchFilter.NONE).toString());
+        assertEquals("/service/rest/v1/search?format=npm",
+                new NexusV3Client.Query("/service/rest/v1/search")
+                        .filter(new NexusSearchFilter(null, null, null, "npm", null, "asc")).toString());
+        assertEquals("/service/rest/v1/search?format=maven2",
+                new NexusV3Client.Query("/service/rest/v1/search")
+                        .filter(new NexusSearchFilter(null, null, null, null, "downloads", "desc")).toString());
+    }
+
+    @Test
+    void searchesSendTheirFiltersToTheServer() throws Exception {
+        NexusSearchFilter filter = new NexusSearchFilter("releases", "pom", null, null, "name", "asc");
+        NexusV3Client client = client();
+        client.searchByKeyword("demo", filter, 0);
+        client.searchByGav("org.example", "demo", "1.0", filter, 0);
+        client.searchBySha1("2a3f5c6d7e8f9a0b1c2d3e4f5a6b7c8d9e0f1a2b", NexusSearchFilter.NONE, 0);
+
+        String filters = "repository=releases&format=maven2&maven.extension=pom&sort=name&direction=asc";
+        assertEquals(List.of(
+                "/service/rest/v1/search?q=demo&" + filters,
+                "/service/rest/v1/search?group=org.example&name=demo&version=1.0&" + filters,
+                "/service/rest/v1/search/assets?sha1=2a3f5c6d7e8f9a0b1c2d3e4f5a6b7c8d9e0f1a2b&format=maven2"),
+                requests);
+    }
+
+    @Test
+    void cancelledRequestsDoNotOpenTheCircuit() {
+        CircuitBreaker breaker = CircuitBreaker.forBaseUrl(baseUrl);
+        NexusV3Client client = client();
+        interruptOnRequest = Thread.currentThread();
+        try {
+            for (int i = 0; i < CircuitBreaker.FAILURE_THRESHOLD + 1; i++) {
+                assertThrows(IOException.class, () -> client.searchByKeyword("demo", 0));
+                assertTrue(Thread.interrupted());
+            }
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        } finally {
+            interruptOnRequest = null;
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void checksumsAndSignaturesAreOnlyListedWhenAskedFor() throws Exception {
+        String asset = "{\"repository\":\"releases\",\"path\":\"org/example/demo/1.0/demo-1.0.%s\","
+                + "\"maven2\":{\"groupId\":\"org.example\",\"artifactId\":\"demo\",\"version\":\"1.0\","
+                + "\"extension\":\"%s\"}}";
+        List<String> assets = new ArrayList<>();
+        for (String extension : List.of("jar", "jar.sha1", "jar.md5", "pom", "pom.asc")) {
+            assets.add(asset.formatted(extension, extension));
+        }
+        body = "{\"items\":[{\"repository\":\"releases\",\"group\":\"org.example\",\"name\":\"demo\","
+                + "\"version\":\"1.0\",\"assets\":[" + String.join(",", assets) + "]}],\"continuationToken\":null}";
+        NexusV3Client client = client();
+
+        assertEquals(List.of("jar", "pom"), client.searchByKeyword("demo", 0).artifacts().stream()
+                .map(NexusArtifact::extension).toList());
+        assertEquals(List.of("jar.sha1"), client.searchByGav("org.example", "demo", "1.0",
+                new NexusSearchFilter(null, "jar.sha1", null, null, null, null), 0).artifacts().stream()
+                .map(NexusArtifact::extension).toList());
+    }
+}
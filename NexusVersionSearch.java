@@ -0,0 +1,18 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+
+import java.util.List;
+
+/**
+ * Optional capability of a {@link NexusSearch}: listing the versions of one
+ * group and artifact without transferring every asset of every version.
+ *
+ * Implementations return one artifact per version (the POM asset when the
+ * backend knows it), newest first as far as the server can tell, one page
+ * at a time. An empty list means there are no more versions.
+ */
+public interface NexusVersionSearch {
+
+    List<NexusArtifact> searchVersions(String groupId, String artifactId, int pageNo) throws Exception;
+}
@@ -0,0 +1,414 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * We watch a persisted list of group/artifact pairs for new versions.
+ *
+ * A background thread checks a small batch of entries per tick, spreading
+ * the list over the polling interval, and checks each entry at most once
+ * per interval. Ticks are never closer than MIN_TICK_MILLIS, so the
+ * request rate stays low however long the list is: past a few hundred
+ * entries the effective interval grows instead.
+ *
+ * With a watch repository we poll the maven-metadata.xml of each entry
+ * with its ETag and Last-Modified, so an unchanged artifact costs a 304
+ * with no body; requests pass through the throttle and circuit breaker of
+ * the server. Without one we ask the {@link LatestVersionResolver}, whose
+ * cache absorbs repeated lookups. Listeners only hear about versions newer
+ * than the last one seen; the first check of a new entry records its
+ * version silently.
+ *
+ * Entries, their last version and validators are kept in
+ * ~/.jd-gui/nexus/<server>/watchlist.properties. All panels of a server
+ * share one watchlist, opened with {@link #open} and polled once however
+ * many are open; each close releases one reference and the last one stops
+ * the polling.
+ *
+ * Preferences:
+ *   - NEXUS_WATCH_REPOSITORY   repository polled for maven-metadata.xml (default: the first
+ *                              repository of MavenMetadataVersions.NEXUS_BROWSE_REPOSITORIES)
+ *   - NEXUS_WATCH_INTERVAL     minutes between two checks of an entry (default 60)
+ */
+public final class NexusWatchlist implements AutoCloseable {
+
+    public static final String NEXUS_WATCH_REPOSITORY = "JdGuiPreferences.nexusWatchRepository";
+    public static final String NEXUS_WATCH_INTERVAL = "JdGuiPreferences.nexusWatchIntervalMinutes";
+
+    static final String FILE = "watchlist.properties";
+
+    private static final int BATCH_SIZE = 8;
+    private static final long MIN_TICK_MILLIS = 5_000;
+
+    // Open watchlists per base URL; guarded by itself
+    private static final Map<String, NexusWatchlist> SHARED = new HashMap<>();
+
+    /**
+     * A watched group/artifact pair; version is null until the first check.
+     */
+    public record Entry(String groupId, String artifactId, String version, long checkedAt,
+                       String lastModified, String etag) {
+
+        String key() {
+            return groupId + ":" + artifactId;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Called on the polling thread when the newest version of an entry
+         * is newer than previousVersion.
+         */
+        void newVersion(Entry entry, String previousVersion);
+    }
+
+    // Outcome of one check: notModified, or the newest version (null when unknown) and new validators
+    record Lookup(boolean notModified, String version, String etag, String lastModified) {
+    }
+
+    @FunctionalInterface
+    interface VersionLookup {
+        Lookup lookup(Entry entry) throws Exception;
+    }
+
+    private final Path file;
+    private final VersionLookup lookup;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Object saveLock = new Object();
+    private String sharedKey;
+    private int references;
+    private LatestVersionResolver ownResolver;
+    private ScheduledExecutorService scheduler;
+    private long intervalMillis = Duration.ofMinutes(60).toMillis();
+    private int cursor;
+
+    NexusWatchlist(Path file, VersionLookup lookup) throws IOException {
+        this.file = file;
+        this.lookup = lookup;
+        load();
+    }
+
+    /**
+     * We return the watchlist of the configured server, opening it and
+     * starting to poll it on first use, or return null without a
+     * configuration. Every call must be paired with a {@link #close}.
+     *
+     * The first caller's search answers the lookups when there is no
+     * watch repository.
+     */
+    public static NexusWatchlist open(NexusConfig config, Map<String, String> prefs, NexusSearch search)
+            throws IOException {
+        if (config == null) {
+            return null;
+        }
+        String key = AbstractNexusClient.trimTrailingSlash(config.baseUrl);
+        synchronized (SHARED) {
+            NexusWatchlist shared = SHARED.get(key);
+            if (shared == null) {
+                shared = create(config, prefs, search);
+                shared.sharedKey = key;
+                SHARED.put(key, shared);
+            }
+            shared.references++;
+            return shared;
+        }
+    }
+
+    private static NexusWatchlist create(NexusConfig config, Map<String, String> prefs, NexusSearch search)
+            throws IOException {
+        String repository = prefs == null ? null : prefs.get(NEXUS_WATCH_REPOSITORY);
+        if ((repository == null || repository.isBlank()) && prefs != null) {
+            String browse = prefs.get(MavenMetadataVersions.NEXUS_BROWSE_REPOSITORIES);
+            repository = browse == null ? null : browse.split(",")[0];
+        }
+
+        VersionLookup lookup;
+        LatestVersionResolver resolver = null;
+        if (repository != null && !repository.isBlank()) {
+            NexusV3Client client = new NexusV3Client(config);
+            String repo = repository.trim();
+            lookup = entry -> metadataLookup(client, MavenMetadataVersions.fileUrl(config.baseUrl, repo,
+                    entry.groupId(), entry.artifactId(), "maven-metadata.xml"), entry);
+        } else {
+            // Our own resolver: the watchlist outlives the panel that opened it
+            LatestVersionResolver latest = new LatestVersionResolver(search, Duration.ofMinutes(10), 1, false);
+            resolver = latest;
+            lookup = entry -> {
+                NexusArtifact newest = latest.resolve(entry.groupId(), entry.artifactId());
+                return new Lookup(false, newest == null ? null : newest.version(), null, null);
+            };
+        }
+
+        NexusWatchlist watchlist;
+        try {
+            watchlist = new NexusWatchlist(NexusV3Client.serverDataDirectory(config.baseUrl).resolve(FILE), lookup);
+        } catch (IOException | RuntimeException e) {
+            if (resolver != null) {
+                resolver.close();
+            }
+            throw e;
+        }
+        watchlist.ownResolver = resolver;
+        long minutes = OptionValues.parseLong(prefs == null ? null : prefs.get(NEXUS_WATCH_INTERVAL), 60);
+        watchlist.start(Duration.ofMinutes(Math.max(1, minutes)));
+        return watchlist;
+    }
+
+    private static Lookup metadataLookup(NexusV3Client client, String url, Entry entry) throws IOException {
+        NexusHttpTransport.ConditionalResponse response;
+        try {
+            response = client.fetchConditional(url, entry.etag(), entry.lastModified());
+        } catch (NexusHttpException e) {
+            if (e.getStatus() == HttpURLConnection.HTTP_NOT_FOUND) {
+                return new Lookup(false, null, null, null);
+            }
+            throw e;
+        }
+        if (response.isNotModified()) {
+            return new Lookup(true, null, response.etag(), response.lastModified());
+        }
+        return new Lookup(false, newestRelease(MavenMetadataVersions.parse(response.body())),
+                response.etag(), response.lastModified());
+    }
+
+    /**
+     * The newest non-snapshot version; the release element is only a hint,
+     * as deploy tools do not always maintain it.
+     */
+    static String newestRelease(MavenMetadataVersions.Metadata metadata) {
+        String newest = null;
+        for (String version : metadata.versions()) {
+            if (!MavenVersion.parse(version).isSnapshot() && (newest == null || MavenVersion.compare(version, newest) > 0)) {
+                newest = version;
+            }
+        }
+        return newest != null ? newest : metadata.release();
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public synchronized List<Entry> entries() {
+        return List.copyOf(entries.values());
+    }
+
+    public synchronized boolean contains(String groupId, String artifactId) {
+        return entries.containsKey(groupId + ":" + artifactId);
+    }
+
+    public void add(String groupId, String artifactId) throws IOException {
+        synchronized (this) {
+            Entry entry = new Entry(groupId.trim(), artifactId.trim(), null, 0, null, null);
+            if (entries.putIfAbsent(entry.key(), entry) != null) {
+                return;
+            }
+        }
+        save();
+    }
+
+    public void remove(String groupId, String artifactId) throws IOException {
+        synchronized (this) {
+            if (entries.remove(groupId + ":" + artifactId) == null) {
+                return;
+            }
+        }
+        save();
+    }
+
+    /**
+     * We start polling; each entry is checked at most once per interval.
+     */
+    public synchronized void start(Duration interval) {
+        intervalMillis = interval.toMillis();
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "nexus-watchlist");
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.schedule(this::tick, MIN_TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void tick() {
+        try {
+            checkBatch(System.currentTimeMillis());
+        } catch (RuntimeException | IOException ignored) {
+            // The next tick tries again
+        }
+        synchronized (this) {
+            if (scheduler != null) {
+                scheduler.schedule(this::tick, tickMillis(entries.size(), intervalMillis), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * The delay between two batches, so the whole list fits in one interval.
+     */
+    static long tickMillis(int size, long intervalMillis) {
+        int batches = Math.max(1, (size + BATCH_SIZE - 1) / BATCH_SIZE);
+        return Math.max(MIN_TICK_MILLIS, intervalMillis / batches);
+    }
+
+    /**
+     * We check the next batch of entries that are due, notify listeners of
+     * newer versions and save the list. We return the number checked.
+     */
+    int checkBatch(long now) throws IOException {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        synchronized (this) {
+            List<Entry> all = new ArrayList<>(entries.values());
+            int scanned = 0;
+            while (scanned < all.size() && batch.size() < BATCH_SIZE) {
+                Entry entry = all.get((cursor + scanned++) % all.size());
+                if (entry.checkedAt() + intervalMillis <= now) {
+                    batch.add(entry);
+                }
+            }
+            // The next batch starts after the last entry looked at
+            cursor = all.isEmpty() ? 0 : (cursor + scanned) % all.size();
+        }
+
+        int checked = 0;
+        for (Entry entry : batch) {
+            Lookup result;
+            try {
+                result = lookup.lookup(entry);
+            } catch (NexusCircuitOpenException e) {
+                // The server is down: leave the rest of the batch for later
+                break;
+            } catch (Exception e) {
+                result = null;
+            }
+            checked++;
+
+            String version = entry.version();
+            Entry updated;
+            if (result == null || result.notModified()) {
+                updated = new Entry(entry.groupId(), entry.artifactId(), version, now,
+                        result == null ? entry.lastModified() : result.lastModified(),
+                        result == null ? entry.etag() : result.etag());
+            } else {
+                // A lagging mirror may answer an older version: we keep the newest seen
+                String newest = result.version() == null
+                        || version != null && MavenVersion.compare(result.version(), version) <= 0 ? version : result.version();
+                updated = new Entry(entry.groupId(), entry.artifactId(), newest, now, result.lastModified(), result.etag());
+            }
+            synchronized (this) {
+                if (!entries.containsKey(entry.key())) {
+                    continue;
+                }
+                entries.put(entry.key(), updated);
+            }
+            if (version != null && !version.equals(updated.version())) {
+                for (Listener listener : listeners) {
+                    listener.newVersion(updated, version);
+                }
+            }
+        }
+        if (checked > 0) {
+            save();
+        }
+        return checked;
+    }
+
+    private void load() throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        List<String> keys = new ArrayList<>(properties.stringPropertyNames());
+        keys.sort(null);
+        for (String key : keys) {
+            int colon = key.indexOf(':');
+            if (colon <= 0 || colon == key.length() - 1) {
+                continue;
+            }
+            // version|checkedAt|lastModified|etag, empty when unknown
+            String[] fields = properties.getProperty(key).split("\\|", 4);
+            entries.put(key, new Entry(key.substring(0, colon), key.substring(colon + 1),
+                    field(fields, 0), OptionValues.parseLong(field(fields, 1), 0), field(fields, 2), field(fields, 3)));
+        }
+    }
+
+    // Saves are serialized so an older snapshot never replaces a newer one
+    private void save() throws IOException {
+        synchronized (saveLock) {
+            Properties properties = new Properties();
+            for (Entry entry : entries()) {
+                properties.setProperty(entry.key(), nullToEmpty(entry.version()) + "|" + entry.checkedAt() + "|"
+                        + nullToEmpty(entry.lastModified()) + "|" + nullToEmpty(entry.etag()));
+            }
+            AtomicFiles.write(file, tmp -> {
+                try (OutputStream out = Files.newOutputStream(tmp)) {
+                    properties.store(out, "Nexus watchlist");
+                }
+            });
+        }
+    }
+
+    private static String field(String[] fields, int index) {
+        return index < fields.length && !fields[index].isEmpty() ? fields[index] : null;
+    }
+
+    private static String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+
+    /**
+     * We release one reference to a shared watchlist, and stop polling when
+     * it was the last one (or for a watchlist that is not shared).
+     */
+    @Override
+    public void close() {
+        if (sharedKey != null) {
+            synchronized (SHARED) {
+                if (--references > 0) {
+                    return;
+                }
+                SHARED.remove(sharedKey, this);
+            }
+        }
+        LatestVersionResolver resolver;
+        synchronized (this) {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+                scheduler = null;
+            }
+            resolver = ownResolver;
+            ownResolver = null;
+        }
+        if (resolver != null) {
+            resolver.close();
+        }
+    }
+}
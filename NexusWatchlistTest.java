@@ -0,0 +1,150 @@
+package org.jd.gui.util.nexus;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NexusWatchlist.
+ */
+class NexusWatchlistTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void notifiesOnlyNewerVersions() throws IOException {
+        Map<String, String> newest = new HashMap<>(Map.of("g:a", "1.0"));
+        NexusWatchlist watchlist = new NexusWatchlist(dir.resolve(NexusWatchlist.FILE),
+                entry -> new NexusWatchlist.Lookup(false, newest.get(entry.key()), null, null));
+        List<String> seen = new ArrayList<>();
+        watchlist.addListener((entry, previous) -> seen.add(previous + "->" + entry.version()));
+        watchlist.add("g", "a");
+
+        // The first check records the version without notifying
+        assertEquals(1, watchlist.checkBatch(HOUR));
+        assertEquals("1.0", watchlist.entries().get(0).version());
+        assertTrue(seen.isEmpty());
+
+        // Not due yet
+        newest.put("g:a", "1.1");
+        assertEquals(0, watchlist.checkBatch(HOUR + 1));
+
+        assertEquals(1, watchlist.checkBatch(2 * HOUR));
+        assertEquals(List.of("1.0->1.1"), seen);
+
+        // An older answer, e.g. from a lagging mirror, is not news
+        newest.put("g:a", "1.0.5");
+        assertEquals(1, watchlist.checkBatch(3 * HOUR));
+        assertEquals("1.1", watchlist.entries().get(0).version());
+        assertEquals(List.of("1.0->1.1"), seen);
+    }
+
+    @Test
+    void keepsVersionWhenNotModified() throws IOException {
+        List<String> validators = new ArrayList<>();
+        boolean[] modified = {true};
+        NexusWatchlist watchlist = new NexusWatchlist(dir.resolve(NexusWatchlist.FILE), entry -> {
+            validators.add(entry.etag());
+            return modified[0]
+                    ? new NexusWatchlist.Lookup(false, "2.0", "\"v1\"", "Mon, 01 Jan 2024 00:00:00 GMT")
+                    : new NexusWatchlist.Lookup(true, null, "\"v1\"", "Mon, 01 Jan 2024 00:00:00 GMT");
+        });
+        watchlist.add("g", "a");
+        watchlist.checkBatch(HOUR);
+        modified[0] = false;
+        watchlist.checkBatch(2 * HOUR);
+
+        assertEquals(List.of("", "\"v1\""), validators.stream().map(v -> v == null ? "" : v).toList());
+        NexusWatchlist.Entry entry = watchlist.entries().get(0);
+        assertEquals("2.0", entry.version());
+        assertEquals(2 * HOUR, entry.checkedAt());
+    }
+
+    @Test
+    void persistsEntries() throws IOException {
+        Path file = dir.resolve("sub").resolve(NexusWatchlist.FILE);
+        NexusWatchlist watchlist = new NexusWatchlist(file,
+                entry -> new NexusWatchlist.Lookup(false, "3.1", "\"e|1\"", null));
+        watchlist.add("org.example", "demo");
+        watchlist.add("org.example", "other");
+        watchlist.remove("org.example", "other");
+        watchlist.checkBatch(HOUR);
+
+        NexusWatchlist reloaded = new NexusWatchlist(file, entry -> {
+            throw new AssertionError("not due");
+        });
+        assertTrue(reloaded.contains("org.example", "demo"));
+        assertFalse(reloaded.contains("org.example", "other"));
+        assertEquals(List.of(new NexusWatchlist.Entry("org.example", "demo", "3.1", HOUR, null, "\"e|1\"")),
+                reloaded.entries());
+        assertEquals(0, reloaded.checkBatch(HOUR + 1));
+    }
+
+    @Test
+    void checksInBatches() throws IOException {
+        List<String> checked = new ArrayList<>();
+        NexusWatchlist watchlist = new NexusWatchlist(dir.resolve(NexusWatchlist.FILE), entry -> {
+            checked.add(entry.artifactId());
+            return new NexusWatchlist.Lookup(false, "1", null, null);
+        });
+        for (int i = 0; i < 20; i++) {
+            watchlist.add("g", "a" + i);
+        }
+        assertEquals(8, watchlist.checkBatch(HOUR));
+        assertEquals(8, watchlist.checkBatch(HOUR));
+        assertEquals(4, watchlist.checkBatch(HOUR));
+        assertEquals(0, watchlist.checkBatch(HOUR));
+        assertEquals(20, checked.stream().distinct().count());
+
+        // Spread over the interval, but never closer than the minimum tick
+        assertEquals(HOUR / 3, NexusWatchlist.tickMillis(20, HOUR));
+        assertEquals(HOUR, NexusWatchlist.tickMillis(0, HOUR));
+        assertEquals(5_000, NexusWatchlist.tickMillis(100_000, HOUR));
+    }
+
+    @Test
+    void panelsOfOneServerShareTheWatchlist() throws IOException {
+        String home = System.getProperty("user.home");
+        System.setProperty("user.home", dir.toString());
+        try {
+            NexusConfig config = new NexusConfig("https://watch.example/", null, null);
+            NexusWatchlist first = NexusWatchlist.open(config, Map.of(), null);
+            NexusWatchlist second = NexusWatchlist.open(new NexusConfig("https://watch.example/", null, null), Map.of(), null);
+            assertSame(first, second);
+
+            first.add("g", "a");
+            first.close();
+            // Still open for the second panel
+            assertSame(second, NexusWatchlist.open(config, Map.of(), null));
+            second.close();
+            second.close();
+
+            NexusWatchlist reopened = NexusWatchlist.open(config, Map.of(), null);
+            assertNotSame(first, reopened);
+            assertTrue(reopened.contains("g", "a"));
+            reopened.close();
+        } finally {
+            System.setProperty("user.home", home);
+        }
+    }
+
+    @Test
+    void newestReleaseSkipsSnapshots() throws IOException {
+        String xml = "<metadata><versioning><release>1.2</release><versions><version>1.2</version>"
+                + "<version>1.10</version><version>2.0-SNAPSHOT</version></versions></versioning></metadata>";
+        assertEquals("1.10", NexusWatchlist.newestRelease(MavenMetadataVersions.parse(xml.getBytes(StandardCharsets.UTF_8))));
+    }
+}
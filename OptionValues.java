@@ -0,0 +1,86 @@
+package org.jd.gui.util.nexus;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parsing of the options of the command line tools and of the numeric
+ * preferences.
+ */
+public final class OptionValues {
+
+    private OptionValues() {
+        // Utility class: no instances
+    }
+
+    /**
+     * We return the value of an option, args[i], or fail when the option is
+     * the last argument.
+     */
+    public static String value(String[] args, int i, String option) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[i];
+    }
+
+    public static int positive(String[] args, int i, String option) {
+        return positive(value(args, i, option), option);
+    }
+
+    public static int nonNegative(String[] args, int i, String option) {
+        return nonNegative(value(args, i, option), option);
+    }
+
+    public static int positive(String s, String option) {
+        try {
+            int n = Integer.parseInt(s);
+            if (n > 0) {
+                return n;
+            }
+        } catch (NumberFormatException ignored) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(option + " needs a positive number: " + s);
+    }
+
+    public static int nonNegative(String s, String option) {
+        try {
+            int n = Integer.parseInt(s);
+            if (n >= 0) {
+                return n;
+            }
+        } catch (NumberFormatException ignored) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(option + " needs a non-negative number: " + s);
+    }
+
+    /**
+     * We parse a preference, or return the default when it is missing or
+     * not a number.
+     */
+    public static long parseLong(String s, long defaultValue) {
+        if (s == null || s.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(s.trim());
+        } catch (NumberFormatException ignored) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * We split a comma separated preference into its trimmed, non-empty names.
+     */
+    public static List<String> names(String s) {
+        if (s == null || s.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(s.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toList();
+    }
+}
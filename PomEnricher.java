@@ -0,0 +1,212 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * We load POM metadata (name, description, packaging, licenses) for result
+ * rows, only for the rows the caller asks for.
+ *
+ * The search panel asks for the rows in its viewport each time it scrolls.
+ * Loads of rows no longer asked for are cancelled while still queued, at
+ * most maxPending loads are queued or running, and results are kept per
+ * GAV in an LRU cache, so a large result costs one POM per row looked at.
+ * Description and licenses are inherited from parent POMs when a POM does
+ * not declare them, as Maven does.
+ */
+public final class PomEnricher implements AutoCloseable {
+
+    private static final int MAX_PARENTS = 4;
+
+    /**
+     * What the enrichment columns show; fields are null when the POM does not say.
+     */
+    public record PomInfo(String name, String description, String packaging, String licenses) {
+        static final PomInfo MISSING = new PomInfo(null, null, null, null);
+    }
+
+    private final PomSource source;
+    private final ThreadPoolExecutor executor;
+    private final int maxPending;
+    private final Map<String, PomInfo> cache;
+    private final Map<String, Load> pending = new ConcurrentHashMap<>();
+
+    public PomEnricher(PomSource source, int parallelism, int maxPending, int cacheSize) {
+        this.source = source;
+        this.maxPending = maxPending;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PomInfo> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        AtomicInteger threadNo = new AtomicInteger();
+        int threads = Math.max(1, parallelism);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "nexus-pom-enricher-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static String key(String groupId, String artifactId, String version) {
+        return groupId + ":" + artifactId + ":" + version;
+    }
+
+    /**
+     * The cached metadata of the artifact, or null when not loaded yet.
+     */
+    public PomInfo cached(NexusArtifact artifact) {
+        if (artifact == null) {
+            return null;
+        }
+        synchronized (cache) {
+            return cache.get(key(artifact.groupId(), artifact.artifactId(), artifact.version()));
+        }
+    }
+
+    /**
+     * We load the metadata of the given artifacts that are not cached yet,
+     * and cancel the queued loads of any other artifact. The listener is
+     * called on a pool thread once the metadata of an artifact is cached;
+     * failed loads are not cached and are retried when asked again.
+     */
+    public void request(Collection<NexusArtifact> artifacts, Consumer<NexusArtifact> listener) {
+        Map<String, NexusArtifact> wanted = new LinkedHashMap<>();
+        synchronized (cache) {
+            for (NexusArtifact artifact : artifacts) {
+                if (artifact == null || artifact.groupId() == null || artifact.artifactId() == null
+                        || artifact.version() == null) {
+                    continue;
+                }
+                String key = key(artifact.groupId(), artifact.artifactId(), artifact.version());
+                if (!cache.containsKey(key)) {
+                    wanted.putIfAbsent(key, artifact);
+                }
+            }
+        }
+
+        boolean cancelled = false;
+        for (Map.Entry<String, Load> entry : pending.entrySet()) {
+            if (!wanted.containsKey(entry.getKey()) && entry.getValue().cancelIfQueued()) {
+                cancelled = true;
+            }
+        }
+        if (cancelled) {
+            executor.purge();
+        }
+
+        for (Map.Entry<String, NexusArtifact> entry : wanted.entrySet()) {
+            if (pending.size() >= maxPending) {
+                break;
+            }
+            String key = entry.getKey();
+            NexusArtifact artifact = entry.getValue();
+            Load task = new Load(key, () -> {
+                load(artifact.groupId(), artifact.artifactId(), artifact.version(), 0);
+                listener.accept(artifact);
+            });
+            if (pending.putIfAbsent(key, task) == null) {
+                executor.execute(task);
+            }
+        }
+    }
+
+    /**
+     * Loads queued or running, for tests and the status bar.
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private PomInfo load(String groupId, String artifactId, String version, int depth) throws IOException {
+        String key = key(groupId, artifactId, version);
+        synchronized (cache) {
+            PomInfo cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        byte[] content = source.fetch(groupId, artifactId, version);
+        PomInfo info;
+        if (content == null) {
+            info = PomInfo.MISSING;
+        } else {
+            MavenPom pom = MavenPom.parse(content);
+            String description = collapse(pom.description);
+            String licenses = pom.licenses.isEmpty() ? null : String.join(", ", pom.licenses);
+            MavenPom.Parent parent = pom.parent;
+            if ((description == null || licenses == null) && parent != null && depth < MAX_PARENTS
+                    && parent.groupId() != null && parent.artifactId() != null && parent.version() != null) {
+                PomInfo inherited = load(parent.groupId(), parent.artifactId(), parent.version(), depth + 1);
+                description = description != null ? description : inherited.description();
+                licenses = licenses != null ? licenses : inherited.licenses();
+            }
+            info = new PomInfo(collapse(pom.name), description, pom.packaging, licenses);
+        }
+        synchronized (cache) {
+            cache.put(key, info);
+        }
+        return info;
+    }
+
+    private static String collapse(String s) {
+        return s == null ? null : s.replaceAll("\\s+", " ").trim();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface LoadAction {
+        void run() throws Exception;
+    }
+
+    /**
+     * A queued load. FutureTask.cancel(false) also succeeds on a running
+     * task, so we record whether the load started and only cancel it before.
+     */
+    private final class Load extends FutureTask<Void> {
+        private final String key;
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        Load(String key, LoadAction action) {
+            super(() -> {
+                action.run();
+                return null;
+            });
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            if (started.compareAndSet(false, true)) {
+                super.run();
+            }
+        }
+
+        boolean cancelIfQueued() {
+            return started.compareAndSet(false, true) && cancel(false);
+        }
+
+        @Override
+        protected void done() {
+            // A newer load of the same key is not ours to remove
+            pending.remove(key, this);
+        }
+    }
+}
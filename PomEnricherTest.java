@@ -0,0 +1,92 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PomEnricher.
+ */
+class PomEnricherTest {
+
+    private static NexusArtifact artifact(String artifactId) {
+        return new NexusArtifact("g", artifactId, "1", null, null, "jar", "releases", null);
+    }
+
+    private static byte[] pom(String artifactId, String body) {
+        return ("<project><groupId>g</groupId><artifactId>" + artifactId + "</artifactId><version>1</version>"
+                + body + "</project>").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void awaitIdle(PomEnricher enricher) throws InterruptedException {
+        for (int i = 0; i < 500 && enricher.pendingCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, enricher.pendingCount());
+    }
+
+    @Test
+    void inheritsDescriptionAndLicenses() throws Exception {
+        Map<String, byte[]> poms = Map.of(
+                "parent", pom("parent", "<packaging>pom</packaging><description>The  parent\n description</description>"
+                        + "<licenses><license><name>Apache-2.0</name></license><license><name>MIT</name></license></licenses>"),
+                "lib", pom("lib", "<parent><groupId>g</groupId><artifactId>parent</artifactId><version>1</version></parent>"
+                        + "<name>Lib</name>"));
+        try (PomEnricher enricher = new PomEnricher((g, a, v) -> poms.get(a), 2, 16, 100)) {
+            CountDownLatch loaded = new CountDownLatch(1);
+            enricher.request(List.of(artifact("lib")), a -> loaded.countDown());
+            assertTrue(loaded.await(5, TimeUnit.SECONDS));
+
+            PomEnricher.PomInfo info = enricher.cached(artifact("lib"));
+            assertEquals("Lib", info.name());
+            assertEquals("jar", info.packaging());
+            assertEquals("The parent description", info.description());
+            assertEquals("Apache-2.0, MIT", info.licenses());
+            assertNull(enricher.cached(artifact("other")));
+        }
+    }
+
+    @Test
+    void cancelsRowsScrolledAway() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Set<String> fetched = ConcurrentHashMap.newKeySet();
+        PomSource source = (g, a, v) -> {
+            fetched.add(a);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return pom(a, "");
+        };
+        Set<String> notified = ConcurrentHashMap.newKeySet();
+        try (PomEnricher enricher = new PomEnricher(source, 1, 3, 100)) {
+            enricher.request(List.of(artifact("a"), artifact("b"), artifact("c"), artifact("d")),
+                    a -> notified.add(a.artifactId()));
+            assertEquals(3, enricher.pendingCount());
+            for (int i = 0; i < 500 && fetched.isEmpty(); i++) {
+                Thread.sleep(10);
+            }
+            // Scrolled: b and c are still queued behind a and get cancelled, a runs to its end
+            enricher.request(List.of(artifact("e")), a -> notified.add(a.artifactId()));
+            assertEquals(2, enricher.pendingCount());
+            release.countDown();
+            awaitIdle(enricher);
+            assertEquals(Set.of("a", "e"), fetched);
+            assertEquals(Set.of("a", "e"), notified);
+
+            // Cached rows cost nothing when they come back into view
+            enricher.request(List.of(artifact("a"), artifact("e")), a -> { });
+            assertEquals(0, enricher.pendingCount());
+        }
+    }
+}
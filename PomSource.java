@@ -0,0 +1,106 @@
+package org.jd.gui.util.nexus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where {@link DependencyResolver} reads POMs from.
+ *
+ * Implementations must be thread-safe: the resolver fetches many POMs at once.
+ */
+public interface PomSource {
+
+    /**
+     * Optional Maven-2 layout repository URL for POM downloads, e.g.
+     * https://nexus.example/repository/maven-public/. When unset we use the
+     * search-assets download API of the Nexus server.
+     */
+    String NEXUS_POM_REPOSITORY_URL = "JdGuiPreferences.nexusPomRepositoryUrl";
+
+    String MAVEN_CENTRAL = "https://repo1.maven.org/maven2/";
+
+    /**
+     * We return the POM content, or null when the artifact has no POM here.
+     */
+    byte[] fetch(String groupId, String artifactId, String version) throws IOException;
+
+    static String path(String groupId, String artifactId, String version) {
+        return groupId.replace('.', '/') + "/" + artifactId + "/" + version + "/" + artifactId + "-" + version + ".pom";
+    }
+
+    /**
+     * POMs of a local Maven repository.
+     */
+    static PomSource localRepository(Path root) {
+        return (groupId, artifactId, version) -> {
+            Path pom = root.resolve(path(groupId, artifactId, version));
+            return Files.isRegularFile(pom) ? Files.readAllBytes(pom) : null;
+        };
+    }
+
+    /**
+     * POMs of the configured Nexus server, through its throttle, circuit
+     * breaker and credentials; Maven Central when config is null.
+     */
+    static PomSource remote(NexusConfig config, Map<String, String> preferences) {
+        if (config == null) {
+            NexusHttpTransport transport = new NexusHttpTransport(NexusMetrics.global());
+            return (groupId, artifactId, version) -> read(() ->
+                    transport.openStream(MAVEN_CENTRAL + path(groupId, artifactId, version), null, 8000, 30000));
+        }
+
+        NexusV3Client client = new NexusV3Client(config);
+        String repositoryUrl = preferences == null ? null : preferences.get(NEXUS_POM_REPOSITORY_URL);
+        if (repositoryUrl != null && !repositoryUrl.isBlank()) {
+            String base = repositoryUrl.trim().endsWith("/") ? repositoryUrl.trim() : repositoryUrl.trim() + "/";
+            if (!RemoteZip.sameOrigin(base, config.baseUrl)) {
+                // Never send the Nexus credentials to another host
+                NexusHttpTransport transport = new NexusHttpTransport(NexusMetrics.global());
+                return (groupId, artifactId, version) -> read(() ->
+                        transport.openStream(base + path(groupId, artifactId, version), null, 8000, 30000));
+            }
+            return (groupId, artifactId, version) -> read(() ->
+                    client.openStream(base + path(groupId, artifactId, version), 8000, 30000));
+        }
+        return (groupId, artifactId, version) -> read(() -> client.openStream(
+                NexusV3Client.buildDownloadUrl(config.baseUrl, null, groupId, artifactId, version, "pom", null),
+                8000, 30000));
+    }
+
+    /**
+     * The first source that has the POM wins.
+     */
+    static PomSource firstOf(PomSource... sources) {
+        List<PomSource> list = List.of(sources);
+        return (groupId, artifactId, version) -> {
+            for (PomSource source : list) {
+                byte[] pom = source.fetch(groupId, artifactId, version);
+                if (pom != null) {
+                    return pom;
+                }
+            }
+            return null;
+        };
+    }
+
+    private static byte[] read(StreamOpener opener) throws IOException {
+        try (InputStream in = opener.open()) {
+            return in.readAllBytes();
+        } catch (NexusHttpException e) {
+            if (e.getStatus() == HttpURLConnection.HTTP_NOT_FOUND) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    interface StreamOpener {
+        InputStream open() throws IOException;
+    }
+}
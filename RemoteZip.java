@@ -0,0 +1,419 @@
+package org.jd.gui.util.nexus;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Read-only view of a remote zip archive (jar, war, aar...) through HTTP
+ * range requests.
+ *
+ * We fetch the tail of the archive to find the end of central directory
+ * record, then the central directory itself (often already part of the
+ * tail), and list the entries from it. Single entries are read on demand
+ * with one more range request each. Listing a 100 MB fat jar therefore
+ * costs the size of its central directory, typically a few KB, instead of
+ * the whole download.
+ *
+ * Zip64 archives and archives with a prefix (e.g. launch scripts of
+ * executable jars) are supported. Credentials are only sent when the
+ * archive is on the configured Nexus server, and range requests to that
+ * server go through its throttle and circuit breaker like every other
+ * request of {@link NexusV3Client}. "file:" links, e.g. from the local Maven
+ * repository, are read with the same ranges from the disk.
+ */
+public final class RemoteZip {
+
+    public static final int MAX_ENTRY_SIZE = 4 << 20;
+
+    static final int TAIL_GUESS = 16 * 1024;
+    static final long MAX_FULL_LENGTH = 1 << 20;
+    static final long MAX_CENTRAL_DIRECTORY_SIZE = 64L << 20;
+
+    private static final String ENDPOINT = "repository (range)";
+    private static final int CONNECT_TIMEOUT = 8000;
+    private static final int READ_TIMEOUT = 15000;
+
+    private static final int EOCD_SIGNATURE = 0x06054b50;
+    private static final int EOCD_SIZE = 22;
+    private static final int MAX_COMMENT = 0xFFFF;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_EOCD_SIGNATURE = 0x06064b50;
+    private static final int CENTRAL_SIGNATURE = 0x02014b50;
+    private static final int LOCAL_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int LOCAL_EXTRA_SLACK = 64;
+
+    private static final Charset CP437 = Charset.isSupported("IBM437") ? Charset.forName("IBM437") : StandardCharsets.ISO_8859_1;
+
+    public record Entry(String name, int method, long crc, long compressedSize, long size, long localHeaderOffset,
+                        LocalDateTime modified) {
+
+        public boolean isDirectory() {
+            return name.endsWith("/");
+        }
+    }
+
+    /**
+     * Where range requests go: straight to the transport, or through the
+     * client of the configured server.
+     */
+    private interface RangeSource {
+        NexusHttpTransport.RangeResponse getRange(String url, String range) throws IOException;
+    }
+
+    private final String url;
+    private final RangeSource source;
+    private final AtomicLong transferred = new AtomicLong();
+    private long length;
+    private long prefix;
+    private List<Entry> entries;
+
+    private RemoteZip(String url, RangeSource source) {
+        this.url = url;
+        this.source = source;
+    }
+
+    /**
+     * We open the archive and read its central directory. The Nexus
+     * configuration (may be null) authenticates archives on its server.
+     */
+    public static RemoteZip open(String url, NexusConfig config) throws IOException {
+        if (config != null && sameOrigin(url, config.baseUrl)) {
+            NexusV3Client client = new NexusV3Client(config);
+            return openWith(url, (u, range) -> client.fetchRange(u, range, ENDPOINT, MAX_FULL_LENGTH, CONNECT_TIMEOUT,
+                    READ_TIMEOUT));
+        }
+        return open(url, null, new NexusHttpTransport(NexusMetrics.global()));
+    }
+
+    static RemoteZip open(String url, NexusAuth auth, NexusHttpTransport transport) throws IOException {
+        return openWith(url, (u, range) -> transport.getRange(u, auth, range, ENDPOINT, MAX_FULL_LENGTH, CONNECT_TIMEOUT,
+                READ_TIMEOUT));
+    }
+
+    private static RemoteZip openWith(String url, RangeSource source) throws IOException {
+        RemoteZip zip = new RemoteZip(url, source);
+        zip.readCentralDirectory();
+        return zip;
+    }
+
+    public String url() {
+        return url;
+    }
+
+    /**
+     * Length of the archive in bytes.
+     */
+    public long length() {
+        return length;
+    }
+
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    public Entry entry(String name) {
+        for (Entry entry : entries) {
+            if (entry.name().equals(name)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Bytes received so far for this archive.
+     */
+    public long bytesTransferred() {
+        return transferred.get();
+    }
+
+    /**
+     * We read and inflate one entry of at most {@link #MAX_ENTRY_SIZE} bytes.
+     */
+    public byte[] read(Entry entry) throws IOException {
+        if (entry.isDirectory() || entry.size() == 0) {
+            return new byte[0];
+        }
+        if (entry.size() > MAX_ENTRY_SIZE || entry.compressedSize() > MAX_ENTRY_SIZE) {
+            throw new IOException("Entry too large to peek (" + entry.size() + " bytes): " + entry.name());
+        }
+        long start = prefix + entry.localHeaderOffset();
+        int guess = LOCAL_HEADER_SIZE + entry.name().getBytes(StandardCharsets.UTF_8).length + LOCAL_EXTRA_SLACK
+                + (int) entry.compressedSize();
+        byte[] head = range(start, (int) Math.min(guess, length - start));
+        ByteBuffer b = littleEndian(head);
+        if (head.length < LOCAL_HEADER_SIZE || b.getInt(0) != LOCAL_SIGNATURE) {
+            throw new ZipException("Invalid local header for " + entry.name());
+        }
+        int dataStart = LOCAL_HEADER_SIZE + u16(b, 26) + u16(b, 28);
+        int compressedSize = (int) entry.compressedSize();
+        byte[] data = dataStart + compressedSize <= head.length
+                ? Arrays.copyOfRange(head, dataStart, dataStart + compressedSize)
+                : range(start + dataStart, compressedSize);
+
+        byte[] content = switch (entry.method()) {
+            case 0 -> data;
+            case 8 -> inflate(data, (int) entry.size(), entry.name());
+            default -> throw new ZipException("Unsupported compression method " + entry.method() + ": " + entry.name());
+        };
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        if (crc.getValue() != entry.crc()) {
+            throw new ZipException("CRC mismatch: " + entry.name());
+        }
+        return content;
+    }
+
+    private void readCentralDirectory() throws IOException {
+        NexusHttpTransport.RangeResponse tail = fetch("bytes=-" + TAIL_GUESS);
+        length = tail.total() >= 0 ? tail.total() : tail.start() + tail.body().length;
+        int eocd = findEndOfCentralDirectory(tail.body());
+        if (eocd < 0 && tail.start() > 0) {
+            tail = fetch("bytes=-" + (EOCD_SIZE + MAX_COMMENT));
+            eocd = findEndOfCentralDirectory(tail.body());
+        }
+        if (eocd < 0) {
+            throw new ZipException("Not a zip archive: " + url);
+        }
+
+        ByteBuffer b = littleEndian(tail.body());
+        long count = u16(b, eocd + 10);
+        long cdSize = u32(b, eocd + 12);
+        long cdOffset = u32(b, eocd + 16);
+        long cdEnd = tail.start() + eocd;
+
+        if (count == 0xFFFF || cdSize == 0xFFFFFFFFL || cdOffset == 0xFFFFFFFFL) {
+            int locator = eocd - 20;
+            if (locator >= 0 && b.getInt(locator) == ZIP64_LOCATOR_SIGNATURE) {
+                // The record precedes its locator; its recorded offset ignores any prefix
+                ByteBuffer record = littleEndian(bytesAt(tail, tail.start() + locator - 56, 56));
+                if (record.getInt(0) != ZIP64_EOCD_SIGNATURE) {
+                    throw new ZipException("Invalid zip64 end of central directory: " + url);
+                }
+                count = record.getLong(32);
+                cdSize = record.getLong(40);
+                cdOffset = record.getLong(48);
+                cdEnd = tail.start() + locator - 56;
+            }
+        }
+        if (cdSize > MAX_CENTRAL_DIRECTORY_SIZE || cdOffset + cdSize > length) {
+            throw new ZipException("Invalid central directory: " + url);
+        }
+        // Archives with a prefix keep offsets relative to the start of the zip data
+        prefix = Math.max(0, cdEnd - cdSize - cdOffset);
+        entries = Collections.unmodifiableList(parseCentralDirectory(bytesAt(tail, prefix + cdOffset, (int) cdSize), count));
+    }
+
+    private List<Entry> parseCentralDirectory(byte[] cd, long count) throws ZipException {
+        ByteBuffer b = littleEndian(cd);
+        List<Entry> list = new ArrayList<>((int) Math.min(count, 65536));
+        int pos = 0;
+        while (pos + 46 <= cd.length && b.getInt(pos) == CENTRAL_SIGNATURE) {
+            int flags = u16(b, pos + 8);
+            int method = u16(b, pos + 10);
+            int time = u16(b, pos + 12);
+            int date = u16(b, pos + 14);
+            long crc = u32(b, pos + 16);
+            long compressedSize = u32(b, pos + 20);
+            long size = u32(b, pos + 24);
+            int nameLength = u16(b, pos + 28);
+            int extraLength = u16(b, pos + 30);
+            int commentLength = u16(b, pos + 32);
+            long offset = u32(b, pos + 42);
+            int nameStart = pos + 46;
+            if (nameStart + nameLength + extraLength > cd.length) {
+                throw new ZipException("Truncated central directory: " + url);
+            }
+            Charset charset = (flags & 0x800) != 0 ? StandardCharsets.UTF_8 : CP437;
+            String name = new String(cd, nameStart, nameLength, charset);
+
+            // Zip64 extended information holds the fields saturated above, in this order
+            int extra = nameStart + nameLength;
+            int extraEnd = extra + extraLength;
+            while (extra + 4 <= extraEnd) {
+                int id = u16(b, extra);
+                int dataSize = u16(b, extra + 2);
+                if (id == 0x0001) {
+                    int field = extra + 4;
+                    if (size == 0xFFFFFFFFL && field + 8 <= extraEnd) {
+                        size = b.getLong(field);
+                        field += 8;
+                    }
+                    if (compressedSize == 0xFFFFFFFFL && field + 8 <= extraEnd) {
+                        compressedSize = b.getLong(field);
+                        field += 8;
+                    }
+                    if (offset == 0xFFFFFFFFL && field + 8 <= extraEnd) {
+                        offset = b.getLong(field);
+                    }
+                }
+                extra += 4 + dataSize;
+            }
+            list.add(new Entry(name, method, crc, compressedSize, size, offset, dosTime(date, time)));
+            pos = extraEnd + commentLength;
+        }
+        return list;
+    }
+
+    /**
+     * We return the bytes from the tail when it holds them, otherwise we fetch them.
+     */
+    private byte[] bytesAt(NexusHttpTransport.RangeResponse tail, long offset, int count) throws IOException {
+        long tailEnd = tail.start() + tail.body().length;
+        if (offset >= tail.start() && offset + count <= tailEnd) {
+            int from = (int) (offset - tail.start());
+            return Arrays.copyOfRange(tail.body(), from, from + count);
+        }
+        return range(offset, count);
+    }
+
+    private byte[] range(long offset, int count) throws IOException {
+        if (count <= 0) {
+            return new byte[0];
+        }
+        NexusHttpTransport.RangeResponse response = fetch("bytes=" + offset + "-" + (offset + count - 1));
+        byte[] body = response.body();
+        if (response.start() == offset && body.length == count) {
+            return body;
+        }
+        // Whole resource from a server ignoring ranges
+        long from = offset - response.start();
+        if (from < 0 || from + count > body.length) {
+            throw new ZipException("Short range response from " + url);
+        }
+        return Arrays.copyOfRange(body, (int) from, (int) from + count);
+    }
+
+    private NexusHttpTransport.RangeResponse fetch(String range) throws IOException {
+        NexusHttpTransport.RangeResponse response = url.startsWith("file:")
+                ? readFileRange(Path.of(URI.create(url)), range)
+                : source.getRange(url, range);
+        transferred.addAndGet(response.body().length);
+        return response;
+    }
+
+    /**
+     * We answer a range request from a local file, e.g. an artifact of the
+     * local Maven repository, the way a server would.
+     */
+    static NexusHttpTransport.RangeResponse readFileRange(Path file, String range) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long total = channel.size();
+            String spec = range.substring(range.indexOf('=') + 1);
+            int dash = spec.indexOf('-');
+            long first;
+            long last;
+            if (dash == 0) {
+                first = Math.max(0, total - Long.parseLong(spec.substring(1)));
+                last = total - 1;
+            } else {
+                first = Long.parseLong(spec.substring(0, dash));
+                last = Math.min(total - 1, Long.parseLong(spec.substring(dash + 1)));
+            }
+            if (first > last) {
+                throw new ZipException("Range " + range + " outside of " + file);
+            }
+            ByteBuffer body = ByteBuffer.allocate((int) (last - first + 1));
+            while (body.hasRemaining() && channel.read(body, first + body.position()) >= 0) {
+                // Read until the buffer is full
+            }
+            return new NexusHttpTransport.RangeResponse(body.array(), first, total);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid range " + range, e);
+        }
+    }
+
+    static int findEndOfCentralDirectory(byte[] tail) {
+        ByteBuffer b = littleEndian(tail);
+        for (int i = tail.length - EOCD_SIZE; i >= 0 && i >= tail.length - EOCD_SIZE - MAX_COMMENT; i--) {
+            if (b.getInt(i) == EOCD_SIGNATURE && i + EOCD_SIZE + u16(b, i + 20) == tail.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] inflate(byte[] data, int size, String name) throws ZipException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data);
+            byte[] out = new byte[size];
+            int n = 0;
+            while (n < size && !inflater.finished()) {
+                int r = inflater.inflate(out, n, size - n);
+                if (r == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += r;
+            }
+            if (n != size) {
+                throw new ZipException("Truncated entry: " + name);
+            }
+            return out;
+        } catch (DataFormatException e) {
+            throw new ZipException("Invalid deflate data in " + name + ": " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static LocalDateTime dosTime(int date, int time) {
+        try {
+            return LocalDateTime.of(((date >> 9) & 0x7F) + 1980, (date >> 5) & 0x0F, date & 0x1F,
+                    (time >> 11) & 0x1F, (time >> 5) & 0x3F, (time & 0x1F) * 2);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    static boolean sameOrigin(String url, String baseUrl) {
+        try {
+            URI a = URI.create(url);
+            URI b = URI.create(baseUrl);
+            return Objects.equals(a.getScheme(), b.getScheme())
+                    && a.getHost() != null && a.getHost().equalsIgnoreCase(b.getHost())
+                    && port(a) == port(b);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static int port(URI uri) {
+        if (uri.getPort() >= 0) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    private static ByteBuffer littleEndian(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int u16(ByteBuffer b, int index) {
+        return b.getShort(index) & 0xFFFF;
+    }
+
+    private static long u32(ByteBuffer b, int index) {
+        return b.getInt(index) & 0xFFFFFFFFL;
+    }
+}
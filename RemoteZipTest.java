@@ -0,0 +1,160 @@
+package org.jd.gui.util.nexus;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RemoteZip, against a local server honouring range requests.
+ */
+class RemoteZipTest {
+
+    private static final String MANIFEST = "Manifest-Version: 1.0\nMain-Class: org.example.Main\n";
+
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] file = files.get(exchange.getRequestURI().getPath());
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            if (file == null || range == null || !range.startsWith("bytes=")) {
+                exchange.sendResponseHeaders(file == null ? 404 : 200, file == null ? -1 : file.length);
+                if (file != null) {
+                    exchange.getResponseBody().write(file);
+                }
+                exchange.close();
+                return;
+            }
+            String spec = range.substring(6);
+            int first;
+            int last;
+            if (spec.startsWith("-")) {
+                first = Math.max(0, file.length - Integer.parseInt(spec.substring(1)));
+                last = file.length - 1;
+            } else {
+                String[] parts = spec.split("-");
+                first = Integer.parseInt(parts[0]);
+                last = Math.min(file.length - 1, Integer.parseInt(parts[1]));
+            }
+            exchange.getResponseHeaders().add("Content-Range", "bytes " + first + "-" + last + "/" + file.length);
+            exchange.sendResponseHeaders(206, last - first + 1);
+            exchange.getResponseBody().write(file, first, last - first + 1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private static byte[] jar(int classes, String prefix) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(prefix.getBytes(StandardCharsets.UTF_8));
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            zip.write(MANIFEST.getBytes(StandardCharsets.UTF_8));
+            byte[] payload = new byte[2_000_000];
+            new Random(1).nextBytes(payload);
+            zip.putNextEntry(new ZipEntry("lib/payload.bin"));
+            zip.write(payload);
+            for (int i = 0; i < classes; i++) {
+                zip.putNextEntry(new ZipEntry("org/example/C" + i + ".class"));
+                zip.write(("class " + i + ";").repeat(16).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private RemoteZip open(String path) throws IOException {
+        return RemoteZip.open(baseUrl + path, null, new NexusHttpTransport(new NexusMetrics(false)));
+    }
+
+    @Test
+    void listsEntriesFromTheTailOnly() throws IOException {
+        byte[] jar = jar(20, "");
+        files.put("/demo.jar", jar);
+        RemoteZip zip = open("/demo.jar");
+        assertEquals(jar.length, zip.length());
+        assertEquals(22, zip.entries().size());
+        assertTrue(zip.bytesTransferred() <= RemoteZip.TAIL_GUESS);
+
+        assertEquals(MANIFEST, new String(zip.read(zip.entry("META-INF/MANIFEST.MF")), StandardCharsets.UTF_8));
+        assertTrue(zip.bytesTransferred() < RemoteZip.TAIL_GUESS + 1024);
+    }
+
+    @Test
+    void readsArchivesWithAPrefix() throws IOException {
+        files.put("/app.jar", jar(5, "#!/bin/sh\nexec java -jar \"$0\" \"$@\"\n"));
+        RemoteZip zip = open("/app.jar");
+        assertEquals("class 3;class 3;", new String(zip.read(zip.entry("org/example/C3.class")), StandardCharsets.UTF_8)
+                .substring(0, 16));
+    }
+
+    @Test
+    void readsZip64CentralDirectories() throws IOException {
+        files.put("/many.jar", jar(70_000, ""));
+        RemoteZip zip = open("/many.jar");
+        assertEquals(70_002, zip.entries().size());
+        assertNotNull(zip.read(zip.entry("org/example/C69999.class")));
+    }
+
+    @Test
+    void rejectsOtherFiles() {
+        files.put("/notes.jar", "not a zip archive".repeat(100).getBytes(StandardCharsets.UTF_8));
+        assertThrows(ZipException.class, () -> open("/notes.jar"));
+    }
+
+    @Test
+    void rangeReadsOnTheNexusServerGoThroughItsCircuitBreaker() throws IOException {
+        files.put("/demo.jar", jar(3, ""));
+        NexusConfig config = new NexusConfig(baseUrl, null, null);
+        assertEquals(5, RemoteZip.open(baseUrl + "/demo.jar", config).entries().size());
+
+        CircuitBreaker breaker = CircuitBreaker.forBaseUrl(baseUrl);
+        try {
+            for (int i = 0; i < CircuitBreaker.FAILURE_THRESHOLD; i++) {
+                breaker.onFailure(-1);
+            }
+            assertThrows(NexusCircuitOpenException.class, () -> RemoteZip.open(baseUrl + "/demo.jar", config));
+            // Other servers are not affected
+            assertEquals(5, RemoteZip.open(baseUrl + "/demo.jar", null).entries().size());
+        } finally {
+            breaker.onSuccess();
+        }
+    }
+
+    @Test
+    void credentialsStayOnTheNexusServer() {
+        assertTrue(RemoteZip.sameOrigin("https://nexus.example/repository/releases/a.jar", "https://NEXUS.example:443/"));
+        assertFalse(RemoteZip.sameOrigin("https://repo.example/a.jar", "https://nexus.example/"));
+        assertFalse(RemoteZip.sameOrigin("http://nexus.example/a.jar", "https://nexus.example/"));
+    }
+
+    @Test
+    void parsesContentRange() {
+        assertArrayEquals(new long[] {100, 5000}, NexusHttpTransport.parseContentRange("bytes 100-199/5000"));
+        assertArrayEquals(new long[] {0, -1}, NexusHttpTransport.parseContentRange("bytes 0-9/*"));
+        assertNull(NexusHttpTransport.parseContentRange("items 0-9/10"));
+    }
+}
@@ -0,0 +1,61 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Export of search results to CSV or JSON Lines.
+ *
+ * We write the rows in the order given (the caller passes the rows as the
+ * table shows them, filtered and sorted) through one 64 KiB buffer, one
+ * record per artifact with every column of {@link ArtifactRecordWriter}.
+ * Records are formatted one at a time, so the export never holds more than
+ * the list of rows it was given. The file is written with {@link AtomicFiles},
+ * so a failed or cancelled export leaves the target untouched.
+ */
+public final class ResultExporter {
+
+    static final int BUFFER_SIZE = 1 << 16;
+    static final int PROGRESS_STEP = 1024;
+
+    private ResultExporter() {
+        // Utility class: no instances
+    }
+
+    /**
+     * We return the format of a file name: CSV for ".csv", JSON Lines otherwise.
+     */
+    public static ArtifactRecordWriter.Format formatOf(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".csv") ? ArtifactRecordWriter.Format.CSV : ArtifactRecordWriter.Format.JSONL;
+    }
+
+    public static void export(List<NexusArtifact> rows, Path target, ArtifactRecordWriter.Format format,
+                              ExportProgress progress) throws IOException {
+        AtomicFiles.write(target, file -> {
+            try (ArtifactRecordWriter writer = new ArtifactRecordWriter(new BufferedWriter(
+                    new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE), format)) {
+                writer.writeHeader();
+                int total = rows.size();
+                for (int i = 0; i < total; i++) {
+                    ExportProgress.step(progress, i, total, PROGRESS_STEP, "Result export");
+                    NexusArtifact artifact = rows.get(i);
+                    if (artifact != null) {
+                        writer.write(artifact);
+                    }
+                }
+                if (progress != null) {
+                    progress.update(total, total);
+                }
+            }
+        });
+    }
+}
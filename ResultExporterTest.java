@@ -0,0 +1,72 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ResultExporter.
+ */
+class ResultExporterTest {
+
+    private static List<NexusArtifact> rows(int count) {
+        List<NexusArtifact> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new NexusArtifact("org.example", "lib" + i, "1.0", LocalDate.of(2024, 1, 1), null, "jar",
+                    "releases", "https://nexus/lib" + i + ".jar"));
+        }
+        return rows;
+    }
+
+    @Test
+    void csvKeepsRowOrderAndAllColumns(@TempDir Path dir) throws IOException {
+        Path target = dir.resolve("results.csv");
+        ResultExporter.export(rows(3), target, ResultExporter.formatOf(target), null);
+        List<String> lines = Files.readAllLines(target, StandardCharsets.UTF_8);
+        assertEquals(4, lines.size());
+        assertEquals("groupId,artifactId,version,versionDate,classifier,extension,repository,artifactLink", lines.get(0));
+        assertEquals("org.example,lib2,1.0,2024-01-01,,jar,releases,https://nexus/lib2.jar", lines.get(3));
+    }
+
+    @Test
+    void jsonLinesForOtherExtensions(@TempDir Path dir) throws IOException {
+        Path target = dir.resolve("results.jsonl");
+        assertEquals(ArtifactRecordWriter.Format.JSONL, ResultExporter.formatOf(target));
+        ResultExporter.export(rows(50_000), target, ArtifactRecordWriter.Format.JSONL, null);
+        try (var lines = Files.lines(target, StandardCharsets.UTF_8)) {
+            assertEquals(50_000, lines.count());
+        }
+    }
+
+    @Test
+    void cancelledExportKeepsTheTarget(@TempDir Path dir) throws IOException {
+        Path target = dir.resolve("results.csv");
+        Files.writeString(target, "previous");
+        assertThrows(CancellationException.class, () -> ResultExporter.export(rows(5000), target,
+                ArtifactRecordWriter.Format.CSV, new ExportProgress() {
+                    @Override
+                    public void update(int done, int total) {
+                    }
+
+                    @Override
+                    public boolean isCancelled() {
+                        return true;
+                    }
+                }));
+        assertEquals("previous", Files.readString(target));
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+}
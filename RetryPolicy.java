@@ -0,0 +1,77 @@
+package org.jd.gui.util.nexus;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bounded retry of idempotent Nexus requests.
+ *
+ * We retry network errors and the statuses a loaded server answers with
+ * (429, 502, 503, 504) up to {@link #maxAttempts()} attempts in total. The
+ * delay before attempt n is drawn uniformly from [0, base * 2^n] capped at
+ * the maximum ("full jitter"), so clients that failed together do not
+ * retry together. A Retry-After header is a lower bound for the delay;
+ * when it asks for more than we are willing to wait we give up instead.
+ */
+final class RetryPolicy {
+
+    static final RetryPolicy DEFAULT = new RetryPolicy(3, 250, 4_000, 10_000);
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long maxRetryAfterMillis;
+
+    RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis, long maxRetryAfterMillis) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxRetryAfterMillis = maxRetryAfterMillis;
+    }
+
+    int maxAttempts() {
+        return maxAttempts;
+    }
+
+    static boolean isRetryable(int status) {
+        return status == 429 || status == 502 || status == 503 || status == 504;
+    }
+
+    /**
+     * We return whether attempt (0 based) may be followed by another one,
+     * given the Retry-After delay of its response (-1 when absent).
+     */
+    boolean canRetry(int attempt, long retryAfterMillis) {
+        return attempt + 1 < maxAttempts && retryAfterMillis <= maxRetryAfterMillis;
+    }
+
+    long delayMillis(int attempt, long retryAfterMillis) {
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(20, attempt + 1));
+        long jittered = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        return Math.max(jittered, retryAfterMillis);
+    }
+
+    /**
+     * We parse a Retry-After value, either delay-seconds or an HTTP date,
+     * into milliseconds from now; -1 when absent or invalid.
+     */
+    static long parseRetryAfter(String value, long nowMillis) {
+        if (value == null || value.isBlank()) {
+            return -1;
+        }
+        String v = value.trim();
+        try {
+            return Math.max(0, Long.parseLong(v) * 1000);
+        } catch (NumberFormatException ignored) {
+            // Not delay-seconds, try an HTTP date
+        }
+        try {
+            long at = ZonedDateTime.parse(v, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, at - nowMillis);
+        } catch (DateTimeParseException ignored) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.jd.gui.util.nexus;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * De-duplication of identical concurrent calls.
+ *
+ * The first caller of a key runs the call; callers arriving while it is in
+ * flight wait for it and receive the same result or exception. Nothing is
+ * cached: once the call completes the next caller runs it again.
+ *
+ * When the running call was interrupted (its search was cancelled) the
+ * waiting callers do not inherit the interruption; one of them runs the call
+ * again instead.
+ */
+final class SingleFlight<K, V> {
+
+    interface Call<V> {
+        V call() throws IOException;
+    }
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    /**
+     * We run the call or join the identical one in flight; onShared runs
+     * when we join.
+     */
+    V execute(K key, Call<V> call, Runnable onShared) throws IOException {
+        while (true) {
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            CompletableFuture<V> running = calls.putIfAbsent(key, mine);
+            if (running == null) {
+                try {
+                    V value = call.call();
+                    mine.complete(value);
+                    return value;
+                } catch (IOException | RuntimeException | Error e) {
+                    mine.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    calls.remove(key, mine);
+                }
+            }
+
+            if (onShared != null) {
+                onShared.run();
+            }
+            try {
+                return running.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for a shared request");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof InterruptedIOException && !(cause instanceof SocketTimeoutException)) {
+                    continue;
+                }
+                if (cause instanceof IOException io) {
+                    throw io;
+                }
+                if (cause instanceof RuntimeException re) {
+                    throw re;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    int inFlight() {
+        return calls.size();
+    }
+}
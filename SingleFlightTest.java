@@ -0,0 +1,98 @@
+package org.jd.gui.util.nexus;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SingleFlight.
+ */
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallersShareOneCall() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger shared = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> leader = pool.submit(() -> flight.execute("k", () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "page";
+            }, shared::incrementAndGet));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<String> follower1 = pool.submit(() -> flight.execute("k", () -> "other", shared::incrementAndGet));
+            Future<String> follower2 = pool.submit(() -> flight.execute("k", () -> "other", shared::incrementAndGet));
+            while (shared.get() < 2) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertEquals("page", leader.get());
+            assertEquals("page", follower1.get());
+            assertEquals("page", follower2.get());
+            assertEquals(1, calls.get());
+            assertEquals(0, flight.inFlight());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void failuresAreSharedButNotCached() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        assertThrows(NexusHttpException.class, () -> flight.execute("k", () -> {
+            throw new NexusHttpException(503, "http://nexus", -1);
+        }, null));
+        assertEquals("ok", flight.execute("k", () -> "ok", null));
+    }
+
+    @Test
+    void interruptedLeaderDoesNotFailFollowers() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger shared = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = pool.submit(() -> flight.execute("k", () -> {
+                started.countDown();
+                await(release);
+                throw new InterruptedIOException("cancelled");
+            }, null));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> follower = pool.submit(() -> flight.execute("k", () -> "retried", shared::incrementAndGet));
+            while (shared.get() < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertThrows(Exception.class, leader::get);
+            assertEquals("retried", follower.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.jd.gui.util.nexus.snippet;
+
+import org.jd.gui.util.nexus.AtomicFiles;
+import org.jd.gui.util.nexus.ExportProgress;
+import org.jd.gui.util.nexus.model.NexusArtifact;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Combined dependency declarations for many artifacts.
+ *
+ * We write the block of a {@link SnippetGenerator} entry by entry to any
+ * Appendable, so thousands of artifacts are exported without building the
+ * whole text when the target is a file. Artifacts with the same coordinates
+ * (group, artifact, version, classifier, extension) are declared once.
+ * Progress is reported every {@link #PROGRESS_STEP} entries, and the export
+ * stops with a CancellationException as soon as the progress callback
+ * reports a cancellation.
+ */
+public final class SnippetExport {
+
+    static final int PROGRESS_STEP = 64;
+
+    private SnippetExport() {
+        // Utility class: no instances
+    }
+
+    /**
+     * We drop artifacts whose coordinates were already seen, keeping the first.
+     */
+    public static List<NexusArtifact> distinct(List<NexusArtifact> artifacts) {
+        Map<String, NexusArtifact> byCoordinates = new LinkedHashMap<>();
+        for (NexusArtifact artifact : artifacts) {
+            if (artifact != null) {
+                byCoordinates.putIfAbsent(coordinates(artifact), artifact);
+            }
+        }
+        return new ArrayList<>(byCoordinates.values());
+    }
+
+    public static void write(SnippetGenerator generator, List<NexusArtifact> artifacts, Appendable out,
+                             ExportProgress progress) throws IOException {
+        List<NexusArtifact> entries = distinct(artifacts);
+        generator.writeBlock(() -> new ProgressIterator(entries, progress), out);
+        if (progress != null) {
+            progress.update(entries.size(), entries.size());
+        }
+    }
+
+    /**
+     * We write the block with {@link AtomicFiles}, so a failed or cancelled
+     * export leaves no partial file behind.
+     */
+    public static void write(SnippetGenerator generator, List<NexusArtifact> artifacts, Path target,
+                             ExportProgress progress) throws IOException {
+        AtomicFiles.write(target, file -> {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                write(generator, artifacts, writer, progress);
+            }
+        });
+    }
+
+    private static String coordinates(NexusArtifact a) {
+        return a.groupId() + ':' + a.artifactId() + ':' + a.version() + ':' + a.classifier() + '@' + a.extension();
+    }
+
+    private static final class ProgressIterator implements Iterator<NexusArtifact> {
+        private final List<NexusArtifact> entries;
+        private final ExportProgress progress;
+        private int next;
+
+        ProgressIterator(List<NexusArtifact> entries, ExportProgress progress) {
+            this.entries = entries;
+            this.progress = progress;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < entries.size();
+        }
+
+        @Override
+        public NexusArtifact next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ExportProgress.step(progress, next, entries.size(), PROGRESS_STEP, "Snippet export");
+            return entries.get(next++);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.jd.gui.util.nexus.snippet;
+
+import org.jd.gui.util.nexus.ExportProgress;
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SnippetExport.
+ */
+class SnippetExportTest {
+
+    private static NexusArtifact artifact(String artifactId, String repository) {
+        return new NexusArtifact("org.example", artifactId, "1.0", null, null, "jar", repository, null);
+    }
+
+    @Test
+    void duplicateCoordinatesAreDeclaredOnce() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        SnippetExport.write(SnippetGenerators.byName("Gradle"),
+                List.of(artifact("a", "releases"), artifact("b", "releases"), artifact("a", "central")), sb, null);
+        assertEquals("dependencies {\n"
+                + "    implementation \"org.example:a:1.0\"\n"
+                + "    implementation \"org.example:b:1.0\"\n"
+                + "}\n", sb.toString());
+    }
+
+    @Test
+    void streamsThousandsOfArtifactsToFile(@TempDir Path dir) throws IOException {
+        List<NexusArtifact> artifacts = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            artifacts.add(artifact("lib" + i, "releases"));
+        }
+        int[] last = new int[2];
+        Path target = dir.resolve("deps.xml");
+        SnippetExport.write(SnippetGenerators.byName("Maven"), artifacts, target, new ExportProgress() {
+            @Override
+            public void update(int done, int total) {
+                last[0] = done;
+                last[1] = total;
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+        });
+        String text = Files.readString(target, StandardCharsets.UTF_8);
+        assertTrue(text.startsWith("<dependencies>\n"));
+        assertTrue(text.endsWith("</dependencies>\n"));
+        assertTrue(text.contains("<artifactId>lib4999</artifactId>"));
+        assertArrayEquals(new int[] {5000, 5000}, last);
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void cancelledExportLeavesNoFile(@TempDir Path dir) {
+        List<NexusArtifact> artifacts = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            artifacts.add(artifact("lib" + i, "releases"));
+        }
+        Path target = dir.resolve("deps.gradle");
+        assertThrows(CancellationException.class, () ->
+                SnippetExport.write(SnippetGenerators.byName("Gradle"), artifacts, target, new ExportProgress() {
+                    @Override
+                    public void update(int done, int total) {
+                    }
+
+                    @Override
+                    public boolean isCancelled() {
+                        return true;
+                    }
+                }));
+        assertFalse(Files.exists(target));
+    }
+}
@@ -0,0 +1,39 @@
+package org.jd.gui.util.nexus.snippet;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+
+import java.io.IOException;
+
+/**
+ * Dependency declaration of an artifact for one build tool.
+ *
+ * Generators are listed in {@link SnippetGenerators}; additional ones can
+ * be registered there or provided as a {@link java.util.ServiceLoader}
+ * service. Generating a snippet must be cheap and free of side effects, as
+ * results are cached per artifact.
+ */
+public interface SnippetGenerator {
+
+    /**
+     * Tab title, e.g. "Maven".
+     */
+    String name();
+
+    /**
+     * RSyntaxTextArea syntax style, e.g. "text/xml".
+     */
+    String syntaxStyle();
+
+    String snippet(NexusArtifact artifact);
+
+    /**
+     * We write one combined declaration for many artifacts. By default the
+     * snippets follow each other; generators whose snippets carry a wrapper
+     * (a dependencies block) write it once around all entries.
+     */
+    default void writeBlock(Iterable<NexusArtifact> artifacts, Appendable out) throws IOException {
+        for (NexusArtifact artifact : artifacts) {
+            out.append(snippet(artifact));
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package org.jd.gui.util.nexus.snippet;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of the snippet generators shown by the search panel.
+ *
+ * We start with the built-in build tools (Maven, Gradle, Ivy, SBT,
+ * Leiningen, Grape, Buildr and bld) followed by the generators found with
+ * {@link ServiceLoader}. Each generator adds one tab; snippets are only
+ * generated for the visible tab, so adding formats does not add work per
+ * selection.
+ */
+public final class SnippetGenerators {
+
+    private static final List<SnippetGenerator> GENERATORS = new CopyOnWriteArrayList<>(List.of(
+            new Maven(), new Gradle(), new Ivy(), new Sbt(), new Leiningen(), new Grape(), new Buildr(), new Bld()));
+
+    static {
+        for (SnippetGenerator generator : ServiceLoader.load(SnippetGenerator.class)) {
+            register(generator);
+        }
+    }
+
+    private SnippetGenerators() {
+        // Utility class: no instances
+    }
+
+    public static List<SnippetGenerator> all() {
+        return List.copyOf(GENERATORS);
+    }
+
+    /**
+     * We add a generator, replacing any generator of the same name.
+     */
+    public static void register(SnippetGenerator generator) {
+        synchronized (GENERATORS) {
+            for (int i = 0; i < GENERATORS.size(); i++) {
+                if (GENERATORS.get(i).name().equals(generator.name())) {
+                    GENERATORS.set(i, generator);
+                    return;
+                }
+            }
+            GENERATORS.add(generator);
+        }
+    }
+
+    /**
+     * We return the generator with the given name (case insensitive), or null.
+     */
+    public static SnippetGenerator byName(String name) {
+        for (SnippetGenerator generator : GENERATORS) {
+            if (generator.name().equalsIgnoreCase(name)) {
+                return generator;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSet(String s) {
+        return s != null && !s.isBlank();
+    }
+
+    private static boolean isNonJar(String p) {
+        return isSet(p) && !"jar".equalsIgnoreCase(p);
+    }
+
+    private static final class Maven implements SnippetGenerator {
+        @Override
+        public String name() {
+            return "Maven";
+        }
+
+        @Override
+        public String syntaxStyle() {
+            return "text/xml";
+        }
+
+        @Override
+        public String snippet(NexusArtifact artifact) {
+            return dependency(artifact, "");
+        }
+
+        @Override
+        public void writeBlock(Iterable<NexusArtifact> artifacts, Appendable out) throws IOException {
+            out.append("<dependencies>\n");
+            for (NexusArtifact artifact : artifacts) {
+                out.append(dependency(artifact, "  "));
+            }
+            out.append("</dependencies>\n");
+        }
+
+        private static String dependency(NexusArtifact artifact, String indent) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(indent).append("<dependency>\n");
+            sb.append(indent).append("  <groupId>").append(artifact.groupId()).append("</groupId>\n");
+            sb.append(indent).append("  <artifactId>").append(artifact.artifactId()).append("</artifactId>\n");
+            sb.append(indent).append("  <version>").append(artifact.version()).append("</version>\n");
+            if (isSet(artifact.classifier())) {
+                sb.append(indent).append("  <classifier>").append(artifact.classifier()).append("</classifier>\n");
+            }
+            if (isNonJar(artifact.extension())) {
+                sb.append(indent).append("  <type>").append(artifact.extension()).append("</type>\n");
+            }
+            sb.append(indent).append("</dependency>\n");
+            return sb.toString();
+        }
+    }
+
+    private static final class Gradle implements SnippetGenerator {
+        @Override
+        public String name() {
+            return "Gradle";
+        }
+
+        @Override
+        public String syntaxStyle() {
+            return "text/groovy";
+        }
+
+        @Override
+        public String snippet(NexusArtifact artifact) {
+            return "dependencies {\n" + line(artifact) + "}\n";
+        }
+
+        @Override
+        public void writeBlock(Iterable<NexusArtifact> artifacts, Appendable out) throws IOException {
+            out.append("dependencies {\n");
+            for (NexusArtifact artifact : artifacts) {
+                out.append(line(artifact));
+            }
+            out.append("}\n");
+        }
+
+        private static String line(NexusArtifact artifact) {
+            String g = artifact.groupId();
+            String a = artifact.artifactId();
+            String v = artifact.version();
+            String c = artifact.classifier();
+            String p = artifact.extension();
+            String coords;
+            if (isSet(c)) {
+                if (isNonJar(p)) {
+                    coords = g + ":" + a + ":" + v + ":" + c + "@" + p;
+                } else {
+                    coords = g + ":" + a + ":" + v + ":" + c;
+                }
+            } else {
+                coords = g + ":" + a + ":" + v;
+            }
+            return "    implementation \"" + coords + "\"\n";
+        }
+    }
+
+    private static final class Ivy implements SnippetGenerator {
+        @Override
+        public String name() {
+            return "Ivy";
+        }
+
+        @Override
+        public String syntaxStyle() {
+            return "text/xml";
+        }
+
+        @Override
+        public String snippet(NexusArtifact artifact) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("<dependency org=\"").append(artifact.groupId())
+                    .append("\" name=\"").append(artifact.artifactId())
+                    .append("\" rev=\"").append(artifact.version()).append("\"");
+            if (isSet(artifact.extension())) {
+                sb.append(" type=\"").append(artifact.extension()).append("\"");
+            }
+            if (isSet(artifact.classifier())) {
+                sb.append(" classifier=\"").append(artifact.classifier()).append("\"");
+            }
+            sb.append(" />\n");
+            return sb.toString();
+        }
+    }
+
+    private static final class Sbt implements SnippetGenerator {
+        @Override
+        public String name() {
+            return "SBT";
+        }
+
+        @Override
+        public String syntaxStyle() {
+            return "text/scala";
+        }
+
+        @Override
+        public String snippet(NexusArtifact artifact) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("libraryDependencies += \"").append(artifact.groupId())
+                    .append("\" % \"").append(artifact.artifactId())
+                    .append("\" % \"").append(artifact.version()).append("\"");
+            if (isSet(artifact.classifier())) {
+                sb.append(" classifier \"").append(artifact.classifier()).append("\"");
+            }
+            sb.append("\n");
+            return sb.toString();
+        }
+    }
+
+    private static final class Leiningen implements SnippetGenerator {
+        @Override
+        public String name() {
+            return "Leiningen";
+        }
+
+        @Override
+        public String syntaxStyle() {
+            return "text/clojure";
+        }
+
+        @Override
+        public String snippet(NexusArtifact artifact) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("[\"").append(artifact.groupId()).append("/").append(artifact.artifactId())
+                    .append("\" \"").append(artifact.version()).append("\"");
+            if (isSet(artifact.classifier())) {
+                sb.append(" :classifier \"").append(artifact.classifier()).append("\"");
+            }
+            if (isNonJar(artifact.extension())) {
+                sb.append(" :extension \"").append(artifact.extension()).append("\"");
+            }
+            sb.append("]\n");
+            return sb.toString();
+        }
+    }
+
+    private static final class Grape implements SnippetGenerator {
+        @Override
+        public String name() {
+            return "Grape";
+        }
+
+        @Override
+        public String syntaxStyle() {
+            return "text/groovy";
+        }
+
+        @Override
+        public String snippet(NexusArtifact artifact) {
+            return "@Grapes(\n" + grab(artifact) + "\n)\n";
+        }
+
+        @Override
+        public void writeBlock(Iterable<NexusArtifact> artifacts, Appendable out) throws IOException {
+            out.append("@Grapes([\n");
+            boolean first = true;
+            for (NexusArtifact artifact : artifacts) {
+                if (!first) {
+                    out.append(",\n");
+                }
+                out.append(grab(artifact));
+                first = false;
+            }
+            out.append("\n])\n");
+        }
+
+        private static String grab(NexusArtifact artifact) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("    @Grab(group='").append(artifact.groupId())
+                    .append("', module='").append(artifact.artifactId())
+                    .append("', version='").append(artifact.version()).append("'");
+            if (isSet(artifact.classifier())) {
+                sb.append(", classifier='").append(artifact.classifier()).append("'");
+            }
+            if (isNonJar(artifact.extension())) {
+                sb.append(", type='").append(artifact.extension()).append("'");
+            }
+            sb.append(")");
+            return sb.toString();
+        }
+    }
+
+    private static final class Buildr implements SnippetGenerator {
+        @Override
+        public String name() {
+            return "Buildr";
+        }
+
+        @Override
+        public String syntaxStyle() {
+            return "text/ruby";
+        }
+
+        @Override
+        public String snippet(NexusArtifact artifact) {
+            StringBuilder sb = new StringBuilder();
+            String packaging = isSet(artifact.extension()) ? artifact.extension() : "jar";
+            sb.append("compile '").append(artifact.groupId()).append(":").append(artifact.artifactId())
+                    .append(":").append(packaging).append(":").append(artifact.version());
+            if (isSet(artifact.classifier())) {
+                sb.append(":").append(artifact.classifier());
+            }
+            sb.append("'\n");
+            return sb.toString();
+        }
+    }
+
+    private static final class Bld implements SnippetGenerator {
+        @Override
+        public String name() {
+            return "bld";
+        }
+
+        @Override
+        public String syntaxStyle() {
+            return "text/java";
+        }
+
+        @Override
+        public String snippet(NexusArtifact artifact) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("dependency(\"").append(artifact.groupId())
+                    .append("\", \"").append(artifact.artifactId())
+                    .append("\", \"").append(artifact.version()).append("\"");
+            if (isSet(artifact.classifier())) {
+                sb.append(", classifier=\"").append(artifact.classifier()).append("\"");
+            }
+            if (isNonJar(artifact.extension())) {
+                sb.append(", type=\"").append(artifact.extension()).append("\"");
+            }
+            sb.append(");\n");
+            return sb.toString();
+        }
+    }
+}
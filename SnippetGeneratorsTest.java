@@ -0,0 +1,80 @@
+package org.jd.gui.util.nexus.snippet;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SnippetGenerators.
+ */
+class SnippetGeneratorsTest {
+
+    private static final NexusArtifact JAR =
+            new NexusArtifact("org.example", "demo", "1.0", null, null, "jar", "releases", null);
+    private static final NexusArtifact SOURCES =
+            new NexusArtifact("org.example", "demo", "1.0", null, "sources", "jar", "releases", null);
+
+    @Test
+    void builtInsInTabOrder() {
+        List<String> names = SnippetGenerators.all().stream().map(SnippetGenerator::name).toList();
+        assertEquals(List.of("Maven", "Gradle", "Ivy", "SBT", "Leiningen", "Grape", "Buildr", "bld"),
+                names.subList(0, 8));
+    }
+
+    @Test
+    void mavenSnippet() {
+        String snippet = SnippetGenerators.byName("maven").snippet(SOURCES);
+        assertEquals("<dependency>\n"
+                + "  <groupId>org.example</groupId>\n"
+                + "  <artifactId>demo</artifactId>\n"
+                + "  <version>1.0</version>\n"
+                + "  <classifier>sources</classifier>\n"
+                + "</dependency>\n", snippet);
+    }
+
+    @Test
+    void gradleBlockWrapsAllEntriesOnce() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        SnippetGenerators.byName("Gradle").writeBlock(List.of(JAR, SOURCES), sb);
+        assertEquals("dependencies {\n"
+                + "    implementation \"org.example:demo:1.0\"\n"
+                + "    implementation \"org.example:demo:1.0:sources\"\n"
+                + "}\n", sb.toString());
+    }
+
+    @Test
+    void defaultBlockConcatenatesSnippets() throws IOException {
+        SnippetGenerator sbt = SnippetGenerators.byName("SBT");
+        StringBuilder sb = new StringBuilder();
+        sbt.writeBlock(List.of(JAR, SOURCES), sb);
+        assertEquals(sbt.snippet(JAR) + sbt.snippet(SOURCES), sb.toString());
+    }
+
+    @Test
+    void registerReplacesByName() {
+        SnippetGenerator custom = new SnippetGenerator() {
+            @Override
+            public String name() {
+                return "Test format";
+            }
+
+            @Override
+            public String syntaxStyle() {
+                return "text/plain";
+            }
+
+            @Override
+            public String snippet(NexusArtifact artifact) {
+                return artifact.groupId();
+            }
+        };
+        SnippetGenerators.register(custom);
+        SnippetGenerators.register(custom);
+        assertEquals(1, SnippetGenerators.all().stream().filter(g -> g.name().equals("Test format")).count());
+        assertSame(custom, SnippetGenerators.byName("test format"));
+    }
+}
@@ -0,0 +1,335 @@
+package org.jd.gui.util.nexus.index;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Values keyed by string and sorted on disk, so that the index writers hold
+ * a bounded number of them on the heap whatever the size of an import.
+ *
+ * We buffer up to runSize values, the last one put for a key winning, then
+ * write them sorted by key as a run to a temporary file. {@link #forEach}
+ * streams the buffer and every run in key order with a k-way merge, the
+ * newest value of a key winning; {@link #get} binary-searches the runs
+ * through the offsets written at the end of each. Runs are deleted on close.
+ * If a run cannot be written, we keep the values in memory.
+ *
+ * Run layout (all integers big endian):
+ *
+ *   records    (int keyLength, UTF-8 key, value)[count], sorted by key
+ *   offsets    int[count]    offset of each record
+ *   count      int
+ *
+ * Tables sorted by something else than a unique string (postings, record
+ * numbers by artifact id or SHA-1) use {@link #withNumber} keys.
+ *
+ * This class is not thread-safe.
+ */
+final class SortedRuns<T> implements AutoCloseable {
+
+    interface Codec<T> {
+        void write(DataOutputStream out, T value) throws IOException;
+
+        T read(DataInputStream in) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface Sink<T> {
+        void accept(String key, T value) throws IOException;
+    }
+
+    static final Codec<Integer> INTEGER = new Codec<>() {
+        @Override
+        public void write(DataOutputStream out, Integer value) throws IOException {
+            out.writeInt(value);
+        }
+
+        @Override
+        public Integer read(DataInputStream in) throws IOException {
+            return in.readInt();
+        }
+    };
+
+    private static final class Run {
+        final Path file;
+        final int count;
+        // Opened on the first lookup
+        FileChannel channel;
+
+        Run(Path file, int count) {
+            this.file = file;
+            this.count = count;
+        }
+    }
+
+    private final Codec<T> codec;
+    private final int runSize;
+    private final Map<String, T> buffer = new HashMap<>();
+    // Oldest first
+    private final List<Run> runs = new ArrayList<>();
+    private boolean spilling = true;
+
+    SortedRuns(Codec<T> codec, int runSize) {
+        this.codec = codec;
+        this.runSize = runSize;
+    }
+
+    /**
+     * We return the key followed by the number, so that keys sort by key,
+     * then by number, and stay unique.
+     */
+    static String withNumber(String key, int number) {
+        String hex = Integer.toHexString(number);
+        return key + '\0' + "00000000".substring(hex.length()) + hex;
+    }
+
+    static String keyOf(String keyWithNumber) {
+        return keyWithNumber.substring(0, keyWithNumber.length() - 9);
+    }
+
+    /**
+     * We record the value, never null, for the key.
+     */
+    void put(String key, T value) {
+        buffer.put(key, value);
+        if (spilling && buffer.size() >= runSize) {
+            spill();
+        }
+    }
+
+    /**
+     * We return the newest value of the key, or null.
+     */
+    T get(String key) {
+        T value = buffer.get(key);
+        try {
+            for (int i = runs.size() - 1; i >= 0 && value == null; i--) {
+                value = find(runs.get(i), key);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return value;
+    }
+
+    boolean isEmpty() {
+        return buffer.isEmpty() && runs.isEmpty();
+    }
+
+    /**
+     * We pass every key with its newest value to the sink, in key order.
+     */
+    void forEach(Sink<T> sink) throws IOException {
+        List<Cursor> cursors = new ArrayList<>(runs.size() + 1);
+        try {
+            List<String> keys = new ArrayList<>(buffer.keySet());
+            keys.sort(Comparator.naturalOrder());
+            cursors.add(new BufferCursor(keys.iterator()));
+            for (int i = runs.size() - 1; i >= 0; i--) {
+                cursors.add(new RunCursor(runs.get(i), cursors.size()));
+            }
+            PriorityQueue<Cursor> queue = new PriorityQueue<>(Comparator
+                    .comparing((Cursor c) -> c.key)
+                    .thenComparingInt(c -> c.age));
+            for (Cursor cursor : cursors) {
+                if (cursor.next()) {
+                    queue.add(cursor);
+                }
+            }
+            while (!queue.isEmpty()) {
+                Cursor newest = queue.poll();
+                String key = newest.key;
+                T value = newest.value;
+                if (newest.next()) {
+                    queue.add(newest);
+                }
+                // Older values of the same key are dropped
+                while (!queue.isEmpty() && queue.peek().key.equals(key)) {
+                    Cursor older = queue.poll();
+                    if (older.next()) {
+                        queue.add(older);
+                    }
+                }
+                sink.accept(key, value);
+            }
+        } finally {
+            for (Cursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        buffer.clear();
+        for (Run run : runs) {
+            if (run.channel != null) {
+                try {
+                    run.channel.close();
+                } catch (IOException ignored) {
+                    // Deleted below all the same
+                }
+            }
+            IndexFiles.deleteQuietly(run.file);
+        }
+        runs.clear();
+    }
+
+    private void spill() {
+        List<String> keys = new ArrayList<>(buffer.keySet());
+        keys.sort(Comparator.naturalOrder());
+        int[] offsets = new int[keys.size()];
+        Path file = null;
+        try {
+            file = Files.createTempFile("jd-gui-index", ".run");
+            try (DataOutputStream out = IndexFiles.newSection(file)) {
+                for (int i = 0; i < keys.size(); i++) {
+                    offsets[i] = out.size();
+                    writeString(out, keys.get(i));
+                    codec.write(out, buffer.get(keys.get(i)));
+                }
+                if (out.size() == Integer.MAX_VALUE) {
+                    throw new IOException("Run too large");
+                }
+                for (int offset : offsets) {
+                    out.writeInt(offset);
+                }
+                out.writeInt(offsets.length);
+            }
+            runs.add(new Run(file, offsets.length));
+            buffer.clear();
+        } catch (IOException e) {
+            // We keep what is left in memory
+            spilling = false;
+            if (file != null) {
+                IndexFiles.deleteQuietly(file);
+            }
+        }
+    }
+
+    private T find(Run run, String key) throws IOException {
+        if (run.channel == null) {
+            run.channel = FileChannel.open(run.file, StandardOpenOption.READ);
+        }
+        FileChannel channel = run.channel;
+        long offsetsPos = channel.size() - Integer.BYTES - (long) run.count * Integer.BYTES;
+        int lo = 0;
+        int hi = run.count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            channel.position(readInt(channel, offsetsPos + (long) mid * Integer.BYTES));
+            // Not closed: that would close the channel
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 512));
+            int cmp = readString(in).compareTo(key);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return codec.read(in);
+            }
+        }
+        return null;
+    }
+
+    private static int readInt(FileChannel channel, long pos) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(Integer.BYTES);
+        while (bytes.hasRemaining()) {
+            if (channel.read(bytes, pos + bytes.position()) < 0) {
+                throw new EOFException("Truncated run");
+            }
+        }
+        return bytes.getInt(0);
+    }
+
+    static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private abstract class Cursor {
+        final int age;
+        String key;
+        T value;
+
+        Cursor(int age) {
+            this.age = age;
+        }
+
+        abstract boolean next() throws IOException;
+
+        void close() throws IOException {
+        }
+    }
+
+    private final class BufferCursor extends Cursor {
+        private final Iterator<String> keys;
+
+        BufferCursor(Iterator<String> keys) {
+            super(0);
+            this.keys = keys;
+        }
+
+        @Override
+        boolean next() {
+            if (!keys.hasNext()) {
+                return false;
+            }
+            key = keys.next();
+            value = buffer.get(key);
+            return true;
+        }
+    }
+
+    private final class RunCursor extends Cursor {
+        private final DataInputStream in;
+        private int remaining;
+
+        RunCursor(Run run, int age) throws IOException {
+            super(age);
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.file), 1 << 16));
+            this.remaining = run.count;
+        }
+
+        @Override
+        boolean next() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            key = readString(in);
+            value = codec.read(in);
+            return true;
+        }
+
+        @Override
+        void close() throws IOException {
+            in.close();
+        }
+    }
+}
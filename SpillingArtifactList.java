@@ -0,0 +1,407 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * An append-mostly list of search results whose heap use does not grow
+ * with its size.
+ *
+ * The newest rows stay in a hot window in memory; when it is full, its
+ * older half is spilled to two memory-mapped temporary files, so the list
+ * is always a spilled prefix followed by the hot rows. Spilled rows are
+ * fixed-width records, so the rows of the table viewport are found in
+ * constant time and decoded through a small LRU cache; {@link #iterator()}
+ * streams them without the cache, for filters and exports.
+ *
+ * Layout (all integers big endian):
+ *
+ *   records    (long groupId, long artifactId, long version, long classifier,
+ *               long extension, long repository, long artifactLink,
+ *               long versionDate)[size]
+ *              string fields are offsets in the pool, or -1 for null;
+ *              versionDate is the epoch day, or Long.MIN_VALUE for null
+ *   pool       (int length, UTF-8 bytes)*, never crossing a segment
+ *
+ * Both files are mapped in segments as they grow. They are deleted on
+ * the last close, or as soon as they are opened where the platform allows
+ * it. A reader that may outlive the owner of the list, such as a background
+ * export, keeps it open with {@link #retain()} and closes it when done.
+ * Recent strings are deduplicated, as group ids, extensions and
+ * repositories repeat from row to row.
+ *
+ * If the files cannot be written, we stop spilling and keep the rows in
+ * memory. Spilled rows are read-only: set, add and remove only accept
+ * indices in the hot window, which covers whole result sets up to its
+ * capacity. The methods are synchronized, so a background export can read
+ * while the EDT appends; appending does not invalidate iterators.
+ */
+public final class SpillingArtifactList extends AbstractList<NexusArtifact> implements RandomAccess, AutoCloseable {
+
+    static final int RECORD_SIZE = 8 * Long.BYTES;
+
+    private static final int FIELD_COUNT = 7;
+    private static final int DEFAULT_SEGMENT_SIZE = 1 << 26;
+    private static final int DEDUP_SIZE = 4096;
+
+    private final Path directory;
+    private final int hotCapacity;
+    private final int segmentSize;
+    private final Map<Long, NexusArtifact> readCache;
+    private final Map<String, Long> recentStrings = new LinkedHashMap<>(DEDUP_SIZE * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > DEDUP_SIZE;
+        }
+    };
+
+    private final List<NexusArtifact> hot = new ArrayList<>();
+    private long spilled;
+    // Changes when indices are invalidated: clear, or an insertion or removal before the end
+    private int generation;
+
+    private Segments records;
+    private Segments pool;
+    private long poolEnd;
+    private Exception spillFailure;
+    private boolean closed;
+    private int holders = 1;
+
+    /**
+     * @param directory     where the temporary files go, created on the first spill
+     * @param hotCapacity   rows kept in memory
+     * @param readCacheSize spilled rows kept decoded
+     */
+    public SpillingArtifactList(Path directory, int hotCapacity, int readCacheSize) {
+        this(directory, hotCapacity, readCacheSize, DEFAULT_SEGMENT_SIZE);
+    }
+
+    SpillingArtifactList(Path directory, int hotCapacity, int readCacheSize, int segmentSize) {
+        if (hotCapacity < 2 || segmentSize % RECORD_SIZE != 0) {
+            throw new IllegalArgumentException("hotCapacity " + hotCapacity + ", segmentSize " + segmentSize);
+        }
+        this.directory = directory;
+        this.hotCapacity = hotCapacity;
+        this.segmentSize = segmentSize;
+        this.readCache = new LinkedHashMap<>(Math.max(16, readCacheSize * 2), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, NexusArtifact> eldest) {
+                return size() > readCacheSize;
+            }
+        };
+    }
+
+    @Override
+    public synchronized int size() {
+        return (int) Math.min(Integer.MAX_VALUE, spilled + hot.size());
+    }
+
+    /**
+     * The number of rows on disk; they form the prefix of the list.
+     */
+    public synchronized long spilledCount() {
+        return spilled;
+    }
+
+    @Override
+    public synchronized NexusArtifact get(int index) {
+        checkOpen();
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size());
+        }
+        if (index >= spilled) {
+            return hot.get((int) (index - spilled));
+        }
+        NexusArtifact cached = readCache.get((long) index);
+        if (cached == null) {
+            cached = read(index);
+            readCache.put((long) index, cached);
+        }
+        return cached;
+    }
+
+    @Override
+    public synchronized boolean add(NexusArtifact artifact) {
+        checkOpen();
+        hot.add(artifact);
+        modCount++;
+        if (hot.size() > hotCapacity) {
+            spill(hot.size() - hotCapacity / 2);
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void add(int index, NexusArtifact artifact) {
+        checkOpen();
+        if (index == size()) {
+            add(artifact);
+            return;
+        }
+        hot.add(hotIndex(index), artifact);
+        modCount++;
+        generation++;
+    }
+
+    @Override
+    public synchronized NexusArtifact set(int index, NexusArtifact artifact) {
+        checkOpen();
+        return hot.set(hotIndex(index), artifact);
+    }
+
+    @Override
+    public synchronized NexusArtifact remove(int index) {
+        checkOpen();
+        NexusArtifact removed = hot.remove(hotIndex(index));
+        modCount++;
+        generation++;
+        return removed;
+    }
+
+    /**
+     * We drop every row; the files are kept and overwritten by later spills.
+     */
+    @Override
+    public synchronized void clear() {
+        hot.clear();
+        readCache.clear();
+        recentStrings.clear();
+        spilled = 0;
+        poolEnd = 0;
+        modCount++;
+        generation++;
+    }
+
+    /**
+     * We stream the rows in order, decoding spilled rows without going
+     * through the read cache.
+     */
+    @Override
+    public Iterator<NexusArtifact> iterator() {
+        return new Iterator<>() {
+            private final int expectedGeneration = generation();
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size();
+            }
+
+            @Override
+            public NexusArtifact next() {
+                synchronized (SpillingArtifactList.this) {
+                    if (generation != expectedGeneration) {
+                        throw new ConcurrentModificationException();
+                    }
+                    if (next >= size()) {
+                        throw new NoSuchElementException();
+                    }
+                    checkOpen();
+                    int index = next++;
+                    return index >= spilled ? hot.get((int) (index - spilled)) : read(index);
+                }
+            }
+        };
+    }
+
+    private synchronized int generation() {
+        return generation;
+    }
+
+    /**
+     * We keep the list open for one more holder, who must close it once.
+     */
+    public synchronized SpillingArtifactList retain() {
+        checkOpen();
+        holders++;
+        return this;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed || --holders > 0) {
+            return;
+        }
+        closed = true;
+        hot.clear();
+        readCache.clear();
+        recentStrings.clear();
+        IOException failure = null;
+        for (Segments segments : new Segments[] {records, pool}) {
+            if (segments != null) {
+                try {
+                    segments.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        }
+        records = null;
+        pool = null;
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("The result list is closed");
+        }
+    }
+
+    private int hotIndex(int index) {
+        if (index < spilled) {
+            throw new UnsupportedOperationException("Row " + index + " is spilled to disk and read-only");
+        }
+        if (index > size()) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size());
+        }
+        return (int) (index - spilled);
+    }
+
+    private void spill(int count) {
+        if (spillFailure != null) {
+            return;
+        }
+        try {
+            if (records == null) {
+                records = new Segments(Files.createTempFile(directory, "jd-gui-results-", ".records"), segmentSize);
+                pool = new Segments(Files.createTempFile(directory, "jd-gui-results-", ".pool"), segmentSize);
+            }
+            for (int i = 0; i < count; i++) {
+                write(spilled + i, hot.get(i));
+            }
+        } catch (IOException | RuntimeException e) {
+            // A full disk: we keep the rows in memory, as before spilling existed
+            spillFailure = e;
+            return;
+        }
+        spilled += count;
+        hot.subList(0, count).clear();
+    }
+
+    /**
+     * Why spilling stopped, or null; rows are then kept in memory.
+     */
+    public synchronized Exception spillFailure() {
+        return spillFailure;
+    }
+
+    private void write(long recordNo, NexusArtifact a) throws IOException {
+        long pos = recordNo * RECORD_SIZE;
+        MappedByteBuffer segment = records.segment(pos);
+        int offset = (int) (pos % segmentSize);
+        String[] fields = {a.groupId(), a.artifactId(), a.version(), a.classifier(), a.extension(), a.repository(),
+                a.artifactLink()};
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            segment.putLong(offset + i * Long.BYTES, intern(fields[i]));
+        }
+        segment.putLong(offset + FIELD_COUNT * Long.BYTES,
+                a.versionDate() == null ? Long.MIN_VALUE : a.versionDate().toEpochDay());
+    }
+
+    private NexusArtifact read(long recordNo) {
+        long pos = recordNo * RECORD_SIZE;
+        MappedByteBuffer segment = records.mapped(pos);
+        int offset = (int) (pos % segmentSize);
+        String[] fields = new String[FIELD_COUNT];
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            fields[i] = poolString(segment.getLong(offset + i * Long.BYTES));
+        }
+        long epochDay = segment.getLong(offset + FIELD_COUNT * Long.BYTES);
+        return new NexusArtifact(fields[0], fields[1], fields[2],
+                epochDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay),
+                fields[3], fields[4], fields[5], fields[6]);
+    }
+
+    private long intern(String s) throws IOException {
+        if (s == null) {
+            return -1;
+        }
+        Long known = recentStrings.get(s);
+        if (known != null) {
+            return known;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        int length = Integer.BYTES + bytes.length;
+        if (length > segmentSize) {
+            throw new IOException("String of " + bytes.length + " bytes in a search result");
+        }
+        if (poolEnd / segmentSize != (poolEnd + length - 1) / segmentSize) {
+            // Strings never cross a segment
+            poolEnd = (poolEnd / segmentSize + 1) * segmentSize;
+        }
+        long offset = poolEnd;
+        MappedByteBuffer segment = pool.segment(offset);
+        int pos = (int) (offset % segmentSize);
+        segment.putInt(pos, bytes.length);
+        segment.put(pos + Integer.BYTES, bytes);
+        poolEnd += length;
+        recentStrings.put(s, offset);
+        return offset;
+    }
+
+    private String poolString(long offset) {
+        if (offset < 0) {
+            return null;
+        }
+        MappedByteBuffer segment = pool.mapped(offset);
+        int pos = (int) (offset % segmentSize);
+        byte[] bytes = new byte[segment.getInt(pos)];
+        segment.get(pos + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One file mapped in fixed-size segments, added as it grows.
+     */
+    private static final class Segments {
+        private final FileChannel channel;
+        private final int segmentSize;
+        private final List<MappedByteBuffer> mapped = new ArrayList<>();
+
+        Segments(Path file, int segmentSize) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+            this.segmentSize = segmentSize;
+        }
+
+        // The segment holding pos, mapped (growing the file) if needed
+        MappedByteBuffer segment(long pos) throws IOException {
+            int index = (int) (pos / segmentSize);
+            while (mapped.size() <= index) {
+                mapped.add(channel.map(FileChannel.MapMode.READ_WRITE, (long) mapped.size() * segmentSize, segmentSize));
+            }
+            return mapped.get(index);
+        }
+
+        // The segment holding pos, which was written before
+        MappedByteBuffer mapped(long pos) {
+            return mapped.get((int) (pos / segmentSize));
+        }
+
+        void close() throws IOException {
+            // Mappings are released by the garbage collector; the file goes with the channel
+            mapped.clear();
+            channel.close();
+        }
+    }
+}
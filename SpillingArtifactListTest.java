@@ -0,0 +1,139 @@
+package org.jd.gui.util.nexus;
+
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SpillingArtifactList.
+ */
+class SpillingArtifactListTest {
+
+    @TempDir
+    Path dir;
+
+    private static NexusArtifact artifact(int i) {
+        return new NexusArtifact("org.example.g" + (i % 3), "a" + i, "1." + i,
+                i % 2 == 0 ? LocalDate.of(2024, 1, 1).plusDays(i) : null,
+                i % 5 == 0 ? "sources" : null, "jar", "releases",
+                "https://nexus.example/repository/releases/a" + i + "-été.jar");
+    }
+
+    private long filesIn(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void spillsOlderRowsAndReadsThemBack() throws IOException {
+        // 512-byte segments: 8 records each, and pool strings regularly skip to the next segment
+        try (SpillingArtifactList list = new SpillingArtifactList(dir, 10, 4, 512)) {
+            List<NexusArtifact> expected = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                list.add(artifact(i));
+                expected.add(artifact(i));
+            }
+            assertEquals(100, list.size());
+            assertTrue(list.spilledCount() >= 90);
+            assertNull(list.spillFailure());
+
+            for (int i = 99; i >= 0; i--) {
+                assertEquals(expected.get(i), list.get(i));
+            }
+            List<NexusArtifact> streamed = new ArrayList<>();
+            list.forEach(streamed::add);
+            assertEquals(expected, streamed);
+            assertEquals(expected, list);
+        }
+        assertEquals(0, filesIn(dir));
+    }
+
+    @Test
+    void smallResultsStayInMemory() throws IOException {
+        try (SpillingArtifactList list = new SpillingArtifactList(dir, 10, 4, 512)) {
+            for (int i = 0; i < 10; i++) {
+                list.add(artifact(i));
+            }
+            // The hot window is editable, e.g. to replace a version row with its assets
+            list.remove(3);
+            list.addAll(3, List.of(artifact(30), artifact(31)));
+            assertEquals(11, list.size());
+            assertEquals(artifact(31), list.get(4));
+            assertEquals(0, list.spilledCount());
+            assertEquals(0, filesIn(dir));
+        }
+    }
+
+    @Test
+    void spilledRowsAreReadOnly() {
+        try (SpillingArtifactList list = new SpillingArtifactList(dir, 4, 4, 512)) {
+            for (int i = 0; i < 9; i++) {
+                list.add(artifact(i));
+            }
+            assertThrows(UnsupportedOperationException.class, () -> list.set(0, artifact(0)));
+            assertThrows(UnsupportedOperationException.class, () -> list.remove(0));
+            list.set(8, artifact(80));
+            assertEquals(artifact(80), list.get(8));
+        }
+    }
+
+    @Test
+    void iteratorsSurviveAppendsButNotClear() {
+        try (SpillingArtifactList list = new SpillingArtifactList(dir, 4, 4, 512)) {
+            for (int i = 0; i < 6; i++) {
+                list.add(artifact(i));
+            }
+            Iterator<NexusArtifact> appending = list.iterator();
+            assertEquals(artifact(0), appending.next());
+            list.add(artifact(6));
+            int count = 1;
+            while (appending.hasNext()) {
+                appending.next();
+                count++;
+            }
+            assertEquals(7, count);
+
+            Iterator<NexusArtifact> cleared = list.iterator();
+            list.clear();
+            list.add(artifact(1));
+            assertThrows(ConcurrentModificationException.class, cleared::next);
+            assertEquals(List.of(artifact(1)), list);
+        }
+    }
+
+    @Test
+    void closedListFails() {
+        SpillingArtifactList list = new SpillingArtifactList(dir, 4, 4, 512);
+        list.add(artifact(0));
+        list.close();
+        assertThrows(IllegalStateException.class, () -> list.get(0));
+    }
+
+    @Test
+    void retainedListStaysOpenUntilEveryHolderClosesIt() {
+        SpillingArtifactList list = new SpillingArtifactList(dir, 4, 4, 512);
+        for (int i = 0; i < 10; i++) {
+            list.add(artifact(i));
+        }
+        SpillingArtifactList export = list.retain();
+        list.close();
+        assertEquals(artifact(0), export.get(0));
+        assertEquals(10, export.size());
+        export.close();
+        assertThrows(IllegalStateException.class, () -> list.get(0));
+        assertThrows(IllegalStateException.class, list::retain);
+    }
+}